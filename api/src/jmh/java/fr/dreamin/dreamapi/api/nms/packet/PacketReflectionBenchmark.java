@@ -0,0 +1,102 @@
+package fr.dreamin.dreamapi.api.nms.packet;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways {@link PacketReflection} could build a packet and read one of its fields:
+ * core reflection as it used to, a {@link MethodHandle} held in a mutable static, and one held
+ * in a {@code static final} field as it does now. The NMS classes need a server, so a stand-in
+ * with the shape of the metadata packet is used, adapted to the same erased signatures.
+ * <p>
+ * Run with {@code ./gradlew :api:jmh}, which also reports allocations per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PacketReflectionBenchmark {
+
+  private static final MethodHandle FINAL_CONSTRUCTOR;
+  private static final MethodHandle FINAL_ID_GETTER;
+
+  private static MethodHandle mutableConstructor;
+  private static MethodHandle mutableIdGetter;
+
+  private static final Constructor<?> CONSTRUCTOR;
+  private static final Field ID_FIELD;
+
+  static {
+    try {
+      final var lookup = MethodHandles.lookup();
+      CONSTRUCTOR = StandInPacket.class.getDeclaredConstructor(int.class, List.class);
+      ID_FIELD = StandInPacket.class.getDeclaredField("id");
+      CONSTRUCTOR.setAccessible(true);
+      ID_FIELD.setAccessible(true);
+
+      FINAL_CONSTRUCTOR = lookup.unreflectConstructor(CONSTRUCTOR).asType(MethodType.methodType(Object.class, int.class, List.class));
+      FINAL_ID_GETTER = lookup.unreflectGetter(ID_FIELD).asType(MethodType.methodType(int.class, Object.class));
+      mutableConstructor = FINAL_CONSTRUCTOR;
+      mutableIdGetter = FINAL_ID_GETTER;
+    } catch (ReflectiveOperationException e) {
+      throw new ExceptionInInitializerError(e);
+    }
+  }
+
+  private final List<Object> items = List.of(new Object());
+  private int entityId = 42;
+
+  // ###############################################################
+  // ----------------------- BENCHMARKS ----------------------------
+  // ###############################################################
+
+  @Benchmark
+  public int reflection() throws ReflectiveOperationException {
+    final var packet = CONSTRUCTOR.newInstance(this.entityId, this.items);
+    return (int) ID_FIELD.get(packet);
+  }
+
+  @Benchmark
+  public int mutableStaticHandle() throws Throwable {
+    final var packet = (Object) mutableConstructor.invokeExact(this.entityId, (List<?>) this.items);
+    return (int) mutableIdGetter.invokeExact(packet);
+  }
+
+  @Benchmark
+  public int staticFinalHandle() throws Throwable {
+    final var packet = (Object) FINAL_CONSTRUCTOR.invokeExact(this.entityId, (List<?>) this.items);
+    return (int) FINAL_ID_GETTER.invokeExact(packet);
+  }
+
+  @Benchmark
+  public int direct() {
+    return new StandInPacket(this.entityId, this.items).id;
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /** Same constructor and field layout as {@code ClientboundSetEntityDataPacket}. */
+  private static final class StandInPacket {
+
+    private final int id;
+    private final List<?> packedItems;
+
+    private StandInPacket(final int id, final List<?> packedItems) {
+      this.id = id;
+      this.packedItems = packedItems;
+    }
+
+  }
+
+}
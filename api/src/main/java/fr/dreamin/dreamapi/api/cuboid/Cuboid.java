@@ -1,6 +1,9 @@
 package fr.dreamin.dreamapi.api.cuboid;
 
 import fr.dreamin.dreamapi.api.DreamAPI;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockMatcher;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockOperation;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockVolume;
 import fr.dreamin.dreamapi.api.cuboid.service.CuboidService;
 import lombok.Getter;
 import lombok.Setter;
@@ -15,6 +18,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Represents a cuboid area defined by two corner locations in a Minecraft world.
@@ -31,10 +35,36 @@ public class Cuboid {
     this.locA = locA;
     this.locB = locB;
 
-    final var cuboidService = DreamAPI.getAPI().getService(CuboidService.class);
+    final var cuboidService = getCuboidService();
     if (cuboidService.isAutoRegister()) cuboidService.register(this);
   }
 
+  // ###############################################################
+  // -------------------------- SETTERS ----------------------------
+  // ###############################################################
+
+  public void setLocA(final Location locA) {
+    this.locA = locA;
+    getCuboidService().update(this);
+  }
+
+  public void setLocB(final Location locB) {
+    this.locB = locB;
+    getCuboidService().update(this);
+  }
+
+  /**
+   * Sets both corners, then updates the cuboid service once.
+   *
+   * @param locA the first corner
+   * @param locB the second corner
+   */
+  public void setLocations(final Location locA, final Location locB) {
+    this.locA = locA;
+    this.locB = locB;
+    getCuboidService().update(this);
+  }
+
   // ###############################################################
   // ----------------------- PUBLIC METHODS ------------------------
   // ###############################################################
@@ -67,6 +97,7 @@ public class Cuboid {
 
   /**
    * Retrieves all blocks in the cuboid area.
+   * Materialises the whole volume, prefer {@link #forEachBlockBatched(Consumer)} for large cuboids.
    * @return List of Blocks in the cuboid
    *
    * @author Dreamin
@@ -169,9 +200,28 @@ public class Cuboid {
    * @since 1.0.0
    */
   public boolean isLocationIn(@NotNull Location location, Vector boundaryExtension) {
-    return location.getX() >= Math.min(locA.getX(), locB.getX()) && location.getX() <= Math.max(locA.getX(), locB.getX()) + boundaryExtension.getX()
-      && location.getY() >= Math.min(locA.getY(), locB.getY()) && location.getY() <= Math.max(locA.getY(), locB.getY()) + boundaryExtension.getY()
-      && location.getZ() >= Math.min(locA.getZ(), locB.getZ()) && location.getZ() <= Math.max(locA.getZ(), locB.getZ()) + boundaryExtension.getZ();
+    return isLocationIn(location.getX(), location.getY(), location.getZ(), boundaryExtension.getX(), boundaryExtension.getY(), boundaryExtension.getZ());
+  }
+
+  /**
+   * Checks if the given coordinates are within the cuboid area, considering boundary extension on the max sides.
+   * Does not allocate, intended for hot paths such as move listeners.
+   *
+   * @param x X coordinate
+   * @param y Y coordinate
+   * @param z Z coordinate
+   * @param extX extension on the max X boundary
+   * @param extY extension on the max Y boundary
+   * @param extZ extension on the max Z boundary
+   * @return True if the coordinates are within the cuboid with extended boundaries, false otherwise
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public boolean isLocationIn(final double x, final double y, final double z, final double extX, final double extY, final double extZ) {
+    return x >= Math.min(locA.getX(), locB.getX()) && x <= Math.max(locA.getX(), locB.getX()) + extX
+      && y >= Math.min(locA.getY(), locB.getY()) && y <= Math.max(locA.getY(), locB.getY()) + extY
+      && z >= Math.min(locA.getZ(), locB.getZ()) && z <= Math.max(locA.getZ(), locB.getZ()) + extZ;
   }
 
   /**
@@ -184,7 +234,7 @@ public class Cuboid {
    * @since 1.0.0
    */
   public boolean isLocationIn(@NotNull Location location) {
-    return isLocationIn(location, new Vector(1, 1, 1));
+    return isLocationIn(location.getX(), location.getY(), location.getZ(), 1, 1, 1);
   }
 
   /**
@@ -315,9 +365,12 @@ public class Cuboid {
    * @param tick Tick interval between each layer update
    * @param topToBottom If true, updates from top to bottom; if false, from bottom to top
    *
+   * @deprecated layer sweeps ignore the server load, use {@link #setMaterialBatched(Material)}
+   *
    * @author Dreamin
    * @since 1.0.0
    */
+  @Deprecated(since = "0.5.0")
   public void setMaterialEveryTick(final @NotNull Material material, final long tick, final boolean topToBottom) {
     final var minY = Math.min(locA.getBlockY(), locB.getBlockY());
     final var maxY = Math.max(locA.getBlockY(), locB.getBlockY());
@@ -351,7 +404,10 @@ public class Cuboid {
    * @param blockData BlockData to set the blocks to
    * @param tick Tick interval between each layer update
    * @param topToBottom If true, updates from top to bottom; if false, from bottom to top
+   *
+   * @deprecated layer sweeps ignore the server load, use {@link #setBlockDataBatched(BlockData)}
    */
+  @Deprecated(since = "0.5.0")
   public void setBlockDataEveryTick(final @NotNull BlockData blockData, final long tick, final boolean topToBottom) {
     final var minY = Math.min(locA.getBlockY(), locB.getBlockY());
     final var maxY = Math.max(locA.getBlockY(), locB.getBlockY());
@@ -387,9 +443,12 @@ public class Cuboid {
    * @param tick
    * @param topToBottom
    *
+   * @deprecated layer sweeps ignore the server load, use {@link #replaceMaterialBatched(Material, Material)}
+   *
    * @author Dreamin
    * @since 1.0.0
    */
+  @Deprecated(since = "0.5.0")
   public void replaceMaterialEveryTick(final @NotNull Material replaced, final @NotNull Material newMaterial, final long tick, final boolean topToBottom) {
     final int minY = Math.min(locA.getBlockY(), locB.getBlockY());
     final int maxY = Math.max(locA.getBlockY(), locB.getBlockY());
@@ -417,6 +476,10 @@ public class Cuboid {
     }.runTaskTimer(DreamAPI.getAPI().plugin(), 0L, tick);
   }
 
+  /**
+   * @deprecated layer sweeps ignore the server load, use {@link #replaceBlockDataBatched(BlockData, BlockData)}
+   */
+  @Deprecated(since = "0.5.0")
   public void replaceBlockDataEveryTick(final @NotNull BlockData replaced, final @NotNull BlockData newBlockData, final long tick, final boolean topToBottom) {
     final var minY = Math.min(locA.getBlockY(), locB.getBlockY());
     final var maxY = Math.max(locA.getBlockY(), locB.getBlockY());
@@ -494,6 +557,114 @@ public class Cuboid {
     return count;
   }
 
+  // ###############################################################
+  // ---------------------- BATCHED OPERATIONS ---------------------
+  // ###############################################################
+
+  /**
+   * Sets all blocks in the cuboid area to the specified material, spread over several ticks
+   * within the budget of the {@link fr.dreamin.dreamapi.api.cuboid.operation.BlockOperationEngine}.
+   *
+   * @param material Material to set the blocks to
+   * @return the running operation, completing with the number of blocks set
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation setMaterialBatched(final @NotNull Material material) {
+    return setBlockDataBatched(material.createBlockData());
+  }
+
+  /**
+   * Sets all blocks in the cuboid area to the specified BlockData, spread over several ticks.
+   *
+   * @param blockData BlockData to set the blocks to
+   * @return the running operation, completing with the number of blocks set
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation setBlockDataBatched(final @NotNull BlockData blockData) {
+    final var volume = BlockVolume.of(locA, locB);
+    return volume == null ? BlockOperation.completed(0) : getCuboidService().getBlockOperationEngine().fill(volume, blockData);
+  }
+
+  /**
+   * Replaces all blocks of a specific material, matching off-thread on chunk snapshots and
+   * writing only the matched blocks on the main thread.
+   *
+   * @param replaced Material to be replaced
+   * @param newMaterial Material to replace with
+   * @return the running operation, completing with the number of blocks replaced
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation replaceMaterialBatched(final @NotNull Material replaced, final @NotNull Material newMaterial) {
+    final var volume = BlockVolume.of(locA, locB);
+    return volume == null ? BlockOperation.completed(0) :
+      getCuboidService().getBlockOperationEngine().replace(volume, BlockMatcher.material(replaced), newMaterial.createBlockData());
+  }
+
+  /**
+   * Replaces all blocks matching a BlockData, matching off-thread on chunk snapshots.
+   *
+   * @param replaced BlockData to be replaced
+   * @param newBlockData BlockData to replace with
+   * @return the running operation, completing with the number of blocks replaced
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation replaceBlockDataBatched(final @NotNull BlockData replaced, final @NotNull BlockData newBlockData) {
+    final var volume = BlockVolume.of(locA, locB);
+    return volume == null ? BlockOperation.completed(0) :
+      getCuboidService().getBlockOperationEngine().replace(volume, BlockMatcher.blockData(replaced), newBlockData);
+  }
+
+  /**
+   * Counts the blocks of a material off-thread on chunk snapshots.
+   *
+   * @param material Material to count
+   * @return the running operation, completing with the number of matching blocks
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation countBlocksOfMaterialBatched(final @NotNull Material material) {
+    final var volume = BlockVolume.of(locA, locB);
+    return volume == null ? BlockOperation.completed(0) : getCuboidService().getBlockOperationEngine().count(volume, BlockMatcher.material(material));
+  }
+
+  /**
+   * Counts the blocks matching a BlockData off-thread on chunk snapshots.
+   *
+   * @param blockData BlockData to count
+   * @return the running operation, completing with the number of matching blocks
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation countBlocksOfBlockDataBatched(final @NotNull BlockData blockData) {
+    final var volume = BlockVolume.of(locA, locB);
+    return volume == null ? BlockOperation.completed(0) : getCuboidService().getBlockOperationEngine().count(volume, BlockMatcher.blockData(blockData));
+  }
+
+  /**
+   * Visits every block of the cuboid on the main thread without materialising a list,
+   * spread over several ticks.
+   *
+   * @param action action applied to each block
+   * @return the running operation, completing with the number of visited blocks
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  public @NotNull BlockOperation forEachBlockBatched(final @NotNull Consumer<Block> action) {
+    final var volume = BlockVolume.of(locA, locB);
+    return volume == null ? BlockOperation.completed(0) : getCuboidService().getBlockOperationEngine().forEach(volume, action);
+  }
+
   public void show(final @NotNull Player player, final double radius, final boolean showBordersOnly, final @NotNull Vector boundaryExtension) {
     if (locA == null || locB == null || !locA.getWorld().equals(locB.getWorld()) || !player.getWorld().equals(locA.getWorld())) return;
 
@@ -526,4 +697,12 @@ public class Cuboid {
     }
   }
 
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private static @NotNull CuboidService getCuboidService() {
+    return DreamAPI.getAPI().getService(CuboidService.class);
+  }
+
 }
@@ -0,0 +1,99 @@
+package fr.dreamin.dreamapi.api.cuboid;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Mannequin;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Subscription filter of a cuboid: which entities produce enter/leave events for it.
+ * Non-matching entities are rejected before any geometry work. The default filter accepts every entity.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public final class CuboidFilter {
+
+  @Builder.Default
+  private boolean players = true;
+
+  @Builder.Default
+  private boolean mannequins = true;
+
+  /**
+   * Whether other entities are tracked at all.
+   */
+  @Builder.Default
+  private boolean entities = true;
+
+  /**
+   * Restricts other entities to these types; empty means every type.
+   */
+  @Builder.Default
+  private @NotNull Set<EntityType> entityTypes = Set.of();
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public boolean accepts(final @NotNull Entity entity) {
+    if (entity instanceof Player) return this.players;
+    if (entity instanceof Mannequin) return this.mannequins;
+    return acceptsEntityType(entity.getType());
+  }
+
+  /**
+   * Checks the non-player, non-mannequin part of the filter.
+   *
+   * @param type the entity type
+   * @return true if entities of this type are tracked
+   */
+  public boolean acceptsEntityType(final @NotNull EntityType type) {
+    return this.entities && (this.entityTypes.isEmpty() || this.entityTypes.contains(type));
+  }
+
+  // ###############################################################
+  // ----------------------- STATIC METHODS ------------------------
+  // ###############################################################
+
+  public static CuboidFilter all() {
+    return new CuboidFilter();
+  }
+
+  public static CuboidFilter playersOnly() {
+    return CuboidFilter.builder()
+      .mannequins(false)
+      .entities(false)
+      .build();
+  }
+
+  public static CuboidFilter playersAndMannequins() {
+    return CuboidFilter.builder()
+      .entities(false)
+      .build();
+  }
+
+  public static CuboidFilter playersAnd(final @NotNull EntityType... types) {
+    final var set = EnumSet.noneOf(EntityType.class);
+    set.addAll(Arrays.asList(types));
+
+    return CuboidFilter.builder()
+      .mannequins(false)
+      .entityTypes(set)
+      .build();
+  }
+
+}
@@ -1,23 +1,51 @@
 package fr.dreamin.dreamapi.api.cuboid;
 
 import fr.dreamin.dreamapi.api.DreamAPI;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockMatcher;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockOperation;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockVolume;
+import fr.dreamin.dreamapi.api.cuboid.service.CuboidService;
+import fr.dreamin.dreamapi.api.cuboid.snapshot.BlockSnapshot;
+import fr.dreamin.dreamapi.api.cuboid.snapshot.PaletteSection;
+import fr.dreamin.dreamapi.api.cuboid.snapshot.RestoreOperation;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.Setter;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.World;
-import org.bukkit.block.Block;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @Getter @Setter
 public final class MemoryCuboid extends Cuboid {
 
-  private List<SavedBlockData> savedBlocks = new ArrayList<>();
+  @Setter(AccessLevel.NONE)
+  private @Nullable BlockSnapshot blockSnapshot;
+  @Setter(AccessLevel.NONE)
+  private @Nullable Path spillFile;
+  /** Capture started by the last {@link #saveBlocks()}, until its snapshot is in place. */
+  @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+  private @Nullable CompletableFuture<BlockSnapshot> capture;
+  /** Bumped by every save, so a spill finishing after a newer save leaves it alone. */
+  @Getter(AccessLevel.NONE) @Setter(AccessLevel.NONE)
+  private int generation;
   private List<SavedEntityData> savedEntities = new ArrayList<>();
 
   public MemoryCuboid(Location locA, Location locB) {
@@ -25,24 +53,141 @@ public final class MemoryCuboid extends Cuboid {
     saveAll();
   }
 
-  // Méthode pour sauvegarder uniquement les blocs
+  /**
+   * Saves the blocks. Chunk snapshots are taken now, the palettes are packed off the main
+   * thread; {@link #getBlockSnapshot()} stays null until then, while restores wait for it.
+   */
   public void saveBlocks() {
-    savedBlocks.clear();
-    for (int x = Math.min(getLocA().getBlockX(), getLocB().getBlockX()); x <= Math.max(getLocA().getBlockX(), getLocB().getBlockX()); x++) {
-      for (int y = Math.min(getLocA().getBlockY(), getLocB().getBlockY()); y <= Math.max(getLocA().getBlockY(), getLocB().getBlockY()); y++) {
-        for (int z = Math.min(getLocA().getBlockZ(), getLocB().getBlockZ()); z <= Math.max(getLocA().getBlockZ(), getLocB().getBlockZ()); z++) {
-          Block block = getLocA().getWorld().getBlockAt(x, y, z);
-          savedBlocks.add(new SavedBlockData(block.getLocation(), block.getState().getBlockData()));
-        }
-      }
+    discardSpill();
+    this.generation++;
+    this.blockSnapshot = null;
+
+    final var volume = BlockVolume.of(getLocA(), getLocB());
+    if (volume == null) {
+      this.capture = null;
+      return;
     }
+
+    final var capture = BlockSnapshot.captureAsync(volume, async());
+    this.capture = capture;
+    capture.thenAcceptAsync(snapshot -> {
+      // A newer save, a spill or a blocking read may have taken over
+      if (this.capture != capture) return;
+      this.capture = null;
+      this.blockSnapshot = snapshot;
+    }, main());
   }
 
-  // Méthode pour restaurer uniquement les blocs
+  /**
+   * Restores the saved blocks at once.
+   *
+   * @deprecated blocks the main thread for large cuboids, use {@link #submitRestoreBlocks()}
+   */
+  @Deprecated(since = "0.5.0")
   public void restoreBlocks() {
-    savedBlocks.forEach(data -> {
-      data.getLocation().getWorld().getBlockAt(data.getLocation()).setBlockData(data.getBlockData(), false);
-    });
+    final var snapshot = awaitBlockSnapshot();
+    if (snapshot == null) return;
+
+    final var world = snapshot.getVolume().world();
+    for (final var section : snapshot.getSections()) {
+      for (var dy = 0; dy < section.getSizeY(); dy++)
+        restoreLayer(world, section, dy);
+    }
+  }
+
+  /**
+   * Restores the saved blocks section by section through the tick-budgeted
+   * {@link fr.dreamin.dreamapi.api.cuboid.operation.BlockOperationEngine}.
+   * If the snapshot is still being captured or was spilled to disk, it is awaited first.
+   *
+   * @return the running operation, completing with the number of restored blocks
+   */
+  public @NotNull BlockOperation submitRestoreBlocks() {
+    final var snapshot = loadBlockSnapshot();
+    if (snapshot == null) return BlockOperation.completed(0);
+
+    return DreamAPI.getAPI().getService(CuboidService.class).getBlockOperationEngine().submit(new RestoreOperation(snapshot));
+  }
+
+  /**
+   * Restores only the blocks that changed since the last save. Each chunk column is compared
+   * off-thread between a fresh {@link org.bukkit.ChunkSnapshot} and the saved snapshot, and only
+   * the differing blocks are written back on the main thread. This catches every change
+   * (players, explosions, physics, plugins) without listening to block events.
+   * If the snapshot is still being captured or was spilled to disk, falls back to a full
+   * {@link #submitRestoreBlocks()}.
+   *
+   * @return the running operation, completing with the number of blocks rewritten
+   */
+  public @NotNull BlockOperation restoreChangedBlocks() {
+    final var snapshot = this.blockSnapshot;
+    if (snapshot == null) return submitRestoreBlocks();
+
+    final BlockMatcher changed = (chunk, x, y, z) -> {
+      final var saved = snapshot.getBlockData((chunk.getX() << 4) + x, y, (chunk.getZ() << 4) + z);
+      return saved != null && !saved.equals(chunk.getBlockData(x, y, z));
+    };
+
+    return DreamAPI.getAPI().getService(CuboidService.class).getBlockOperationEngine()
+      .replace(snapshot.getVolume(), changed, snapshot::getBlockData);
+  }
+
+  /**
+   * Writes the block snapshot to a gzip-compressed file off the main thread, then drops the
+   * in-memory copy. The next {@link #submitRestoreBlocks()} reads it back asynchronously.
+   * A snapshot still being captured is spilled once ready.
+   *
+   * @param file the spill file
+   * @return a future completing once the snapshot is on disk and released from the heap
+   */
+  public @NotNull CompletableFuture<Void> spillBlocks(final @NotNull Path file) {
+    final var generation = this.generation;
+    final var capture = this.capture;
+    final var snapshot = capture != null ? capture : this.blockSnapshot == null ? null : CompletableFuture.completedFuture(this.blockSnapshot);
+    if (snapshot == null) return CompletableFuture.completedFuture(null);
+
+    return snapshot.thenAcceptAsync(captured -> {
+      try {
+        captured.write(file);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, async()).thenRunAsync(() -> {
+      // A newer save may have replaced the snapshot in the meantime
+      if (this.generation != generation) return;
+      this.capture = null;
+      this.blockSnapshot = null;
+      this.spillFile = file;
+    }, main());
+  }
+
+  public boolean isSpilled() {
+    return this.blockSnapshot == null && this.capture == null && this.spillFile != null;
+  }
+
+  /**
+   * Lists every saved block with its location.
+   *
+   * @deprecated allocates one entry per block, read {@link #getBlockSnapshot()} instead
+   */
+  @Deprecated(since = "0.5.0")
+  public @NotNull List<SavedBlockData> getSavedBlocks() {
+    final var snapshot = awaitBlockSnapshot();
+    if (snapshot == null) return new ArrayList<>();
+
+    final var world = snapshot.getVolume().world();
+    final var blocks = new ArrayList<SavedBlockData>();
+    for (final var section : snapshot.getSections()) {
+      for (var dy = 0; dy < section.getSizeY(); dy++) {
+        for (var dz = 0; dz < section.getSizeZ(); dz++) {
+          for (var dx = 0; dx < section.getSizeX(); dx++) {
+            final var location = new Location(world, section.getOriginX() + dx, section.getOriginY() + dy, section.getOriginZ() + dz);
+            blocks.add(new SavedBlockData(location, section.get(section.index(dx, dy, dz))));
+          }
+        }
+      }
+    }
+    return blocks;
   }
 
   // Méthode pour sauvegarder uniquement les entités
@@ -66,25 +211,90 @@ public final class MemoryCuboid extends Cuboid {
     });
   }
 
+  /**
+   * Restores the saved entities without respawning those still present. Each saved entity is
+   * matched with the nearest remaining entity of the same type inside the cuboid; unmatched
+   * saved entities are spawned, unmatched extra entities are removed. Players are ignored.
+   */
+  public void restoreMissingEntities() {
+    final var world = getLocA().getWorld();
+
+    final Map<EntityType, List<Entity>> present = new EnumMap<>(EntityType.class);
+    for (final var entity : world.getEntities()) {
+      if (entity instanceof Player || !isLocationIn(entity.getLocation())) continue;
+      present.computeIfAbsent(entity.getType(), type -> new ArrayList<>()).add(entity);
+    }
+
+    for (final var data : this.savedEntities) {
+      if (data.getEntityType() == EntityType.PLAYER) continue;
+
+      final var candidates = present.get(data.getEntityType());
+      final var match = candidates == null ? -1 : nearest(candidates, data.getLocation());
+      if (match < 0) world.spawnEntity(data.getLocation(), data.getEntityType());
+      else candidates.remove(match);
+    }
+
+    present.values().forEach(extra -> extra.forEach(Entity::remove));
+  }
+
+  /**
+   * Differential variant of {@link #restoreAll()}: rewrites only changed blocks, then
+   * respawns only missing entities.
+   *
+   * @return the block restore operation
+   */
+  public @NotNull BlockOperation restoreChanges() {
+    final var operation = restoreChangedBlocks();
+    operation.getFuture().thenRun(this::restoreMissingEntities);
+    return operation;
+  }
+
   public void saveAll() {
     saveBlocks();
     saveEntities();
   }
 
+  /**
+   * Restores the blocks and the entities at once.
+   *
+   * @deprecated blocks the main thread for large cuboids, use {@link #submitRestoreAll()}
+   */
+  @Deprecated(since = "0.5.0")
   public void restoreAll() {
     restoreBlocks();
     restoreEntities();
   }
 
+  /**
+   * Restores the blocks, then the entities once every block is back in place.
+   *
+   * @return the block restore operation
+   */
+  public @NotNull BlockOperation submitRestoreAll() {
+    final var operation = submitRestoreBlocks();
+    operation.getFuture().thenRun(this::restoreEntities);
+    return operation;
+  }
+
   public void removeAllEntities() {
     getLocA().getWorld().getEntities().stream()
       .filter(entity -> isLocationIn(entity.getLocation())) // Filter entities inside the cuboid
       .forEach(Entity::remove);
   }
 
+  /**
+   * Restores the saved blocks layer by layer, one layer every {@code tick} ticks.
+   *
+   * @deprecated layer sweeps ignore the server load, use {@link #submitRestoreBlocks()}
+   */
+  @Deprecated(since = "0.5.0")
   public void removeBlocksEverySecond(long tick, boolean topToBottom) {
-    final int minY = Math.min(getLocA().getBlockY(), getLocB().getBlockY());
-    final int maxY = Math.max(getLocA().getBlockY(), getLocB().getBlockY());
+    final var snapshot = awaitBlockSnapshot();
+    if (snapshot == null) return;
+
+    final int minY = snapshot.getVolume().minY();
+    final int maxY = snapshot.getVolume().maxY();
+    final var world = snapshot.getVolume().world();
 
     new BukkitRunnable() {
       private int currentY = topToBottom ? maxY : minY;
@@ -96,9 +306,9 @@ public final class MemoryCuboid extends Cuboid {
           return;
         }
 
-        for (SavedBlockData savedBlock : savedBlocks) {
-          if (savedBlock.getLocation().getBlockY() == currentY)
-            getLocA().getWorld().getBlockAt(savedBlock.getLocation()).setBlockData(savedBlock.getBlockData(), false);
+        for (final var section : snapshot.getSections()) {
+          final var dy = currentY - section.getOriginY();
+          if (dy >= 0 && dy < section.getSizeY()) restoreLayer(world, section, dy);
         }
 
         if (topToBottom) currentY--;
@@ -107,6 +317,85 @@ public final class MemoryCuboid extends Cuboid {
     }.runTaskTimer(DreamAPI.getAPI().plugin(), 0L, tick); // 20 ticks = 1 seconde
   }
 
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @Nullable CompletableFuture<BlockSnapshot> loadBlockSnapshot() {
+    if (this.blockSnapshot != null) return CompletableFuture.completedFuture(this.blockSnapshot);
+    if (this.capture != null) return this.capture;
+
+    final var file = this.spillFile;
+    final var world = getLocA() == null ? null : getLocA().getWorld();
+    if (file == null || world == null) return null;
+
+    return CompletableFuture.supplyAsync(() -> {
+      try {
+        return BlockSnapshot.read(file, world);
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }, async());
+  }
+
+  /** Blocking variant of {@link #loadBlockSnapshot()}, for the deprecated synchronous methods. */
+  private @Nullable BlockSnapshot awaitBlockSnapshot() {
+    final var capture = this.capture;
+    if (capture != null) {
+      this.capture = null;
+      this.blockSnapshot = capture.join();
+    }
+
+    final var snapshot = loadBlockSnapshot();
+    return snapshot == null ? null : snapshot.join();
+  }
+
+  private static void restoreLayer(final @NotNull World world, final @NotNull PaletteSection section, final int dy) {
+    final var y = section.getOriginY() + dy;
+    for (var dz = 0; dz < section.getSizeZ(); dz++) {
+      for (var dx = 0; dx < section.getSizeX(); dx++) {
+        world.getBlockAt(section.getOriginX() + dx, y, section.getOriginZ() + dz)
+          .setBlockData(section.get(section.index(dx, dy, dz)), false);
+      }
+    }
+  }
+
+  private static @NotNull Executor async() {
+    final var plugin = DreamAPI.getAPI().plugin();
+    return runnable -> Bukkit.getScheduler().runTaskAsynchronously(plugin, runnable);
+  }
+
+  private static @NotNull Executor main() {
+    final var plugin = DreamAPI.getAPI().plugin();
+    return runnable -> Bukkit.getScheduler().runTask(plugin, runnable);
+  }
+
+  private static int nearest(final @NotNull List<Entity> entities, final @NotNull Location location) {
+    var best = -1;
+    var bestDistance = Double.MAX_VALUE;
+
+    for (var i = 0; i < entities.size(); i++) {
+      final var distance = entities.get(i).getLocation().distanceSquared(location);
+      if (distance >= bestDistance) continue;
+
+      best = i;
+      bestDistance = distance;
+    }
+    return best;
+  }
+
+  private void discardSpill() {
+    final var file = this.spillFile;
+    this.spillFile = null;
+    if (file == null) return;
+
+    try {
+      Files.deleteIfExists(file);
+    } catch (IOException e) {
+      DreamAPI.getAPI().getLogger().warning("Failed to delete cuboid spill file " + file + ": " + e.getMessage());
+    }
+  }
+
   @Getter @Setter
   private static class SavedBlockData {
     private final Location location;
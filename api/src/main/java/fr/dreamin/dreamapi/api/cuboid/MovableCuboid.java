@@ -84,7 +84,6 @@ public final class MovableCuboid extends Cuboid {
     }
 
     // Shift locA and locB by the offset
-    setLocA(getLocA().clone().add(offset));
-    setLocB(getLocB().clone().add(offset));
+    setLocations(getLocA().clone().add(offset), getLocB().clone().add(offset));
   }
 }
@@ -0,0 +1,34 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Block predicate evaluated against a {@link ChunkSnapshot}, so it can run off the main thread.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface BlockMatcher {
+
+  /**
+   * @param snapshot the chunk snapshot
+   * @param x local X coordinate (0-15)
+   * @param y world Y coordinate
+   * @param z local Z coordinate (0-15)
+   * @return true if the block matches
+   */
+  boolean matches(final @NotNull ChunkSnapshot snapshot, final int x, final int y, final int z);
+
+  static @NotNull BlockMatcher material(final @NotNull Material material) {
+    return (snapshot, x, y, z) -> snapshot.getBlockType(x, y, z) == material;
+  }
+
+  static @NotNull BlockMatcher blockData(final @NotNull BlockData blockData) {
+    return (snapshot, x, y, z) -> snapshot.getBlockData(x, y, z).matches(blockData);
+  }
+
+}
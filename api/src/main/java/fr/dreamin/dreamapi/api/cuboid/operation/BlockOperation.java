@@ -0,0 +1,113 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A unit of block work executed by the {@link BlockOperationEngine} in small steps on the
+ * main thread, within the per-tick time budget of the engine.
+ * <p>
+ * The future completes with the number of blocks affected (changed, visited or counted).
+ * Cancelling the future stops the operation at the next step.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public abstract class BlockOperation {
+
+  private final @NotNull CompletableFuture<Integer> future = new CompletableFuture<>();
+  private volatile long totalUnits;
+  private volatile long doneUnits;
+
+  /**
+   * Blocks affected so far, reported when the operation completes.
+   */
+  protected int affected;
+
+  protected BlockOperation(final long totalUnits) {
+    this.totalUnits = Math.max(1, totalUnits);
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public @NotNull CompletableFuture<Integer> getFuture() {
+    return this.future;
+  }
+
+  /**
+   * @return the completion ratio in {@code [0, 1]}
+   */
+  public double getProgress() {
+    return this.future.isDone() ? 1.0 : Math.min(1.0, (double) this.doneUnits / this.totalUnits);
+  }
+
+  public boolean isDone() {
+    return this.future.isDone();
+  }
+
+  public void cancel() {
+    this.future.cancel(false);
+  }
+
+  // ###############################################################
+  // ---------------------- PROTECTED METHODS ----------------------
+  // ###############################################################
+
+  /**
+   * Performs work until done or until {@link System#nanoTime()} reaches the deadline.
+   * Always called on the main thread.
+   *
+   * @param deadlineNanos the {@link System#nanoTime()} value at which to yield
+   * @return true once the operation is finished
+   */
+  protected abstract boolean step(final long deadlineNanos);
+
+  protected void advance(final long units) {
+    this.doneUnits += units;
+  }
+
+  /**
+   * Sets the amount of work once it is known, e.g. after loading data asynchronously.
+   *
+   * @param totalUnits the total number of units reported through {@link #advance(long)}
+   */
+  protected void setTotalUnits(final long totalUnits) {
+    this.totalUnits = Math.max(1, totalUnits);
+  }
+
+  // ###############################################################
+  // ---------------------- PACKAGE METHODS ------------------------
+  // ###############################################################
+
+  void complete() {
+    this.future.complete(this.affected);
+  }
+
+  void fail(final @NotNull Throwable throwable) {
+    this.future.completeExceptionally(throwable);
+  }
+
+  // ###############################################################
+  // ----------------------- STATIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * @param affected the result of the operation
+   * @return an already completed operation, e.g. for an invalid cuboid
+   */
+  public static @NotNull BlockOperation completed(final int affected) {
+    final var operation = new BlockOperation(1) {
+      @Override
+      protected boolean step(final long deadlineNanos) {
+        return true;
+      }
+    };
+    operation.affected = affected;
+    operation.complete();
+    return operation;
+  }
+
+}
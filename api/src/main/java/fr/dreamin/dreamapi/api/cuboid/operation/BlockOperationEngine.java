@@ -0,0 +1,168 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.block.Block;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link BlockOperation}s chunk column by chunk column under a per-tick time budget,
+ * so large fills and resets are spread over several ticks instead of freezing the server.
+ * <p>
+ * Operations are processed in submission order; an operation waiting on off-thread work
+ * yields to the next one. The tick task only runs while operations are pending.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class BlockOperationEngine {
+
+  public static final double DEFAULT_BUDGET_MILLIS = 10.0;
+
+  private final @NotNull Plugin plugin;
+  private final @NotNull Executor asyncExecutor;
+  private final @NotNull List<BlockOperation> operations = new ArrayList<>();
+
+  @Getter
+  private double budgetMillis = DEFAULT_BUDGET_MILLIS;
+  private BukkitTask task;
+
+  public BlockOperationEngine(final @NotNull Plugin plugin) {
+    this.plugin = plugin;
+    this.asyncExecutor = runnable -> Bukkit.getScheduler().runTaskAsynchronously(this.plugin, runnable);
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Sets the main-thread time spent on block operations each tick.
+   *
+   * @param budgetMillis the budget in milliseconds, must be positive
+   */
+  public void setBudgetMillis(final double budgetMillis) {
+    if (budgetMillis <= 0) throw new IllegalArgumentException("Budget must be positive");
+    this.budgetMillis = budgetMillis;
+  }
+
+  /**
+   * Queues an operation. Must be called on the main thread.
+   *
+   * @param operation the operation
+   * @return the same operation
+   */
+  public @NotNull <T extends BlockOperation> T submit(final @NotNull T operation) {
+    if (operation.isDone()) return operation;
+
+    this.operations.add(operation);
+    if (this.task == null) this.task = Bukkit.getScheduler().runTaskTimer(this.plugin, this::tick, 1L, 1L);
+    return operation;
+  }
+
+  /**
+   * Visits every block of the volume on the main thread, layer by layer in each chunk column.
+   *
+   * @param volume the volume
+   * @param action the action applied to each block
+   * @return the submitted operation, completing with the number of visited blocks
+   */
+  public @NotNull BlockOperation forEach(final @NotNull BlockVolume volume, final @NotNull Consumer<Block> action) {
+    return submit(new VisitOperation(volume, action));
+  }
+
+  public @NotNull BlockOperation fill(final @NotNull BlockVolume volume, final @NotNull BlockData blockData) {
+    return forEach(volume, block -> block.setBlockData(blockData, false));
+  }
+
+  /**
+   * Replaces the blocks matching a predicate. Matching runs off-thread on chunk snapshots,
+   * only the matched blocks are written on the main thread.
+   *
+   * @param volume the volume
+   * @param matcher the blocks to replace
+   * @param replacement the new block data
+   * @return the submitted operation, completing with the number of replaced blocks
+   */
+  public @NotNull BlockOperation replace(final @NotNull BlockVolume volume, final @NotNull BlockMatcher matcher, final @NotNull BlockData replacement) {
+    return replace(volume, matcher, (x, y, z) -> replacement);
+  }
+
+  /**
+   * Replaces the blocks matching a predicate with per-position block data, e.g. to write back
+   * only the blocks that differ from a saved snapshot. Both the matcher and the source must be
+   * safe to call off the main thread.
+   *
+   * @param volume the volume
+   * @param matcher the blocks to replace
+   * @param source the new block data of each matched position (world coordinates)
+   * @return the submitted operation, completing with the number of replaced blocks
+   */
+  public @NotNull BlockOperation replace(final @NotNull BlockVolume volume, final @NotNull BlockMatcher matcher, final @NotNull BlockSource source) {
+    return submit(new MatchOperation(volume, matcher, source, this.asyncExecutor));
+  }
+
+  /**
+   * Counts the blocks matching a predicate, off-thread on chunk snapshots.
+   *
+   * @param volume the volume
+   * @param matcher the blocks to count
+   * @return the submitted operation, completing with the number of matching blocks
+   */
+  public @NotNull BlockOperation count(final @NotNull BlockVolume volume, final @NotNull BlockMatcher matcher) {
+    return submit(new MatchOperation(volume, matcher, null, this.asyncExecutor));
+  }
+
+  public int getPendingCount() {
+    return this.operations.size();
+  }
+
+  /**
+   * Cancels every pending operation and stops the tick task.
+   */
+  public void stop() {
+    final var pending = List.copyOf(this.operations);
+    this.operations.clear();
+    pending.forEach(BlockOperation::cancel);
+
+    if (this.task == null) return;
+    this.task.cancel();
+    this.task = null;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void tick() {
+    final var deadline = System.nanoTime() + (long) (this.budgetMillis * 1_000_000L);
+
+    final var iterator = this.operations.iterator();
+    while (iterator.hasNext() && System.nanoTime() < deadline) {
+      final var operation = iterator.next();
+
+      try {
+        if (operation.isDone() || operation.step(deadline)) {
+          operation.complete();
+          iterator.remove();
+        }
+      } catch (Throwable t) {
+        operation.fail(t);
+        iterator.remove();
+      }
+    }
+
+    if (!this.operations.isEmpty() || this.task == null) return;
+    this.task.cancel();
+    this.task = null;
+  }
+
+}
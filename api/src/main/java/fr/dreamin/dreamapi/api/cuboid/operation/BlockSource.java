@@ -0,0 +1,17 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Supplies the block data to write at a world position, e.g. a constant or a saved snapshot.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface BlockSource {
+
+  @NotNull BlockData at(final int x, final int y, final int z);
+
+}
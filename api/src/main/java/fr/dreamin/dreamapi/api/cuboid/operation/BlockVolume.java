@@ -0,0 +1,105 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Immutable block-aligned box in a world, captured when an operation is submitted so later
+ * changes to the source cuboid do not affect a running operation.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public record BlockVolume(@NotNull World world, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+
+  /**
+   * Builds the volume spanned by two corners.
+   *
+   * @param locA first corner
+   * @param locB second corner
+   * @return the volume, or null if a corner is missing or both are not in the same world
+   */
+  public static @Nullable BlockVolume of(final @Nullable Location locA, final @Nullable Location locB) {
+    if (locA == null || locB == null || locA.getWorld() == null || !locA.getWorld().equals(locB.getWorld())) return null;
+
+    return new BlockVolume(
+      locA.getWorld(),
+      Math.min(locA.getBlockX(), locB.getBlockX()),
+      Math.min(locA.getBlockY(), locB.getBlockY()),
+      Math.min(locA.getBlockZ(), locB.getBlockZ()),
+      Math.max(locA.getBlockX(), locB.getBlockX()),
+      Math.max(locA.getBlockY(), locB.getBlockY()),
+      Math.max(locA.getBlockZ(), locB.getBlockZ())
+    );
+  }
+
+  public int minChunkX() {
+    return this.minX >> 4;
+  }
+
+  public int minChunkZ() {
+    return this.minZ >> 4;
+  }
+
+  public int columnsX() {
+    return (this.maxX >> 4) - (this.minX >> 4) + 1;
+  }
+
+  public int columnsZ() {
+    return (this.maxZ >> 4) - (this.minZ >> 4) + 1;
+  }
+
+  /**
+   * @return the number of chunk columns the volume overlaps
+   */
+  public int columnCount() {
+    return columnsX() * columnsZ();
+  }
+
+  public int height() {
+    return this.maxY - this.minY + 1;
+  }
+
+  public long blockCount() {
+    return (long) (this.maxX - this.minX + 1) * height() * (this.maxZ - this.minZ + 1);
+  }
+
+  /**
+   * @param column column index in {@code [0, columnCount())}
+   * @return the chunk X coordinate of that column
+   */
+  public int columnChunkX(final int column) {
+    return minChunkX() + column / columnsZ();
+  }
+
+  /**
+   * @param column column index in {@code [0, columnCount())}
+   * @return the chunk Z coordinate of that column
+   */
+  public int columnChunkZ(final int column) {
+    return minChunkZ() + column % columnsZ();
+  }
+
+  /**
+   * @param chunkX a chunk X coordinate
+   * @return the first block X of the volume inside that chunk
+   */
+  public int clipMinX(final int chunkX) {
+    return Math.max(this.minX, chunkX << 4);
+  }
+
+  public int clipMaxX(final int chunkX) {
+    return Math.min(this.maxX, (chunkX << 4) + 15);
+  }
+
+  public int clipMinZ(final int chunkZ) {
+    return Math.max(this.minZ, chunkZ << 4);
+  }
+
+  public int clipMaxZ(final int chunkZ) {
+    return Math.min(this.maxZ, (chunkZ << 4) + 15);
+  }
+
+}
@@ -0,0 +1,172 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import fr.dreamin.dreamapi.api.util.collection.IntList;
+import org.bukkit.ChunkSnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Snapshot-based replace or count. Each chunk column is captured as a {@link ChunkSnapshot}
+ * on the main thread, matched off-thread, and (for replaces) only the matching positions are
+ * written back on the main thread, with the block data supplied per position.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class MatchOperation extends BlockOperation {
+
+  /**
+   * Snapshots taken but not yet written back, bounds the memory held by a large operation.
+   */
+  private static final int MAX_IN_FLIGHT = 16;
+
+  private final @NotNull BlockVolume volume;
+  private final @NotNull BlockMatcher matcher;
+  private final @Nullable BlockSource replacement;
+  private final @NotNull Executor executor;
+
+  private final @NotNull Queue<ColumnMatches> ready = new ConcurrentLinkedQueue<>();
+  private final @NotNull AtomicInteger inFlight = new AtomicInteger();
+  private final @NotNull AtomicReference<Throwable> failure = new AtomicReference<>();
+
+  private int nextColumn;
+  private @Nullable ColumnMatches current;
+
+  MatchOperation(
+    final @NotNull BlockVolume volume,
+    final @NotNull BlockMatcher matcher,
+    final @Nullable BlockSource replacement,
+    final @NotNull Executor executor
+  ) {
+    super(volume.columnCount());
+    this.volume = volume;
+    this.matcher = matcher;
+    this.replacement = replacement;
+    this.executor = executor;
+  }
+
+  // ###############################################################
+  // ---------------------- PROTECTED METHODS ----------------------
+  // ###############################################################
+
+  @Override
+  protected boolean step(final long deadlineNanos) {
+    final var error = this.failure.get();
+    if (error != null) throw new IllegalStateException("Block matching failed", error);
+
+    if (!drainReady(deadlineNanos)) return false;
+
+    final var world = this.volume.world();
+    while (this.nextColumn < this.volume.columnCount() && this.inFlight.get() + this.ready.size() < MAX_IN_FLIGHT) {
+      final var chunkX = this.volume.columnChunkX(this.nextColumn);
+      final var chunkZ = this.volume.columnChunkZ(this.nextColumn);
+      final var snapshot = world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false);
+
+      this.inFlight.incrementAndGet();
+      this.executor.execute(() -> match(snapshot, chunkX, chunkZ));
+      this.nextColumn++;
+
+      if (System.nanoTime() >= deadlineNanos) return false;
+    }
+
+    return this.nextColumn == this.volume.columnCount() && this.inFlight.get() == 0 && this.ready.isEmpty() && this.current == null;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /**
+   * @return false if the deadline was reached before every ready column was applied
+   */
+  private boolean drainReady(final long deadlineNanos) {
+    final var world = this.volume.world();
+
+    while (this.current != null || (this.current = this.ready.poll()) != null) {
+      final var matches = this.current;
+
+      final var positions = matches.positions;
+
+      if (positions == null) this.affected += matches.count;
+      else {
+        final var baseX = matches.chunkX << 4;
+        final var baseZ = matches.chunkZ << 4;
+
+        while (matches.cursor < positions.size()) {
+          final var packed = positions.get(matches.cursor++);
+          final var x = baseX + (packed & 15);
+          final var y = this.volume.minY() + (packed >>> 8);
+          final var z = baseZ + ((packed >>> 4) & 15);
+          world.getBlockAt(x, y, z).setBlockData(this.replacement.at(x, y, z), false);
+          this.affected++;
+
+          if ((matches.cursor & 63) == 0 && System.nanoTime() >= deadlineNanos) return false;
+        }
+      }
+
+      this.current = null;
+      advance(1);
+    }
+
+    return true;
+  }
+
+  /**
+   * Runs off the main thread.
+   */
+  private void match(final @NotNull ChunkSnapshot snapshot, final int chunkX, final int chunkZ) {
+    try {
+      if (isDone()) return;
+
+      final var minX = this.volume.clipMinX(chunkX) & 15;
+      final var maxX = this.volume.clipMaxX(chunkX) & 15;
+      final var minZ = this.volume.clipMinZ(chunkZ) & 15;
+      final var maxZ = this.volume.clipMaxZ(chunkZ) & 15;
+      final var positions = this.replacement == null ? null : new IntList(64);
+      var count = 0;
+
+      for (var y = this.volume.minY(); y <= this.volume.maxY(); y++) {
+        for (var x = minX; x <= maxX; x++) {
+          for (var z = minZ; z <= maxZ; z++) {
+            if (!this.matcher.matches(snapshot, x, y, z)) continue;
+
+            count++;
+            if (positions != null) positions.add(((y - this.volume.minY()) << 8) | (z << 4) | x);
+          }
+        }
+      }
+
+      this.ready.add(new ColumnMatches(chunkX, chunkZ, count, positions));
+    } catch (Throwable t) {
+      this.failure.compareAndSet(null, t);
+    } finally {
+      this.inFlight.decrementAndGet();
+    }
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class ColumnMatches {
+    private final int chunkX;
+    private final int chunkZ;
+    private final int count;
+    private final @Nullable IntList positions;
+    private int cursor;
+
+    private ColumnMatches(final int chunkX, final int chunkZ, final int count, final @Nullable IntList positions) {
+      this.chunkX = chunkX;
+      this.chunkZ = chunkZ;
+      this.count = count;
+      this.positions = positions;
+    }
+  }
+
+}
@@ -0,0 +1,66 @@
+package fr.dreamin.dreamapi.api.cuboid.operation;
+
+import org.bukkit.block.Block;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.function.Consumer;
+
+/**
+ * Applies an action to every block of a volume, one chunk column at a time from bottom to
+ * top, checking the deadline after each layer of a column.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class VisitOperation extends BlockOperation {
+
+  private final @NotNull BlockVolume volume;
+  private final @NotNull Consumer<Block> action;
+
+  private int column;
+  private int y;
+
+  VisitOperation(final @NotNull BlockVolume volume, final @NotNull Consumer<Block> action) {
+    super((long) volume.columnCount() * volume.height());
+    this.volume = volume;
+    this.action = action;
+    this.y = volume.minY();
+  }
+
+  // ###############################################################
+  // ---------------------- PROTECTED METHODS ----------------------
+  // ###############################################################
+
+  @Override
+  protected boolean step(final long deadlineNanos) {
+    final var world = this.volume.world();
+
+    while (this.column < this.volume.columnCount()) {
+      final var chunkX = this.volume.columnChunkX(this.column);
+      final var chunkZ = this.volume.columnChunkZ(this.column);
+      final var minX = this.volume.clipMinX(chunkX);
+      final var maxX = this.volume.clipMaxX(chunkX);
+      final var minZ = this.volume.clipMinZ(chunkZ);
+      final var maxZ = this.volume.clipMaxZ(chunkZ);
+
+      while (this.y <= this.volume.maxY()) {
+        for (var x = minX; x <= maxX; x++) {
+          for (var z = minZ; z <= maxZ; z++) {
+            this.action.accept(world.getBlockAt(x, this.y, z));
+            this.affected++;
+          }
+        }
+
+        this.y++;
+        advance(1);
+        if (System.nanoTime() >= deadlineNanos) return false;
+      }
+
+      this.column++;
+      this.y = this.volume.minY();
+    }
+
+    return true;
+  }
+
+}
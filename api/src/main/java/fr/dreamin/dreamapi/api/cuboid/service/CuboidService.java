@@ -1,6 +1,8 @@
 package fr.dreamin.dreamapi.api.cuboid.service;
 
 import fr.dreamin.dreamapi.api.cuboid.Cuboid;
+import fr.dreamin.dreamapi.api.cuboid.CuboidFilter;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockOperationEngine;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Set;
@@ -34,6 +36,69 @@ public interface CuboidService {
    */
   void unregister(final @NotNull Cuboid cuboid);
 
+  /**
+   * Refreshes the spatial index entry of a registered cuboid after its corners changed.
+   * Called automatically by {@link Cuboid#setLocA}, {@link Cuboid#setLocB} and
+   * {@link Cuboid#setLocations}; does nothing if the cuboid is not registered.
+   *
+   * @param cuboid the cuboid whose bounds changed.
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  void update(final @NotNull Cuboid cuboid);
+
+  /**
+   * Sets which entities produce enter/leave events for a registered cuboid.
+   * Entities no registered cuboid is interested in are rejected before any geometry work.
+   * Entities currently in the cuboid that the new filter rejects leave it, with a leave event
+   * that cannot be cancelled; the others stay in without a new enter event.
+   *
+   * @param cuboid a registered cuboid.
+   * @param filter the subscription filter.
+   * @throws IllegalArgumentException if the cuboid is not registered.
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  void setFilter(final @NotNull Cuboid cuboid, final @NotNull CuboidFilter filter);
+
+  /**
+   * Gets the subscription filter of a cuboid.
+   *
+   * @param cuboid the cuboid.
+   * @return its filter, or {@link CuboidFilter#all()} if it is not registered.
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  @NotNull CuboidFilter getFilter(final @NotNull Cuboid cuboid);
+
+  /**
+   * Enables sampled mode for non-player entities: instead of testing every move event, entities
+   * that crossed a block are batched and checked once every {@code intervalTicks} ticks.
+   * In sampled mode a cancelled enter/leave event cannot cancel the entity move.
+   * Players are always checked on every move.
+   *
+   * @param intervalTicks the batch interval in ticks, {@code 0} or {@code 1} to check every move.
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  void setEntitySampling(final int intervalTicks);
+
+  int getEntitySampling();
+
+  /**
+   * Gets the engine running tick-budgeted block operations (batched fills, replaces and counts).
+   *
+   * @return the block operation engine.
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  @NotNull BlockOperationEngine getBlockOperationEngine();
+
   boolean isAutoRegister();
 
   void autoRegister(boolean value);
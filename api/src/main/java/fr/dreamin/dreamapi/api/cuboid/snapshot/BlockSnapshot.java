@@ -0,0 +1,203 @@
+package fr.dreamin.dreamapi.api.cuboid.snapshot;
+
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockVolume;
+import lombok.Getter;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compact copy of the blocks of a volume, stored as one {@link PaletteSection} per chunk
+ * section (ordered by chunk column, then bottom to top) so it can be restored section by
+ * section and spilled to disk in a compressed binary form.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class BlockSnapshot {
+
+  private static final int MAGIC = 0x44435342; // "DCSB"
+  private static final int VERSION = 1;
+
+  @Getter
+  private final @NotNull BlockVolume volume;
+  private final @NotNull List<PaletteSection> sections;
+
+  private BlockSnapshot(final @NotNull BlockVolume volume, final @NotNull List<PaletteSection> sections) {
+    this.volume = volume;
+    this.sections = Collections.unmodifiableList(sections);
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public @NotNull List<PaletteSection> getSections() {
+    return this.sections;
+  }
+
+  /**
+   * Looks up the saved block data at a world position. Safe to call off the main thread.
+   *
+   * @param x block X
+   * @param y block Y
+   * @param z block Z
+   * @return the saved block data, or null if the position is outside the volume
+   */
+  public @Nullable BlockData getBlockData(final int x, final int y, final int z) {
+    if (x < this.volume.minX() || x > this.volume.maxX()
+      || y < this.volume.minY() || y > this.volume.maxY()
+      || z < this.volume.minZ() || z > this.volume.maxZ())
+      return null;
+
+    final var column = ((x >> 4) - this.volume.minChunkX()) * this.volume.columnsZ() + ((z >> 4) - this.volume.minChunkZ());
+    final var sectionsPerColumn = (this.volume.maxY() >> 4) - (this.volume.minY() >> 4) + 1;
+    final var section = this.sections.get(column * sectionsPerColumn + ((y >> 4) - (this.volume.minY() >> 4)));
+
+    return section.get(section.index(x - section.getOriginX(), y - section.getOriginY(), z - section.getOriginZ()));
+  }
+
+  /**
+   * @return rough heap footprint in bytes, excluding the shared BlockData instances
+   */
+  public long estimatedBytes() {
+    var total = 64L;
+    for (final var section : this.sections) total += section.estimatedBytes();
+    return total;
+  }
+
+  /**
+   * Writes the snapshot as gzip-compressed binary, through a temporary file moved atomically
+   * into place. Safe to call off the main thread.
+   *
+   * @param file the target file
+   * @throws IOException if writing fails
+   */
+  public void write(final @NotNull Path file) throws IOException {
+    final var parent = file.toAbsolutePath().getParent();
+    if (parent != null) Files.createDirectories(parent);
+
+    final var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+    try (final var out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temp))))) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(this.volume.minX());
+      out.writeInt(this.volume.minY());
+      out.writeInt(this.volume.minZ());
+      out.writeInt(this.volume.maxX());
+      out.writeInt(this.volume.maxY());
+      out.writeInt(this.volume.maxZ());
+      out.writeInt(this.sections.size());
+      for (final var section : this.sections) section.write(out);
+    } catch (IOException e) {
+      Files.deleteIfExists(temp);
+      throw e;
+    }
+
+    Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  // ###############################################################
+  // ----------------------- STATIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Captures the blocks of a volume. Must be called on the main thread; each chunk column is
+   * read once through a {@link ChunkSnapshot}.
+   *
+   * @param volume the volume to capture
+   * @return the snapshot
+   */
+  public static @NotNull BlockSnapshot capture(final @NotNull BlockVolume volume) {
+    return build(volume, chunkSnapshots(volume));
+  }
+
+  /**
+   * Captures the blocks of a volume, packing the palettes on an executor. Must be called on
+   * the main thread, which only takes one {@link ChunkSnapshot} per chunk column.
+   *
+   * @param volume the volume to capture
+   * @param executor where the palettes are packed
+   * @return a future completing with the snapshot
+   */
+  public static @NotNull CompletableFuture<BlockSnapshot> captureAsync(final @NotNull BlockVolume volume, final @NotNull Executor executor) {
+    final var chunks = chunkSnapshots(volume);
+    return CompletableFuture.supplyAsync(() -> build(volume, chunks), executor);
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(Path)}. Safe to call off the main thread.
+   *
+   * @param file the source file
+   * @param world the world the snapshot belongs to
+   * @return the snapshot
+   * @throws IOException if the file is missing or not a block snapshot
+   */
+  public static @NotNull BlockSnapshot read(final @NotNull Path file, final @NotNull World world) throws IOException {
+    try (final var in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(file))))) {
+      if (in.readInt() != MAGIC) throw new IOException("Not a block snapshot: " + file);
+
+      final var version = in.readInt();
+      if (version != VERSION) throw new IOException("Unsupported block snapshot version " + version + ": " + file);
+
+      final var volume = new BlockVolume(world, in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt(), in.readInt());
+      final var count = in.readInt();
+      final var sections = new ArrayList<PaletteSection>(count);
+      for (var i = 0; i < count; i++) sections.add(PaletteSection.read(in));
+
+      return new BlockSnapshot(volume, sections);
+    }
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private static @NotNull ChunkSnapshot[] chunkSnapshots(final @NotNull BlockVolume volume) {
+    final var world = volume.world();
+    final var chunks = new ChunkSnapshot[volume.columnCount()];
+    for (var column = 0; column < chunks.length; column++)
+      chunks[column] = world.getChunkAt(volume.columnChunkX(column), volume.columnChunkZ(column)).getChunkSnapshot(false, false, false);
+    return chunks;
+  }
+
+  /** Packs the sections of every chunk column. Safe to call off the main thread. */
+  private static @NotNull BlockSnapshot build(final @NotNull BlockVolume volume, final @NotNull ChunkSnapshot[] chunks) {
+    final var minSectionY = volume.minY() >> 4;
+    final var maxSectionY = volume.maxY() >> 4;
+    final var sections = new ArrayList<PaletteSection>(chunks.length * (maxSectionY - minSectionY + 1));
+
+    for (var column = 0; column < chunks.length; column++) {
+      final var chunkX = volume.columnChunkX(column);
+      final var chunkZ = volume.columnChunkZ(column);
+
+      final var minX = volume.clipMinX(chunkX);
+      final var minZ = volume.clipMinZ(chunkZ);
+      final var sizeX = volume.clipMaxX(chunkX) - minX + 1;
+      final var sizeZ = volume.clipMaxZ(chunkZ) - minZ + 1;
+
+      for (var sectionY = minSectionY; sectionY <= maxSectionY; sectionY++) {
+        final var minY = Math.max(volume.minY(), sectionY << 4);
+        final var maxY = Math.min(volume.maxY(), (sectionY << 4) + 15);
+        sections.add(PaletteSection.capture(chunks[column], minX, minY, minZ, sizeX, maxY - minY + 1, sizeZ));
+      }
+    }
+
+    return new BlockSnapshot(volume, sections);
+  }
+
+}
@@ -0,0 +1,195 @@
+package fr.dreamin.dreamapi.api.cuboid.snapshot;
+
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.block.data.BlockData;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Blocks of one chunk section clipped to a snapshot volume, stored like the vanilla chunk
+ * format: a palette of distinct {@link BlockData} plus an array of palette indices packed
+ * into longs with the minimum number of bits (entries never span two longs).
+ * A section made of a single block state stores no index array at all.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class PaletteSection {
+
+  @Getter
+  private final int originX, originY, originZ;
+  @Getter
+  private final int sizeX, sizeY, sizeZ;
+  private final @NotNull BlockData[] palette;
+  private final int bits;
+  private final long[] data;
+
+  private PaletteSection(
+    final int originX, final int originY, final int originZ,
+    final int sizeX, final int sizeY, final int sizeZ,
+    final @NotNull BlockData[] palette, final int bits, final long[] data
+  ) {
+    this.originX = originX;
+    this.originY = originY;
+    this.originZ = originZ;
+    this.sizeX = sizeX;
+    this.sizeY = sizeY;
+    this.sizeZ = sizeZ;
+    this.palette = palette;
+    this.bits = bits;
+    this.data = data;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public int getVolume() {
+    return this.sizeX * this.sizeY * this.sizeZ;
+  }
+
+  public int getPaletteSize() {
+    return this.palette.length;
+  }
+
+  /**
+   * @param index position in the section, see {@link #index(int, int, int)}
+   * @return the saved block data at that position
+   */
+  public @NotNull BlockData get(final int index) {
+    return this.palette[paletteIndex(index)];
+  }
+
+  /**
+   * @param dx X offset from the section origin
+   * @param dy Y offset from the section origin
+   * @param dz Z offset from the section origin
+   * @return the position index in the section
+   */
+  public int index(final int dx, final int dy, final int dz) {
+    return (dy * this.sizeZ + dz) * this.sizeX + dx;
+  }
+
+  /**
+   * @return rough heap footprint in bytes of the index array (the palette is shared BlockData)
+   */
+  public long estimatedBytes() {
+    return 48L + (this.data == null ? 0 : this.data.length * 8L) + this.palette.length * 8L;
+  }
+
+  // ###############################################################
+  // ----------------------- STATIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Captures a clipped section from a chunk snapshot.
+   *
+   * @param snapshot the chunk snapshot
+   * @param originX first block X (world coordinates)
+   * @param originY first block Y
+   * @param originZ first block Z
+   * @param sizeX width on X (1-16)
+   * @param sizeY height (1-16)
+   * @param sizeZ width on Z (1-16)
+   * @return the captured section
+   */
+  public static @NotNull PaletteSection capture(
+    final @NotNull ChunkSnapshot snapshot,
+    final int originX, final int originY, final int originZ,
+    final int sizeX, final int sizeY, final int sizeZ
+  ) {
+    final var volume = sizeX * sizeY * sizeZ;
+    final var indices = new int[volume];
+    final var palette = new ArrayList<BlockData>();
+    final var lookup = new HashMap<BlockData, Integer>();
+
+    var i = 0;
+    for (var dy = 0; dy < sizeY; dy++) {
+      for (var dz = 0; dz < sizeZ; dz++) {
+        for (var dx = 0; dx < sizeX; dx++) {
+          final var blockData = snapshot.getBlockData((originX + dx) & 15, originY + dy, (originZ + dz) & 15);
+          var paletteIndex = lookup.get(blockData);
+          if (paletteIndex == null) {
+            paletteIndex = palette.size();
+            palette.add(blockData);
+            lookup.put(blockData, paletteIndex);
+          }
+          indices[i++] = paletteIndex;
+        }
+      }
+    }
+
+    final var bits = bitsFor(palette.size());
+    return new PaletteSection(originX, originY, originZ, sizeX, sizeY, sizeZ, palette.toArray(new BlockData[0]), bits, pack(indices, bits));
+  }
+
+  static @NotNull PaletteSection read(final @NotNull DataInput in) throws IOException {
+    final var originX = in.readInt();
+    final var originY = in.readInt();
+    final var originZ = in.readInt();
+    final var sizeX = in.readUnsignedByte();
+    final var sizeY = in.readUnsignedByte();
+    final var sizeZ = in.readUnsignedByte();
+
+    final var palette = new BlockData[in.readUnsignedShort()];
+    for (var i = 0; i < palette.length; i++) palette[i] = Bukkit.createBlockData(in.readUTF());
+
+    final var bits = in.readUnsignedByte();
+    final var length = in.readInt();
+    final var data = length == 0 ? null : new long[length];
+    for (var i = 0; i < length; i++) data[i] = in.readLong();
+
+    return new PaletteSection(originX, originY, originZ, sizeX, sizeY, sizeZ, palette, bits, data);
+  }
+
+  void write(final @NotNull DataOutput out) throws IOException {
+    out.writeInt(this.originX);
+    out.writeInt(this.originY);
+    out.writeInt(this.originZ);
+    out.writeByte(this.sizeX);
+    out.writeByte(this.sizeY);
+    out.writeByte(this.sizeZ);
+
+    out.writeShort(this.palette.length);
+    for (final var blockData : this.palette) out.writeUTF(blockData.getAsString());
+
+    out.writeByte(this.bits);
+    out.writeInt(this.data == null ? 0 : this.data.length);
+    if (this.data != null) for (final var word : this.data) out.writeLong(word);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private int paletteIndex(final int index) {
+    if (this.bits == 0) return 0;
+
+    final var perLong = 64 / this.bits;
+    final var shift = (index % perLong) * this.bits;
+    return (int) ((this.data[index / perLong] >>> shift) & ((1L << this.bits) - 1));
+  }
+
+  private static int bitsFor(final int paletteSize) {
+    return paletteSize <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(paletteSize - 1);
+  }
+
+  private static long[] pack(final int[] indices, final int bits) {
+    if (bits == 0) return null;
+
+    final var perLong = 64 / bits;
+    final var data = new long[(indices.length + perLong - 1) / perLong];
+    for (var i = 0; i < indices.length; i++) {
+      data[i / perLong] |= (long) indices[i] << ((i % perLong) * bits);
+    }
+    return data;
+  }
+
+}
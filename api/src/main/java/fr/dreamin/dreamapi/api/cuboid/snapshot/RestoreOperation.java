@@ -0,0 +1,75 @@
+package fr.dreamin.dreamapi.api.cuboid.snapshot;
+
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockOperation;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Writes a {@link BlockSnapshot} back to its world section by section, checking the deadline
+ * after each layer of a section. The snapshot may still be loading (e.g. from a disk spill):
+ * the operation simply yields until it is available.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class RestoreOperation extends BlockOperation {
+
+  private final @NotNull CompletableFuture<BlockSnapshot> source;
+
+  private List<PaletteSection> sections;
+  private BlockSnapshot snapshot;
+  private int section;
+  private int layer;
+
+  public RestoreOperation(final @NotNull CompletableFuture<BlockSnapshot> source) {
+    super(1);
+    this.source = source;
+  }
+
+  // ###############################################################
+  // ---------------------- PROTECTED METHODS ----------------------
+  // ###############################################################
+
+  @Override
+  protected boolean step(final long deadlineNanos) {
+    if (this.snapshot == null) {
+      if (!this.source.isDone()) return false;
+
+      this.snapshot = this.source.join();
+      this.sections = this.snapshot.getSections();
+      setTotalUnits(this.sections.size());
+    }
+
+    final var world = this.snapshot.getVolume().world();
+
+    while (this.section < this.sections.size()) {
+      final var current = this.sections.get(this.section);
+
+      while (this.layer < current.getSizeY()) {
+        final var y = current.getOriginY() + this.layer;
+
+        for (var dz = 0; dz < current.getSizeZ(); dz++) {
+          for (var dx = 0; dx < current.getSizeX(); dx++) {
+            world.getBlockAt(current.getOriginX() + dx, y, current.getOriginZ() + dz)
+              .setBlockData(current.get(current.index(dx, this.layer, dz)), false);
+            this.affected++;
+          }
+        }
+
+        this.layer++;
+        if (this.layer < current.getSizeY() && System.nanoTime() >= deadlineNanos) return false;
+      }
+
+      this.layer = 0;
+      this.section++;
+      advance(1);
+
+      if (System.nanoTime() >= deadlineNanos) return this.section >= this.sections.size();
+    }
+
+    return true;
+  }
+
+}
@@ -22,4 +22,15 @@ public interface GlowingStats {
 
   long getTotalOperations();
 
+  /** Team membership packets served from cache. */
+  long getTeamPacketCacheHits();
+
+  /** Team membership packets that had to be built. */
+  long getTeamPacketCacheMisses();
+
+  /** Team membership packets dropped from cache for size or idleness. */
+  long getTeamPacketCacheEvictions();
+
+  int getTeamPacketCacheSize();
+
 }
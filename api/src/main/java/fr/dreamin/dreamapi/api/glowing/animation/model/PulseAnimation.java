@@ -1,9 +1,11 @@
 package fr.dreamin.dreamapi.api.glowing.animation.model;
 
 import fr.dreamin.dreamapi.api.glowing.animation.GlowAnimation;
+import lombok.EqualsAndHashCode;
 import org.bukkit.ChatColor;
 import org.jetbrains.annotations.NotNull;
 
+@EqualsAndHashCode
 public final class PulseAnimation implements GlowAnimation {
 
   private final @NotNull ChatColor primaryColor;
@@ -9,17 +9,26 @@ import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Makes blocks glow for viewers through invisible fake shulkers.
+ * <p>
+ * Glowing blocks are indexed per viewer by world and packed chunk key: the shulkers of a chunk
+ * are spawned in one bundle when the viewer receives it and removed with one packet when the
+ * viewer drops it, so a chunk event costs O(blocks in that chunk).
+ */
 @Getter
 @RequiredArgsConstructor
 public final class GlowingBlockManager {
@@ -49,10 +58,10 @@ public final class GlowingBlockManager {
 
     if (blockData == null) {
       blockData = new BlockGlowData(normalized, color, options);
-      playerData.blocks.put(normalized, blockData);
+      playerData.add(blockData);
 
       if (canSee(viewer, normalized))
-        spawnGlowingEntity(blockData, viewer);
+        spawnGlowingEntities(List.of(blockData), viewer);
 
     } else {
       final var colorChanged = !blockData.getColor().equals(color);
@@ -92,10 +101,10 @@ public final class GlowingBlockManager {
     final var playerData = this.playerDataMap.get(viewer.getUniqueId());
     if (playerData == null) return;
 
-    final var blockData = playerData.blocks.remove(normalized);
+    final var blockData = playerData.remove(normalized);
     if (blockData == null) return;
 
-    removeGlowingEntity(blockData, viewer);
+    despawnGlowingEntities(List.of(blockData), viewer);
 
     if (playerData.blocks.isEmpty())
       this.playerDataMap.remove(viewer.getUniqueId());
@@ -111,25 +120,37 @@ public final class GlowingBlockManager {
   }
 
   /**
-   * Handle chunk load - respawn blocks in that chunk
+   * Handle chunk load - spawns the glowing blocks of that chunk in one bundle
    */
   public void onChunkLoad(final @NotNull Player viewer, final int chunkX, final int chunkZ, final @NotNull World world) {
     final var playerData = this.playerDataMap.get(viewer.getUniqueId());
     if (playerData == null) return;
 
-    playerData.blocks.forEach((location, blockData) -> {
-      if (location.getWorld().equals(world)
-        && location.getBlockX() >> 4 == chunkX
-        && location.getBlockZ() >> 4 == chunkZ) {
-        try {
-          if (!blockData.isSpawned()) {
-            spawnGlowingEntity(blockData, viewer);
-          }
-        } catch (ReflectiveOperationException e) {
-          e.printStackTrace();
-        }
-      }
-    });
+    final var blocks = playerData.getChunk(world, chunkX, chunkZ);
+    if (blocks == null) return;
+
+    try {
+      spawnGlowingEntities(blocks.values(), viewer);
+    } catch (ReflectiveOperationException e) {
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Handle chunk unload - removes the glowing blocks of that chunk with one packet
+   */
+  public void onChunkUnload(final @NotNull Player viewer, final int chunkX, final int chunkZ, final @NotNull World world) {
+    final var playerData = this.playerDataMap.get(viewer.getUniqueId());
+    if (playerData == null) return;
+
+    final var blocks = playerData.getChunk(world, chunkX, chunkZ);
+    if (blocks == null) return;
+
+    try {
+      despawnGlowingEntities(blocks.values(), viewer);
+    } catch (ReflectiveOperationException e) {
+      e.printStackTrace();
+    }
   }
 
   /**
@@ -139,9 +160,7 @@ public final class GlowingBlockManager {
     final var playerData = this.playerDataMap.remove(viewer.getUniqueId());
     if (playerData == null) return;
 
-    for (final var blockData : playerData.blocks.values()) {
-      removeGlowingEntity(blockData, viewer);
-    }
+    despawnGlowingEntities(playerData.blocks.values(), viewer);
   }
 
   /**
@@ -149,13 +168,11 @@ public final class GlowingBlockManager {
    */
   public void shutdown() {
     this.playerDataMap.values().forEach(data -> {
-      data.blocks.values().forEach(blockData -> {
-        try {
-          removeGlowingEntity(blockData, data.viewer);
-        } catch (Exception e) {
-          e.printStackTrace();
-        }
-      });
+      try {
+        despawnGlowingEntities(data.blocks.values(), data.viewer);
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
     });
     this.playerDataMap.clear();
   }
@@ -164,63 +181,85 @@ public final class GlowingBlockManager {
   // ----------------------- PRIVATE METHODS -----------------------
   // ###############################################################
 
-  private void spawnGlowingEntity(final @NotNull BlockGlowData blockData, final @NotNull Player viewer)
+  /**
+   * Spawns the shulkers of the blocks not spawned yet in one bundle, then makes them glow with
+   * one membership packet per color and options.
+   */
+  private void spawnGlowingEntities(final @NotNull Collection<BlockGlowData> blocks, final @NotNull Player viewer)
     throws ReflectiveOperationException {
 
-    if (blockData.isSpawned()) return;
+    final List<Object> packets = new ArrayList<>();
+    final Map<Appearance, List<BlockGlowData>> byAppearance = new HashMap<>();
 
-    final var entityId = ENTITY_ID_COUNTER.getAndIncrement();
-    final var entityUuid = UUID.randomUUID();
+    for (final var blockData : blocks) {
+      if (blockData.isSpawned()) continue;
 
-    blockData.setEntityId(entityId);
-    blockData.setEntityUuid(entityUuid);
+      final var entityId = ENTITY_ID_COUNTER.getAndIncrement();
+      final var entityUuid = UUID.randomUUID();
 
-    final var loc = blockData.getLocation().clone()
-      .add(0.5, 0, 0.5);
+      blockData.setEntityId(entityId);
+      blockData.setEntityUuid(entityUuid);
+      blockData.setSpawned(true);
 
-    loc.setRotation(0f, 0f);
+      final var loc = blockData.getLocation().clone()
+        .add(0.5, 0, 0.5);
 
-    final var addEntityPacket = PacketReflection.createAddShulkerEntityPacket(
-      entityId,
-      entityUuid,
-      loc
-    );
+      loc.setRotation(0f, 0f);
+
+      packets.add(PacketReflection.createAddShulkerEntityPacket(entityId, entityUuid, loc));
+      byAppearance.computeIfAbsent(new Appearance(blockData.getColor(), blockData.getOptions()), k -> new ArrayList<>())
+        .add(blockData);
+    }
 
-    PacketSender.send(viewer, addEntityPacket);
+    if (packets.isEmpty()) return;
 
-    // Apply invisibility and glowing
-    final var metadataPacket = PacketReflection.createMetadataPacket(
-      entityId,
-      List.of(PacketReflection.createDataValue(PacketConstants.INVISIBILITY_FLAG))
-    );
-    PacketSender.send(viewer, metadataPacket);
-
-    // Apply glowing with team color
-    this.entityManager.setGlowing(
-      entityId,
-      entityUuid.toString(),
-      viewer,
-      blockData.getColor(),
-      PacketConstants.INVISIBILITY_FLAG,
-      blockData.getOptions()
-    );
+    PacketSender.queueBundled(viewer, packets.toArray());
+
+    // Invisibility and glowing go out with the glowing flags.
+    for (final var entry : byAppearance.entrySet()) {
+      final var group = entry.getValue();
+      final var entityIds = new int[group.size()];
+      final List<String> entityIdentifiers = new ArrayList<>(group.size());
+
+      for (var i = 0; i < entityIds.length; i++) {
+        entityIds[i] = group.get(i).getEntityId();
+        entityIdentifiers.add(group.get(i).getEntityUuid().toString());
+      }
 
-    blockData.setSpawned(true);
+      this.entityManager.setGlowing(
+        entityIds,
+        entityIdentifiers,
+        viewer,
+        entry.getKey().color(),
+        PacketConstants.INVISIBILITY_FLAG,
+        entry.getKey().options()
+      );
+    }
   }
 
-  private void removeGlowingEntity(final @NotNull BlockGlowData blockData, final @NotNull Player viewer)
+  /**
+   * Removes the shulkers of the spawned blocks with one packet and forgets their glow.
+   */
+  private void despawnGlowingEntities(final @NotNull Collection<BlockGlowData> blocks, final @NotNull Player viewer)
     throws ReflectiveOperationException {
 
-    if (!blockData.isSpawned() || blockData.getEntityId() == null) return;
+    final var entityIds = new int[blocks.size()];
+    var count = 0;
 
-    final var removePacket = PacketReflection.createRemoveEntitiesPacket(blockData.getEntityId());
-    PacketSender.send(viewer, removePacket);
+    for (final var blockData : blocks) {
+      if (!blockData.isSpawned() || blockData.getEntityId() == null) continue;
+
+      entityIds[count++] = blockData.getEntityId();
+      blockData.setEntityId(null);
+      blockData.setEntityUuid(null);
+      blockData.setSpawned(false);
+    }
 
-    this.entityManager.unsetGlowing(blockData.getEntityId(), viewer);
+    if (count == 0) return;
 
-    blockData.setEntityId(null);
-    blockData.setEntityUuid(null);
-    blockData.setSpawned(false);
+    final var removed = Arrays.copyOf(entityIds, count);
+    PacketSender.queue(viewer, PacketReflection.createRemoveEntitiesPacket(removed));
+    this.entityManager.forgetGlowing(removed, viewer);
   }
 
   private @NotNull Location normalizeLocation(final @NotNull Location location) {
@@ -234,6 +273,8 @@ public final class GlowingBlockManager {
   }
 
   private boolean canSee(final @NotNull Player player, final @NotNull Location location) {
+    if (!player.getWorld().equals(location.getWorld())) return false;
+
     final var viewDistance = Math.min(player.getViewDistance(), Bukkit.getViewDistance());
     final var deltaChunkX = (player.getLocation().getBlockX() >> 4) - (location.getBlockX() >> 4);
     final var deltaChunkZ = (player.getLocation().getBlockZ() >> 4) - (location.getBlockZ() >> 4);
@@ -250,5 +291,39 @@ public final class GlowingBlockManager {
   private static final class PlayerBlockData {
     private final @NotNull Player viewer;
     private final Map<Location, BlockGlowData> blocks = new ConcurrentHashMap<>();
+    /** World id to packed chunk key to the glowing blocks of that chunk. */
+    private final Map<UUID, Map<Long, Map<Location, BlockGlowData>>> chunks = new ConcurrentHashMap<>();
+
+    private void add(final @NotNull BlockGlowData blockData) {
+      final var location = blockData.getLocation();
+      this.blocks.put(location, blockData);
+      this.chunks.computeIfAbsent(location.getWorld().getUID(), k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(Chunk.getChunkKey(location), k -> new ConcurrentHashMap<>())
+        .put(location, blockData);
+    }
+
+    private @Nullable BlockGlowData remove(final @NotNull Location location) {
+      final var blockData = this.blocks.remove(location);
+      if (blockData == null) return null;
+
+      final var worldChunks = this.chunks.get(location.getWorld().getUID());
+      if (worldChunks == null) return blockData;
+
+      final var chunkKey = Chunk.getChunkKey(location);
+      final var chunk = worldChunks.get(chunkKey);
+      if (chunk != null && chunk.remove(location) != null && chunk.isEmpty()) {
+        worldChunks.remove(chunkKey);
+        if (worldChunks.isEmpty())
+          this.chunks.remove(location.getWorld().getUID());
+      }
+      return blockData;
+    }
+
+    private @Nullable Map<Location, BlockGlowData> getChunk(final @NotNull World world, final int chunkX, final int chunkZ) {
+      final var worldChunks = this.chunks.get(world.getUID());
+      return worldChunks == null ? null : worldChunks.get(Chunk.getChunkKey(chunkX, chunkZ));
+    }
   }
+
+  private record Appearance(@NotNull ChatColor color, @NotNull TeamOptions options) {}
 }
\ No newline at end of file
@@ -2,11 +2,13 @@ package fr.dreamin.dreamapi.api.glowing.entity;
 
 import fr.dreamin.dreamapi.api.nms.packet.MetadataInterceptor;
 import fr.dreamin.dreamapi.api.nms.packet.PacketConstants;
+import fr.dreamin.dreamapi.api.nms.packet.PacketPipeline;
 import fr.dreamin.dreamapi.api.nms.packet.PacketReflection;
 import fr.dreamin.dreamapi.api.nms.packet.PacketSender;
 import fr.dreamin.dreamapi.api.glowing.team.TeamDataCache;
 import fr.dreamin.dreamapi.api.glowing.team.TeamOptions;
 import fr.dreamin.dreamapi.api.glowing.team.TeamPacketFactory;
+import fr.dreamin.dreamapi.api.util.collection.ConcurrentIntByteMap;
 import lombok.Getter;
 import org.bukkit.ChatColor;
 import org.bukkit.entity.Entity;
@@ -55,13 +57,7 @@ public final class GlowingEntityManager {
     if (!color.isColor())
       throw new IllegalArgumentException("The color must be a valid color");
 
-    final var playerData = this.playerDataMap.computeIfAbsent(viewer.getUniqueId(), uuid -> {
-      try {
-        return new PlayerGlowingData(viewer);
-      } catch (ReflectiveOperationException e) {
-        throw new RuntimeException("Failed to create player glowing data", e);
-      }
-    });
+    final var playerData = getOrCreatePlayerData(viewer);
 
     var glowData = playerData.entities.get(entityId);
 
@@ -70,6 +66,7 @@ public final class GlowingEntityManager {
       final var originalTeamName = getCurrentTeamName(viewer, entityIdentifier);
       glowData = new EntityGlowData(entityId, entityIdentifier, originalTeamName, color, options, otherFlags);
       playerData.entities.put(entityId, glowData);
+      playerData.glowingFlags.put(entityId, (byte) (otherFlags | PacketConstants.GLOWING_FLAG));
 
       applyGlowingFlags(viewer, entityId, otherFlags);
       if (color != null)
@@ -98,6 +95,63 @@ public final class GlowingEntityManager {
     }
   }
 
+  /**
+   * Makes many entities glow for a viewer. The ones not glowing yet or glowing in another color
+   * join the color team through a single membership packet, and leave their previous color teams
+   * with one packet per team; only option changes are applied one by one.
+   */
+  public void setGlowing(final @NotNull Collection<? extends Entity> entities, final @NotNull Player viewer, final @NotNull ChatColor color, final @NotNull TeamOptions options) throws ReflectiveOperationException {
+
+    if (!color.isColor())
+      throw new IllegalArgumentException("The color must be a valid color");
+
+    final var playerData = getOrCreatePlayerData(viewer);
+    final var batch = new MembershipBatch();
+
+    for (final var entity : entities) {
+      final var entityId = entity.getEntityId();
+      final var existing = playerData.entities.get(entityId);
+      if (existing != null) {
+        updateGlowing(existing, viewer, color, options, batch);
+        continue;
+      }
+
+      startGlowing(playerData, viewer, entityId, getEntityIdentifier(entity), getEntityFlags(entity), color, options, batch);
+    }
+
+    sendMemberships(playerData, viewer, color, options, batch);
+  }
+
+  /**
+   * Makes many entities glow for a viewer by id, e.g. fake entities, with the same batching as
+   * {@link #setGlowing(Collection, Player, ChatColor, TeamOptions)}.
+   *
+   * @param entityIdentifiers the scoreboard entries, in the order of {@code entityIds}
+   * @param otherFlags the shared flags of every entity, besides glowing
+   */
+  public void setGlowing(final int[] entityIds, final @NotNull List<String> entityIdentifiers, final @NotNull Player viewer, final @NotNull ChatColor color, final byte otherFlags, final @NotNull TeamOptions options) throws ReflectiveOperationException {
+
+    if (!color.isColor())
+      throw new IllegalArgumentException("The color must be a valid color");
+    if (entityIds.length != entityIdentifiers.size())
+      throw new IllegalArgumentException("Expected one identifier per entity id");
+
+    final var playerData = getOrCreatePlayerData(viewer);
+    final var batch = new MembershipBatch();
+
+    for (var i = 0; i < entityIds.length; i++) {
+      final var existing = playerData.entities.get(entityIds[i]);
+      if (existing != null) {
+        updateGlowing(existing, viewer, color, options, batch);
+        continue;
+      }
+
+      startGlowing(playerData, viewer, entityIds[i], entityIdentifiers.get(i), otherFlags, color, options, batch);
+    }
+
+    sendMemberships(playerData, viewer, color, options, batch);
+  }
+
   public void unsetGlowing(final @NotNull Entity entity, final @NotNull Player viewer) throws ReflectiveOperationException {
     unsetGlowing(entity.getEntityId(), viewer);
   }
@@ -107,6 +161,7 @@ public final class GlowingEntityManager {
 
     final var glowData = playerData.entities.remove(entityId);
     if (glowData == null) return;
+    playerData.glowingFlags.remove(entityId);
 
     removeGlowingFlags(viewer, entityId, glowData.getOtherFlags());
 
@@ -116,6 +171,44 @@ public final class GlowingEntityManager {
     restoreOriginalTeam(viewer, glowData.getEntityIdentifier(), glowData.getOriginalTeamName());
   }
 
+  /**
+   * Stops many entities glowing for a viewer, leaving each color team and going back to each
+   * original team with one membership packet per team.
+   */
+  public void unsetGlowing(final @NotNull Collection<? extends Entity> entities, final @NotNull Player viewer) throws ReflectiveOperationException {
+    final var playerData = this.playerDataMap.get(viewer.getUniqueId());
+    if (playerData == null) return;
+
+    final List<EntityGlowData> removed = new ArrayList<>(entities.size());
+    for (final var entity : entities) {
+      final var glowData = playerData.entities.remove(entity.getEntityId());
+      if (glowData == null) continue;
+      playerData.glowingFlags.remove(entity.getEntityId());
+      removed.add(glowData);
+    }
+
+    removeAll(viewer, removed, true);
+  }
+
+  /**
+   * Forgets many entities for a viewer by id, once they have been removed from the client, e.g.
+   * fake entities despawned: only the team memberships are undone, no metadata is sent.
+   */
+  public void forgetGlowing(final int[] entityIds, final @NotNull Player viewer) throws ReflectiveOperationException {
+    final var playerData = this.playerDataMap.get(viewer.getUniqueId());
+    if (playerData == null) return;
+
+    final List<EntityGlowData> removed = new ArrayList<>(entityIds.length);
+    for (final var entityId : entityIds) {
+      final var glowData = playerData.entities.remove(entityId);
+      if (glowData == null) continue;
+      playerData.glowingFlags.remove(entityId);
+      removed.add(glowData);
+    }
+
+    removeAll(viewer, removed, false);
+  }
+
   public @NotNull Set<Integer> getGlowingEntityIds(final @NotNull Player viewer) {
     final var playerData = this.playerDataMap.get(viewer.getUniqueId());
     if (playerData == null) return Collections.emptySet();
@@ -132,14 +225,7 @@ public final class GlowingEntityManager {
     final var playerData = this.playerDataMap.remove(viewer.getUniqueId());
     if (playerData == null) return;
 
-    for (final var glowData : playerData.entities.values()) {
-      removeGlowingFlags(viewer, glowData.getEntityId(), glowData.getOtherFlags());
-      if (glowData.getColor() != null)
-        removeTeamColor(viewer, glowData.getEntityIdentifier(), glowData.getColor(), playerData);
-
-      restoreOriginalTeam(viewer, glowData.getEntityIdentifier(), glowData.getOriginalTeamName());
-    }
-
+    removeAll(viewer, playerData.entities.values(), true);
     removePacketInterceptor(playerData);
   }
 
@@ -159,18 +245,102 @@ public final class GlowingEntityManager {
   // ----------------------- PRIVATE METHODS -----------------------
   // ###############################################################
 
+  private @NotNull PlayerGlowingData getOrCreatePlayerData(final @NotNull Player viewer) {
+    return this.playerDataMap.computeIfAbsent(viewer.getUniqueId(), uuid -> {
+      try {
+        return new PlayerGlowingData(viewer);
+      } catch (ReflectiveOperationException e) {
+        throw new RuntimeException("Failed to create player glowing data", e);
+      }
+    });
+  }
+
+  private void startGlowing(final @NotNull PlayerGlowingData playerData, final @NotNull Player viewer, final int entityId, final @NotNull String entityIdentifier,
+                            final byte otherFlags, final @NotNull ChatColor color, final @NotNull TeamOptions options, final @NotNull MembershipBatch batch) throws ReflectiveOperationException {
+    final var glowData = new EntityGlowData(entityId, entityIdentifier, getCurrentTeamName(viewer, entityIdentifier), color, options, otherFlags);
+    playerData.entities.put(entityId, glowData);
+    playerData.glowingFlags.put(entityId, (byte) (otherFlags | PacketConstants.GLOWING_FLAG));
+
+    applyGlowingFlags(viewer, entityId, otherFlags);
+    batch.added.add(entityIdentifier);
+  }
+
+  private void updateGlowing(final @NotNull EntityGlowData glowData, final @NotNull Player viewer, final @NotNull ChatColor color,
+                             final @NotNull TeamOptions options, final @NotNull MembershipBatch batch) throws ReflectiveOperationException {
+    if (glowData.getColor() == null || !glowData.getOptions().equals(options)) {
+      setGlowing(glowData.getEntityId(), glowData.getEntityIdentifier(), viewer, color, glowData.getOtherFlags(), options);
+      return;
+    }
+    if (glowData.getColor() == color) return;
+
+    batch.recolored.computeIfAbsent(glowData.getColor(), k -> new ArrayList<>()).add(glowData.getEntityIdentifier());
+    glowData.setColor(color);
+    batch.added.add(glowData.getEntityIdentifier());
+  }
+
+  private void sendMemberships(final @NotNull PlayerGlowingData playerData, final @NotNull Player viewer, final @NotNull ChatColor color,
+                               final @NotNull TeamOptions options, final @NotNull MembershipBatch batch) throws ReflectiveOperationException {
+    for (final var entry : batch.recolored.entrySet()) {
+      final var previousTeam = this.teamCache.getOrCreate(entry.getKey(), TeamOptions.builder().build());
+      PacketSender.queue(viewer, previousTeam.createRemoveEntitiesPacket(entry.getValue()));
+    }
+
+    if (batch.added.isEmpty()) return;
+
+    final var teamData = this.teamCache.getOrCreate(color, options);
+    final var addEntitiesPacket = teamData.createAddEntitiesPacket(batch.added);
+
+    if (playerData.sentColors.add(color))
+      PacketSender.queue(viewer, teamData.getCreationPacket(), addEntitiesPacket);
+    else
+      PacketSender.queue(viewer, addEntitiesPacket);
+  }
+
+  /**
+   * Moves entities no longer glowing out of their color teams and back into their original
+   * teams with one packet per team, clearing their flags first if asked.
+   */
+  private void removeAll(final @NotNull Player viewer, final @NotNull Collection<EntityGlowData> removed, final boolean clearFlags) throws ReflectiveOperationException {
+    if (removed.isEmpty()) return;
+
+    final Map<ChatColor, List<String>> byColor = new EnumMap<>(ChatColor.class);
+    final Map<String, List<String>> byOriginalTeam = new HashMap<>();
+
+    for (final var glowData : removed) {
+      if (clearFlags)
+        removeGlowingFlags(viewer, glowData.getEntityId(), glowData.getOtherFlags());
+
+      if (glowData.getColor() != null)
+        byColor.computeIfAbsent(glowData.getColor(), k -> new ArrayList<>()).add(glowData.getEntityIdentifier());
+
+      final var originalTeamName = glowData.getOriginalTeamName();
+      if (originalTeamName != null && !originalTeamName.isEmpty())
+        byOriginalTeam.computeIfAbsent(originalTeamName, k -> new ArrayList<>()).add(glowData.getEntityIdentifier());
+    }
+
+    for (final var entry : byColor.entrySet()) {
+      final var teamData = this.teamCache.getOrCreate(entry.getKey(), TeamOptions.builder().build());
+      PacketSender.queue(viewer, teamData.createRemoveEntitiesPacket(entry.getValue()));
+    }
+
+    for (final var entry : byOriginalTeam.entrySet()) {
+      if (viewer.getScoreboard().getTeam(entry.getKey()) == null) continue;
+      PacketSender.queue(viewer, TeamPacketFactory.createAddEntitiesToTeamPacket(entry.getKey(), entry.getValue()));
+    }
+  }
+
   private void applyGlowingFlags(final @NotNull Player viewer, final int entityId, final byte otherFlags) throws ReflectiveOperationException {
     final var newFlags = (byte) (otherFlags | PacketConstants.GLOWING_FLAG);
     final var dataValue = PacketReflection.createDataValue(newFlags);
     final var packet = PacketReflection.createMetadataPacket(entityId, List.of(dataValue));
-    PacketSender.send(viewer, packet);
+    PacketSender.queue(viewer, packet);
   }
 
   private void removeGlowingFlags(final @NotNull Player viewer, final int entityId, final byte otherFlags) throws ReflectiveOperationException {
     final var newFlags = (byte) (otherFlags & ~PacketConstants.GLOWING_FLAG);
     final var dataValue = PacketReflection.createDataValue(newFlags);
     final var packet = PacketReflection.createMetadataPacket(entityId, List.of(dataValue));
-    PacketSender.send(viewer, packet);
+    PacketSender.queue(viewer, packet);
   }
 
   private void applyTeamColor(final @NotNull Player viewer, final @NotNull String entityIdentifier, final @NotNull ChatColor color, final @NotNull TeamOptions options, final @NotNull PlayerGlowingData playerData) throws ReflectiveOperationException {
@@ -180,15 +350,15 @@ public final class GlowingEntityManager {
     final var addEntityPacket = teamData.getAddEntityPacket(entityIdentifier);
 
     if (shouldSendCreation)
-      PacketSender.send(viewer, teamData.getCreationPacket(), addEntityPacket);
+      PacketSender.queue(viewer, teamData.getCreationPacket(), addEntityPacket);
     else
-      PacketSender.send(viewer, addEntityPacket);
+      PacketSender.queue(viewer, addEntityPacket);
   }
 
   private void removeTeamColor(final @NotNull Player viewer, final @NotNull String entityIdentifier, final @NotNull ChatColor color, final @NotNull PlayerGlowingData playerData) throws ReflectiveOperationException {
     final var teamData = this.teamCache.getOrCreate(color, TeamOptions.builder().build());
     final var removeEntityPacket = teamData.getRemoveEntityPacket(entityIdentifier);
-    PacketSender.send(viewer, removeEntityPacket);
+    PacketSender.queue(viewer, removeEntityPacket);
   }
 
   private void restoreOriginalTeam(final @NotNull Player viewer, final @NotNull String entityIdentifier,
@@ -197,7 +367,7 @@ public final class GlowingEntityManager {
     if (viewer.getScoreboard().getTeam(originalTeamName) == null) return;
 
     final var restorePacket = TeamPacketFactory.createAddEntitiesToTeamPacket(originalTeamName, entityIdentifier);
-    PacketSender.send(viewer, restorePacket);
+    PacketSender.queue(viewer, restorePacket);
   }
 
   private @Nullable String getCurrentTeamName(final @NotNull Player viewer, final @NotNull String entityIdentifier) {
@@ -205,10 +375,10 @@ public final class GlowingEntityManager {
     return team == null ? null : team.getName();
   }
 
-  private void removePacketInterceptor(final @NotNull PlayerGlowingData playerData) throws ReflectiveOperationException {
-    if (playerData.interceptor != null) {
-      final var channel = PacketReflection.getChannel(playerData.viewer);
-      channel.pipeline().remove(playerData.interceptor);
+  private void removePacketInterceptor(final @NotNull PlayerGlowingData playerData) {
+    if (playerData.registration != null) {
+      playerData.registration.unregister();
+      playerData.registration = null;
     }
   }
 
@@ -230,7 +400,9 @@ public final class GlowingEntityManager {
     private final @NotNull Player viewer;
     private final Map<Integer, EntityGlowData> entities = new ConcurrentHashMap<>();
     private final EnumSet<ChatColor> sentColors = EnumSet.noneOf(ChatColor.class);
+    private final ConcurrentIntByteMap glowingFlags = new ConcurrentIntByteMap();
     private MetadataInterceptor interceptor;
+    private PacketPipeline.Registration registration;
 
     private PlayerGlowingData(final @NotNull Player viewer) throws ReflectiveOperationException {
       this.viewer = viewer;
@@ -242,17 +414,17 @@ public final class GlowingEntityManager {
     // ###############################################################
 
     private void installPacketInterceptor() throws ReflectiveOperationException {
-      this.interceptor = new MetadataInterceptor(entityId -> {
-        final var data = this.entities.get(entityId);
-        if (data == null || !data.isEnabled()) return null;
-        return (byte) (data.getOtherFlags() | PacketConstants.GLOWING_FLAG);
-      });
-
-      final var channel = PacketReflection.getChannel(viewer);
-      channel.pipeline().addBefore("packet_handler", null, interceptor);
+      this.interceptor = new MetadataInterceptor(this.glowingFlags);
 
+      this.registration = PacketPipeline.intercept(this.viewer, PacketReflection.getPacketMetadataClass(), this.interceptor);
     }
 
   }
 
+  /** Team membership changes collected by a batch call, sent once it is done. */
+  private static final class MembershipBatch {
+    private final List<String> added = new ArrayList<>();
+    private final Map<ChatColor, List<String>> recolored = new EnumMap<>(ChatColor.class);
+  }
+
 }
@@ -1,16 +1,24 @@
 package fr.dreamin.dreamapi.api.glowing.team;
 
+import fr.dreamin.dreamapi.api.util.collection.SegmentedLruCache;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.ChatColor;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 @RequiredArgsConstructor
 public final class TeamDataCache {
 
+  /** Most membership packets kept per team and direction. */
+  private static final int MAX_MEMBER_PACKETS = 1024;
+  /** Membership packets not reused within this many minutes are dropped. */
+  private static final long MEMBER_PACKET_IDLE_MINUTES = 5L;
+
   private final int uid;
   private final Map<TeamKey, CachedTeamData> cache = new ConcurrentHashMap<>();
 
@@ -34,6 +42,26 @@ public final class TeamDataCache {
     this.cache.clear();
   }
 
+  /** Membership packets served from cache, over every team. */
+  public long getPacketHits() {
+    return this.cache.values().stream().mapToLong(CachedTeamData::getPacketHits).sum();
+  }
+
+  /** Membership packets that had to be built, over every team. */
+  public long getPacketMisses() {
+    return this.cache.values().stream().mapToLong(CachedTeamData::getPacketMisses).sum();
+  }
+
+  /** Membership packets dropped for size or idleness, over every team. */
+  public long getPacketEvictions() {
+    return this.cache.values().stream().mapToLong(CachedTeamData::getPacketEvictions).sum();
+  }
+
+  /** Membership packets currently cached, over every team. */
+  public int getCachedPacketCount() {
+    return this.cache.values().stream().mapToInt(CachedTeamData::getCachedPacketCount).sum();
+  }
+
   // ###############################################################
   // ----------------------- PRIVATE METHODS -----------------------
   // ###############################################################
@@ -53,8 +81,10 @@ public final class TeamDataCache {
   public static final class CachedTeamData {
     private final @NotNull String teamName;
     private final @NotNull Object creationPacket;
-    private final Map<String, Object> addPacketsCache = new ConcurrentHashMap<>();
-    private final Map<String, Object> removePacketsCache = new ConcurrentHashMap<>();
+    private final SegmentedLruCache<String, Object> addPacketsCache =
+      new SegmentedLruCache<>(MAX_MEMBER_PACKETS, MEMBER_PACKET_IDLE_MINUTES, TimeUnit.MINUTES);
+    private final SegmentedLruCache<String, Object> removePacketsCache =
+      new SegmentedLruCache<>(MAX_MEMBER_PACKETS, MEMBER_PACKET_IDLE_MINUTES, TimeUnit.MINUTES);
 
     // ###############################################################
     // --------------------- CONSTRUCTOR METHODS ---------------------
@@ -70,7 +100,7 @@ public final class TeamDataCache {
     // ###############################################################
 
     public @NotNull Object getAddEntityPacket(final @NotNull String entityIdentifier) {
-      return this.addPacketsCache.computeIfAbsent(entityIdentifier, id -> {
+      return this.addPacketsCache.get(entityIdentifier, id -> {
         try {
           return TeamPacketFactory.createAddEntitiesToTeamPacket(teamName, id);
         } catch (ReflectiveOperationException e) {
@@ -80,7 +110,7 @@ public final class TeamDataCache {
     }
 
     public @NotNull Object getRemoveEntityPacket(final @NotNull String entityIdentifier) {
-      return this.removePacketsCache.computeIfAbsent(entityIdentifier, id -> {
+      return this.removePacketsCache.get(entityIdentifier, id -> {
         try {
           return TeamPacketFactory.createRemoveEntitiesFromPacket(teamName, id);
         } catch (ReflectiveOperationException e) {
@@ -89,6 +119,36 @@ public final class TeamDataCache {
       });
     }
 
+    /**
+     * Builds one packet adding every given entity to the team. Not cached.
+     */
+    public @NotNull Object createAddEntitiesPacket(final @NotNull Collection<String> entityIdentifiers) throws ReflectiveOperationException {
+      return TeamPacketFactory.createAddEntitiesToTeamPacket(this.teamName, entityIdentifiers);
+    }
+
+    /**
+     * Builds one packet removing every given entity from the team. Not cached.
+     */
+    public @NotNull Object createRemoveEntitiesPacket(final @NotNull Collection<String> entityIdentifiers) throws ReflectiveOperationException {
+      return TeamPacketFactory.createRemoveEntitiesFromPacket(this.teamName, entityIdentifiers);
+    }
+
+    public long getPacketHits() {
+      return this.addPacketsCache.getHits() + this.removePacketsCache.getHits();
+    }
+
+    public long getPacketMisses() {
+      return this.addPacketsCache.getMisses() + this.removePacketsCache.getMisses();
+    }
+
+    public long getPacketEvictions() {
+      return this.addPacketsCache.getEvictions() + this.removePacketsCache.getEvictions();
+    }
+
+    public int getCachedPacketCount() {
+      return this.addPacketsCache.size() + this.removePacketsCache.size();
+    }
+
   }
 
 }
@@ -6,7 +6,9 @@ import org.bukkit.scoreboard.Team;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -52,6 +54,14 @@ public final class TeamPacketFactory {
     return PacketReflection.createTeamPacket(teamName, 3, Optional.empty(), Arrays.asList(entityIdentifiers));
   }
 
+  /**
+   * Create one packet adding many entities to a team
+   */
+  public static @NotNull Object createAddEntitiesToTeamPacket(final @NotNull String teamName, final @NotNull Collection<String> entityIdentifiers) throws ReflectiveOperationException {
+    // Mode 3 = ADD_ENTITIES
+    return PacketReflection.createTeamPacket(teamName, 3, Optional.empty(), List.copyOf(entityIdentifiers));
+  }
+
   /**
    * Create a packet to remove entities from a team
    */
@@ -60,6 +70,14 @@ public final class TeamPacketFactory {
     return PacketReflection.createTeamPacket(teamName, 4, Optional.empty(), Arrays.asList(entityIdentifiers));
   }
 
+  /**
+   * Create one packet removing many entities from a team
+   */
+  public static @NotNull Object createRemoveEntitiesFromPacket(final @NotNull String teamName, final @NotNull Collection<String> entityIdentifiers) throws ReflectiveOperationException {
+    // Mode 4 = REMOVE_ENTITIES
+    return PacketReflection.createTeamPacket(teamName, 4, Optional.empty(), List.copyOf(entityIdentifiers));
+  }
+
   // ###############################################################
   // -------------------- PRIVATE STATIC METHODS -------------------
   // ###############################################################
@@ -2,23 +2,57 @@ package fr.dreamin.dreamapi.api.hologram.animation;
 
 import fr.dreamin.dreamapi.api.hologram.event.HologramUpdateEvent;
 import fr.dreamin.dreamapi.api.hologram.model.Hologram;
+import fr.dreamin.dreamapi.api.hologram.model.config.HologramConfig;
 import lombok.RequiredArgsConstructor;
 import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Collection;
+import java.util.*;
 import java.util.function.Supplier;
 
+/**
+ * Ticks the holograms that can actually be seen.
+ * <p>
+ * Every {@link #REFRESH_TICKS} ticks, spawned holograms are indexed by world and chunk, and the
+ * chunk distance to the closest player able to see each of them is computed: any player for
+ * entity holograms, only their viewers for {@link HologramConfig.RenderMode#PACKET packet}
+ * ones, within the smaller of the player's and the server's view distance. Holograms in an
+ * unloaded chunk or without such a player are not ticked at all, the others are ticked every
+ * {@link #lodStride(int) stride} ticks, doubling with distance. A stride only delays what falls
+ * on the skipped ticks to the next ticked one: updates get coarser, never rarer than their interval.
+ * <p>
+ * Each hologram sees the engine tick shifted by a phase derived from its id, so holograms
+ * sharing an update interval hit their boundaries on different ticks. Main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
 @RequiredArgsConstructor
 public final class AnimationEngine {
 
+  /** Ticks between two rebuilds of the index. */
+  private static final int REFRESH_TICKS = 10;
+  /** Number of phases holograms are spread over. */
+  private static final int PHASE_BUCKETS = 20;
+  /** Chunk distance up to which holograms are ticked at full rate. */
+  private static final int FULL_RATE_CHUNKS = 2;
+  private static final int MAX_LOD_LEVEL = 3;
+
   private final @NotNull Plugin plugin;
   private final @NotNull Supplier<Collection<Hologram>> hologramSupplier;
   private BukkitTask task;
   private int currentTick = 0;
 
+  /** World to chunk key to the holograms in that chunk. */
+  private final Map<UUID, Map<Long, List<Hologram>>> index = new HashMap<>();
+  private final List<Active> active = new ArrayList<>();
+  /** Hologram id to the last tick it was ticked on, kept across refreshes while it stays active. */
+  private final Map<String, Long> lastTicks = new HashMap<>();
+
   // ###############################################################
   // ----------------------- PUBLIC METHODS ------------------------
   // ###############################################################
@@ -32,6 +66,22 @@ public final class AnimationEngine {
     if (this.task == null) return;
     this.task.cancel();
     this.task = null;
+    this.index.clear();
+    this.active.clear();
+    this.lastTicks.clear();
+  }
+
+  /**
+   * Whether a multiple of the interval was reached since the previous tick. Ticks skipped at a
+   * lower level of detail then only delay a run to the next tick, they never drop it.
+   *
+   * @param previous the tick of the previous call
+   * @param tick the current tick
+   * @param interval the interval in ticks
+   * @return true if the interval elapsed
+   */
+  public static boolean isDue(final long previous, final long tick, final int interval) {
+    return Math.floorDiv(tick, interval) != Math.floorDiv(previous, interval);
   }
 
   // ###############################################################
@@ -40,15 +90,121 @@ public final class AnimationEngine {
 
   private void tick() {
     final var tick = this.currentTick++;
-    for (final var hologram : this.hologramSupplier.get()) {
+    if (tick % REFRESH_TICKS == 0)
+      refresh();
+
+    for (final var entry : this.active) {
+      final var hologram = entry.hologram;
       if (!hologram.isSpawned()) continue;
 
-      hologram.tick(tick);
+      final var localTick = tick + entry.phase;
+      if (localTick % entry.stride != 0) continue;
 
-      if (tick % hologram.getConfig().getUpdateIntervalTicks() == 0)
-        new HologramUpdateEvent(hologram.getId(), hologram, tick).callEvent();
+      hologram.tick(localTick);
 
+      final var previous = this.lastTicks.put(hologram.getId(), (long) localTick);
+      if (isDue(previous != null ? previous : Long.MIN_VALUE, localTick, hologram.getConfig().getUpdateIntervalTicks()))
+        new HologramUpdateEvent(hologram.getId(), hologram, localTick).callEvent();
     }
   }
 
+  private void refresh() {
+    this.index.clear();
+    this.active.clear();
+
+    for (final var hologram : this.hologramSupplier.get()) {
+      final var location = hologram.getLocation();
+      if (!hologram.isSpawned() || location == null || location.getWorld() == null) continue;
+
+      this.index
+        .computeIfAbsent(location.getWorld().getUID(), k -> new HashMap<>())
+        .computeIfAbsent(chunkKey(location.getBlockX() >> 4, location.getBlockZ() >> 4), k -> new ArrayList<>())
+        .add(hologram);
+    }
+
+    final var serverViewDistance = Bukkit.getViewDistance();
+
+    for (final var worldEntry : this.index.entrySet()) {
+      final var world = Bukkit.getWorld(worldEntry.getKey());
+      if (world == null) continue;
+
+      final var players = world.getPlayers();
+      if (players.isEmpty()) continue;
+
+      for (final var chunkEntry : worldEntry.getValue().entrySet()) {
+        final var chunkX = (int) (chunkEntry.getKey() >> 32);
+        final var chunkZ = (int) (long) chunkEntry.getKey();
+        if (!world.isChunkLoaded(chunkX, chunkZ)) continue;
+
+        // Computed lazily, only entity holograms are seen by every player.
+        var anyDistance = -2;
+        for (final var hologram : chunkEntry.getValue()) {
+          final int distance;
+          if (hologram.getConfig().getRenderMode() == HologramConfig.RenderMode.PACKET)
+            distance = closestViewer(hologram, world, chunkX, chunkZ, serverViewDistance);
+          else {
+            if (anyDistance == -2)
+              anyDistance = closest(players, chunkX, chunkZ, serverViewDistance);
+            distance = anyDistance;
+          }
+
+          if (distance >= 0)
+            this.active.add(new Active(hologram, Math.floorMod(hologram.getId().hashCode(), PHASE_BUCKETS), lodStride(distance)));
+        }
+      }
+    }
+
+    final var activeIds = new HashSet<String>(this.active.size() * 2);
+    this.active.forEach(entry -> activeIds.add(entry.hologram.getId()));
+    this.lastTicks.keySet().retainAll(activeIds);
+  }
+
+  /** @return the chunk distance to the closest viewer in range, -1 if none */
+  private static int closestViewer(final @NotNull Hologram hologram, final @NotNull World world, final int chunkX, final int chunkZ, final int serverViewDistance) {
+    var closest = -1;
+    for (final var viewerId : hologram.getViewers()) {
+      final var player = Bukkit.getPlayer(viewerId);
+      if (player == null || player.getWorld() != world) continue;
+
+      final var distance = distance(player, chunkX, chunkZ, serverViewDistance);
+      if (distance >= 0 && (closest < 0 || distance < closest))
+        closest = distance;
+    }
+    return closest;
+  }
+
+  /** @return the chunk distance to the closest player in range, -1 if none */
+  private static int closest(final @NotNull List<Player> players, final int chunkX, final int chunkZ, final int serverViewDistance) {
+    var closest = -1;
+    for (final var player : players) {
+      final var distance = distance(player, chunkX, chunkZ, serverViewDistance);
+      if (distance >= 0 && (closest < 0 || distance < closest))
+        closest = distance;
+    }
+    return closest;
+  }
+
+  /** @return the chunk distance between a player and a chunk, -1 if beyond their view distance */
+  private static int distance(final @NotNull Player player, final int chunkX, final int chunkZ, final int serverViewDistance) {
+    final var location = player.getLocation();
+    final var distance = Math.max(Math.abs((location.getBlockX() >> 4) - chunkX), Math.abs((location.getBlockZ() >> 4) - chunkZ));
+    return distance <= Math.min(player.getViewDistance(), serverViewDistance) ? distance : -1;
+  }
+
+  /** 1 up to {@link #FULL_RATE_CHUNKS}, then doubled every two chunks, up to 8. */
+  private static int lodStride(final int distance) {
+    final var level = Math.min(MAX_LOD_LEVEL, Math.max(0, (distance - FULL_RATE_CHUNKS + 1) / 2));
+    return 1 << level;
+  }
+
+  private static long chunkKey(final int chunkX, final int chunkZ) {
+    return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private record Active(Hologram hologram, int phase, int stride) {}
+
 }
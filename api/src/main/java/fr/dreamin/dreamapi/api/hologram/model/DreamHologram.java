@@ -1,19 +1,22 @@
 package fr.dreamin.dreamapi.api.hologram.model;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import fr.dreamin.dreamapi.api.hologram.animation.AnimationEngine;
 import fr.dreamin.dreamapi.api.hologram.event.HologramCreateEvent;
 import fr.dreamin.dreamapi.api.hologram.event.HologramDeleteEvent;
 import fr.dreamin.dreamapi.api.hologram.model.config.HologramConfig;
 import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 @Getter
 public final class DreamHologram implements Hologram {
@@ -24,6 +27,15 @@ public final class DreamHologram implements Hologram {
   private final @NotNull List<HologramLine> lines;
   private boolean spawned = false;
 
+  @Getter(AccessLevel.NONE)
+  private final Set<UUID> viewers = new LinkedHashSet<>();
+  /** Set while spawned in packet mode. */
+  @Getter(AccessLevel.NONE)
+  private @Nullable PacketHologramRenderer packetRenderer;
+  /** Tick of the previous {@link #tick(long)}, the engine may skip ticks in between. */
+  @Getter(AccessLevel.NONE)
+  private long lastTick = Long.MIN_VALUE;
+
   // ###############################################################
   // --------------------- CONSTRUCTOR METHODS ---------------------
   // ###############################################################
@@ -53,6 +65,13 @@ public final class DreamHologram implements Hologram {
     if (!new HologramCreateEvent(this.id, this).callEvent())
       return;
 
+    if (this.config.getRenderMode() == HologramConfig.RenderMode.PACKET) {
+      this.packetRenderer = new PacketHologramRenderer(this);
+      this.packetRenderer.spawn(location, onlineViewers());
+      this.spawned = true;
+      return;
+    }
+
     double yOffset = 0;
 
     for (var i = this.lines.size() - 1; i >= 0; i--) {
@@ -69,7 +88,11 @@ public final class DreamHologram implements Hologram {
     if (!this.spawned) return;
     if (!new HologramDeleteEvent(this.id, this).callEvent())
       return;
-    this.lines.forEach(HologramLine::despawn);
+    if (this.packetRenderer != null) {
+      this.packetRenderer.despawn();
+      this.packetRenderer = null;
+    } else
+      this.lines.forEach(HologramLine::despawn);
     this.spawned = false;
   }
 
@@ -78,6 +101,11 @@ public final class DreamHologram implements Hologram {
     this.location = location;
     if (!this.spawned) return;
 
+    if (this.packetRenderer != null) {
+      this.packetRenderer.teleport(location);
+      return;
+    }
+
     double yOffset = 0;
     for (int i = this.lines.size() - 1; i >= 0; i--) {
       final var line = this.lines.get(i);
@@ -93,6 +121,36 @@ public final class DreamHologram implements Hologram {
     return this.spawned;
   }
 
+  @Override
+  public void show(final @NotNull Player... players) {
+    final List<Player> added = new ArrayList<>(players.length);
+    for (final var player : players) {
+      if (this.viewers.add(player.getUniqueId()))
+        added.add(player);
+    }
+
+    if (this.packetRenderer != null && !added.isEmpty())
+      this.packetRenderer.show(added.toArray(Player[]::new), onlineViewers());
+  }
+
+  @Override
+  public void hide(final @NotNull Player... players) {
+    final List<Player> removed = new ArrayList<>(players.length);
+    for (final var player : players) {
+      if (this.viewers.remove(player.getUniqueId()))
+        removed.add(player);
+    }
+
+    if (this.packetRenderer != null && !removed.isEmpty())
+      this.packetRenderer.hide(removed.toArray(Player[]::new), this.viewers.isEmpty());
+  }
+
+  @Override
+  @JsonIgnore
+  public @NotNull Set<UUID> getViewers() {
+    return Collections.unmodifiableSet(this.viewers);
+  }
+
   @Override
   public void addLine(final @NotNull HologramLine line) {
     this.lines.add(line);
@@ -103,15 +161,15 @@ public final class DreamHologram implements Hologram {
     this.lines.stream()
       .filter(l -> l.getId().equals(lineId))
       .findFirst()
-      .ifPresent(l -> {
-        l.despawn();
-        this.lines.remove(l);
-      });
+      .ifPresent(this::removeLine);
   }
 
   @Override
   public void removeLine(@NotNull HologramLine line) {
-    line.despawn();
+    if (this.packetRenderer != null)
+      this.packetRenderer.removeLine(line);
+    else
+      line.despawn();
     this.lines.remove(line);
   }
 
@@ -128,19 +186,56 @@ public final class DreamHologram implements Hologram {
   @Override
   public void tick(final long tick) {
     if (!this.spawned) return;
+
+    final var previous = this.lastTick;
+    this.lastTick = tick;
+
+    if (this.packetRenderer != null) {
+      Player[] viewers = null;
+      for (final var line : this.lines) {
+        final var anim = line.getAnimation() != null
+          ? line.getAnimation()
+          : this.config.getAnimation();
+
+        final var update = AnimationEngine.isDue(previous, tick, line.getConfig().resolveInterval(this.config.getUpdateIntervalTicks()));
+        final var animate = anim != null && AnimationEngine.isDue(previous, tick, anim.getIntervalTicks());
+        if (!update && !animate) continue;
+
+        if (viewers == null) viewers = onlineViewers();
+        if (update)
+          this.packetRenderer.update(line, viewers);
+        if (animate)
+          this.packetRenderer.animate(line, anim, tick, viewers);
+      }
+      return;
+    }
+
     for (final var line : this.lines) {
       final int interval = line.getConfig().resolveInterval(this.config.getUpdateIntervalTicks());
 
-      if (tick % interval == 0)
-        line.update();
+      if (AnimationEngine.isDue(previous, tick, interval))
+        line.updateIfDirty();
 
       final var anim = line.getAnimation() != null
         ? line.getAnimation()
         : this.config.getAnimation();
 
-      if (anim != null && tick % anim.getIntervalTicks() == 0)
+      if (anim != null && AnimationEngine.isDue(previous, tick, anim.getIntervalTicks()))
         line.applyAnimation(anim, tick);
     }
   }
 
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @NotNull Player[] onlineViewers() {
+    final List<Player> online = new ArrayList<>(this.viewers.size());
+    for (final var viewerId : this.viewers) {
+      final var player = Bukkit.getPlayer(viewerId);
+      if (player != null) online.add(player);
+    }
+    return online.toArray(Player[]::new);
+  }
+
 }
@@ -3,11 +3,14 @@ package fr.dreamin.dreamapi.api.hologram.model;
 import fr.dreamin.dreamapi.api.hologram.model.config.HologramConfig;
 import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
 import org.bukkit.Location;
+import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 
 public interface Hologram {
 
@@ -38,10 +41,25 @@ public interface Hologram {
   void insertLine(final int index, final @NotNull HologramLine line);
   @NotNull Optional<HologramLine> getLine(final @NotNull String lineId);
 
+  // ###############################################################
+  // --------------------------- VIEWERS ---------------------------
+  // ###############################################################
+
+  /** Packet mode only: lets players see this hologram while it is within their view distance. */
+  void show(final @NotNull Player... players);
+  void hide(final @NotNull Player... players);
+  @NotNull Set<UUID> getViewers();
+
   // ###############################################################
   // --------------------------- UPDATE ----------------------------
   // ###############################################################
 
+  /**
+   * Runs the updates and animations due at this tick. The engine may skip ticks at a lower
+   * level of detail; what fell due in between runs on the next call.
+   *
+   * @param tick the hologram's tick
+   */
   void tick(final long tick);
 
 }
@@ -0,0 +1,496 @@
+package fr.dreamin.dreamapi.api.hologram.model;
+
+import fr.dreamin.dreamapi.api.DreamAPI;
+import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
+import fr.dreamin.dreamapi.api.hologram.model.animation.impl.TextFrameAnimation;
+import fr.dreamin.dreamapi.api.hologram.model.config.HologramConfig;
+import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
+import fr.dreamin.dreamapi.api.hologram.model.line.impl.BlockHologramLine;
+import fr.dreamin.dreamapi.api.hologram.model.line.impl.CompositeHologramLine;
+import fr.dreamin.dreamapi.api.hologram.model.line.impl.ItemHologramLine;
+import fr.dreamin.dreamapi.api.hologram.model.line.impl.TextHologramLine;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntity;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
+import fr.dreamin.dreamapi.api.nms.visual.service.VisualService;
+import net.kyori.adventure.text.Component;
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
+import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.util.*;
+import java.util.logging.Level;
+
+/**
+ * Renders a hologram in {@link HologramConfig.RenderMode#PACKET packet mode}.
+ * <p>
+ * Each text, item or block line is a fake display entity of the {@link VisualService}, so it
+ * only exists on the clients of the hologram's viewers within view distance. Content is only
+ * re-sent when it changed since the last send, text lines with a viewer text get one
+ * component per viewer, and teleports move the entities instead of respawning them.
+ * Animations are sent to the viewers as metadata frames, which the tracker also replays to
+ * viewers coming in range; each frame only carries the scale, rotation, background and text
+ * that differ from the part's previous frame.
+ * <p>
+ * Entities only exist while the hologram has viewers. Main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class PacketHologramRenderer {
+
+  private final @NotNull DreamHologram hologram;
+  private final @NotNull VisualService visualService = DreamAPI.getAPI().getService(VisualService.class);
+
+  private final List<Part> parts = new ArrayList<>();
+  private @Nullable Location location;
+
+  PacketHologramRenderer(final @NotNull DreamHologram hologram) {
+    this.hologram = hologram;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /** Lays the lines out from the bottom up, like entity holograms. */
+  void spawn(final @NotNull Location location, final @NotNull Player[] viewers) {
+    this.location = location.clone();
+    this.parts.clear();
+
+    final var lines = this.hologram.getLines();
+    var yOffset = 0d;
+    for (var i = lines.size() - 1; i >= 0; i--) {
+      final var line = lines.get(i);
+      layout(line, line, 0, yOffset, 0);
+      yOffset += line.getConfig().getHeight() + this.hologram.getConfig().getLineSpacing();
+    }
+
+    if (viewers.length > 0)
+      spawnEntities(viewers);
+  }
+
+  void despawn() {
+    for (final var part : this.parts)
+      removeEntity(part);
+    this.parts.clear();
+    this.location = null;
+  }
+
+  void teleport(final @NotNull Location location) {
+    this.location = location.clone();
+
+    for (final var part : this.parts) {
+      if (part.entity != null)
+        this.visualService.moveFakeEntity(part.entity, part.locate(location));
+    }
+  }
+
+  /**
+   * @param added players that just became viewers
+   * @param viewers all online viewers, {@code added} included
+   */
+  void show(final @NotNull Player[] added, final @NotNull Player[] viewers) {
+    if (this.location == null || added.length == 0) return;
+
+    if (this.parts.stream().noneMatch(part -> part.entity != null)) {
+      spawnEntities(viewers);
+      return;
+    }
+
+    for (final var part : this.parts) {
+      if (part.entity == null) continue;
+      this.visualService.showFakeEntity(part.entity, added);
+
+      // The entity spawns with what the tracker holds; the added viewers get what was last sent
+      sendCurrentState(part, added);
+
+      if (part.line instanceof TextHologramLine text && text.getViewerText() != null) {
+        for (final var viewer : added)
+          sendViewerText(part, text, viewer);
+      }
+    }
+  }
+
+  /**
+   * @param removed players that just stopped being viewers
+   * @param empty whether the hologram has no viewer left
+   */
+  void hide(final @NotNull Player[] removed, final boolean empty) {
+    for (final var part : this.parts) {
+      if (part.entity == null) continue;
+
+      if (empty) {
+        removeEntity(part);
+        continue;
+      }
+
+      try {
+        this.visualService.removeFakeEntity(part.entity, removed);
+      } catch (ReflectiveOperationException e) {
+        fail(e);
+      }
+
+      for (final var viewer : removed)
+        part.viewerTexts.remove(viewer.getUniqueId());
+    }
+  }
+
+  /** Sends what changed in a line since it was last sent. */
+  void update(final @NotNull HologramLine line, final @NotNull Player[] viewers) {
+    for (final var part : this.parts) {
+      if (part.owner != line || part.entity == null) continue;
+
+      try {
+        if (part.line instanceof TextHologramLine text && text.getViewerText() != null) {
+          for (final var viewer : viewers)
+            sendViewerText(part, text, viewer);
+          continue;
+        }
+
+        final var content = contentOf(part.line);
+        if (Objects.equals(content, part.content)) continue;
+
+        part.content = snapshot(content);
+        part.animatedText = null;
+        this.visualService.updateFakeEntity(part.entity, metadata -> applyContent(metadata, content), viewers);
+      } catch (ReflectiveOperationException e) {
+        fail(e);
+      }
+    }
+  }
+
+  /** Sends the frame of {@code tick} of an animation to the entities of a line. */
+  void animate(final @NotNull HologramLine line, final @NotNull HologramAnimation animation, final long tick, final @NotNull Player[] viewers) {
+    for (final var part : this.parts) {
+      if (part.owner != line || part.entity == null) continue;
+      // The viewer text owns the text of its line
+      if (animation instanceof TextFrameAnimation && part.line instanceof TextHologramLine text && text.getViewerText() != null) continue;
+
+      final var frame = new AnimationFrame();
+      animation.apply(frame, part.entity.getType(), tick);
+
+      final var scale = frame.scale != null && !frame.scale.equals(part.scale) ? frame.scale : null;
+      final var rotation = frame.leftRotation != null && !frame.leftRotation.equals(part.leftRotation) ? frame.leftRotation : null;
+      final var background = frame.background != null && !frame.background.equals(part.background) ? frame.background : null;
+      final var text = frame.text != null && !frame.text.equals(part.animatedText) ? frame.text : null;
+      if (scale == null && rotation == null && background == null && text == null) continue;
+
+      if (scale != null) part.scale = scale;
+      if (rotation != null) part.leftRotation = rotation;
+      if (background != null) part.background = background;
+      if (text != null) part.animatedText = text;
+
+      try {
+        this.visualService.updateFakeEntity(part.entity, metadata -> {
+          if (scale != null) metadata.setScale(scale);
+          if (rotation != null) metadata.setLeftRotation(rotation);
+          if ((scale != null || rotation != null) && frame.interpolationDuration >= 0)
+            metadata.setInterpolation(frame.interpolationDelay, frame.interpolationDuration);
+          if (background != null) metadata.setBackgroundColor(background);
+          if (text != null) metadata.setText(text);
+        }, viewers);
+      } catch (ReflectiveOperationException e) {
+        fail(e);
+      }
+    }
+  }
+
+  void removeLine(final @NotNull HologramLine line) {
+    final var iterator = this.parts.iterator();
+    while (iterator.hasNext()) {
+      final var part = iterator.next();
+      if (part.owner != line) continue;
+
+      removeEntity(part);
+      iterator.remove();
+    }
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void layout(final @NotNull HologramLine owner, final @NotNull HologramLine line, final double x, final double y, final double z) {
+    final var config = line.getConfig();
+    final var offsetX = x + config.getOffsetX();
+    final var offsetY = y + config.getOffsetY();
+    final var offsetZ = z + config.getOffsetZ();
+
+    if (line instanceof CompositeHologramLine composite) {
+      for (final var element : composite.getElements())
+        layout(owner, element.getLine(), offsetX, offsetY, offsetZ);
+      return;
+    }
+
+    if (entityTypeOf(line) != null)
+      this.parts.add(new Part(owner, line, offsetX, offsetY, offsetZ));
+  }
+
+  private void spawnEntities(final @NotNull Player[] viewers) {
+    if (this.location == null) return;
+
+    final var config = this.hologram.getConfig();
+
+    for (final var part : this.parts) {
+      final var type = entityTypeOf(part.line);
+      if (type == null || part.entity != null) continue;
+
+      try {
+        final var entity = this.visualService.spawnFakeEntity(type, part.locate(this.location), viewers);
+        part.entity = entity;
+        part.content = snapshot(contentOf(part.line));
+        part.viewerTexts.clear();
+        part.resetAnimation();
+
+        final var content = part.content;
+        this.visualService.updateFakeEntity(entity, metadata -> {
+          metadata.setBillboard(config.getBillboard());
+          metadata.setTeleportDuration(config.getTeleportDurationTicks());
+          if (part.line instanceof TextHologramLine)
+            metadata.setTextStyle(false, config.isSeeThrough(), TextDisplay.TextAlignment.CENTER);
+          applyContent(metadata, content);
+        }, viewers);
+
+        if (part.line instanceof TextHologramLine text && text.getViewerText() != null) {
+          for (final var viewer : viewers)
+            sendViewerText(part, text, viewer);
+        }
+      } catch (ReflectiveOperationException e) {
+        fail(e);
+      }
+    }
+  }
+
+  /** Sends the shared content and the animated fields last sent for a part. */
+  private void sendCurrentState(final @NotNull Part part, final @NotNull Player[] viewers) {
+    if (part.entity == null) return;
+
+    final var content = part.content;
+    try {
+      this.visualService.updateFakeEntity(part.entity, metadata -> {
+        applyContent(metadata, content);
+        if (part.scale != null) metadata.setScale(part.scale);
+        if (part.leftRotation != null) metadata.setLeftRotation(part.leftRotation);
+        if (part.background != null) metadata.setBackgroundColor(part.background);
+        if (part.animatedText != null) metadata.setText(part.animatedText);
+      }, viewers);
+    } catch (ReflectiveOperationException e) {
+      fail(e);
+    }
+  }
+
+  private void sendViewerText(final @NotNull Part part, final @NotNull TextHologramLine line, final @NotNull Player viewer) {
+    final var resolver = line.getViewerText();
+    if (part.entity == null || resolver == null) return;
+
+    final var text = resolver.apply(viewer);
+    if (text.equals(part.viewerTexts.put(viewer.getUniqueId(), text))) return;
+
+    try {
+      this.visualService.updateFakeEntity(part.entity, metadata -> metadata.setText(text), viewer);
+    } catch (ReflectiveOperationException e) {
+      fail(e);
+    }
+  }
+
+  private void removeEntity(final @NotNull Part part) {
+    if (part.entity == null) return;
+    this.visualService.removeFakeEntity(part.entity);
+    part.entity = null;
+    part.content = null;
+    part.viewerTexts.clear();
+    part.resetAnimation();
+  }
+
+  private void fail(final @NotNull ReflectiveOperationException e) {
+    DreamAPI.getAPI().getLogger().log(Level.WARNING, "Failed to render hologram " + this.hologram.getId(), e);
+  }
+
+  private static @Nullable EntityType entityTypeOf(final @NotNull HologramLine line) {
+    if (line instanceof TextHologramLine) return EntityType.TEXT_DISPLAY;
+    if (line instanceof ItemHologramLine) return EntityType.ITEM_DISPLAY;
+    if (line instanceof BlockHologramLine) return EntityType.BLOCK_DISPLAY;
+    return null;
+  }
+
+  /** Shared content of a line: a component, an item or block data, as held by the line. */
+  private static @Nullable Object contentOf(final @NotNull HologramLine line) {
+    if (line instanceof TextHologramLine text)
+      return text.getViewerText() != null ? null : text.getComponent();
+    if (line instanceof ItemHologramLine item) return item.getItem();
+    if (line instanceof BlockHologramLine block) return block.getBlockData();
+    return null;
+  }
+
+  /** Items are mutable, the content kept for the next diff must not follow the line's. */
+  private static @Nullable Object snapshot(final @Nullable Object content) {
+    return content instanceof ItemStack item ? item.clone() : content;
+  }
+
+  private static void applyContent(final @NotNull FakeEntityMetadata metadata, final @Nullable Object content) {
+    if (content instanceof Component text) metadata.setText(text);
+    else if (content instanceof ItemStack item) metadata.setItem(item);
+    else if (content instanceof BlockData block) metadata.setBlock(block);
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class Part {
+
+    /** Top-level line of the hologram this part belongs to. */
+    private final HologramLine owner;
+    private final HologramLine line;
+    private final double offsetX;
+    private final double offsetY;
+    private final double offsetZ;
+
+    private @Nullable FakeEntity entity;
+    /** Shared content last sent, see {@link #contentOf(HologramLine)}. */
+    private @Nullable Object content;
+    private final Map<UUID, Component> viewerTexts = new HashMap<>();
+
+    /** Animated fields last sent, see {@link #animate(HologramLine, HologramAnimation, long, Player[])}. */
+    private @Nullable Vector3f scale;
+    private @Nullable Quaternionf leftRotation;
+    private @Nullable Color background;
+    private @Nullable Component animatedText;
+
+    private Part(final @NotNull HologramLine owner, final @NotNull HologramLine line, final double offsetX, final double offsetY, final double offsetZ) {
+      this.owner = owner;
+      this.line = line;
+      this.offsetX = offsetX;
+      this.offsetY = offsetY;
+      this.offsetZ = offsetZ;
+    }
+
+    private @NotNull Location locate(final @NotNull Location location) {
+      return location.clone().add(this.offsetX, this.offsetY, this.offsetZ);
+    }
+
+    private void resetAnimation() {
+      this.scale = null;
+      this.leftRotation = null;
+      this.background = null;
+      this.animatedText = null;
+    }
+
+  }
+
+  /** Records the fields an animation writes for one frame, so they can be diffed before sending. */
+  private static final class AnimationFrame implements FakeEntityMetadata {
+
+    private @Nullable Vector3f scale;
+    private @Nullable Quaternionf leftRotation;
+    private int interpolationDelay;
+    private int interpolationDuration = -1;
+    private @Nullable Color background;
+    private @Nullable Component text;
+
+    @Override
+    public void setScale(@NotNull Vector3f scale) {
+      this.scale = new Vector3f(scale);
+    }
+
+    @Override
+    public void setLeftRotation(@NotNull Quaternionf rotation) {
+      this.leftRotation = new Quaternionf(rotation);
+    }
+
+    @Override
+    public void setInterpolation(int delayTicks, int durationTicks) {
+      this.interpolationDelay = delayTicks;
+      this.interpolationDuration = durationTicks;
+    }
+
+    @Override
+    public void setBackgroundColor(@NotNull Color color) {
+      this.background = color;
+    }
+
+    @Override
+    public void setText(@NotNull Component text) {
+      this.text = text;
+    }
+
+    @Override
+    public void setCustomName(@Nullable Component name) {
+    }
+
+    @Override
+    public void setCustomNameVisible(boolean visible) {
+    }
+
+    @Override
+    public void setGlowing(boolean glowing) {
+    }
+
+    @Override
+    public void setInvisible(boolean invisible) {
+    }
+
+    @Override
+    public void setNoGravity(boolean noGravity) {
+    }
+
+    @Override
+    public void setSilent(boolean silent) {
+    }
+
+    @Override
+    public void setHelmet(@Nullable ItemStack item) {
+    }
+
+    @Override
+    public void setChestplate(@Nullable ItemStack item) {
+    }
+
+    @Override
+    public void setLeggings(@Nullable ItemStack item) {
+    }
+
+    @Override
+    public void setBoots(@Nullable ItemStack item) {
+    }
+
+    @Override
+    public void setMainHand(@Nullable ItemStack item) {
+    }
+
+    @Override
+    public void setOffHand(@Nullable ItemStack item) {
+    }
+
+    @Override
+    public void setBillboard(@NotNull Display.Billboard billboard) {
+    }
+
+    @Override
+    public void setTeleportDuration(int ticks) {
+    }
+
+    @Override
+    public void setTextStyle(boolean shadowed, boolean seeThrough, @NotNull TextDisplay.TextAlignment alignment) {
+    }
+
+    @Override
+    public void setItem(@NotNull ItemStack item) {
+    }
+
+    @Override
+    public void setBlock(@NotNull BlockData block) {
+    }
+
+  }
+
+}
@@ -6,7 +6,9 @@ import fr.dreamin.dreamapi.api.hologram.model.animation.impl.ColorCycleAnimation
 import fr.dreamin.dreamapi.api.hologram.model.animation.impl.PulseAnimation;
 import fr.dreamin.dreamapi.api.hologram.model.animation.impl.RotateAnimation;
 import fr.dreamin.dreamapi.api.hologram.model.animation.impl.TextFrameAnimation;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
 import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
 import org.jetbrains.annotations.NotNull;
 
 @JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
@@ -24,4 +26,12 @@ public interface HologramAnimation {
 
   void apply(final @NotNull Display entity, final long tick);
 
+  /**
+   * Packet mode counterpart of {@link #apply(Display, long)}: writes the frame of {@code tick}
+   * into the metadata sent to the viewers of a fake display entity of the given type.
+   * Does nothing by default: the animation then does not play in packet mode.
+   */
+  default void apply(final @NotNull FakeEntityMetadata metadata, final @NotNull EntityType type, final long tick) {
+  }
+
 }
@@ -1,13 +1,18 @@
 package fr.dreamin.dreamapi.api.hologram.model.animation.impl;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.jackson.Jacksonized;
 import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.TextDisplay;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.awt.*;
 
@@ -32,6 +37,11 @@ public final class ColorCycleAnimation implements HologramAnimation {
   @Builder.Default
   private final int intervalTicks = 1;
 
+  /** Colour of the last applied tick, shared by every entity animated on that tick. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private final Frame frame = new Frame();
+
   // ###############################################################
   // -------------------------- METHODS ----------------------------
   // ###############################################################
@@ -44,11 +54,46 @@ public final class ColorCycleAnimation implements HologramAnimation {
   @Override
   public void apply(@NotNull Display entity, long tick) {
     if (!(entity instanceof TextDisplay textDisplay)) return;
-    final var hue = (tick * this.speed) % 1.0f;
-    final var rgb = Color.HSBtoRGB(hue, this.saturation, this.brightness);
-    final var awtColor = new Color(rgb);
-    textDisplay.setBackgroundColor(
-      org.bukkit.Color.fromRGB(awtColor.getRed(), awtColor.getGreen(), awtColor.getBlue())
-    );
+
+    final var color = color(tick);
+    if (!color.equals(textDisplay.getBackgroundColor()))
+      textDisplay.setBackgroundColor(color);
+  }
+
+  @Override
+  public void apply(@NotNull FakeEntityMetadata metadata, @NotNull EntityType type, long tick) {
+    if (type == EntityType.TEXT_DISPLAY)
+      metadata.setBackgroundColor(color(tick));
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @NotNull org.bukkit.Color color(final long tick) {
+    final var frame = this.frame;
+    if (frame.color == null || frame.tick != tick) {
+      frame.tick = tick;
+      final var hue = (tick * this.speed) % 1.0f;
+      final var rgb = Color.HSBtoRGB(hue, this.saturation, this.brightness) & 0xFFFFFF;
+      if (frame.color == null || frame.rgb != rgb) {
+        frame.rgb = rgb;
+        frame.color = org.bukkit.Color.fromRGB(rgb);
+      }
+    }
+    return frame.color;
   }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class Frame {
+
+    private long tick;
+    private int rgb;
+    private @Nullable org.bukkit.Color color;
+
+  }
+
 }
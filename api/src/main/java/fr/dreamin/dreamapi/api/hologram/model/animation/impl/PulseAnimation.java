@@ -2,11 +2,14 @@ package fr.dreamin.dreamapi.api.hologram.model.animation.impl;
 
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.jackson.Jacksonized;
 import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
 import org.jetbrains.annotations.NotNull;
+import org.joml.Vector3f;
 
 @Getter
 @Builder
@@ -40,12 +43,30 @@ public final class PulseAnimation implements HologramAnimation {
 
   @Override
   public void apply(final @NotNull Display entity, final long tick) {
-    final var scale = this.baseScale + this.amplitude * (float) Math.sin(tick * this.speed);
+    final var scale = scale(tick);
     final var transform = entity.getTransformation();
-    transform.getScale().set(scale, scale, scale);
+    final var current = transform.getScale();
+    if (current.x == scale && current.y == scale && current.z == scale) return;
+
+    current.set(scale, scale, scale);
     entity.setTransformation(transform);
     entity.setInterpolationDelay(0);
     entity.setInterpolationDuration(this.intervalTicks);
   }
 
+  @Override
+  public void apply(final @NotNull FakeEntityMetadata metadata, final @NotNull EntityType type, final long tick) {
+    final var scale = scale(tick);
+    metadata.setScale(new Vector3f(scale, scale, scale));
+    metadata.setInterpolation(0, this.intervalTicks);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private float scale(final long tick) {
+    return this.baseScale + this.amplitude * (float) Math.sin(tick * this.speed);
+  }
+
 }
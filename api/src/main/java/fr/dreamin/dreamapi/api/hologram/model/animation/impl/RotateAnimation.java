@@ -1,13 +1,17 @@
 package fr.dreamin.dreamapi.api.hologram.model.animation.impl;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.extern.jackson.Jacksonized;
 import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
 import org.jetbrains.annotations.NotNull;
-import org.joml.AxisAngle4f;
+import org.joml.Quaternionf;
 
 @Getter
 @Builder
@@ -29,6 +33,11 @@ public final class RotateAnimation implements HologramAnimation {
   @Builder.Default
   private final int intervalTicks = 1;
 
+  /** Rotation of the last applied tick, shared by every entity animated on that tick. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private final Frame frame = new Frame();
+
   // ###############################################################
   // -------------------------- METHODS ----------------------------
   // ###############################################################
@@ -40,15 +49,52 @@ public final class RotateAnimation implements HologramAnimation {
 
   @Override
   public void apply(@NotNull Display entity, long tick) {
-    final var angle = (tick * this.speed) % (float) (2* Math.PI);
+    final var rotation = rotation(tick);
+
     final var transform = entity.getTransformation();
-    final var ax = this.axis == Axis.X ? 1f : 0f;
-    final var ay = this.axis == Axis.Y ? 1f : 0f;
-    final var az = this.axis == Axis.Z ? 1f : 0f;
+    if (transform.getLeftRotation().equals(rotation)) return;
 
-    transform.getLeftRotation().set(new AxisAngle4f(angle, ax, ay, az));
+    transform.getLeftRotation().set(rotation);
     entity.setTransformation(transform);
     entity.setInterpolationDelay(0);
     entity.setInterpolationDuration(this.intervalTicks);
   }
+
+  @Override
+  public void apply(@NotNull FakeEntityMetadata metadata, @NotNull EntityType type, long tick) {
+    metadata.setLeftRotation(rotation(tick));
+    metadata.setInterpolation(0, this.intervalTicks);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @NotNull Quaternionf rotation(final long tick) {
+    final var frame = this.frame;
+    if (!frame.computed || frame.tick != tick) {
+      final var angle = (tick * this.speed) % (float) (2* Math.PI);
+      final var ax = this.axis == Axis.X ? 1f : 0f;
+      final var ay = this.axis == Axis.Y ? 1f : 0f;
+      final var az = this.axis == Axis.Z ? 1f : 0f;
+
+      frame.rotation.setAngleAxis(angle, ax, ay, az);
+      frame.tick = tick;
+      frame.computed = true;
+    }
+    return frame.rotation;
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class Frame {
+
+    private final Quaternionf rotation = new Quaternionf();
+    private long tick;
+    private boolean computed;
+
+  }
+
 }
@@ -1,8 +1,11 @@
 package fr.dreamin.dreamapi.api.hologram.model.animation.impl;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.DreamAPI;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Singular;
@@ -10,8 +13,10 @@ import lombok.extern.jackson.Jacksonized;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import org.bukkit.entity.Display;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.TextDisplay;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
 
@@ -30,6 +35,11 @@ public final class TextFrameAnimation implements HologramAnimation {
   @Builder.Default
   private final int intervalTicks = 20;
 
+  /** {@link #frames} deserialized once, on first use. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private final Frames rendered = new Frames();
+
   @Override
   public int getIntervalTicks() {
     return this.intervalTicks;
@@ -38,9 +48,42 @@ public final class TextFrameAnimation implements HologramAnimation {
   @Override
   public void apply(final @NotNull Display entity, final long tick) {
     if (!(entity instanceof TextDisplay textDisplay) || this.frames.isEmpty()) return;
+    textDisplay.text(frame(tick));
+  }
+
+  @Override
+  public void apply(final @NotNull FakeEntityMetadata metadata, final @NotNull EntityType type, final long tick) {
+    if (type != EntityType.TEXT_DISPLAY || this.frames.isEmpty()) return;
+    metadata.setText(frame(tick));
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @NotNull Component frame(final long tick) {
     final int index = (int) ((tick / this.intervalTicks) % this.frames.size());
-    final String raw = this.frames.get(index);
-    final Component component = DreamAPI.LEGACY_COMPONENT_SERIALIZER.deserialize(raw);
-    textDisplay.text(component);
+    return render()[index];
   }
+
+  private @NotNull Component[] render() {
+    if (this.rendered.components == null) {
+      final var components = new Component[this.frames.size()];
+      for (var i = 0; i < components.length; i++)
+        components[i] = DreamAPI.LEGACY_COMPONENT_SERIALIZER.deserialize(this.frames.get(i));
+      this.rendered.components = components;
+    }
+    return this.rendered.components;
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class Frames {
+
+    private @Nullable Component[] components;
+
+  }
+
 }
\ No newline at end of file
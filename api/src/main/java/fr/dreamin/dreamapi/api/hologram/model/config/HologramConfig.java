@@ -38,4 +38,18 @@ public final class HologramConfig {
   @Builder.Default
   private final boolean persistent = false;
 
+  @Builder.Default
+  private final RenderMode renderMode = RenderMode.ENTITY;
+
+  /** Packet mode: ticks the client smooths a teleport over, 0 to jump. */
+  @Builder.Default
+  private final int teleportDurationTicks = 0;
+
+  public enum RenderMode {
+    /** Real display entities, seen by everyone. */
+    ENTITY,
+    /** Client-side display entities, only sent to the hologram's viewers within view distance. */
+    PACKET
+  }
+
 }
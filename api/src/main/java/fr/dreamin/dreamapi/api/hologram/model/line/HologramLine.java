@@ -33,7 +33,15 @@ public interface HologramLine {
 
   void spawn(final @NotNull Location location);
   void despawn();
+  /** Pushes the content of the line to its entities, changed or not. */
   void update();
+  /**
+   * Tick loop counterpart of {@link #update()}: only pushes content changed since the last push.
+   * Lines that do not track changes push on every call.
+   */
+  default void updateIfDirty() {
+    update();
+  }
   void applyAnimation(final @NotNull HologramAnimation animation, final long tick);
 
   boolean isSpawned();
@@ -1,11 +1,13 @@
 package fr.dreamin.dreamapi.api.hologram.model.line.impl;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
 import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
 import fr.dreamin.dreamapi.api.hologram.model.line.LineConfig;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Location;
 import org.bukkit.block.data.BlockData;
@@ -28,6 +30,11 @@ public final class BlockHologramLine implements HologramLine {
 
   private final List<Display> entities = new ArrayList<>();
 
+  /** Whether the block data changed since it was last pushed to the entities. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private boolean dirty;
+
   // ###############################################################
   // --------------------- CONSTRUCTOR METHODS ---------------------
   // ###############################################################
@@ -64,6 +71,7 @@ public final class BlockHologramLine implements HologramLine {
       d.setShadowStrength(1.0f);
     });
     this.entities.add(display);
+    this.dirty = false;
   }
 
   @Override
@@ -75,12 +83,18 @@ public final class BlockHologramLine implements HologramLine {
   @Override
   public void update() {
     if (!isSpawned()) return;
+    this.dirty = false;
     for (final var display : this.entities) {
       if (display instanceof BlockDisplay blockDisplay)
         blockDisplay.setBlock(this.blockData);
     }
   }
 
+  @Override
+  public void updateIfDirty() {
+    if (this.dirty) update();
+  }
+
   @Override
   public void applyAnimation(@NotNull HologramAnimation animation, long tick) {
     if (!isSpawned()) return;
@@ -98,6 +112,7 @@ public final class BlockHologramLine implements HologramLine {
 
   public void setBlockData(final @NotNull BlockData blockData) {
     this.blockData = blockData;
+    this.dirty = true;
   }
 
 }
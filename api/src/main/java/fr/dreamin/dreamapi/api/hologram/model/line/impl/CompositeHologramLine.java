@@ -74,6 +74,11 @@ public final class CompositeHologramLine implements HologramLine {
     this.elements.forEach(e -> e.getLine().update());
   }
 
+  @Override
+  public void updateIfDirty() {
+    this.elements.forEach(e -> e.getLine().updateIfDirty());
+  }
+
   @Override
   public void applyAnimation(@NotNull HologramAnimation animation, long tick) {
     for (final var element : this.elements) {
@@ -1,11 +1,13 @@
 package fr.dreamin.dreamapi.api.hologram.model.line.impl;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
 import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
 import fr.dreamin.dreamapi.api.hologram.model.line.LineConfig;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.bukkit.Location;
 import org.bukkit.entity.Display;
@@ -28,6 +30,11 @@ public final class ItemHologramLine implements HologramLine {
 
   private final List<Display> entities = new ArrayList<>();
 
+  /** Whether the item changed since it was last pushed to the entities. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private boolean dirty;
+
   // ###############################################################
   // --------------------- CONSTRUCTOR METHODS ---------------------
   // ###############################################################
@@ -65,6 +72,7 @@ public final class ItemHologramLine implements HologramLine {
       d.setShadowStrength(1.0f);
     });
     this.entities.add(display);
+    this.dirty = false;
   }
 
   @Override
@@ -76,12 +84,18 @@ public final class ItemHologramLine implements HologramLine {
   @Override
   public void update() {
     if (!isSpawned()) return;
+    this.dirty = false;
     for (final Display display : this.entities) {
       if (display instanceof ItemDisplay itemDisplay)
         itemDisplay.setItemStack(this.item);
     }
   }
 
+  @Override
+  public void updateIfDirty() {
+    if (this.dirty) update();
+  }
+
   @Override
   public void applyAnimation(@NotNull HologramAnimation animation, long tick) {
     if (!isSpawned()) return;
@@ -97,8 +111,10 @@ public final class ItemHologramLine implements HologramLine {
   // ----------------------- PUBLIC METHODS ------------------------
   // ###############################################################
 
+  /** Pushed on the next tick update. An item changed in place has to be set again, or pushed through {@link #update()}. */
   public void setItem(final @NotNull ItemStack item) {
     this.item = item;
+    this.dirty = true;
   }
 
 }
@@ -1,22 +1,26 @@
 package fr.dreamin.dreamapi.api.hologram.model.line.impl;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.annotation.JsonTypeName;
 import fr.dreamin.dreamapi.api.hologram.model.animation.HologramAnimation;
 import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
 import fr.dreamin.dreamapi.api.hologram.model.line.LineConfig;
+import lombok.AccessLevel;
 import lombok.Getter;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.minimessage.MiniMessage;
 import org.bukkit.Location;
 import org.bukkit.entity.Display;
+import org.bukkit.entity.Player;
 import org.bukkit.entity.TextDisplay;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 @Getter
 @JsonTypeName("TEXT")
@@ -28,6 +32,19 @@ public final class TextHologramLine implements HologramLine {
 
   private @NotNull String text;
 
+  /** Packet mode: renders the text of each viewer, e.g. translated or personalised. */
+  @JsonIgnore
+  private @Nullable Function<Player, Component> viewerText;
+
+  /** {@link #text} parsed once, until it changes. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private @Nullable Component component;
+  /** Whether the text changed since it was last pushed to the entities. */
+  @JsonIgnore
+  @Getter(AccessLevel.NONE)
+  private boolean dirty;
+
   private final List<Display> entities = new ArrayList<>();
 
   // ###############################################################
@@ -69,6 +86,7 @@ public final class TextHologramLine implements HologramLine {
       d.setSeeThrough(false);
     });
     this.entities.add(display);
+    this.dirty = false;
   }
 
   @Override
@@ -80,6 +98,7 @@ public final class TextHologramLine implements HologramLine {
   @Override
   public void update() {
     if (!isSpawned()) return;
+    this.dirty = false;
 
     for (final var display : this.entities) {
       if (display instanceof TextDisplay textDisplay)
@@ -88,6 +107,11 @@ public final class TextHologramLine implements HologramLine {
 
   }
 
+  @Override
+  public void updateIfDirty() {
+    if (this.dirty) update();
+  }
+
   @Override
   public void applyAnimation(@NotNull HologramAnimation animation, long tick) {
     if (!isSpawned()) return;
@@ -104,11 +128,24 @@ public final class TextHologramLine implements HologramLine {
   // ###############################################################
 
   public void setText(final @NotNull String text) {
+    if (text.equals(this.text)) return;
     this.text = text;
+    this.component = null;
+    this.dirty = true;
+  }
+
+  /**
+   * Gives each viewer its own text in packet mode, in place of {@link #getText()}. Ignored by
+   * entity holograms.
+   */
+  public void setViewerText(final @Nullable Function<Player, Component> viewerText) {
+    this.viewerText = viewerText;
   }
 
   public @NotNull Component getComponent() {
-    return MiniMessage.miniMessage().deserialize(this.text);
+    if (this.component == null)
+      this.component = MiniMessage.miniMessage().deserialize(this.text);
+    return this.component;
   }
 
 }
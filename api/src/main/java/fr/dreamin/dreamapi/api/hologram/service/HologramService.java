@@ -8,6 +8,7 @@ import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 public interface HologramService {
 
@@ -32,6 +33,24 @@ public interface HologramService {
   void save(final @NotNull String id) throws IOException;
   void save(final @NotNull Hologram hologram) throws IOException;
 
+  /**
+   * Saves a hologram to its default file in the background. Calls made within the same second
+   * are coalesced into a single write. Main thread only.
+   */
+  void saveLater(final @NotNull Hologram hologram);
+
+  /**
+   * Writes every hologram waiting to be saved now.
+   *
+   * @return completed once they are all on disk
+   */
+  @NotNull CompletableFuture<Void> flush();
+
+  /** Format of the default files, {@link HologramStorageFormat#JSON} unless changed. */
+  @NotNull HologramStorageFormat getStorageFormat();
+
+  void setStorageFormat(final @NotNull HologramStorageFormat format);
+
   @NotNull Hologram load(final @NotNull File file) throws IOException;
 
   void loadAll();
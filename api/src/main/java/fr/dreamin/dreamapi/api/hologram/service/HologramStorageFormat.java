@@ -0,0 +1,38 @@
+package fr.dreamin.dreamapi.api.hologram.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * File formats holograms can be saved in. Both are always readable.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum HologramStorageFormat {
+
+  /**
+   * Pretty-printed JSON, readable and editable by hand.
+   */
+  JSON(".json"),
+
+  /**
+   * Jackson Smile, a binary JSON: smaller and faster to parse, for servers with thousands of holograms.
+   */
+  SMILE(".smile");
+
+  private final @NotNull String extension;
+
+  /**
+   * @return the format of a file, from its extension, or {@code null} if not a hologram file
+   */
+  public static @Nullable HologramStorageFormat fromFileName(final @NotNull String fileName) {
+    for (final var format : values()) {
+      if (fileName.endsWith(format.extension))
+        return format;
+    }
+    return null;
+  }
+
+}
@@ -1,26 +1,83 @@
 package fr.dreamin.dreamapi.api.navigate.model;
 
 import com.destroystokyo.paper.MaterialSetTag;
-import org.bukkit.Bukkit;
+import fr.dreamin.dreamapi.api.navigate.world.PathWorldView;
+import fr.dreamin.dreamapi.api.navigate.world.SnapshotWorldView;
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import lombok.Getter;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.*;
 
+/**
+ * A* pathfinder over walkable block positions.
+ * <p>
+ * Every block read goes through a {@link PathWorldView}, never through {@link Location#getBlock()},
+ * so searches are safe to run on any thread and several searches can run in parallel.
+ */
 public final class AStartPathFinder {
 
   private static final Set<Material> PASSABLE_MATERIALS = EnumSet.of(Material.AIR, Material.CAVE_AIR, Material.VOID_AIR, Material.WATER, Material.LAVA, Material.SHORT_GRASS, Material.TALL_GRASS, Material.FERN, Material.LARGE_FERN, Material.COBWEB, Material.TRIPWIRE,
     Material.TORCH, Material.WALL_TORCH, Material.REDSTONE_TORCH, Material.REDSTONE_WALL_TORCH, Material.LEVER, Material.SUGAR_CANE, Material.KELP, Material.SEAGRASS, Material.TALL_SEAGRASS, Material.REDSTONE_WIRE,
     Material.REPEATER, Material.COMPARATOR, Material.SNOW, Material.BAMBOO_SAPLING, Material.SWEET_BERRY_BUSH, Material.GLOW_LICHEN, Material.SCULK_VEIN, Material.SMALL_DRIPLEAF);
 
+  private static final Set<Material> CLIMBABLE_MATERIALS = EnumSet.noneOf(Material.class);
+
+  static {
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.BUTTONS.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.FLOWERS.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.FLOWER_POTS.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.PRESSURE_PLATES.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.WOOL_CARPETS.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.RAILS.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.CLIMBABLE.getValues());
+    PASSABLE_MATERIALS.addAll(MaterialSetTag.DOORS.getValues());
+    CLIMBABLE_MATERIALS.addAll(MaterialSetTag.CLIMBABLE.getValues());
+  }
+
   private static final int MAX_PATHFINDING_ITERATIONS = 100000;
 
   private static final int MAX_PRE_PATHFINDING_RADIUS = 32;
 
+  /** How far from the start a node of a previous path may be to be reconnected to. */
+  private static final int RECONNECT_RADIUS = 16;
+
+  /** Nodes of a reused path, past the reconnection point, checked to still be clear. */
+  private static final int RECONNECT_VALIDATE_AHEAD = 64;
+
+  private static final long[] NO_PATH = new long[0];
+
+  /** The 26 neighbour offsets and the cost of each step. */
+  private static final int[] OFFSET_X = new int[26];
+  private static final int[] OFFSET_Y = new int[26];
+  private static final int[] OFFSET_Z = new int[26];
+  private static final double[] STEP_COST = new double[26];
+
+  static {
+    var i = 0;
+    for (var dx = -1; dx <= 1; dx++) {
+      for (var dy = -1; dy <= 1; dy++) {
+        for (var dz = -1; dz <= 1; dz++) {
+          if (dx == 0 && dy == 0 && dz == 0) continue;
+          OFFSET_X[i] = dx;
+          OFFSET_Y[i] = dy;
+          OFFSET_Z[i] = dz;
+          STEP_COST[i] = Math.sqrt(dx * dx + dy * dy + dz * dz);
+          i++;
+        }
+      }
+    }
+  }
+
+  @Getter
   private final boolean safeMode;
 
+  @Getter
   private final Set<Material> allowedMaterials;
+  @Getter
   private final Set<Material> ignoredMaterials;
 
   // ###############################################################
@@ -31,81 +88,213 @@ public final class AStartPathFinder {
     this.safeMode = safeMode;
     this.allowedMaterials = allowedMaterials;
     this.ignoredMaterials = ignoredMaterials;
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.BUTTONS.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.FLOWERS.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.FLOWER_POTS.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.PRESSURE_PLATES.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.WOOL_CARPETS.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.RAILS.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.CLIMBABLE.getValues());
-    PASSABLE_MATERIALS.addAll(MaterialSetTag.DOORS.getValues());
   }
 
   // ###############################################################
   // ----------------------- PUBLIC METHODS ------------------------
   // ###############################################################
 
+  /**
+   * Finds a path reading blocks from a {@link SnapshotWorldView} captured around both ends.
+   * Called on the main thread the surrounding chunks are snapshotted up front; called from a
+   * worker thread every chunk is fetched lazily.
+   *
+   * @param start the start block location
+   * @param end the goal block location
+   * @return the path, or an empty list if none was found
+   */
   public List<Location> findPath(final @NotNull Location start, final @NotNull Location end) {
     if (!start.getWorld().equals(end.getWorld()))
       return Collections.emptyList();
 
-    var prePath = new ArrayList<Location>();
+    return findPath(SnapshotWorldView.capture(start, end), start, end);
+  }
+
+  /**
+   * Finds a path reading blocks from the given view only. Safe to call from any thread as long
+   * as the view is not shared with another running search.
+   *
+   * @param view the blocks to search through
+   * @param start the start block location
+   * @param end the goal block location
+   * @return the path, or an empty list if none was found
+   */
+  public List<Location> findPath(final @NotNull PathWorldView view, final @NotNull Location start, final @NotNull Location end) {
+    final var path = findPathKeys(view,
+      PackedCoords.blockKey(start.getBlockX(), start.getBlockY(), start.getBlockZ()),
+      PackedCoords.blockKey(end.getBlockX(), end.getBlockY(), end.getBlockZ()));
+    return toLocations(start.getWorld(), path);
+  }
+
+  /**
+   * Primitive form of {@link #findPath(PathWorldView, Location, Location)}: positions are
+   * {@link PackedCoords#blockKey(int, int, int) packed block keys} and no {@link Location}
+   * is allocated during the search.
+   *
+   * @param view the blocks to search through
+   * @param start the packed start block
+   * @param end the packed goal block
+   * @return the packed path from start to goal, or an empty array if none was found
+   */
+  public long @NotNull [] findPathKeys(final @NotNull PathWorldView view, final long start, final long end) {
+    return findPathKeys(view, start, end, MAX_PATHFINDING_ITERATIONS);
+  }
+
+  /**
+   * Same as {@link #findPathKeys(PathWorldView, long, long)} with a custom expansion budget.
+   *
+   * @param view the blocks to search through
+   * @param start the packed start block
+   * @param end the packed goal block
+   * @param maxIterations the maximum number of expanded nodes
+   * @return the packed path from start to goal, or an empty array if none was found within the budget
+   */
+  public long @NotNull [] findPathKeys(final @NotNull PathWorldView view, final long start, final long end, final int maxIterations) {
+    return findPathKeys(view, start, end, new Budget(maxIterations));
+  }
+
+  /**
+   * Same as {@link #findPathKeys(PathWorldView, long, long, int)} drawing on a budget shared by
+   * several searches, e.g. the segments of one route. Every expanded node is taken from it.
+   *
+   * @param view the blocks to search through
+   * @param start the packed start block
+   * @param end the packed goal block
+   * @param budget the expansions left, spent by this search
+   * @return the packed path from start to goal, or an empty array if none was found before the budget ran out
+   */
+  public long @NotNull [] findPathKeys(final @NotNull PathWorldView view, final long start, final long end, final @NotNull Budget budget) {
+    var prePath = NO_PATH;
     var actualStart = start;
 
-    if (this.allowedMaterials != null && !this.allowedMaterials.isEmpty()) {
-      final var blockBelowStart = start.clone().subtract(0, 1, 0);
-      if (!this.allowedMaterials.contains(blockBelowStart.getBlock().getType())) {
-        prePath.addAll(findPathToClosesAllowedBlock(start));
-        if (prePath.isEmpty())
-          return Collections.emptyList();
-        actualStart = prePath.get(prePath.size() - 1);
+    if (hasAllowedMaterials()) {
+      final var below = view.getType(PackedCoords.blockX(start), PackedCoords.blockY(start) - 1, PackedCoords.blockZ(start));
+      if (!this.allowedMaterials.contains(below)) {
+        prePath = findPathToClosestAllowedBlock(view, start);
+        if (prePath.length == 0)
+          return NO_PATH;
+        actualStart = prePath[prePath.length - 1];
       }
     }
 
-    final var openSet = new PriorityQueue<>(Comparator.comparingDouble(Node::getFCost));
-    final var allNodes = new HashMap<Location, Node>();
-    final var closedSet = new HashSet<Location>();
+    final var endX = PackedCoords.blockX(end);
+    final var endY = PackedCoords.blockY(end);
+    final var endZ = PackedCoords.blockZ(end);
 
-    final var startNode = new Node(actualStart, null, 0, getDistance(actualStart, end));
-    openSet.add(startNode);
-    allNodes.put(actualStart, startNode);
-    int iterations = 0;
+    final var nodes = new PathNodes(1024);
+    nodes.push(nodes.add(actualStart, PathNodes.NO_NODE, 0, distance(actualStart, endX, endY, endZ)));
 
-    while (!openSet.isEmpty()) {
-      iterations++;
+    while (!nodes.isOpenEmpty()) {
+      if (!budget.spend())
+        return NO_PATH;
 
-      if (iterations > MAX_PATHFINDING_ITERATIONS)
-        return Collections.emptyList();
-      final var currentNode = openSet.poll();
-      closedSet.add(currentNode.getLocation());
+      final var current = nodes.poll();
+      final var currentKey = nodes.key(current);
+      if (currentKey == end)
+        return concat(prePath, reconstruct(nodes, current));
 
-      if (currentNode.getLocation().getBlockX() == end.getBlockX() && currentNode.getLocation().getBlockY()  == end.getBlockY() && currentNode.getLocation().getBlockZ() == end.getBlockZ()) {
-        final var mainPath = reconstructPath(currentNode);
-        final var fullPath = new ArrayList<>(prePath);
-        fullPath.addAll(mainPath);
+      final var x = PackedCoords.blockX(currentKey);
+      final var y = PackedCoords.blockY(currentKey);
+      final var z = PackedCoords.blockZ(currentKey);
+      final var currentG = nodes.g(current);
 
-        return fullPath;
-      }
+      for (var i = 0; i < STEP_COST.length; i++) {
+        final var nx = x + OFFSET_X[i];
+        final var ny = y + OFFSET_Y[i];
+        final var nz = z + OFFSET_Z[i];
+        final var neighborKey = PackedCoords.blockKey(nx, ny, nz);
 
-      for (final var neighborLoc : getNeighbors(currentNode.getLocation(), end)) {
-        if (closedSet.contains(neighborLoc))
+        final var neighbor = nodes.find(neighborKey);
+        if (neighbor != PathNodes.NO_NODE && nodes.isClosed(neighbor))
           continue;
 
-        final var newGCost = currentNode.getGCost() + getDistance(currentNode.getLocation(), neighborLoc);
-        var neighborNode = allNodes.get(neighborLoc);
-        if (neighborNode == null || newGCost < neighborNode.getGCost()) {
-          neighborNode = new Node(neighborLoc, currentNode, newGCost, getDistance(neighborLoc, end));
-          allNodes.put(neighborLoc, neighborNode);
-          if (!openSet.contains(neighborNode))
-            openSet.add(neighborNode);
-        }
+        final var newG = currentG + STEP_COST[i];
+        if (neighbor != PathNodes.NO_NODE && newG >= nodes.g(neighbor))
+          continue;
+
+        // The block checks come last: they are the expensive part of an expansion
+        if (!isWalkable(view, nx, ny, nz, x, y, z, neighborKey == end))
+          continue;
+
+        final var newF = newG + distance(nx, ny, nz, endX, endY, endZ);
+        if (neighbor == PathNodes.NO_NODE)
+          nodes.push(nodes.add(neighborKey, current, newG, newF));
+        else
+          nodes.relax(neighbor, current, newG, newF);
+      }
+    }
+
+    return NO_PATH;
+  }
 
+  /**
+   * Re-plans by joining an existing path instead of searching to the goal again: a short
+   * bounded search runs from {@code start} to the nearest node of {@code path} at or after
+   * {@code fromIndex}, and the rest of the path is reused once its next nodes are checked
+   * to still be clear.
+   *
+   * @param view the blocks to search through
+   * @param start the packed new start block
+   * @param path the packed previous path
+   * @param fromIndex the first node of {@code path} that may be joined
+   * @param maxIterations the expansion budget of the joining search
+   * @return the spliced path, or an empty array if the path could not be joined
+   */
+  public long @NotNull [] reconnect(final @NotNull PathWorldView view, final long start, final long @NotNull [] path,
+                                    final int fromIndex, final int maxIterations) {
+    final var startX = PackedCoords.blockX(start);
+    final var startY = PackedCoords.blockY(start);
+    final var startZ = PackedCoords.blockZ(start);
+
+    var best = -1;
+    var bestDistanceSq = RECONNECT_RADIUS * RECONNECT_RADIUS + 1;
+    for (var i = Math.max(0, fromIndex); i < path.length; i++) {
+      final var dx = PackedCoords.blockX(path[i]) - startX;
+      final var dy = PackedCoords.blockY(path[i]) - startY;
+      final var dz = PackedCoords.blockZ(path[i]) - startZ;
+      final var distanceSq = dx * dx + dy * dy + dz * dz;
+      if (distanceSq < bestDistanceSq) {
+        bestDistanceSq = distanceSq;
+        best = i;
       }
     }
+    if (best == -1)
+      return NO_PATH;
 
-    return Collections.emptyList();
+    final var validateEnd = Math.min(path.length, best + RECONNECT_VALIDATE_AHEAD);
+    for (var i = best; i < validateEnd; i++) {
+      if (!isClear(view, path[i]))
+        return NO_PATH;
+    }
+
+    final var tail = Arrays.copyOfRange(path, best, path.length);
+    if (path[best] == start)
+      return tail;
+
+    final var bridge = findPathKeys(view, start, path[best], maxIterations);
+    if (bridge.length == 0)
+      return NO_PATH;
+    // The bridge ends on the joined node, which is also the first node of the tail
+    return concat(bridge, Arrays.copyOfRange(tail, 1, tail.length));
   }
 
+  /**
+   * Whether a single step between two adjacent blocks is walkable with this pathfinder's options.
+   *
+   * @param view the blocks to read
+   * @param from the packed block stepped from
+   * @param to the packed adjacent block stepped to
+   * @return true if the step is walkable
+   */
+  public boolean canStep(final @NotNull PathWorldView view, final long from, final long to) {
+    return isWalkable(view, PackedCoords.blockX(to), PackedCoords.blockY(to), PackedCoords.blockZ(to),
+      PackedCoords.blockX(from), PackedCoords.blockY(from), PackedCoords.blockZ(from), false);
+  }
+
+  /**
+   * @deprecated searches no longer build {@link Node} chains, see {@link #findPathKeys(PathWorldView, long, long)}.
+   */
+  @Deprecated(since = "0.5.0")
   public List<Location> reconstructPath(final @NotNull Node endNode) {
     final var path = new ArrayList<Location>();
     var currentNode = endNode;
@@ -125,204 +314,204 @@ public final class AStartPathFinder {
     return PASSABLE_MATERIALS.contains(mat) || (this.ignoredMaterials != null && this.ignoredMaterials.contains(mat));
   }
 
-  private double getDistance(final @NotNull Location loc1, final @NotNull Location loc2) {
-    return loc1.distance(loc2);
+  private boolean hasAllowedMaterials() {
+    return this.allowedMaterials != null && !this.allowedMaterials.isEmpty();
   }
 
-  private List<Location> findPathToClosesAllowedBlock(final @NotNull Location start) {
-    if (this.allowedMaterials == null || this.allowedMaterials.isEmpty())
-      return Collections.emptyList();
-
-    final var queue = new LinkedList<Location>();
-    final var cameFrom = new HashMap<Location, Location>();
-    final var visited = new HashSet<Location>();
-    final var startBlockLoc = start.getBlock().getLocation();
-
-    queue.add(startBlockLoc);
-    visited.add(startBlockLoc);
-    cameFrom.put(startBlockLoc, null);
-    int iterations = 0;
-
-    while (!queue.isEmpty() && iterations < MAX_PATHFINDING_ITERATIONS) {
-      final var current = queue.poll();
-      iterations++;
-      final var blockBelow = current.clone().subtract(0, 1, 0);
-      if (this.allowedMaterials.contains(blockBelow.getBlock().getType())) {
-        final var path = new ArrayList<Location>();
-        var temp = current;
-        while (temp != null) {
-          path.add(temp);
-          temp = cameFrom.get(temp);
-        }
-        Collections.reverse(path);
-        return path;
-      }
+  /**
+   * Breadth-first search for the nearest block standing on an allowed material. Node ids are
+   * handed out in discovery order, so the node store doubles as the BFS queue.
+   */
+  private long[] findPathToClosestAllowedBlock(final @NotNull PathWorldView view, final long start) {
+    final var startX = PackedCoords.blockX(start);
+    final var startY = PackedCoords.blockY(start);
+    final var startZ = PackedCoords.blockZ(start);
+    final var maxDistanceSq = MAX_PRE_PATHFINDING_RADIUS * MAX_PRE_PATHFINDING_RADIUS;
+
+    final var nodes = new PathNodes(1024);
+    nodes.add(start, PathNodes.NO_NODE, 0, 0);
+
+    for (var current = 0; current < nodes.size() && current < MAX_PATHFINDING_ITERATIONS; current++) {
+      final var key = nodes.key(current);
+      final var x = PackedCoords.blockX(key);
+      final var y = PackedCoords.blockY(key);
+      final var z = PackedCoords.blockZ(key);
+
+      if (this.allowedMaterials.contains(view.getType(x, y - 1, z)))
+        return reconstruct(nodes, current);
+
+      for (var i = 0; i < STEP_COST.length; i++) {
+        final var nx = x + OFFSET_X[i];
+        final var ny = y + OFFSET_Y[i];
+        final var nz = z + OFFSET_Z[i];
+        final var neighborKey = PackedCoords.blockKey(nx, ny, nz);
+
+        final var ddx = nx - startX;
+        final var ddy = ny - startY;
+        final var ddz = nz - startZ;
+        if (ddx * ddx + ddy * ddy + ddz * ddz >= maxDistanceSq || nodes.find(neighborKey) != PathNodes.NO_NODE)
+          continue;
 
-      for (var dx = -1; dx <= 1; dx++) {
-        for (var dy = -1; dy <= 1; dy++) {
-          for (var dz = -1; dz <= 1; dz++) {
-            if (dx != 0 || dy != 0 || dz != 0) {
-              final var neighbor = new Location(current.getWorld(), current.getX() + dx,  current.getY() + dy, current.getZ() + dz);
-              if (!visited.contains(neighbor) && start.distance(neighbor) < 32 && isPathableForPrePath(neighbor, current)) {
-                visited.add(neighbor);
-                cameFrom.put(neighbor, current);
-                queue.add(neighbor);
-              }
-            }
-          }
-        }
+        if (isPathableForPrePath(view, nx, ny, nz, x, y, z))
+          nodes.add(neighborKey, current, 0, 0);
       }
-
     }
-    return Collections.emptyList();
+    return NO_PATH;
   }
 
-  private boolean isPathableForPrePath(final @NotNull Location loc, final @NotNull Location previousLoc) {
-    final var block = loc.getBlock();
-    final var blockAbove = loc.clone().add(0, 1, 0).getBlock();
-    final var blockBelow = loc.clone().add(0, -1, 0).getBlock();
-
-    if (!isPassable(block.getType()) || !isPassable(blockAbove.getType()))
+  private boolean isPathableForPrePath(final @NotNull PathWorldView view, final int x, final int y, final int z,
+                                       final int previousX, final int previousY, final int previousZ) {
+    if (!isPassable(view.getType(x, y, z)) || !isPassable(view.getType(x, y + 1, z)))
       return false;
 
-    if (isDiagonalMove(loc, previousLoc) && !isDiagonalPassable(previousLoc, loc))
+    if (x != previousX && z != previousZ && !isDiagonalPassable(view, previousX, previousY, previousZ, x - previousX, z - previousZ))
       return false;
 
-    if (loc.getBlockY() == previousLoc.getBlockY()) {
-      return (blockBelow.getType().isSolid() || blockBelow
-        .getType() == Material.WATER || blockBelow
-        .getType() == Material.LAVA);
-    }
+    final var below = view.getType(x, y - 1, z);
 
-    if (loc.getBlockY() > previousLoc.getBlockY()) {
-      int yDiff = loc.getBlockY() - previousLoc.getBlockY();
-      if (yDiff != 1)
+    if (y == previousY)
+      return (below.isSolid() || below == Material.WATER || below == Material.LAVA);
+
+    if (y > previousY)
+      return y - previousY == 1 && below.isSolid();
+
+    if (this.safeMode) {
+      if (previousY - y > 3)
         return false;
-      return blockBelow.getType().isSolid();
+      return (below.isSolid() || view.getType(x, y - 2, z).isSolid());
     }
-    if (loc.getBlockY() < previousLoc.getBlockY()) {
-      int yDiff = previousLoc.getBlockY() - loc.getBlockY();
-      if (this.safeMode) {
-        if (yDiff > 3)
-          return false;
-        final var landingCheck = loc.clone().add(0.0D, -1.0D, 0.0D);
-        return (landingCheck.getBlock().getType().isSolid() || landingCheck
-          .clone().add(0.0D, -1.0D, 0.0D).getBlock().getType().isSolid());
-      }
-      Location checkLoc = loc.clone();
-      while (checkLoc.getBlockY() > 0) {
-        checkLoc.add(0.0D, -1.0D, 0.0D);
-        final var checkBlock = checkLoc.getBlock();
-        if (checkBlock.getType().isSolid())
-          return true;
-        if (!isPassable(checkBlock.getType()))
-          return false;
-      }
-      return false;
+    for (var checkY = y - 1; checkY >= view.getMinHeight(); checkY--) {
+      final var checkType = view.getType(x, checkY, z);
+      if (checkType.isSolid())
+        return true;
+      if (!isPassable(checkType))
+        return false;
     }
     return false;
-
   }
 
-  private List<Location> getNeighbors(Location loc, Location end) {
-    List<Location> neighbors = new ArrayList<>();
-    int x = loc.getBlockX();
-    int y = loc.getBlockY();
-    int z = loc.getBlockZ();
-    for (int dx = -1; dx <= 1; dx++) {
-      for (int dy = -1; dy <= 1; dy++) {
-        for (int dz = -1; dz <= 1; dz++) {
-          if (dx != 0 || dy != 0 || dz != 0) {
-            Location neighborLoc = new Location(loc.getWorld(), (x + dx), (y + dy), (z + dz));
-            if (isWalkable(neighborLoc, loc, end))
-              neighbors.add(neighborLoc);
-          }
-        }
-      }
-    }
-    return neighbors;
-  }
+  private boolean isWalkable(final @NotNull PathWorldView view, final int x, final int y, final int z,
+                             final int previousX, final int previousY, final int previousZ, final boolean isDest) {
+    final var type = view.getType(x, y, z);
 
-  private boolean isWalkable(Location loc, Location previousLoc, Location end) {
-    final var block = loc.getBlock();
-    final var blockAbove = loc.clone().add(0.0D, 1.0D, 0.0D).getBlock();
-    
-    if (MaterialSetTag.CLIMBABLE.getValues().contains(block.getType()))
+    if (CLIMBABLE_MATERIALS.contains(type))
       return true;
-      
-    if (isDiagonalMove(loc, previousLoc) && !isDiagonalPassable(previousLoc, loc))
-      return false;
-      
-    if (!isPassable(block.getType()) || !isPassable(blockAbove.getType()))
+
+    if (x != previousX && z != previousZ && !isDiagonalPassable(view, previousX, previousY, previousZ, x - previousX, z - previousZ))
       return false;
 
-    boolean isDest = (loc.getBlockX() == end.getBlockX() && loc.getBlockY() == end.getBlockY() && loc.getBlockZ() == end.getBlockZ());
+    if (!isPassable(type) || !isPassable(view.getType(x, y + 1, z)))
+      return false;
 
-    if (loc.getBlockY() == previousLoc.getBlockY()) {
-      final var blockBelow = loc.clone().add(0.0D, -1.0D, 0.0D).getBlock();
-      if (!blockBelow.getType().isSolid() && blockBelow.getType() != Material.WATER && blockBelow.getType() != Material.LAVA)
+    if (y == previousY) {
+      final var below = view.getType(x, y - 1, z);
+      if (!below.isSolid() && below != Material.WATER && below != Material.LAVA)
         return false;
-      if (!isDest && this.allowedMaterials != null && !this.allowedMaterials.isEmpty() && !this.allowedMaterials.contains(blockBelow.getType()))
-        return false;
-      return true;
+      return isDest || !hasAllowedMaterials() || this.allowedMaterials.contains(below);
     }
-    
-    if (loc.getBlockY() > previousLoc.getBlockY()) {
-      final var yDiff = loc.getBlockY() - previousLoc.getBlockY();
-      if (yDiff != 1)
-        return false;
-      final var blockBelow = loc.clone().add(0.0D, -1.0D, 0.0D).getBlock();
-      if (!blockBelow.getType().isSolid())
+
+    if (y > previousY) {
+      if (y - previousY != 1)
         return false;
-      if (!isDest && this.allowedMaterials != null && !this.allowedMaterials.isEmpty() && !this.allowedMaterials.contains(blockBelow.getType()))
+      final var below = view.getType(x, y - 1, z);
+      if (!below.isSolid())
         return false;
-      return true;
+      return isDest || !hasAllowedMaterials() || this.allowedMaterials.contains(below);
     }
-    
-    if (loc.getBlockY() < previousLoc.getBlockY()) {
-      final var yDiff = previousLoc.getBlockY() - loc.getBlockY();
-      if (this.safeMode && yDiff > 3)
-        return false;
-        
-      final var checkLoc = loc.clone();
-      while (checkLoc.getBlockY() > 0) {
-        checkLoc.add(0.0D, -1.0D, 0.0D);
-        final var checkBlock = checkLoc.getBlock();
-        if (checkBlock.getType().isSolid()) {
-          if (!isDest && this.allowedMaterials != null && !this.allowedMaterials.isEmpty() && !this.allowedMaterials.contains(checkBlock.getType()))
-            return false;
-          return true;
-        }
-        if (!isPassable(checkBlock.getType()))
-          return false;
-      }
+
+    if (this.safeMode && previousY - y > 3)
       return false;
+
+    for (var checkY = y - 1; checkY >= view.getMinHeight(); checkY--) {
+      final var checkType = view.getType(x, checkY, z);
+      if (checkType.isSolid())
+        return isDest || !hasAllowedMaterials() || this.allowedMaterials.contains(checkType);
+      if (!isPassable(checkType))
+        return false;
     }
     return false;
   }
 
-  private boolean isDiagonalMove(Location from, Location to) {
-    return (from.getBlockX() != to.getBlockX() && from
-      .getBlockZ() != to.getBlockZ());
+  /** Whether an entity still fits at a node: both its feet and head blocks can be walked through. */
+  private boolean isClear(final @NotNull PathWorldView view, final long key) {
+    final var x = PackedCoords.blockX(key);
+    final var y = PackedCoords.blockY(key);
+    final var z = PackedCoords.blockZ(key);
+    final var type = view.getType(x, y, z);
+    return CLIMBABLE_MATERIALS.contains(type) || (isPassable(type) && isPassable(view.getType(x, y + 1, z)));
+  }
+
+  private boolean isDiagonalPassable(final @NotNull PathWorldView view, final int x, final int y, final int z, final int xDir, final int zDir) {
+    return (isPassable(view.getType(x + xDir, y, z)) && isPassable(view.getType(x + xDir, y + 1, z)) &&
+            isPassable(view.getType(x, y, z + zDir)) && isPassable(view.getType(x, y + 1, z + zDir)));
+  }
+
+  private static double distance(final int x, final int y, final int z, final int toX, final int toY, final int toZ) {
+    final var dx = toX - x;
+    final var dy = toY - y;
+    final var dz = toZ - z;
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  private static double distance(final long key, final int toX, final int toY, final int toZ) {
+    return distance(PackedCoords.blockX(key), PackedCoords.blockY(key), PackedCoords.blockZ(key), toX, toY, toZ);
+  }
+
+  private static long[] reconstruct(final @NotNull PathNodes nodes, final int endId) {
+    var length = 0;
+    for (var id = endId; id != PathNodes.NO_NODE; id = nodes.parent(id))
+      length++;
+
+    final var path = new long[length];
+    for (var id = endId; id != PathNodes.NO_NODE; id = nodes.parent(id))
+      path[--length] = nodes.key(id);
+    return path;
   }
 
-  private boolean isDiagonalPassable(Location from, Location to) {
-    final var xDir = Integer.compare(to.getBlockX(), from.getBlockX());
-    final var zDir = Integer.compare(to.getBlockZ(), from.getBlockZ());
-    final var corner1 = new Location(from.getWorld(), (from.getBlockX() + xDir), from.getBlockY(), from.getBlockZ());
-    final var corner2 = new Location(from.getWorld(), from.getBlockX(), from.getBlockY(), (from.getBlockZ() + zDir));
-    final var block1 = corner1.getBlock();
-    final var block1Above = corner1.clone().add(0.0D, 1.0D, 0.0D).getBlock();
-    final var block2 = corner2.getBlock();
-    final var block2Above = corner2.clone().add(0.0D, 1.0D, 0.0D).getBlock();
-    return (isPassable(block1.getType()) && isPassable(block1Above.getType()) && 
-            isPassable(block2.getType()) && isPassable(block2Above.getType()));
+  private static long[] concat(final long[] first, final long[] second) {
+    if (first.length == 0)
+      return second;
+    final var path = Arrays.copyOf(first, first.length + second.length);
+    System.arraycopy(second, 0, path, first.length, second.length);
+    return path;
   }
 
   // ###############################################################
   // ----------------------- STATIC METHODS ------------------------
   // ###############################################################
 
+  /**
+   * Converts a packed path back to block locations.
+   *
+   * @param world the world of the path
+   * @param keys the packed block keys
+   * @return the block locations, in order
+   */
+  public static @NotNull List<Location> toLocations(final @NotNull World world, final long @NotNull [] keys) {
+    if (keys.length == 0)
+      return Collections.emptyList();
+
+    final var path = new ArrayList<Location>(keys.length);
+    for (final var key : keys)
+      path.add(new Location(world, PackedCoords.blockX(key), PackedCoords.blockY(key), PackedCoords.blockZ(key)));
+    return path;
+  }
+
+  /**
+   * Packs a path of locations into block keys.
+   *
+   * @param path the locations
+   * @return the packed block keys, in order
+   */
+  public static long @NotNull [] toKeys(final @NotNull List<Location> path) {
+    final var keys = new long[path.size()];
+    for (var i = 0; i < keys.length; i++) {
+      final var location = path.get(i);
+      keys[i] = PackedCoords.blockKey(location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+    return keys;
+  }
+
   public static String getDirection(final @NotNull Location from, final @NotNull Location to) {
     if (!from.getWorld().equals(to.getWorld()))
       return "N/A";
@@ -383,6 +572,30 @@ public final class AStartPathFinder {
     return (int) Math.sqrt(Math.pow(to.getX() - from.getX(), 2) + Math.pow(to.getZ() - from.getZ(), 2));
   }
 
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /** Node expansions left to one or several searches. Not thread-safe. */
+  public static final class Budget {
+
+    @Getter
+    private int remaining;
+
+    public Budget(final int iterations) {
+      this.remaining = iterations;
+    }
+
+    public boolean isExhausted() {
+      return this.remaining <= 0;
+    }
 
+    private boolean spend() {
+      if (this.remaining <= 0) return false;
+      this.remaining--;
+      return true;
+    }
+
+  }
 
 }
@@ -1,8 +1,8 @@
 package fr.dreamin.dreamapi.api.navigate.model;
 
 import fr.dreamin.dreamapi.api.DreamAPI;
+import fr.dreamin.dreamapi.api.navigate.service.NavigateService;
 import lombok.Getter;
-import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.entity.Entity;
@@ -152,20 +152,21 @@ public final class EntityMovementTask extends BukkitRunnable {
   private void triggerRecalc() {
     this.recalculating = true;
 
-    // Capture locations on main thread before going async
-    final var entityBlockLoc = this.entity.getLocation().getBlock().getLocation();
-    final var targetBlockLoc = this.targetLocation.getBlock().getLocation();
-
-    Bukkit.getScheduler().runTaskAsynchronously(DreamAPI.getAPI().plugin(), () -> {
-      final var newPath = this.pathFinder.findPath(entityBlockLoc, targetBlockLoc);
-      Bukkit.getScheduler().runTask(DreamAPI.getAPI().plugin(), () -> {
-        if (!newPath.isEmpty()) {
-          this.currentPath = newPath;
-          this.currentPathIndex = 0;
-          new EntityMovementRecalcEvent(this, List.copyOf(newPath)).callEvent();
-        }
-        this.recalculating = false;
-      });
+    // Chunks are snapshotted here on the main thread, the search runs on the navigation worker pool.
+    // An exhausted path that stops short of the target is joined from its last node.
+    final var navigateService = DreamAPI.getAPI().getService(NavigateService.class);
+    final var search = this.currentPath == null || this.currentPath.isEmpty()
+      ? navigateService.findPath(this.pathFinder, this.entity.getLocation(), this.targetLocation)
+      : navigateService.replan(this.pathFinder, this.entity.getLocation(), this.targetLocation,
+        this.currentPath, Math.min(this.currentPathIndex, this.currentPath.size() - 1));
+
+    search.whenComplete((newPath, throwable) -> {
+      if (newPath != null && !newPath.isEmpty()) {
+        this.currentPath = newPath;
+        this.currentPathIndex = 0;
+        new EntityMovementRecalcEvent(this, List.copyOf(newPath)).callEvent();
+      }
+      this.recalculating = false;
     });
   }
 
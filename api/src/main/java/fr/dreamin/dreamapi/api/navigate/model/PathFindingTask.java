@@ -1,6 +1,7 @@
 package fr.dreamin.dreamapi.api.navigate.model;
 
 import fr.dreamin.dreamapi.api.DreamAPI;
+import fr.dreamin.dreamapi.api.navigate.service.NavigateService;
 import lombok.Getter;
 import org.bukkit.*;
 import org.bukkit.entity.Player;
@@ -175,23 +176,22 @@ public final class PathFindingTask extends BukkitRunnable {
     if (this.recalculating) return;
     this.recalculating = true;
 
-    // Capture block locations on the main thread BEFORE going async (Bukkit API is not thread-safe)
-    final var playerBlockLoc = playerLoc.getBlock().getLocation();
-    final var targetBlockLoc = this.targetLocation.getBlock().getLocation();
-
-    Bukkit.getScheduler().runTaskAsynchronously(DreamAPI.getAPI().plugin(), () -> {
-      final var newPath = this.pathFinder.findPath(playerBlockLoc, targetBlockLoc);
-      // Bring result back to main thread before touching shared state
-      Bukkit.getScheduler().runTask(DreamAPI.getAPI().plugin(), () -> {
-        if (!newPath.isEmpty()) {
-          this.currentPath = newPath;
-          this.currentPathIndex = 0;
-          new PathFindingRecalcEvent(this, List.copyOf(newPath));
-          if (this.onRecalc != null)
-            this.onRecalc.accept(List.copyOf(newPath));
-        }
-        this.recalculating = false;
-      });
+    // Chunks are snapshotted here on the main thread, the search runs on the navigation worker pool.
+    // Drifting off the path usually only needs a short search back onto it.
+    final var navigateService = DreamAPI.getAPI().getService(NavigateService.class);
+    final var search = this.currentPath == null || this.currentPath.isEmpty()
+      ? navigateService.findPath(this.pathFinder, playerLoc, this.targetLocation)
+      : navigateService.replan(this.pathFinder, playerLoc, this.targetLocation, this.currentPath, this.currentPathIndex);
+
+    search.whenComplete((newPath, throwable) -> {
+      if (newPath != null && !newPath.isEmpty()) {
+        this.currentPath = newPath;
+        this.currentPathIndex = 0;
+        new PathFindingRecalcEvent(this, List.copyOf(newPath));
+        if (this.onRecalc != null)
+          this.onRecalc.accept(List.copyOf(newPath));
+      }
+      this.recalculating = false;
     });
   }
 
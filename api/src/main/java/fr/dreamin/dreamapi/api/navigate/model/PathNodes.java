@@ -0,0 +1,173 @@
+package fr.dreamin.dreamapi.api.navigate.model;
+
+import fr.dreamin.dreamapi.api.util.collection.LongIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Node store of a single search, laid out as parallel primitive arrays indexed by node id.
+ * <p>
+ * Packed block keys map to node ids through a {@link LongIntMap}; the open set is an indexed
+ * binary min-heap over the ids ordered by {@code f}, so membership tests are O(1) and a
+ * cheaper route to an open node is a decrease-key rather than a duplicate entry.
+ */
+final class PathNodes {
+
+  static final int NO_NODE = -1;
+
+  private static final int NOT_QUEUED = -1;
+  private static final int CLOSED = -2;
+
+  private final LongIntMap ids;
+
+  private long[] keys;
+  private double[] g;
+  private double[] f;
+  private int[] parent;
+  /** Position of each node in {@link #heap}, or {@link #NOT_QUEUED} / {@link #CLOSED}. */
+  private int[] heapIndex;
+  private int size;
+
+  private int[] heap;
+  private int heapSize;
+
+  PathNodes(final int expectedSize) {
+    final var capacity = Math.max(16, expectedSize);
+    this.ids = new LongIntMap(capacity, NO_NODE);
+    this.keys = new long[capacity];
+    this.g = new double[capacity];
+    this.f = new double[capacity];
+    this.parent = new int[capacity];
+    this.heapIndex = new int[capacity];
+    this.heap = new int[capacity];
+  }
+
+  // ###############################################################
+  // ------------------------ NODE METHODS -------------------------
+  // ###############################################################
+
+  int find(final long key) {
+    return this.ids.get(key);
+  }
+
+  int add(final long key, final int parent, final double g, final double f) {
+    if (this.size == this.keys.length) grow();
+
+    final var id = this.size++;
+    this.keys[id] = key;
+    this.parent[id] = parent;
+    this.g[id] = g;
+    this.f[id] = f;
+    this.heapIndex[id] = NOT_QUEUED;
+    this.ids.put(key, id);
+    return id;
+  }
+
+  long key(final int id) {
+    return this.keys[id];
+  }
+
+  int parent(final int id) {
+    return this.parent[id];
+  }
+
+  double g(final int id) {
+    return this.g[id];
+  }
+
+  int size() {
+    return this.size;
+  }
+
+  /** Records a cheaper route to an existing node and fixes its heap position. */
+  void relax(final int id, final int parent, final double g, final double f) {
+    this.parent[id] = parent;
+    this.g[id] = g;
+    this.f[id] = f;
+    if (this.heapIndex[id] >= 0)
+      siftUp(this.heapIndex[id]);
+    else if (this.heapIndex[id] == NOT_QUEUED)
+      push(id);
+  }
+
+  boolean isClosed(final int id) {
+    return this.heapIndex[id] == CLOSED;
+  }
+
+  // ###############################################################
+  // ------------------------ HEAP METHODS -------------------------
+  // ###############################################################
+
+  void push(final int id) {
+    if (this.heapSize == this.heap.length)
+      this.heap = Arrays.copyOf(this.heap, this.heap.length << 1);
+    this.heap[this.heapSize] = id;
+    this.heapIndex[id] = this.heapSize;
+    siftUp(this.heapSize++);
+  }
+
+  /** Removes the open node with the lowest {@code f} and marks it closed. */
+  int poll() {
+    final var top = this.heap[0];
+    final var last = this.heap[--this.heapSize];
+    if (this.heapSize > 0) {
+      this.heap[0] = last;
+      this.heapIndex[last] = 0;
+      siftDown(0);
+    }
+    this.heapIndex[top] = CLOSED;
+    return top;
+  }
+
+  boolean isOpenEmpty() {
+    return this.heapSize == 0;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void siftUp(int index) {
+    final var id = this.heap[index];
+    final var priority = this.f[id];
+    while (index > 0) {
+      final var parentIndex = (index - 1) >>> 1;
+      final var parentId = this.heap[parentIndex];
+      if (this.f[parentId] <= priority) break;
+      this.heap[index] = parentId;
+      this.heapIndex[parentId] = index;
+      index = parentIndex;
+    }
+    this.heap[index] = id;
+    this.heapIndex[id] = index;
+  }
+
+  private void siftDown(int index) {
+    final var id = this.heap[index];
+    final var priority = this.f[id];
+    final var half = this.heapSize >>> 1;
+    while (index < half) {
+      var child = (index << 1) + 1;
+      final var right = child + 1;
+      if (right < this.heapSize && this.f[this.heap[right]] < this.f[this.heap[child]])
+        child = right;
+      final var childId = this.heap[child];
+      if (priority <= this.f[childId]) break;
+      this.heap[index] = childId;
+      this.heapIndex[childId] = index;
+      index = child;
+    }
+    this.heap[index] = id;
+    this.heapIndex[id] = index;
+  }
+
+  private void grow() {
+    final var capacity = this.keys.length << 1;
+    this.keys = Arrays.copyOf(this.keys, capacity);
+    this.g = Arrays.copyOf(this.g, capacity);
+    this.f = Arrays.copyOf(this.f, capacity);
+    this.parent = Arrays.copyOf(this.parent, capacity);
+    this.heapIndex = Arrays.copyOf(this.heapIndex, capacity);
+  }
+
+}
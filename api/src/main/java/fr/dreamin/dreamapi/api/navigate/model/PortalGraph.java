@@ -0,0 +1,401 @@
+package fr.dreamin.dreamapi.api.navigate.model;
+
+import fr.dreamin.dreamapi.api.navigate.world.PathWorldView;
+import fr.dreamin.dreamapi.api.navigate.world.SnapshotWorldView;
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Abstract graph for hierarchical (HPA*-style) pathfinding over 16x16 chunk columns.
+ * <p>
+ * Every border between two chunks holds <i>portals</i>: pairs of blocks, one on each side,
+ * that can be stepped across in both directions. A run of adjacent crossings at the same
+ * height is reduced to the portal at its middle, and only the widest runs of a border are
+ * kept. Inside a chunk, portals are linked by the cost of a search restricted to that chunk.
+ * A long route is first searched over this graph with {@link #findRoute(long, long, int)},
+ * then refined into blocks segment by segment.
+ * <p>
+ * The graph is patched chunk by chunk with {@link #rebuildChunk(SnapshotWorldView, int, int)}.
+ * Rebuilds must run one at a time, while routes may be searched concurrently from any thread.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class PortalGraph {
+
+  /** Expansion budget of the search linking two portals of the same chunk. */
+  private static final int INTRA_ITERATIONS = 4096;
+
+  /** Portals kept per border; a chunk links every pair of its portals, so this bounds rebuilds. */
+  private static final int MAX_BORDER_PORTALS = 8;
+
+  private static final long[] NO_ROUTE = new long[0];
+
+  private final @NotNull AStartPathFinder finder;
+
+  /** Portals on the east border of a chunk, as flattened (west block, east block) pairs. */
+  private final Map<Long, long[]> eastPortals = new ConcurrentHashMap<>();
+  /** Portals on the south border of a chunk, as flattened (north block, south block) pairs. */
+  private final Map<Long, long[]> southPortals = new ConcurrentHashMap<>();
+  private final Map<Long, ChunkNodes> chunks = new ConcurrentHashMap<>();
+
+  /**
+   * @param finder the pathfinder whose walkability rules the graph is built with
+   */
+  public PortalGraph(final @NotNull AStartPathFinder finder) {
+    this.finder = finder;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Rescans the four borders of a chunk and relinks the portals of that chunk and of its
+   * neighbours. The view must hold the chunk and should hold its four neighbours; the border
+   * with a missing neighbour keeps its previous portals and is scanned once that neighbour is.
+   *
+   * @param view the blocks of the chunk and its neighbours
+   * @param chunkX chunk X
+   * @param chunkZ chunk Z
+   */
+  public void rebuildChunk(final @NotNull SnapshotWorldView view, final int chunkX, final int chunkZ) {
+    if (!view.hasChunk(chunkX, chunkZ))
+      return;
+
+    if (view.hasChunk(chunkX + 1, chunkZ))
+      this.eastPortals.put(PackedCoords.chunkKey(chunkX, chunkZ), scanBorder(view, chunkX, chunkZ, true));
+    if (view.hasChunk(chunkX, chunkZ + 1))
+      this.southPortals.put(PackedCoords.chunkKey(chunkX, chunkZ), scanBorder(view, chunkX, chunkZ, false));
+    if (view.hasChunk(chunkX - 1, chunkZ))
+      this.eastPortals.put(PackedCoords.chunkKey(chunkX - 1, chunkZ), scanBorder(view, chunkX - 1, chunkZ, true));
+    if (view.hasChunk(chunkX, chunkZ - 1))
+      this.southPortals.put(PackedCoords.chunkKey(chunkX, chunkZ - 1), scanBorder(view, chunkX, chunkZ - 1, false));
+
+    linkChunk(view, chunkX, chunkZ);
+    linkChunk(view, chunkX - 1, chunkZ);
+    linkChunk(view, chunkX + 1, chunkZ);
+    linkChunk(view, chunkX, chunkZ - 1);
+    linkChunk(view, chunkX, chunkZ + 1);
+  }
+
+  /**
+   * Drops the portals and links of an unloaded chunk. Routes then stop at its border until
+   * the chunk is rebuilt.
+   *
+   * @param chunkX chunk X
+   * @param chunkZ chunk Z
+   */
+  public void removeChunk(final int chunkX, final int chunkZ) {
+    final var key = PackedCoords.chunkKey(chunkX, chunkZ);
+    this.chunks.remove(key);
+    this.eastPortals.remove(key);
+    this.southPortals.remove(key);
+  }
+
+  public boolean containsChunk(final int chunkX, final int chunkZ) {
+    return this.chunks.containsKey(PackedCoords.chunkKey(chunkX, chunkZ));
+  }
+
+  public int getChunkCount() {
+    return this.chunks.size();
+  }
+
+  public void clear() {
+    this.chunks.clear();
+    this.eastPortals.clear();
+    this.southPortals.clear();
+  }
+
+  /**
+   * Searches a coarse route over the portal graph. The start and goal are linked to the
+   * portals of their own chunk by straight-line estimates; refining the route into blocks
+   * confirms those links.
+   *
+   * @param start the packed start block
+   * @param goal the packed goal block
+   * @param maxIterations the maximum number of expanded portals
+   * @return the route as packed waypoints from start to goal, or an empty array if none was found
+   */
+  public long @NotNull [] findRoute(final long start, final long goal, final int maxIterations) {
+    final var goalX = PackedCoords.blockX(goal);
+    final var goalY = PackedCoords.blockY(goal);
+    final var goalZ = PackedCoords.blockZ(goal);
+    final var goalChunk = chunkOf(goal);
+
+    if (chunkOf(start) == goalChunk)
+      return new long[]{start, goal};
+
+    final var nodes = new PathNodes(256);
+    nodes.push(nodes.add(start, PathNodes.NO_NODE, 0, distance(start, goalX, goalY, goalZ)));
+    int iterations = 0;
+
+    while (!nodes.isOpenEmpty()) {
+      if (++iterations > maxIterations)
+        return NO_ROUTE;
+
+      final var current = nodes.poll();
+      final var currentKey = nodes.key(current);
+      if (currentKey == goal)
+        return route(nodes, current);
+
+      final var currentG = nodes.g(current);
+      final var currentChunk = chunkOf(currentKey);
+
+      if (currentChunk == goalChunk)
+        relax(nodes, current, goal, currentG + distance(currentKey, goalX, goalY, goalZ), goalX, goalY, goalZ);
+
+      final var chunk = this.chunks.get(currentChunk);
+      if (chunk == null)
+        continue;
+
+      if (current == 0) {
+        // The start is not a portal: link it to every portal of its chunk
+        for (final var portal : chunk.nodes())
+          relax(nodes, current, portal, distance(currentKey, PackedCoords.blockX(portal), PackedCoords.blockY(portal), PackedCoords.blockZ(portal)), goalX, goalY, goalZ);
+        continue;
+      }
+
+      final var index = chunk.indexOf(currentKey);
+      if (index < 0)
+        continue;
+
+      final var links = chunk.links()[index];
+      final var costs = chunk.costs()[index];
+      for (var i = 0; i < links.length; i++)
+        relax(nodes, current, chunk.nodes()[links[i]], currentG + costs[i], goalX, goalY, goalZ);
+
+      relaxCrossings(nodes, current, currentKey, currentG, goalX, goalY, goalZ);
+    }
+
+    return NO_ROUTE;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /**
+   * Finds the portals on the east ({@code east == true}) or south border of a chunk.
+   * Crossings are collected border column by border column, bottom to top, then runs of
+   * neighbouring columns at the same height are reduced to their middle crossing. Past
+   * {@link #MAX_BORDER_PORTALS}, the portals of the narrowest runs are dropped.
+   */
+  private long[] scanBorder(final @NotNull PathWorldView view, final int chunkX, final int chunkZ, final boolean east) {
+    final var crossings = new ArrayList<long[]>();
+    final var minY = view.getMinHeight() + 1;
+    final var maxY = view.getMaxHeight() - 2;
+
+    for (var i = 0; i < 16; i++) {
+      final var ax = east ? (chunkX << 4) + 15 : (chunkX << 4) + i;
+      final var az = east ? (chunkZ << 4) + i : (chunkZ << 4) + 15;
+      final var bx = east ? ax + 1 : ax;
+      final var bz = east ? az : az + 1;
+
+      for (var y = minY; y <= maxY; y++) {
+        final var a = PackedCoords.blockKey(ax, y, az);
+        for (var dy = -1; dy <= 1; dy++) {
+          final var b = PackedCoords.blockKey(bx, y + dy, bz);
+          if (this.finder.canStep(view, a, b) && this.finder.canStep(view, b, a)) {
+            crossings.add(new long[]{i, y, a, b});
+            break;
+          }
+        }
+      }
+    }
+
+    crossings.sort((first, second) -> first[1] != second[1] ? Long.compare(first[1], second[1]) : Long.compare(first[0], second[0]));
+
+    // Middle crossing of each run, with the run width
+    final var runs = new ArrayList<long[]>();
+    for (var runStart = 0; runStart < crossings.size(); ) {
+      var runEnd = runStart + 1;
+      while (runEnd < crossings.size()
+        && crossings.get(runEnd)[1] == crossings.get(runStart)[1]
+        && crossings.get(runEnd)[0] == crossings.get(runEnd - 1)[0] + 1)
+        runEnd++;
+
+      final var middle = crossings.get((runStart + runEnd - 1) >>> 1);
+      runs.add(new long[]{runEnd - runStart, middle[2], middle[3]});
+      runStart = runEnd;
+    }
+
+    if (runs.size() > MAX_BORDER_PORTALS)
+      runs.sort((first, second) -> Long.compare(second[0], first[0]));
+
+    final var count = Math.min(runs.size(), MAX_BORDER_PORTALS);
+    final var portals = new long[count * 2];
+    for (var i = 0; i < count; i++) {
+      portals[i * 2] = runs.get(i)[1];
+      portals[i * 2 + 1] = runs.get(i)[2];
+    }
+    return portals;
+  }
+
+  /** Collects the portals of a chunk from its four borders and links every pair of them. */
+  private void linkChunk(final @NotNull SnapshotWorldView view, final int chunkX, final int chunkZ) {
+    if (!view.hasChunk(chunkX, chunkZ))
+      return;
+
+    final var key = PackedCoords.chunkKey(chunkX, chunkZ);
+    final var nodes = new ArrayList<Long>();
+    collect(nodes, this.eastPortals.get(key), 0);
+    collect(nodes, this.southPortals.get(key), 0);
+    collect(nodes, this.eastPortals.get(PackedCoords.chunkKey(chunkX - 1, chunkZ)), 1);
+    collect(nodes, this.southPortals.get(PackedCoords.chunkKey(chunkX, chunkZ - 1)), 1);
+
+    final var keys = nodes.stream().mapToLong(Long::longValue).distinct().toArray();
+    final var bounded = new ChunkBoundView(view, chunkX, chunkZ);
+    final var links = new ArrayList<ArrayList<Integer>>(keys.length);
+    final var costs = new ArrayList<ArrayList<Double>>(keys.length);
+    for (var i = 0; i < keys.length; i++) {
+      links.add(new ArrayList<>());
+      costs.add(new ArrayList<>());
+    }
+
+    for (var i = 0; i < keys.length; i++) {
+      for (var j = i + 1; j < keys.length; j++) {
+        final var path = this.finder.findPathKeys(bounded, keys[i], keys[j], INTRA_ITERATIONS);
+        if (path.length == 0) continue;
+
+        final var cost = cost(path);
+        links.get(i).add(j);
+        costs.get(i).add(cost);
+        links.get(j).add(i);
+        costs.get(j).add(cost);
+      }
+    }
+
+    final var linkArrays = new int[keys.length][];
+    final var costArrays = new double[keys.length][];
+    for (var i = 0; i < keys.length; i++) {
+      linkArrays[i] = links.get(i).stream().mapToInt(Integer::intValue).toArray();
+      costArrays[i] = costs.get(i).stream().mapToDouble(Double::doubleValue).toArray();
+    }
+    this.chunks.put(key, new ChunkNodes(keys, linkArrays, costArrays));
+  }
+
+  /** Follows the portals the current node sits on into the neighbouring chunks. */
+  private void relaxCrossings(final @NotNull PathNodes nodes, final int current, final long currentKey, final double currentG,
+                              final int goalX, final int goalY, final int goalZ) {
+    final var chunkX = PackedCoords.blockX(currentKey) >> 4;
+    final var chunkZ = PackedCoords.blockZ(currentKey) >> 4;
+
+    relaxCrossing(nodes, current, currentKey, currentG, this.eastPortals.get(PackedCoords.chunkKey(chunkX, chunkZ)), 0, goalX, goalY, goalZ);
+    relaxCrossing(nodes, current, currentKey, currentG, this.southPortals.get(PackedCoords.chunkKey(chunkX, chunkZ)), 0, goalX, goalY, goalZ);
+    relaxCrossing(nodes, current, currentKey, currentG, this.eastPortals.get(PackedCoords.chunkKey(chunkX - 1, chunkZ)), 1, goalX, goalY, goalZ);
+    relaxCrossing(nodes, current, currentKey, currentG, this.southPortals.get(PackedCoords.chunkKey(chunkX, chunkZ - 1)), 1, goalX, goalY, goalZ);
+  }
+
+  private void relaxCrossing(final @NotNull PathNodes nodes, final int current, final long currentKey, final double currentG,
+                             final long @Nullable [] portals, final int side, final int goalX, final int goalY, final int goalZ) {
+    if (portals == null)
+      return;
+
+    for (var i = 0; i < portals.length; i += 2) {
+      if (portals[i + side] != currentKey) continue;
+      final var other = portals[i + 1 - side];
+      relax(nodes, current, other, currentG + distance(currentKey, PackedCoords.blockX(other), PackedCoords.blockY(other), PackedCoords.blockZ(other)), goalX, goalY, goalZ);
+    }
+  }
+
+  private static void relax(final @NotNull PathNodes nodes, final int parent, final long key, final double g,
+                            final int goalX, final int goalY, final int goalZ) {
+    final var id = nodes.find(key);
+    if (id != PathNodes.NO_NODE && (nodes.isClosed(id) || g >= nodes.g(id)))
+      return;
+
+    final var f = g + distance(key, goalX, goalY, goalZ);
+    if (id == PathNodes.NO_NODE)
+      nodes.push(nodes.add(key, parent, g, f));
+    else
+      nodes.relax(id, parent, g, f);
+  }
+
+  private static void collect(final @NotNull ArrayList<Long> nodes, final long @Nullable [] portals, final int side) {
+    if (portals == null)
+      return;
+    for (var i = side; i < portals.length; i += 2)
+      nodes.add(portals[i]);
+  }
+
+  private static long[] route(final @NotNull PathNodes nodes, final int endId) {
+    var length = 0;
+    for (var id = endId; id != PathNodes.NO_NODE; id = nodes.parent(id))
+      length++;
+
+    final var route = new long[length];
+    for (var id = endId; id != PathNodes.NO_NODE; id = nodes.parent(id))
+      route[--length] = nodes.key(id);
+    return route;
+  }
+
+  private static double cost(final long[] path) {
+    var cost = 0D;
+    for (var i = 1; i < path.length; i++)
+      cost += distance(path[i - 1], PackedCoords.blockX(path[i]), PackedCoords.blockY(path[i]), PackedCoords.blockZ(path[i]));
+    return cost;
+  }
+
+  private static double distance(final long key, final int toX, final int toY, final int toZ) {
+    final var dx = toX - PackedCoords.blockX(key);
+    final var dy = toY - PackedCoords.blockY(key);
+    final var dz = toZ - PackedCoords.blockZ(key);
+    return Math.sqrt(dx * dx + dy * dy + dz * dz);
+  }
+
+  private static long chunkOf(final long key) {
+    return PackedCoords.chunkKeyOfBlock(PackedCoords.blockX(key), PackedCoords.blockZ(key));
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /** Portals of one chunk and their links: {@code links[i]} are indices into {@code nodes}. */
+  private record ChunkNodes(long[] nodes, int[][] links, double[][] costs) {
+
+    int indexOf(final long key) {
+      for (var i = 0; i < this.nodes.length; i++) {
+        if (this.nodes[i] == key) return i;
+      }
+      return -1;
+    }
+
+  }
+
+  /** Restricts a view to a single chunk column, so portal links never leave their chunk. */
+  private record ChunkBoundView(PathWorldView view, int chunkX, int chunkZ) implements PathWorldView {
+
+    @Override
+    public @Nullable World getWorld() {
+      return this.view.getWorld();
+    }
+
+    @Override
+    public int getMinHeight() {
+      return this.view.getMinHeight();
+    }
+
+    @Override
+    public int getMaxHeight() {
+      return this.view.getMaxHeight();
+    }
+
+    @Override
+    public @NotNull Material getType(final int x, final int y, final int z) {
+      if (x >> 4 != this.chunkX || z >> 4 != this.chunkZ)
+        return Material.BARRIER;
+      return this.view.getType(x, y, z);
+    }
+
+  }
+
+}
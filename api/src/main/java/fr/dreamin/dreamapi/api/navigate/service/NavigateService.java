@@ -1,5 +1,6 @@
 package fr.dreamin.dreamapi.api.navigate.service;
 
+import fr.dreamin.dreamapi.api.navigate.model.AStartPathFinder;
 import fr.dreamin.dreamapi.api.navigate.model.EntityMovementTask;
 import fr.dreamin.dreamapi.api.navigate.model.PathFindingTask;
 import fr.dreamin.dreamapi.api.services.DreamService;
@@ -14,6 +15,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import org.bukkit.scheduler.BukkitTask;
@@ -29,8 +31,9 @@ public interface NavigateService extends DreamService {
    * Computes a path asynchronously between two locations.
    * The callback is always delivered on the main thread.
    * Returns an empty list if no path is found.
+   * The search runs on the same worker pool as {@link #findPath(AStartPathFinder, Location, Location)}.
    *
-   * @return the BukkitTask running the async calculation.
+   * @return the BukkitTask delivering the result; cancelling it drops the callback.
    */
   @NotNull BukkitTask findPathAsync(@NotNull Location start, @NotNull Location end, boolean safeMode,
                                     @NotNull Consumer<List<Location>> callback);
@@ -44,6 +47,34 @@ public interface NavigateService extends DreamService {
                                     @NotNull Set<Material> allowedMaterials, @NotNull Set<Material> ignoredMaterials,
                                     @NotNull Consumer<List<Location>> callback);
 
+  /**
+   * Runs a search on the navigation worker pool. The chunks around both ends are snapshotted
+   * on the calling thread (call it from the main thread), further chunks are fetched lazily
+   * by the worker. The returned future completes on the main thread with an empty list if
+   * no path is found.
+   *
+   * @param finder the pathfinder holding the search options
+   * @param start the start location
+   * @param end the goal location
+   * @return the future path
+   */
+  @NotNull CompletableFuture<List<Location>> findPath(@NotNull AStartPathFinder finder, @NotNull Location start, @NotNull Location end);
+
+  /**
+   * Same as {@link #findPath(AStartPathFinder, Location, Location)} for a searcher that already
+   * follows a path: a short search joins {@code previousPath} at its nearest node at or after
+   * {@code fromIndex}, and a full search only runs if it cannot be joined.
+   *
+   * @param finder the pathfinder holding the search options
+   * @param start the new start location
+   * @param end the goal location
+   * @param previousPath the path currently followed
+   * @param fromIndex the first node of {@code previousPath} that may be joined
+   * @return the future path
+   */
+  @NotNull CompletableFuture<List<Location>> replan(@NotNull AStartPathFinder finder, @NotNull Location start, @NotNull Location end,
+                                                   @NotNull List<Location> previousPath, int fromIndex);
+
   // ###############################################################
   // ----------------------- DISPLAY PATH --------------------------
   // ###############################################################
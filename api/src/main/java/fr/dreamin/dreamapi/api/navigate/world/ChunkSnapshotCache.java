@@ -0,0 +1,91 @@
+package fr.dreamin.dreamapi.api.navigate.world;
+
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import org.bukkit.ChunkSnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chunk snapshots of one world shared by the {@link SnapshotWorldView}s searching it, so a
+ * replan or a nearby search reuses the snapshots already taken instead of taking them again
+ * on the main thread.
+ * <p>
+ * Snapshots are only added on the main thread; the owner drops the chunks whose blocks
+ * change through {@link #invalidate(int, int)}. Changes it is not told about are bounded by
+ * the maximum age of a snapshot. Every method is thread-safe.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class ChunkSnapshotCache {
+
+  public static final int DEFAULT_MAX_CHUNKS = 1024;
+  public static final long DEFAULT_MAX_AGE_MILLIS = 10_000L;
+
+  private final int maxChunks;
+  private final long maxAgeNanos;
+
+  /** Access ordered, the least recently used chunk goes first once full. */
+  private final LinkedHashMap<Long, Entry> snapshots = new LinkedHashMap<>(64, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Long, Entry> eldest) {
+      return size() > ChunkSnapshotCache.this.maxChunks;
+    }
+  };
+
+  public ChunkSnapshotCache() {
+    this(DEFAULT_MAX_CHUNKS, DEFAULT_MAX_AGE_MILLIS);
+  }
+
+  public ChunkSnapshotCache(final int maxChunks, final long maxAgeMillis) {
+    if (maxChunks <= 0)
+      throw new IllegalArgumentException("maxChunks must be positive: " + maxChunks);
+    this.maxChunks = maxChunks;
+    this.maxAgeNanos = TimeUnit.MILLISECONDS.toNanos(maxAgeMillis);
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * @param chunkKey the {@link PackedCoords#chunkKey(int, int)} of the chunk
+   * @return the snapshot of the chunk, or {@code null} if there is none or it is too old
+   */
+  public synchronized @Nullable ChunkSnapshot get(final long chunkKey) {
+    final var entry = this.snapshots.get(chunkKey);
+    if (entry == null)
+      return null;
+
+    if (System.nanoTime() - entry.capturedAt > this.maxAgeNanos) {
+      this.snapshots.remove(chunkKey);
+      return null;
+    }
+    return entry.snapshot;
+  }
+
+  /** Stores a snapshot just taken on the main thread. */
+  public synchronized void put(final long chunkKey, final @NotNull ChunkSnapshot snapshot) {
+    this.snapshots.put(chunkKey, new Entry(snapshot, System.nanoTime()));
+  }
+
+  /** Drops the snapshot of a chunk whose blocks changed or which unloaded. */
+  public synchronized void invalidate(final int chunkX, final int chunkZ) {
+    this.snapshots.remove(PackedCoords.chunkKey(chunkX, chunkZ));
+  }
+
+  public synchronized void clear() {
+    this.snapshots.clear();
+  }
+
+  public synchronized int size() {
+    return this.snapshots.size();
+  }
+
+  private record Entry(@NotNull ChunkSnapshot snapshot, long capturedAt) {}
+
+}
@@ -0,0 +1,46 @@
+package fr.dreamin.dreamapi.api.navigate.world;
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Read-only view of the blocks a path search walks through.
+ * <p>
+ * Implementations are confined to the thread running the search: the pathfinder never
+ * touches {@link org.bukkit.block.Block} directly, so a search can run on any worker thread.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public interface PathWorldView {
+
+  /**
+   * @return the world the view reads from, or null for synthetic views
+   */
+  @Nullable World getWorld();
+
+  /**
+   * @return the lowest block Y of the view (inclusive)
+   */
+  int getMinHeight();
+
+  /**
+   * @return the highest block Y of the view (exclusive)
+   */
+  int getMaxHeight();
+
+  /**
+   * Returns the material at a block position. Positions outside the height range read as
+   * {@link Material#VOID_AIR}; positions in unavailable chunks read as {@link Material#BARRIER}
+   * so the search routes around them.
+   *
+   * @param x block X
+   * @param y block Y
+   * @param z block Z
+   * @return the material at that position
+   */
+  @NotNull Material getType(int x, int y, int z);
+
+}
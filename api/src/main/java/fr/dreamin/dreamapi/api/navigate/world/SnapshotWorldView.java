@@ -0,0 +1,293 @@
+package fr.dreamin.dreamapi.api.navigate.world;
+
+import fr.dreamin.dreamapi.api.DreamAPI;
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import fr.dreamin.dreamapi.api.util.collection.LongObjectMap;
+import lombok.Getter;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Location;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * {@link PathWorldView} backed by {@link ChunkSnapshot}s.
+ * <p>
+ * The chunks around the start and goal are captured up front on the main thread. Chunks
+ * the search reaches outside of that box are fetched lazily: from the main thread only
+ * already loaded chunks are used, from a worker thread the chunk is loaded (never
+ * generated) on the main thread and the worker waits for its snapshot.
+ * <p>
+ * A view made with a {@link ChunkSnapshotCache} reads the snapshots it holds before taking
+ * any, and adds those it takes to it. Such a view only captures the chunks around its ends
+ * up front; a worker fetching a chunk also captures its loaded neighbours in the same trip.
+ * <p>
+ * A view is not thread-safe; it is meant to be handed to a single search.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class SnapshotWorldView implements PathWorldView {
+
+  /** Chunks captured around the start and the goal beyond their bounding box. */
+  public static final int DEFAULT_MARGIN_CHUNKS = 2;
+
+  /** Above this many chunks the bounding box is not captured eagerly, only the ends are. */
+  private static final int MAX_EAGER_CHUNKS = 256;
+
+  private static final long FETCH_TIMEOUT_MILLIS = 5000L;
+
+  /** Chunks captured around each end, and around a fetched chunk, by a view sharing a cache. */
+  private static final int REGION_RADIUS = 1;
+
+  @Getter
+  private final @NotNull World world;
+  @Getter
+  private final int minHeight;
+  @Getter
+  private final int maxHeight;
+
+  private final LongObjectMap<ChunkSnapshot> chunks = new LongObjectMap<>();
+  private final LongObjectMap<Boolean> missing = new LongObjectMap<>();
+
+  /** Whether chunks outside the captured ones are fetched on demand. */
+  private final boolean fetchMissing;
+  private final @Nullable ChunkSnapshotCache shared;
+
+  private long lastKey = Long.MIN_VALUE;
+  private @Nullable ChunkSnapshot lastChunk;
+
+  private SnapshotWorldView(final @NotNull World world, final boolean fetchMissing, final @Nullable ChunkSnapshotCache shared) {
+    this.world = world;
+    this.fetchMissing = fetchMissing;
+    this.shared = shared;
+    this.minHeight = world.getMinHeight();
+    this.maxHeight = world.getMaxHeight();
+  }
+
+  // ###############################################################
+  // ----------------------- STATIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Creates a view that fetches every chunk lazily.
+   *
+   * @param world the world to read
+   * @return an empty view
+   */
+  public static @NotNull SnapshotWorldView lazy(final @NotNull World world) {
+    return new SnapshotWorldView(world, true, null);
+  }
+
+  /**
+   * Creates a view covering the bounding box of two locations plus {@link #DEFAULT_MARGIN_CHUNKS}.
+   * When called off the main thread nothing is captured up front and every chunk is fetched lazily.
+   *
+   * @param start the search start
+   * @param end the search goal
+   * @return the captured view
+   */
+  public static @NotNull SnapshotWorldView capture(final @NotNull Location start, final @NotNull Location end) {
+    return capture(start, end, DEFAULT_MARGIN_CHUNKS);
+  }
+
+  /**
+   * Creates a view covering the bounding box of two locations plus a margin of chunks.
+   *
+   * @param start the search start
+   * @param end the search goal
+   * @param marginChunks chunks to capture around the box
+   * @return the captured view
+   */
+  public static @NotNull SnapshotWorldView capture(final @NotNull Location start, final @NotNull Location end, final int marginChunks) {
+    final var view = new SnapshotWorldView(start.getWorld(), true, null);
+    if (!Bukkit.isPrimaryThread())
+      return view;
+
+    final var startX = start.getBlockX() >> 4;
+    final var startZ = start.getBlockZ() >> 4;
+    final var endX = end.getBlockX() >> 4;
+    final var endZ = end.getBlockZ() >> 4;
+
+    final var minX = Math.min(startX, endX) - marginChunks;
+    final var minZ = Math.min(startZ, endZ) - marginChunks;
+    final var maxX = Math.max(startX, endX) + marginChunks;
+    final var maxZ = Math.max(startZ, endZ) + marginChunks;
+
+    if ((long) (maxX - minX + 1) * (maxZ - minZ + 1) <= MAX_EAGER_CHUNKS)
+      view.captureArea(minX, minZ, maxX, maxZ);
+    else {
+      view.captureArea(startX - marginChunks, startZ - marginChunks, startX + marginChunks, startZ + marginChunks);
+      view.captureArea(endX - marginChunks, endZ - marginChunks, endX + marginChunks, endZ + marginChunks);
+    }
+    return view;
+  }
+
+  /**
+   * Creates a view reading and filling a shared cache. Only the chunks around the start and
+   * the goal missing from the cache are captured up front, and only on the main thread;
+   * every other chunk is fetched lazily.
+   *
+   * @param start the search start
+   * @param end the search goal
+   * @param cache the snapshots of the world of both locations
+   * @return the captured view
+   */
+  public static @NotNull SnapshotWorldView capture(final @NotNull Location start, final @NotNull Location end,
+                                                   final @NotNull ChunkSnapshotCache cache) {
+    final var view = new SnapshotWorldView(start.getWorld(), true, cache);
+    if (!Bukkit.isPrimaryThread())
+      return view;
+
+    final var startX = start.getBlockX() >> 4;
+    final var startZ = start.getBlockZ() >> 4;
+    final var endX = end.getBlockX() >> 4;
+    final var endZ = end.getBlockZ() >> 4;
+    view.captureArea(startX - REGION_RADIUS, startZ - REGION_RADIUS, startX + REGION_RADIUS, startZ + REGION_RADIUS);
+    view.captureArea(endX - REGION_RADIUS, endZ - REGION_RADIUS, endX + REGION_RADIUS, endZ + REGION_RADIUS);
+    return view;
+  }
+
+  /**
+   * Captures the loaded chunks in a square around a chunk, on the main thread. The view never
+   * fetches more chunks: anything outside reads as {@link Material#BARRIER}.
+   *
+   * @param world the world to read
+   * @param chunkX center chunk X
+   * @param chunkZ center chunk Z
+   * @param radius chunks captured on each side of the center
+   * @return the captured view
+   */
+  public static @NotNull SnapshotWorldView captureChunks(final @NotNull World world, final int chunkX, final int chunkZ, final int radius) {
+    final var view = new SnapshotWorldView(world, false, null);
+    view.captureArea(chunkX - radius, chunkZ - radius, chunkX + radius, chunkZ + radius);
+    return view;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  @Override
+  public @NotNull Material getType(final int x, final int y, final int z) {
+    if (y < this.minHeight || y >= this.maxHeight)
+      return Material.VOID_AIR;
+
+    final var chunk = chunk(x >> 4, z >> 4);
+    if (chunk == null)
+      return Material.BARRIER;
+
+    return chunk.getBlockType(x & 15, y, z & 15);
+  }
+
+  public boolean hasChunk(final int chunkX, final int chunkZ) {
+    return this.chunks.containsKey(PackedCoords.chunkKey(chunkX, chunkZ));
+  }
+
+  /**
+   * @return the number of chunk snapshots held by the view
+   */
+  public int getChunkCount() {
+    return this.chunks.size();
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void captureArea(final int minX, final int minZ, final int maxX, final int maxZ) {
+    for (var cx = minX; cx <= maxX; cx++) {
+      for (var cz = minZ; cz <= maxZ; cz++) {
+        final var key = PackedCoords.chunkKey(cx, cz);
+        if (this.chunks.containsKey(key))
+          continue;
+
+        final var cached = this.shared != null ? this.shared.get(key) : null;
+        if (cached != null)
+          this.chunks.put(key, cached);
+        else if (this.world.isChunkLoaded(cx, cz))
+          this.chunks.put(key, snapshot(this.world.getChunkAt(cx, cz), this.shared));
+      }
+    }
+  }
+
+  /** Takes a snapshot on the main thread and shares it. */
+  private static @NotNull ChunkSnapshot snapshot(final @NotNull Chunk chunk, final @Nullable ChunkSnapshotCache shared) {
+    final var snapshot = chunk.getChunkSnapshot(false, false, false);
+    if (shared != null)
+      shared.put(PackedCoords.chunkKey(chunk.getX(), chunk.getZ()), snapshot);
+    return snapshot;
+  }
+
+  private @Nullable ChunkSnapshot chunk(final int chunkX, final int chunkZ) {
+    final var key = PackedCoords.chunkKey(chunkX, chunkZ);
+    if (key == this.lastKey)
+      return this.lastChunk;
+
+    var chunk = this.chunks.get(key);
+    if (chunk == null && this.shared != null) {
+      chunk = this.shared.get(key);
+      if (chunk != null)
+        this.chunks.put(key, chunk);
+    }
+    if (chunk == null && this.fetchMissing && !this.missing.containsKey(key)) {
+      chunk = fetch(chunkX, chunkZ);
+      if (chunk != null)
+        this.chunks.put(key, chunk);
+      else
+        this.missing.put(key, Boolean.TRUE);
+    }
+
+    this.lastKey = key;
+    this.lastChunk = chunk;
+    return chunk;
+  }
+
+  private @Nullable ChunkSnapshot fetch(final int chunkX, final int chunkZ) {
+    if (Bukkit.isPrimaryThread()) {
+      if (!this.world.isChunkLoaded(chunkX, chunkZ))
+        return null;
+      return snapshot(this.world.getChunkAt(chunkX, chunkZ), this.shared);
+    }
+
+    // Snapshots are shared from the main thread, so none lands after the invalidation of its chunk
+    final var world = this.world;
+    final var shared = this.shared;
+    final var future = new CompletableFuture<ChunkSnapshot>();
+    try {
+      Bukkit.getScheduler().runTask(DreamAPI.getAPI().plugin(), () -> {
+        if (shared != null)
+          captureNeighbours(world, chunkX, chunkZ, shared);
+        world.getChunkAtAsync(chunkX, chunkZ, false).whenComplete((chunk, throwable) ->
+          future.complete(chunk == null ? null : snapshot(chunk, shared)));
+      });
+      return future.get(FETCH_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return null;
+    } catch (ExecutionException | TimeoutException | IllegalPluginAccessException e) {
+      return null;
+    }
+  }
+
+  /** Shares the loaded chunks around a fetched one, so the search reaching them skips a trip. */
+  private static void captureNeighbours(final @NotNull World world, final int chunkX, final int chunkZ,
+                                        final @NotNull ChunkSnapshotCache shared) {
+    for (var cx = chunkX - REGION_RADIUS; cx <= chunkX + REGION_RADIUS; cx++) {
+      for (var cz = chunkZ - REGION_RADIUS; cz <= chunkZ + REGION_RADIUS; cz++) {
+        if ((cx != chunkX || cz != chunkZ) && world.isChunkLoaded(cx, cz) && shared.get(PackedCoords.chunkKey(cx, cz)) == null)
+          snapshot(world.getChunkAt(cx, cz), shared);
+      }
+    }
+  }
+
+}
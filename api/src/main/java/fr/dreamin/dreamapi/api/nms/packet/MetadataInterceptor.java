@@ -1,86 +1,56 @@
 package fr.dreamin.dreamapi.api.nms.packet;
 
-import io.netty.channel.ChannelDuplexHandler;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelPromise;
+import fr.dreamin.dreamapi.api.util.collection.ConcurrentIntByteMap;
 import lombok.RequiredArgsConstructor;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
-import java.util.List;
-import java.util.function.Function;
 
+/**
+ * Keeps the glowing bit set in the shared flags of glowed entities.
+ * <p>
+ * Flags are looked up in a primitive map written by the main thread and read lock-free here,
+ * on the Netty thread. Data values are matched by id, and a new packet is only built when the
+ * flags it leaves the client with would lack the custom bits.
+ */
 @RequiredArgsConstructor
-public final class MetadataInterceptor extends ChannelDuplexHandler {
+public final class MetadataInterceptor implements PacketInterceptor {
 
-  private final @NotNull Function<Integer, Byte> glowingFlagProvider;
+  /** Entity id to the flags it must show, written by the glowing manager. */
+  private final @NotNull ConcurrentIntByteMap glowingFlags;
 
   @Override
-  public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
-    if (!PacketReflection.getPacketMetadataClass().isInstance(msg)) {
-      super.write(ctx, msg, promise);
-      return;
+  public @Nullable Object onWrite(final @NotNull Object msg) throws Exception {
+    if (this.glowingFlags.isEmpty())
+      return msg;
+
+    final var entityId = PacketReflection.getMetadataEntityId(msg);
+    final var customFlags = this.glowingFlags.get(entityId);
+    if (customFlags == ConcurrentIntByteMap.MISSING)
+      return msg;
+
+    final var items = PacketReflection.getMetadataItems(msg);
+    final var flagsId = PacketReflection.getWatcherObjectFlagsId();
+
+    for (var i = 0; i < items.size(); i++) {
+      final var item = items.get(i);
+      if (PacketReflection.getDataValueId(item) != flagsId) continue;
+
+      final var currentFlags = PacketReflection.getDataValueValue(item);
+      final var newFlags = (byte) (currentFlags | customFlags);
+      if (newFlags == currentFlags)
+        return msg;
+
+      final var modifiedItems = new ArrayList<>(items);
+      modifiedItems.set(i, PacketReflection.createDataValue(newFlags));
+      return PacketReflection.createMetadataPacket(entityId, modifiedItems);
     }
 
-    try {
-      final var entityId = PacketReflection.getMetadataEntityId(msg);
-      final var customFlags = this.glowingFlagProvider.apply(entityId);
-
-      if (customFlags == null) {
-        super.write(ctx, msg, promise);
-        return;
-      }
-
-      final var items = PacketReflection.getMetadataItems(msg);
-      if (items == null || items.isEmpty()) {
-        super.write(ctx, msg, promise);
-        return;
-      }
-
-      var containsFlags = false;
-      var edited = false;
-      List<Object> modifiedItems = null;
-
-      for (var i = 0; i < items.size(); i ++) {
-        final var item = items.get(i);
-        final var serializer = PacketReflection.getDataValueSerializer(item);
-        final var watcherObject = PacketReflection.createAccessorFromSerializer(
-          serializer,
-          PacketReflection.getDataValueId(item)
-        );
-
-        if (watcherObject.equals(PacketReflection.getWatcherObjectFlags())) {
-          containsFlags = true;
-          final var currentFlags = PacketReflection.getDataValueValue(item);
-          final var newFlags = (byte) (currentFlags | customFlags);
-
-          if (newFlags != currentFlags) {
-            edited = true;
-            modifiedItems = new ArrayList<>(items);
-            modifiedItems.set(i,
-              PacketReflection.createDataValue(newFlags)
-            );
-          }
-        }
-
-        if (!edited && !containsFlags && customFlags != 0) {
-          edited = true;
-          modifiedItems = new ArrayList<>(items);
-          modifiedItems.add(PacketReflection.createDataValue(customFlags));
-        }
-
-        if (edited) {
-          final var newPacket = PacketReflection.createMetadataPacket(entityId, modifiedItems);
-          super.write(ctx, newPacket, promise);
-          return;
-        }
-
-      }
-
-    } catch (ReflectiveOperationException e) {
-      e.printStackTrace();
-    }
-
-    super.write(ctx, msg, promise);
+    // No shared flags, e.g. the spawn metadata of an entity whose flags are all default.
+    final var modifiedItems = new ArrayList<>(items.size() + 1);
+    modifiedItems.addAll(items);
+    modifiedItems.add(PacketReflection.createDataValue((byte) customFlags));
+    return PacketReflection.createMetadataPacket(entityId, modifiedItems);
   }
 }
@@ -9,11 +9,18 @@ public final class PacketConstants {
   public static final byte GLOWING_FLAG = 1 << 6;
   public static final byte INVISIBILITY_FLAG = 1 << 5;
 
+  /** Most packets the client accepts inside one bundle. */
+  public static final int BUNDLE_MAX_PACKETS = 4096;
+
 // ###############################################################
   // ---------------------- CRAFTBUKKIT CLASSES --------------------
   // ###############################################################
 
   public static final String CRAFT_ENTITY = "entity.CraftEntity";
+  public static final String CRAFT_BLOCK_DATA = "block.data.CraftBlockData";
+  public static final String CRAFT_ITEM_STACK = "inventory.CraftItemStack";
+
+  public static final String PAPER_ADVENTURE = "io.papermc.paper.adventure.PaperAdventure";
 
   // ###############################################################
   // ------------------------- NMS CLASSES -------------------------
@@ -28,6 +35,7 @@ public final class PacketConstants {
 
   // Packets
   public static final String NMS_PACKET = "net.minecraft.network.protocol.Packet";
+  public static final String NMS_PACKET_BUNDLE = "net.minecraft.network.protocol.game.ClientboundBundlePacket";
 
   public static final String NMS_WORLD_BORDER = "net.minecraft.world.level.border.WorldBorder";
   public static final String NMS_PACKET_WORLD_BORDER = "net.minecraft.network.protocol.game.ClientboundInitializeBorderPacket";
@@ -42,7 +50,9 @@ public final class PacketConstants {
   public static final String NMS_PACKET_TEAM_PARAMS = "net.minecraft.network.protocol.game.ClientboundSetPlayerTeamPacket$Parameters";
   public static final String NMS_PACKET_ADD_ENTITY = "net.minecraft.network.protocol.game.ClientboundAddEntityPacket";
   public static final String NMS_PACKET_REMOVE_ENTITIES = "net.minecraft.network.protocol.game.ClientboundRemoveEntitiesPacket";
+  public static final String NMS_PACKET_ENTITY_POSITION_SYNC = "net.minecraft.network.protocol.game.ClientboundEntityPositionSyncPacket";
   public static final String NMS_PACKET_BLOCK_UPDATE = "net.minecraft.network.protocol.game.ClientboundBlockUpdatePacket";
+  public static final String NMS_PACKET_SECTION_BLOCKS_UPDATE = "net.minecraft.network.protocol.game.ClientboundSectionBlocksUpdatePacket";
   public static final String NMS_PACKET_PLAYER_INFO_UPDATE = "net.minecraft.network.protocol.game.ClientboundPlayerInfoUpdatePacket";
   public static final String NMS_PACKET_PLAYER_INFO_REMOVE = "net.minecraft.network.protocol.game.ClientboundPlayerInfoRemovePacket";
 
@@ -61,11 +71,26 @@ public final class PacketConstants {
   // Entity spawning
   public static final String NMS_ENTITY_TYPE = "net.minecraft.world.entity.EntityType";
   public static final String NMS_VEC3 = "net.minecraft.world.phys.Vec3";
+  public static final String NMS_POSITION_MOVE_ROTATION = "net.minecraft.world.entity.PositionMoveRotation";
+
+  // Display entities
+  public static final String NMS_DISPLAY = "net.minecraft.world.entity.Display";
+  public static final String NMS_TEXT_DISPLAY = "net.minecraft.world.entity.Display$TextDisplay";
+  public static final String NMS_ITEM_DISPLAY = "net.minecraft.world.entity.Display$ItemDisplay";
+  public static final String NMS_BLOCK_DISPLAY = "net.minecraft.world.entity.Display$BlockDisplay";
+
+  public static final byte TEXT_DISPLAY_SHADOW_FLAG = 0x01;
+  public static final byte TEXT_DISPLAY_SEE_THROUGH_FLAG = 0x02;
+  public static final byte TEXT_DISPLAY_ALIGN_LEFT_FLAG = 0x08;
+  public static final byte TEXT_DISPLAY_ALIGN_RIGHT_FLAG = 0x10;
   public static final String NMS_LEVEL = "net.minecraft.world.level.Level";
 
   // Blocks
   public static final String NMS_BLOCK = "net.minecraft.world.level.block.Block";
   public static final String NMS_BLOCK_POS = "net.minecraft.core.BlockPos";
   public static final String NMS_BLOCK_STATE = "net.minecraft.world.level.block.state.BlockState";
+  public static final String NMS_SECTION_POS = "net.minecraft.core.SectionPos";
+  public static final String FASTUTIL_SHORT_SET = "it.unimi.dsi.fastutil.shorts.ShortSet";
+  public static final String FASTUTIL_SHORT_ARRAY_SET = "it.unimi.dsi.fastutil.shorts.ShortArraySet";
 
 }
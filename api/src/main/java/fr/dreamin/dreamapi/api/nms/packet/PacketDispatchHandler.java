@@ -0,0 +1,118 @@
+package fr.dreamin.dreamapi.api.nms.packet;
+
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The single DreamAPI handler of a player's pipeline.
+ * <p>
+ * Interceptors are kept in a copy-on-write table from exact packet class to the interceptors
+ * of that class, so a packet nobody listens to costs one identity lookup. Bundles are opened
+ * so their content reaches interceptors too, since this handler sits before the unbundler.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class PacketDispatchHandler extends ChannelDuplexHandler {
+
+  private final Class<?> bundleClass = PacketReflection.getPacketBundleClass();
+
+  private volatile Map<Class<?>, PacketInterceptor[]> outbound = Map.of();
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  @Override
+  public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) throws Exception {
+    final var dispatch = this.outbound;
+    final var interceptors = dispatch.get(msg.getClass());
+
+    Object packet = msg;
+    if (interceptors != null)
+      packet = intercept(interceptors, msg);
+    else if (msg.getClass() == this.bundleClass && !dispatch.isEmpty())
+      packet = interceptBundle(dispatch, msg);
+
+    if (packet == null) {
+      promise.trySuccess();
+      return;
+    }
+    super.write(ctx, packet, promise);
+  }
+
+  // ###############################################################
+  // ---------------------- PACKAGE METHODS ------------------------
+  // ###############################################################
+
+  void add(final @NotNull Class<?> packetClass, final @NotNull PacketInterceptor interceptor) {
+    final var table = new IdentityHashMap<>(this.outbound);
+    final var current = table.get(packetClass);
+    final var updated = current == null ? new PacketInterceptor[1] : Arrays.copyOf(current, current.length + 1);
+    updated[updated.length - 1] = interceptor;
+    table.put(packetClass, updated);
+    this.outbound = table;
+  }
+
+  void remove(final @NotNull Class<?> packetClass, final @NotNull PacketInterceptor interceptor) {
+    final var current = this.outbound.get(packetClass);
+    if (current == null) return;
+
+    final var table = new IdentityHashMap<>(this.outbound);
+    final var remaining = Arrays.stream(current).filter(existing -> existing != interceptor).toArray(PacketInterceptor[]::new);
+    if (remaining.length == 0)
+      table.remove(packetClass);
+    else
+      table.put(packetClass, remaining);
+    this.outbound = table;
+  }
+
+  boolean isEmpty() {
+    return this.outbound.isEmpty();
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private static @Nullable Object intercept(final @NotNull PacketInterceptor[] interceptors, final @NotNull Object msg) {
+    Object packet = msg;
+    for (final var interceptor : interceptors) {
+      try {
+        packet = interceptor.onWrite(packet);
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
+      if (packet == null) return null;
+    }
+    return packet;
+  }
+
+  private static @NotNull Object interceptBundle(final @NotNull Map<Class<?>, PacketInterceptor[]> dispatch, final @NotNull Object bundle) {
+    try {
+      final var packets = new ArrayList<>();
+      var changed = false;
+
+      for (final var packet : PacketReflection.getBundlePackets(bundle)) {
+        final var interceptors = dispatch.get(packet.getClass());
+        final var result = interceptors == null ? packet : intercept(interceptors, packet);
+        changed |= result != packet;
+        if (result != null)
+          packets.add(result);
+      }
+      return changed ? PacketReflection.createBundlePacket(packets) : bundle;
+    } catch (ReflectiveOperationException e) {
+      e.printStackTrace();
+      return bundle;
+    }
+  }
+
+}
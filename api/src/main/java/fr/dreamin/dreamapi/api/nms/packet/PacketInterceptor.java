@@ -0,0 +1,24 @@
+package fr.dreamin.dreamapi.api.nms.packet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Rewrites outbound packets of one exact class for one player.
+ * <p>
+ * Registered through {@link PacketPipeline#intercept}; called on the Netty thread of the
+ * player's channel, so implementations must not touch the Bukkit world.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+@FunctionalInterface
+public interface PacketInterceptor {
+
+  /**
+   * @param packet the packet about to be written
+   * @return the packet to write instead (usually {@code packet} itself), or null to drop it
+   */
+  @Nullable Object onWrite(@NotNull Object packet) throws Exception;
+
+}
@@ -0,0 +1,113 @@
+package fr.dreamin.dreamapi.api.nms.packet;
+
+import io.netty.channel.Channel;
+import lombok.experimental.UtilityClass;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Registers typed packet interceptors on a player's connection.
+ * <p>
+ * Every channel gets at most one {@value #HANDLER_NAME} handler, installed on the first
+ * registration and removed with the last one; services register interceptors on it instead
+ * of adding pipeline handlers of their own.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+@UtilityClass
+public final class PacketPipeline {
+
+  public static final String HANDLER_NAME = "dreamapi";
+
+  private static final String ANCHOR = "packet_handler";
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Intercepts the outbound packets of an exact class sent to a player.
+   *
+   * @param player the player whose connection is watched
+   * @param packetClass the exact NMS packet class, subclasses are not matched
+   * @param interceptor the interceptor, called on the Netty thread
+   * @return the registration, to {@link Registration#unregister()} when done
+   */
+  public static @NotNull Registration intercept(
+    final @NotNull Player player,
+    final @NotNull Class<?> packetClass,
+    final @NotNull PacketInterceptor interceptor
+  ) throws ReflectiveOperationException {
+    final var channel = PacketReflection.getChannel(player);
+    synchronized (PacketPipeline.class) {
+      final var handler = getOrInstall(channel);
+      handler.add(packetClass, interceptor);
+      return new Registration(channel, handler, packetClass, interceptor);
+    }
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private static @NotNull PacketDispatchHandler getOrInstall(final @NotNull Channel channel) {
+    final var pipeline = channel.pipeline();
+    final var existing = pipeline.get(HANDLER_NAME);
+    if (existing instanceof PacketDispatchHandler handler)
+      return handler;
+
+    // Left over by a previous load of the plugin.
+    if (existing != null)
+      pipeline.remove(HANDLER_NAME);
+
+    final var handler = new PacketDispatchHandler();
+    pipeline.addBefore(ANCHOR, HANDLER_NAME, handler);
+    return handler;
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  public static final class Registration {
+
+    private final Channel channel;
+    private final PacketDispatchHandler handler;
+    private final Class<?> packetClass;
+    private final PacketInterceptor interceptor;
+    private boolean active = true;
+
+    private Registration(
+      final @NotNull Channel channel,
+      final @NotNull PacketDispatchHandler handler,
+      final @NotNull Class<?> packetClass,
+      final @NotNull PacketInterceptor interceptor
+    ) {
+      this.channel = channel;
+      this.handler = handler;
+      this.packetClass = packetClass;
+      this.interceptor = interceptor;
+    }
+
+    /**
+     * Stops intercepting. The shared handler leaves the pipeline with its last interceptor.
+     */
+    public void unregister() {
+      synchronized (PacketPipeline.class) {
+        if (!this.active) return;
+        this.active = false;
+
+        this.handler.remove(this.packetClass, this.interceptor);
+        if (!this.handler.isEmpty() || !this.channel.isOpen())
+          return;
+
+        final var pipeline = this.channel.pipeline();
+        if (pipeline.get(HANDLER_NAME) == this.handler)
+          pipeline.remove(this.handler);
+      }
+    }
+
+  }
+
+}
@@ -3,17 +3,28 @@ package fr.dreamin.dreamapi.api.nms.packet;
 import fr.dreamin.dreamapi.api.worldborder.model.WorldBorderAction;
 import io.netty.channel.Channel;
 import lombok.experimental.UtilityClass;
+import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.World;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
-
+import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.ArrayList;
@@ -25,404 +36,147 @@ import java.util.UUID;
 
 /**
  * Centralized reflection access for NMS 1.21.10
+ * <p>
+ * Members are resolved once, when {@link #initialize()} first loads the {@code Nms} holder, and
+ * kept in its {@code static final} fields as {@link MethodHandle}s adapted to erased signatures:
+ * every call is an {@code invokeExact} the JIT can inline, without argument arrays or boxing of
+ * primitive parameters.
  */
 @UtilityClass
 public class PacketReflection {
 
-  private static boolean initialized = false;
-
-  // ###############################################################
-  // ----------------------- CRAFTBUKKIT ---------------------------
-  // ###############################################################
-
-  private static String craftPackage;
-  private static Class<?> craftEntityClass;
-  private static Class<?> craftWorldClass;
-
-  // ###############################################################
-  // ---------------------- ENTITY & DATA --------------------------
-  // ###############################################################
-
-  private static Class<?> nmsEntityClass;
-  private static Class<?> synchedDataClass;
-  private static Class<?> dataAccessorClass;
-  private static Class<?> dataValueClass;
-  private static Class<?> dataSerializerClass;
-
-  private static Method getHandleMethod;
-  private static Method getEntityDataMethod;
-  private static Method watcherGetMethod;
-  private static Field dataSharedFlagsField;
-  private static Object watcherObjectFlags;
-
-  private static Method dataValueCreateMethod;
-  private static Method dataValueIdMethod;
-  private static Method dataValueSerializerMethod;
-  private static Method dataValueValueMethod;
-  private static Method serializerCreateAccessorMethod;
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
 
-  // ###############################################################
-  // ------------------------- PACKETS -----------------------------
-  // ###############################################################
-
-  private static Class<?> packetClass;
-
-  private static Class<?> worldBorderClass;
-  private static Class<?> packetWorldBorderClass;
-  private static Class<?> packetWorldBorderCenterClass;
-  private static Class<?> packetWorldBorderSizeClass;
-  private static Class<?> packetWorldBorderLerpClass;
-  private static Class<?> packetWorldBorderWarningDelayClass;
-  private static Class<?> packetWorldBorderWarningDistanceClass;
-
-  private static Class<?> packetMetadataClass;
-  private static Class<?> packetTeamClass;
-  private static Class<?> packetTeamParamsClass;
-  private static Class<?> packetAddEntityClass;
-  private static Class<?> packetRemoveEntitiesClass;
-  private static Class<?> packetBlockUpdateClass;
-  private static Class<?> packetPlayerInfoUpdateClass;
-  private static Class<?> packetPlayerInfoRemoveClass;
-  private static Class<?> packetPlayerInfoUpdateActionClass;
-
-  private static Constructor<?> packetMetadataConstructor;
-  private static Constructor<?> packetWorldBorderConstructor;
-  private static Constructor<?> packetWorldBorderCenterConstructor;
-  private static Constructor<?> packetWorldBorderSizeConstructor;
-  private static Constructor<?> packetWorldBorderLerpConstructor;
-  private static Constructor<?> packetWorldBorderWarningDelayConstructor;
-  private static Constructor<?> packetWorldBorderWarningDistanceConstructor;
-  private static Field packetMetadataEntityIdField;
-  private static Field packetMetadataItemsField;
-
-  private static Constructor<?> packetTeamConstructor;
-  private static Constructor<?> packetTeamParamsConstructor;
-  private static Constructor<?> packetAddEntityConstructor;
-  private static Constructor<?> packetRemoveEntitiesConstructor;
-  private static Constructor<?> packetBlockUpdateConstructor;
-  private static Constructor<?> packetPlayerInfoRemoveConstructor;
-  private static Constructor<?> packetPlayerInfoUpdateConstructor;
-
-  private static Method packetPlayerInfoCreateInitializingMethod;
-
-  // ###############################################################
-  // ------------------------ NETWORKING ---------------------------
-  // ###############################################################
-
-  private static Class<?> serverPlayerClass;
-  private static Class<?> serverPacketListenerClass;
-  private static Class<?> connectionClass;
-
-  private static Field playerConnectionField;
-  private static Method sendPacketMethod;
-  private static Field networkManagerField;
-  private static Field channelField;
+  private static boolean initialized = false;
 
   // ###############################################################
-  // --------------------------- TEAM ------------------------------
+  // ----------------------- INITIALIZATION ------------------------
   // ###############################################################
 
-  private static Class<?> playerTeamClass;
-  private static Class<?> scoreboardClass;
-  private static Class<?> collisionRuleClass;
-  private static Class<?> visibilityClass;
-  private static Class<?> chatFormattingClass;
-  private static Class<?> componentClass;
-
-  private static Constructor<?> playerTeamConstructor;
-  private static Object scoreboardDummy;
-
-  private static Method setTeamColorMethod;
-  private static Method setCollisionRuleMethod;
-  private static Method setNameTagVisibilityMethod;
-  private static Method setAllowFriendlyFireMethod;
-  private static Method setSeeFriendlyInvisiblesMethod;
-  private static Method setTeamPrefixMethod;
-  private static Method setTeamSuffixMethod;
+  public static synchronized void initialize() {
+    if (initialized) return;
 
-  private static Method getColorConstantMethod;
-  private static Method componentEmptyMethod;
-  private static Method componentLiteralMethod;
+    try {
+      Nms.load();
+      initialized = true;
+    } catch (ExceptionInInitializerError e) {
+      throw new RuntimeException("Failed to initialize PacketReflection for 26.1.2", e.getCause());
+    } catch (NoClassDefFoundError e) {
+      // Already failed once, the holder class cannot be loaded again
+      throw new RuntimeException("Failed to initialize PacketReflection for 26.1.2", e);
+    }
+  }
 
   // ###############################################################
-  // ---------------------- ENTITY SPAWNING ------------------------
+  // ---------------------- PUBLIC ACCESSORS -----------------------
   // ###############################################################
 
-  private static Class<?> entityTypeClass;
-  private static Class<?> vec3Class;
-
-  private static Object shulkerEntityType;
-  private static Object armorStandEntityType;
-  private static Object zombieEntityType;
-  private static Object villagerEntityType;
-  private static Object playerEntityType;
-  private static Object itemEntityType;
+  public static @NotNull Object getNmsEntity(final @NotNull Entity entity) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      return (Object) Nms.GET_HANDLE_METHOD.invokeExact((Object) entity);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
 
-  private static Object vec3Zero;
+  public static byte getEntityFlags(final @NotNull Object nmsEntity) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      final var dataWatcher = (Object) Nms.GET_ENTITY_DATA_METHOD.invokeExact(nmsEntity);
+      return (byte) Nms.WATCHER_GET_METHOD.invokeExact(dataWatcher, Nms.WATCHER_OBJECT_FLAGS);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
 
-  // ###############################################################
-  // -------------------------- BLOCKS -----------------------------
-  // ###############################################################
+  public static @NotNull Object createDataValue(final byte flags) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      return (Object) Nms.DATA_VALUE_CREATE_METHOD.invokeExact(Nms.WATCHER_OBJECT_FLAGS, flags);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
 
-  private static Class<?> blockPosClass;
-  private static Class<?> blockClass;
-  private static Class<?> blockStateClass;
+  /**
+   * @param billboard ordinal of the {@link org.bukkit.entity.Display.Billboard}, which matches the protocol
+   */
+  public static @NotNull Object createDisplayBillboardDataValue(final byte billboard) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.DISPLAY_BILLBOARD_ACCESSOR, billboard);
+  }
 
-  private static Constructor<?> blockPosConstructor;
+  /** Ticks the client interpolates position and rotation changes over. */
+  public static @NotNull Object createDisplayTeleportDurationDataValue(final int ticks) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.DISPLAY_TELEPORT_DURATION_ACCESSOR, ticks);
+  }
 
-  // ###############################################################
-  // ----------------------- WORLD BORDER --------------------------
-  // ###############################################################
+  /** Ticks before the client starts interpolating a transformation change. */
+  public static @NotNull Object createDisplayInterpolationDelayDataValue(final int ticks) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.DISPLAY_INTERPOLATION_DELAY_ACCESSOR, ticks);
+  }
 
-  private static Constructor<?> worldBorderConstructor;
-
-  private static Method craftWorldGetHandleMethod;
-  private static Method levelGetWorldBorderMethod;
-
-  private static Method worldBorderSetCenterMethod;
-  private static Method worldBorderGetCenterXMethod;
-  private static Method worldBorderGetCenterZMethod;
-  private static Method worldBorderGetMinXMethod;
-  private static Method worldBorderGetMinZMethod;
-  private static Method worldBorderGetMaxXMethod;
-  private static Method worldBorderGetMaxZMethod;
-  private static Method worldBorderSetSizeMethod;
-  private static Method worldBorderGetSizeMethod;
-  private static Method worldBorderSetSafeZoneMethod;
-  private static Method worldBorderGetSafeZoneMethod;
-  private static Method worldBorderSetWarningTimeMethod;
-  private static Method worldBorderGetWarningTimeMethod;
-  private static Method worldBorderSetWarningBlocksMethod;
-  private static Method worldBorderGetWarningBlocksMethod;
-  private static Method worldBorderLerpSizeBetweenMethod;
+  /** Ticks the client interpolates transformation changes over. */
+  public static @NotNull Object createDisplayInterpolationDurationDataValue(final int ticks) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.DISPLAY_INTERPOLATION_DURATION_ACCESSOR, ticks);
+  }
 
-  // ###############################################################
-  // ----------------------- INITIALIZATION ------------------------
-  // ###############################################################
+  public static @NotNull Object createDisplayScaleDataValue(final @NotNull Vector3f scale) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.DISPLAY_SCALE_ACCESSOR, new Vector3f(scale));
+  }
 
-  public static synchronized void initialize() {
-    if (initialized) return;
+  public static @NotNull Object createDisplayLeftRotationDataValue(final @NotNull Quaternionf rotation) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.DISPLAY_LEFT_ROTATION_ACCESSOR, new Quaternionf(rotation));
+  }
 
+  public static @NotNull Object createTextDisplayTextDataValue(final @NotNull Component text) throws ReflectiveOperationException {
+    ensureInitialized();
     try {
-      loadClasses();
-      loadMethods();
-      loadFields();
-      loadConstructors();
-      loadConstants();
-
-      initialized = true;
-    } catch (Exception e) {
-      throw new RuntimeException("Failed to initialize PacketReflection for 26.1.2", e);
+      return createDisplayDataValue(Nms.TEXT_DISPLAY_TEXT_ACCESSOR, (Object) Nms.ADVENTURE_AS_VANILLA_METHOD.invokeExact((Object) text));
+    } catch (Throwable t) {
+      throw wrap(t);
     }
   }
 
-  private static void loadClasses() throws ClassNotFoundException {
-    // CraftBukkit
-    craftPackage = Bukkit.getServer().getClass().getPackage().getName();
-    craftEntityClass = Class.forName(craftPackage + "." + PacketConstants.CRAFT_ENTITY);
-    craftWorldClass = Class.forName(craftPackage + ".CraftWorld");
-
-    // Entity & Data
-    nmsEntityClass = Class.forName(PacketConstants.NMS_ENTITY);
-    synchedDataClass = Class.forName(PacketConstants.NMS_SYNCHED_DATA);
-    dataAccessorClass = Class.forName(PacketConstants.NMS_DATA_ACCESSOR);
-    dataValueClass = Class.forName(PacketConstants.NMS_DATA_VALUE);
-    dataSerializerClass = Class.forName(PacketConstants.NMS_DATA_SERIALIZER);
-
-    // Packets
-    packetClass = Class.forName(PacketConstants.NMS_PACKET);
-
-    worldBorderClass = Class.forName(PacketConstants.NMS_WORLD_BORDER);
-    packetWorldBorderClass = Class.forName(PacketConstants.NMS_PACKET_WORLD_BORDER);
-    packetWorldBorderCenterClass = Class.forName(PacketConstants.NMS_PACKET_WORLD_BORDER_CENTER);
-    packetWorldBorderSizeClass = Class.forName(PacketConstants.NMS_PACKET_WORLD_BORDER_SIZE);
-    packetWorldBorderLerpClass = Class.forName(PacketConstants.NMS_PACKET_WORLD_BORDER_LERP_SIZE);
-    packetWorldBorderWarningDelayClass = Class.forName(PacketConstants.NMS_PACKET_WORLD_BORDER_WARNING_DELAY);
-    packetWorldBorderWarningDistanceClass = Class.forName(PacketConstants.NMS_PACKET_WORLD_BORDER_WARNING_DISTANCE);
-
-    packetMetadataClass = Class.forName(PacketConstants.NMS_PACKET_METADATA);
-    packetTeamClass = Class.forName(PacketConstants.NMS_PACKET_TEAM);
-    packetTeamParamsClass = Class.forName(PacketConstants.NMS_PACKET_TEAM_PARAMS);
-    packetAddEntityClass = Class.forName(PacketConstants.NMS_PACKET_ADD_ENTITY);
-    packetRemoveEntitiesClass = Class.forName(PacketConstants.NMS_PACKET_REMOVE_ENTITIES);
-    packetBlockUpdateClass = Class.forName(PacketConstants.NMS_PACKET_BLOCK_UPDATE);
-    packetPlayerInfoUpdateClass = Class.forName(PacketConstants.NMS_PACKET_PLAYER_INFO_UPDATE);
-    packetPlayerInfoRemoveClass = Class.forName(PacketConstants.NMS_PACKET_PLAYER_INFO_REMOVE);
-    packetPlayerInfoUpdateActionClass = Class.forName(PacketConstants.NMS_PACKET_PLAYER_INFO_UPDATE + "$Action");
-
-    // Networking
-    serverPlayerClass = Class.forName(PacketConstants.NMS_SERVER_PLAYER);
-    serverPacketListenerClass = Class.forName(PacketConstants.NMS_SERVER_PACKET_LISTENER);
-    connectionClass = Class.forName(PacketConstants.NMS_CONNECTION);
-
-    // Team
-    playerTeamClass = Class.forName(PacketConstants.NMS_PLAYER_TEAM);
-    scoreboardClass = Class.forName(PacketConstants.NMS_SCOREBOARD);
-    collisionRuleClass = Class.forName(PacketConstants.NMS_COLLISION_RULE);
-    visibilityClass = Class.forName(PacketConstants.NMS_VISIBILITY);
-    chatFormattingClass = Class.forName(PacketConstants.NMS_CHAT_FORMATTING);
-    componentClass = Class.forName("net.minecraft.network.chat.Component");
-
-    // Entity spawning
-    entityTypeClass = Class.forName(PacketConstants.NMS_ENTITY_TYPE);
-    vec3Class = Class.forName(PacketConstants.NMS_VEC3);
-
-    // Blocks
-    blockClass = Class.forName(PacketConstants.NMS_BLOCK);
-    blockPosClass = Class.forName(PacketConstants.NMS_BLOCK_POS);
-    blockStateClass = Class.forName(PacketConstants.NMS_BLOCK_STATE);
-  }
-
-  private static void loadMethods() throws NoSuchMethodException {
-    // Entity & Data
-    getHandleMethod = getAccessibleMethod(craftEntityClass, "getHandle");
-    craftWorldGetHandleMethod = getAccessibleMethod(craftWorldClass, "getHandle");
-    getEntityDataMethod = getAccessibleMethod(nmsEntityClass, "getEntityData");
-    watcherGetMethod = getAccessibleMethod(synchedDataClass, "get", dataAccessorClass);
-
-    // World border
-    levelGetWorldBorderMethod = getAccessibleMethod(craftWorldGetHandleMethod.getReturnType(), "getWorldBorder");
-
-    worldBorderSetCenterMethod = getAccessibleMethod(worldBorderClass, "setCenter", double.class, double.class);
-    worldBorderGetCenterXMethod = getAccessibleMethod(worldBorderClass, "getCenterX");
-    worldBorderGetCenterZMethod = getAccessibleMethod(worldBorderClass, "getCenterZ");
-    worldBorderGetMinXMethod = getAccessibleMethod(worldBorderClass, "getMinX");
-    worldBorderGetMinZMethod = getAccessibleMethod(worldBorderClass, "getMinZ");
-    worldBorderGetMaxXMethod = getAccessibleMethod(worldBorderClass, "getMaxX");
-    worldBorderGetMaxZMethod = getAccessibleMethod(worldBorderClass, "getMaxZ");
-    worldBorderSetSizeMethod = getAccessibleMethod(worldBorderClass, "setSize", double.class);
-    worldBorderGetSizeMethod = getAccessibleMethod(worldBorderClass, "getSize");
-    worldBorderSetSafeZoneMethod = getAccessibleMethod(worldBorderClass, "setSafeZone", double.class);
-    worldBorderGetSafeZoneMethod = getAccessibleMethod(worldBorderClass, "getSafeZone");
-    worldBorderSetWarningTimeMethod = getAccessibleMethod(worldBorderClass, "setWarningTime", int.class);
-    worldBorderGetWarningTimeMethod = getAccessibleMethod(worldBorderClass, "getWarningTime");
-    worldBorderSetWarningBlocksMethod = getAccessibleMethod(worldBorderClass, "setWarningBlocks", int.class);
-    worldBorderGetWarningBlocksMethod = getAccessibleMethod(worldBorderClass, "getWarningBlocks");
-    worldBorderLerpSizeBetweenMethod = getOptionalAccessibleMethod(worldBorderClass,
-      new String[]{"lerpSizeBetween", "transitionSizeBetween"},
-      double.class, double.class, long.class);
-
-    // Data values
-    dataValueCreateMethod = getAccessibleMethod(dataValueClass, "create", dataAccessorClass, Object.class);
-    dataValueIdMethod = getAccessibleMethod(dataValueClass, "id");
-    dataValueSerializerMethod = getAccessibleMethod(dataValueClass, "serializer");
-    dataValueValueMethod = getAccessibleMethod(dataValueClass, "value");
-    serializerCreateAccessorMethod = getAccessibleMethod(dataSerializerClass, "createAccessor", int.class);
-
-    // Networking
-    sendPacketMethod = getAccessibleMethod(serverPacketListenerClass, "send", packetClass);
-
-    // Tab list packets
-    packetPlayerInfoCreateInitializingMethod = getOptionalAccessibleMethod(
-      packetPlayerInfoUpdateClass,
-      new String[]{"createPlayerInitializing"},
-      Collection.class
-    );
-
-    // Team
-    setTeamColorMethod = getAccessibleMethod(playerTeamClass, "setColor", chatFormattingClass);
-    setCollisionRuleMethod = getAccessibleMethod(playerTeamClass, "setCollisionRule", collisionRuleClass);
-    setNameTagVisibilityMethod = getAccessibleMethod(playerTeamClass, "setNameTagVisibility", visibilityClass);
-    setAllowFriendlyFireMethod = getAccessibleMethod(playerTeamClass, "setAllowFriendlyFire", boolean.class);
-    setSeeFriendlyInvisiblesMethod = getAccessibleMethod(playerTeamClass, "setSeeFriendlyInvisibles", boolean.class);
-    setTeamPrefixMethod = getAccessibleMethod(playerTeamClass, "setPlayerPrefix", componentClass);
-    setTeamSuffixMethod = getAccessibleMethod(playerTeamClass, "setPlayerSuffix", componentClass);
-
-    // Chat formatting & Component
-    getColorConstantMethod = getAccessibleMethod(chatFormattingClass, "getByCode", char.class);
-    componentEmptyMethod = getAccessibleMethod(componentClass, "empty");
-    componentLiteralMethod = getAccessibleMethod(componentClass, "literal", String.class);
-  }
-
-  private static void loadFields() throws NoSuchFieldException, IllegalAccessException {
-    // Entity flags
-    dataSharedFlagsField = getAccessibleField(nmsEntityClass, "DATA_SHARED_FLAGS_ID");
-    watcherObjectFlags = dataSharedFlagsField.get(null);
-
-    // Packet metadata
-    packetMetadataEntityIdField = getAccessibleField(packetMetadataClass, "id");
-    packetMetadataItemsField = getAccessibleField(packetMetadataClass, "packedItems");
-
-    // Networking
-    playerConnectionField = getAccessibleField(serverPlayerClass, "connection");
-    networkManagerField = getAccessibleField(serverPacketListenerClass, "connection");
-    channelField = getAccessibleField(connectionClass, "channel");
-  }
-
-  private static void loadConstructors() throws NoSuchMethodException {
-    // Packets
-    worldBorderConstructor = getAccessibleConstructor(worldBorderClass);
-
-    packetWorldBorderConstructor = getAccessibleConstructor(packetWorldBorderClass, worldBorderClass);
-    packetWorldBorderCenterConstructor = getAccessibleConstructor(packetWorldBorderCenterClass, worldBorderClass);
-    packetWorldBorderSizeConstructor = getAccessibleConstructor(packetWorldBorderSizeClass, worldBorderClass);
-    packetWorldBorderLerpConstructor = getOptionalAccessibleConstructor(packetWorldBorderLerpClass, worldBorderClass);
-    packetWorldBorderWarningDelayConstructor = getAccessibleConstructor(packetWorldBorderWarningDelayClass, worldBorderClass);
-    packetWorldBorderWarningDistanceConstructor = getAccessibleConstructor(packetWorldBorderWarningDistanceClass, worldBorderClass);
-
-    packetMetadataConstructor = getAccessibleConstructor(packetMetadataClass, int.class, List.class);
-    packetTeamConstructor = getAccessibleConstructor(packetTeamClass,
-      String.class, int.class, Optional.class, java.util.Collection.class);
-    packetTeamParamsConstructor = getAccessibleConstructor(packetTeamParamsClass, playerTeamClass);
-
-    // Team
-    playerTeamConstructor = getAccessibleConstructor(playerTeamClass, scoreboardClass, String.class);
-
-    // Entity spawning
-    packetAddEntityConstructor = getAccessibleConstructor(packetAddEntityClass,
-      int.class, UUID.class, double.class, double.class, double.class,
-      float.class, float.class, entityTypeClass, int.class, vec3Class, double.class);
-    packetRemoveEntitiesConstructor = getAccessibleConstructor(packetRemoveEntitiesClass, int[].class);
-
-    // Block packets
-    blockPosConstructor = getAccessibleConstructor(blockPosClass, int.class, int.class, int.class);
-    packetBlockUpdateConstructor = getAccessibleConstructor(packetBlockUpdateClass, blockPosClass, blockStateClass);
-
-    // Tab list packets
-    packetPlayerInfoRemoveConstructor = getAccessibleConstructor(packetPlayerInfoRemoveClass, List.class);
-    packetPlayerInfoUpdateConstructor = getOptionalAccessibleConstructor(packetPlayerInfoUpdateClass, EnumSet.class, Collection.class);
-  }
-
-  private static void loadConstants() throws Exception {
-    // Scoreboard dummy
-    scoreboardDummy = getAccessibleConstructor(scoreboardClass).newInstance();
-
-    // Entity type
-    shulkerEntityType = getAccessibleField(entityTypeClass, "SHULKER").get(null);
-    armorStandEntityType = getAccessibleField(entityTypeClass, "ARMOR_STAND").get(null);
-    zombieEntityType = getAccessibleField(entityTypeClass, "ZOMBIE").get(null);
-    villagerEntityType = getAccessibleField(entityTypeClass, "VILLAGER").get(null);
-    playerEntityType = getAccessibleField(entityTypeClass, "PLAYER").get(null);
-    itemEntityType = getAccessibleField(entityTypeClass, "ITEM").get(null);
-
-    // Vec3 zero
-    vec3Zero = getAccessibleConstructor(vec3Class, double.class, double.class, double.class)
-      .newInstance(0d, 0d, 0d);
+  /**
+   * @param flags {@code TEXT_DISPLAY_*_FLAG} bits of {@link PacketConstants}
+   */
+  public static @NotNull Object createTextDisplayStyleDataValue(final byte flags) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.TEXT_DISPLAY_STYLE_FLAGS_ACCESSOR, flags);
   }
 
-  // ###############################################################
-  // ---------------------- PUBLIC ACCESSORS -----------------------
-  // ###############################################################
-
-  public static @NotNull Object getNmsEntity(final @NotNull Entity entity) throws ReflectiveOperationException {
-    ensureInitialized();
-    return getHandleMethod.invoke(entity);
+  /**
+   * @param argb background colour, alpha in the high byte
+   */
+  public static @NotNull Object createTextDisplayBackgroundDataValue(final int argb) throws ReflectiveOperationException {
+    return createDisplayDataValue(Nms.TEXT_DISPLAY_BACKGROUND_ACCESSOR, argb);
   }
 
-  public static byte getEntityFlags(final @NotNull Object nmsEntity) throws ReflectiveOperationException {
+  public static @NotNull Object createItemDisplayItemDataValue(final @NotNull ItemStack item) throws ReflectiveOperationException {
     ensureInitialized();
-    final var dataWatcher = getEntityDataMethod.invoke(nmsEntity);
-    return (byte) watcherGetMethod.invoke(dataWatcher, watcherObjectFlags);
+    try {
+      return createDisplayDataValue(Nms.ITEM_DISPLAY_ITEM_ACCESSOR, (Object) Nms.CRAFT_ITEM_STACK_AS_NMS_COPY_METHOD.invokeExact((Object) item));
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
-  public static @NotNull Object createDataValue(final byte flags) throws ReflectiveOperationException {
+  public static @NotNull Object createBlockDisplayStateDataValue(final @NotNull BlockData block) throws ReflectiveOperationException {
     ensureInitialized();
-    return dataValueCreateMethod.invoke(null, watcherObjectFlags, flags);
+    try {
+      return createDisplayDataValue(Nms.BLOCK_DISPLAY_STATE_ACCESSOR, (Object) Nms.CRAFT_BLOCK_DATA_GET_STATE_METHOD.invokeExact((Object) block));
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createMetadataPacket(final int entityId, final @NotNull List<Object> dataValues) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetMetadataConstructor.newInstance(entityId, dataValues);
+    try {
+      return (Object) Nms.PACKET_METADATA_CONSTRUCTOR.invokeExact(entityId, (List<?>) dataValues);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createTeamPacket(
@@ -432,17 +186,29 @@ public class PacketReflection {
     final @NotNull java.util.Collection<String> entities
   ) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetTeamConstructor.newInstance(teamName, mode, params, entities);
+    try {
+      return (Object) Nms.PACKET_TEAM_CONSTRUCTOR.invokeExact(teamName, mode, (Optional<?>) params, (Collection<?>) entities);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createTeam(final @NotNull String teamName) throws ReflectiveOperationException {
     ensureInitialized();
-    return playerTeamConstructor.newInstance(scoreboardDummy, teamName);
+    try {
+      return (Object) Nms.PLAYER_TEAM_CONSTRUCTOR.invokeExact(Nms.SCOREBOARD_DUMMY, teamName);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createTeamParams(final @NotNull Object team) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetTeamParamsConstructor.newInstance(team);
+    try {
+      return (Object) Nms.PACKET_TEAM_PARAMS_CONSTRUCTOR.invokeExact(team);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static void configureTeam(
@@ -455,15 +221,20 @@ public class PacketReflection {
   ) throws ReflectiveOperationException {
     ensureInitialized();
 
-    final var colorConstant = getColorConstantMethod.invoke(null, colorCode);
-    final var collisionConstant = getEnumConstant(collisionRuleClass, convertTeamOptionsToEnumName(collisionRule));
-    final var visibilityConstant = getEnumConstant(visibilityClass, convertTeamOptionsToEnumName(visibility));
+    final var collisionConstant = getEnumConstant(Nms.COLLISION_RULE_CLASS, convertTeamOptionsToEnumName(collisionRule));
+    final var visibilityConstant = getEnumConstant(Nms.VISIBILITY_CLASS, convertTeamOptionsToEnumName(visibility));
 
-    setTeamColorMethod.invoke(team, colorConstant);
-    setCollisionRuleMethod.invoke(team, collisionConstant);
-    setNameTagVisibilityMethod.invoke(team, visibilityConstant);
-    setAllowFriendlyFireMethod.invoke(team, friendlyFire);
-    setSeeFriendlyInvisiblesMethod.invoke(team, seeInvisibles);
+    try {
+      final var colorConstant = (Object) Nms.GET_COLOR_CONSTANT_METHOD.invokeExact(colorCode);
+
+      Nms.SET_TEAM_COLOR_METHOD.invokeExact(team, colorConstant);
+      Nms.SET_COLLISION_RULE_METHOD.invokeExact(team, collisionConstant);
+      Nms.SET_NAME_TAG_VISIBILITY_METHOD.invokeExact(team, visibilityConstant);
+      Nms.SET_ALLOW_FRIENDLY_FIRE_METHOD.invokeExact(team, friendlyFire);
+      Nms.SET_SEE_FRIENDLY_INVISIBLES_METHOD.invokeExact(team, seeInvisibles);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   /**
@@ -476,17 +247,21 @@ public class PacketReflection {
   ) throws ReflectiveOperationException {
     ensureInitialized();
 
-    // Create empty components
-    final var prefixComponent = prefix.isEmpty()
-      ? componentEmptyMethod.invoke(null)
-      : componentLiteralMethod.invoke(null, prefix);
-
-    final var suffixComponent = suffix.isEmpty()
-      ? componentEmptyMethod.invoke(null)
-      : componentLiteralMethod.invoke(null, suffix);
-
-    setTeamPrefixMethod.invoke(team, prefixComponent);
-    setTeamSuffixMethod.invoke(team, suffixComponent);
+    try {
+      // Create empty components
+      final var prefixComponent = prefix.isEmpty()
+        ? (Object) Nms.COMPONENT_EMPTY_METHOD.invokeExact()
+        : (Object) Nms.COMPONENT_LITERAL_METHOD.invokeExact(prefix);
+
+      final var suffixComponent = suffix.isEmpty()
+        ? (Object) Nms.COMPONENT_EMPTY_METHOD.invokeExact()
+        : (Object) Nms.COMPONENT_LITERAL_METHOD.invokeExact(suffix);
+
+      Nms.SET_TEAM_PREFIX_METHOD.invokeExact(team, prefixComponent);
+      Nms.SET_TEAM_SUFFIX_METHOD.invokeExact(team, suffixComponent);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createAddShulkerEntityPacket(
@@ -494,9 +269,7 @@ public class PacketReflection {
     final @NotNull UUID uuid,
     final @NotNull Location location) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetAddEntityConstructor.newInstance(
-      entityId, uuid, location.getX(), location.getY(), location.getZ(), location.getPitch(), location.getYaw(), shulkerEntityType, 0, vec3Zero, 0d
-    );
+    return newAddEntityPacket(entityId, uuid, location, Nms.SHULKER_ENTITY_TYPE);
   }
 
   public static @NotNull Object createSpawnEntityPacket(
@@ -505,267 +278,441 @@ public class PacketReflection {
     final @NotNull EntityType type,
     final @NotNull Location location) throws ReflectiveOperationException {
     ensureInitialized();
+    return newAddEntityPacket(entityId, uuid, location, getNmsEntityType(type));
+  }
+
+  /**
+   * Builds a packet moving an entity to an absolute position and rotation.
+   *
+   * @throws NoSuchMethodException if the server cannot build it, see {@link #isEntityPositionSyncSupported()}
+   */
+  public static @NotNull Object createEntityPositionSyncPacket(final int entityId, final @NotNull Location location) throws ReflectiveOperationException {
+    ensureInitialized();
+    if (Nms.PACKET_ENTITY_POSITION_SYNC_CONSTRUCTOR == null)
+      throw new NoSuchMethodException("Unable to create ClientboundEntityPositionSyncPacket");
 
-    final var nmsEntityType = getNmsEntityType(type);
+    try {
+      final var position = (Object) Nms.VEC3_CONSTRUCTOR.invokeExact(location.getX(), location.getY(), location.getZ());
+      final var values = (Object) Nms.POSITION_MOVE_ROTATION_CONSTRUCTOR.invokeExact(position, Nms.VEC3_ZERO, location.getYaw(), location.getPitch());
+      return (Object) Nms.PACKET_ENTITY_POSITION_SYNC_CONSTRUCTOR.invokeExact(entityId, values, false);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
 
-    return packetAddEntityConstructor.newInstance(
-      entityId,
-      uuid,
-      location.getX(), location.getY(), location.getZ(),
-      location.getPitch(), location.getYaw(),
-      nmsEntityType,
-      0,
-      vec3Zero,
-      0d
-    );
+  public static boolean isEntityPositionSyncSupported() {
+    ensureInitialized();
+    return Nms.PACKET_ENTITY_POSITION_SYNC_CONSTRUCTOR != null;
   }
 
   public static @NotNull Object createRemoveEntitiesPacket(final int... entityIds) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetRemoveEntitiesConstructor.newInstance((Object) entityIds);
+    try {
+      return (Object) Nms.PACKET_REMOVE_ENTITIES_CONSTRUCTOR.invokeExact(entityIds);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createPlayerInfoRemovePacket(final @NotNull List<UUID> profileIds) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetPlayerInfoRemoveConstructor.newInstance(profileIds);
+    try {
+      return (Object) Nms.PACKET_PLAYER_INFO_REMOVE_CONSTRUCTOR.invokeExact((List<?>) profileIds);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   @SuppressWarnings({"unchecked", "rawtypes"})
   public static @NotNull Object createPlayerInfoUpdatePacket(final @NotNull Collection<? extends Player> players) throws ReflectiveOperationException {
     ensureInitialized();
 
-    final List<Object> nmsPlayers = new ArrayList<>(players.size());
-    for (final var player : players) {
-      nmsPlayers.add(getHandleMethod.invoke(player));
-    }
+    try {
+      final List<Object> nmsPlayers = new ArrayList<>(players.size());
+      for (final var player : players) {
+        nmsPlayers.add((Object) Nms.GET_HANDLE_METHOD.invokeExact((Object) player));
+      }
 
-    if (packetPlayerInfoCreateInitializingMethod != null) {
-      return packetPlayerInfoCreateInitializingMethod.invoke(null, nmsPlayers);
-    }
+      if (Nms.PACKET_PLAYER_INFO_CREATE_INITIALIZING_METHOD != null) {
+        return (Object) Nms.PACKET_PLAYER_INFO_CREATE_INITIALIZING_METHOD.invokeExact((Collection<?>) nmsPlayers);
+      }
 
-    if (packetPlayerInfoUpdateConstructor != null) {
-      final var actions = EnumSet.allOf((Class<? extends Enum>) packetPlayerInfoUpdateActionClass);
-      return packetPlayerInfoUpdateConstructor.newInstance(actions, nmsPlayers);
+      if (Nms.PACKET_PLAYER_INFO_UPDATE_CONSTRUCTOR != null) {
+        final EnumSet<?> actions = EnumSet.allOf((Class<? extends Enum>) Nms.PACKET_PLAYER_INFO_UPDATE_ACTION_CLASS);
+        return (Object) Nms.PACKET_PLAYER_INFO_UPDATE_CONSTRUCTOR.invokeExact(actions, (Collection<?>) nmsPlayers);
+      }
+    } catch (Throwable t) {
+      throw wrap(t);
     }
 
-
     throw new NoSuchMethodException("Unable to create ClientboundPlayerInfoUpdatePacket");
   }
 
   public static @NotNull Object createBlockChangePacket(final @NotNull Location location, final @NotNull Material type) throws ReflectiveOperationException {
     ensureInitialized();
 
-    final var blockPos = blockPosConstructor.newInstance(
-      location.getBlockX(),
-      location.getBlockY(),
-      location.getBlockZ()
-    );
+    try {
+      final var blockPos = (Object) Nms.BLOCK_POS_CONSTRUCTOR.invokeExact(
+        location.getBlockX(),
+        location.getBlockY(),
+        location.getBlockZ()
+      );
+
+      final var nmsBlock = (Object) Nms.CRAFT_MAGIC_NUMBERS_GET_BLOCK_METHOD.invokeExact(type);
+      final var blockState = (Object) Nms.BLOCK_DEFAULT_BLOCK_STATE_METHOD.invokeExact(nmsBlock);
+
+      return (Object) Nms.PACKET_BLOCK_UPDATE_CONSTRUCTOR.invokeExact(blockPos, blockState);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  public static @NotNull Object createBlockChangePacket(final int x, final int y, final int z, final @NotNull BlockData data) throws ReflectiveOperationException {
+    ensureInitialized();
+
+    try {
+      final var blockPos = (Object) Nms.BLOCK_POS_CONSTRUCTOR.invokeExact(x, y, z);
+      final var blockState = (Object) Nms.CRAFT_BLOCK_DATA_GET_STATE_METHOD.invokeExact((Object) data);
+      return (Object) Nms.PACKET_BLOCK_UPDATE_CONSTRUCTOR.invokeExact(blockPos, blockState);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
 
-    final var craftMagicNumbers = Class.forName(craftPackage + ".util.CraftMagicNumbers");
-    final var getBlockMethod = getAccessibleMethod(craftMagicNumbers, "getBlock", Material.class);
-    final var nmsBlock = getBlockMethod.invoke(null, type);
+  /**
+   * Builds one packet changing many blocks of a chunk section.
+   *
+   * @param positions section-relative positions, packed as {@code x << 8 | z << 4 | y}, without duplicates
+   * @param blocks the block data of each position, in the same order
+   * @throws NoSuchMethodException if the server cannot build it, see {@link #isSectionBlocksUpdateSupported()}
+   */
+  public static @NotNull Object createSectionBlocksUpdatePacket(
+    final int sectionX,
+    final int sectionY,
+    final int sectionZ,
+    final short[] positions,
+    final @NotNull BlockData[] blocks
+  ) throws ReflectiveOperationException {
+    ensureInitialized();
+    if (Nms.PACKET_SECTION_BLOCKS_UPDATE_CONSTRUCTOR == null)
+      throw new NoSuchMethodException("Unable to create ClientboundSectionBlocksUpdatePacket");
+    if (positions.length != blocks.length)
+      throw new IllegalArgumentException("Expected one block per position");
+
+    try {
+      final var sectionPos = (Object) Nms.SECTION_POS_OF_METHOD.invokeExact(sectionX, sectionY, sectionZ);
+      final var positionSet = (Object) Nms.SHORT_ARRAY_SET_CONSTRUCTOR.invokeExact(positions);
 
-    final var defaultBlockStateMethod = getAccessibleMethod(blockClass, "defaultBlockState");
-    final var blockState = defaultBlockStateMethod.invoke(nmsBlock);
+      final var states = (Object[]) Array.newInstance(Nms.BLOCK_STATE_CLASS, blocks.length);
+      for (var i = 0; i < blocks.length; i++)
+        states[i] = (Object) Nms.CRAFT_BLOCK_DATA_GET_STATE_METHOD.invokeExact((Object) blocks[i]);
 
-    return packetBlockUpdateConstructor.newInstance(blockPos, blockState);
+      return (Object) Nms.PACKET_SECTION_BLOCKS_UPDATE_CONSTRUCTOR.invokeExact(sectionPos, positionSet, states);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  public static boolean isSectionBlocksUpdateSupported() {
+    ensureInitialized();
+    return Nms.PACKET_SECTION_BLOCKS_UPDATE_CONSTRUCTOR != null;
   }
 
   public static @NotNull Object createWorldBorderHandle() {
     ensureInitialized();
     try {
-      return worldBorderConstructor.newInstance();
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to create world border handle", e);
+      return (Object) Nms.WORLD_BORDER_CONSTRUCTOR.invokeExact();
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to create world border handle", t);
     }
   }
 
   public static @NotNull Object getWorldBorderHandle(final @NotNull World world) {
     ensureInitialized();
     try {
-      final var level = craftWorldGetHandleMethod.invoke(world);
-      return levelGetWorldBorderMethod.invoke(level);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border handle", e);
+      final var level = (Object) Nms.CRAFT_WORLD_GET_HANDLE_METHOD.invokeExact((Object) world);
+      return (Object) Nms.LEVEL_GET_WORLD_BORDER_METHOD.invokeExact(level);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border handle", t);
     }
   }
 
   public static void setWorldBorderCenter(final @NotNull Object worldBorder, final double x, final double z) {
     ensureInitialized();
     try {
-      worldBorderSetCenterMethod.invoke(worldBorder, x, z);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to set world border center", e);
+      Nms.WORLD_BORDER_SET_CENTER_METHOD.invokeExact(worldBorder, x, z);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to set world border center", t);
     }
   }
 
   public static double getWorldBorderCenterX(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetCenterXMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border centerX", e);
+      return (double) Nms.WORLD_BORDER_GET_CENTER_X_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border centerX", t);
     }
   }
 
   public static double getWorldBorderCenterZ(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetCenterZMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border centerZ", e);
+      return (double) Nms.WORLD_BORDER_GET_CENTER_Z_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border centerZ", t);
     }
   }
 
   public static double getWorldBorderMinX(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetMinXMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border minX", e);
+      return (double) Nms.WORLD_BORDER_GET_MIN_X_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border minX", t);
     }
   }
 
   public static double getWorldBorderMinZ(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetMinZMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border minZ", e);
+      return (double) Nms.WORLD_BORDER_GET_MIN_Z_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border minZ", t);
     }
   }
 
   public static double getWorldBorderMaxX(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetMaxXMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border maxX", e);
+      return (double) Nms.WORLD_BORDER_GET_MAX_X_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border maxX", t);
     }
   }
 
   public static double getWorldBorderMaxZ(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetMaxZMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border maxZ", e);
+      return (double) Nms.WORLD_BORDER_GET_MAX_Z_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border maxZ", t);
     }
   }
 
   public static void setWorldBorderSize(final @NotNull Object worldBorder, final double size) {
     ensureInitialized();
     try {
-      worldBorderSetSizeMethod.invoke(worldBorder, size);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to set world border size", e);
+      Nms.WORLD_BORDER_SET_SIZE_METHOD.invokeExact(worldBorder, size);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to set world border size", t);
     }
   }
 
   public static double getWorldBorderSize(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetSizeMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border size", e);
+      return (double) Nms.WORLD_BORDER_GET_SIZE_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border size", t);
     }
   }
 
   public static void setWorldBorderSafeZone(final @NotNull Object worldBorder, final double safeZone) {
     ensureInitialized();
     try {
-      worldBorderSetSafeZoneMethod.invoke(worldBorder, safeZone);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to set world border safe zone", e);
+      Nms.WORLD_BORDER_SET_SAFE_ZONE_METHOD.invokeExact(worldBorder, safeZone);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to set world border safe zone", t);
     }
   }
 
   public static double getWorldBorderSafeZone(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (double) worldBorderGetSafeZoneMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border safe zone", e);
+      return (double) Nms.WORLD_BORDER_GET_SAFE_ZONE_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border safe zone", t);
     }
   }
 
   public static void setWorldBorderWarningTime(final @NotNull Object worldBorder, final int seconds) {
     ensureInitialized();
     try {
-      worldBorderSetWarningTimeMethod.invoke(worldBorder, seconds);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to set world border warning time", e);
+      Nms.WORLD_BORDER_SET_WARNING_TIME_METHOD.invokeExact(worldBorder, seconds);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to set world border warning time", t);
     }
   }
 
   public static int getWorldBorderWarningTime(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (int) worldBorderGetWarningTimeMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border warning time", e);
+      return (int) Nms.WORLD_BORDER_GET_WARNING_TIME_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border warning time", t);
     }
   }
 
   public static void setWorldBorderWarningBlocks(final @NotNull Object worldBorder, final int blocks) {
     ensureInitialized();
     try {
-      worldBorderSetWarningBlocksMethod.invoke(worldBorder, blocks);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to set world border warning blocks", e);
+      Nms.WORLD_BORDER_SET_WARNING_BLOCKS_METHOD.invokeExact(worldBorder, blocks);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to set world border warning blocks", t);
     }
   }
 
   public static int getWorldBorderWarningBlocks(final @NotNull Object worldBorder) {
     ensureInitialized();
     try {
-      return (int) worldBorderGetWarningBlocksMethod.invoke(worldBorder);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to get world border warning blocks", e);
+      return (int) Nms.WORLD_BORDER_GET_WARNING_BLOCKS_METHOD.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to get world border warning blocks", t);
     }
   }
 
   public static void lerpWorldBorderSize(final @NotNull Object worldBorder, final double oldSize, final double newSize, final long time) {
     ensureInitialized();
     try {
-      if (worldBorderLerpSizeBetweenMethod == null) {
-        worldBorderSetSizeMethod.invoke(worldBorder, newSize);
+      if (Nms.WORLD_BORDER_LERP_SIZE_BETWEEN_METHOD == null) {
+        Nms.WORLD_BORDER_SET_SIZE_METHOD.invokeExact(worldBorder, newSize);
         return;
       }
-      worldBorderLerpSizeBetweenMethod.invoke(worldBorder, oldSize, newSize, time);
-    } catch (ReflectiveOperationException e) {
-      throw new RuntimeException("Failed to lerp world border size", e);
+      Nms.WORLD_BORDER_LERP_SIZE_BETWEEN_METHOD.invokeExact(worldBorder, oldSize, newSize, time);
+    } catch (Throwable t) {
+      throw new RuntimeException("Failed to lerp world border size", t);
     }
   }
 
   public static @NotNull Object createWorldBorderPacket(final @NotNull Object worldBorder, final @NotNull WorldBorderAction action)
     throws ReflectiveOperationException {
     ensureInitialized();
-    return switch (action) {
-      case INITIALIZE -> packetWorldBorderConstructor.newInstance(worldBorder);
-      case LERP_SIZE -> (packetWorldBorderLerpConstructor == null
-        ? packetWorldBorderSizeConstructor
-        : packetWorldBorderLerpConstructor).newInstance(worldBorder);
-      case SET_CENTER -> packetWorldBorderCenterConstructor.newInstance(worldBorder);
-      case SET_SIZE -> packetWorldBorderSizeConstructor.newInstance(worldBorder);
-      case SET_WARNING_BLOCKS -> packetWorldBorderWarningDistanceConstructor.newInstance(worldBorder);
-      case SET_WARNING_TIME -> packetWorldBorderWarningDelayConstructor.newInstance(worldBorder);
+    final var constructor = switch (action) {
+      case INITIALIZE -> Nms.PACKET_WORLD_BORDER_CONSTRUCTOR;
+      case LERP_SIZE -> Nms.PACKET_WORLD_BORDER_LERP_CONSTRUCTOR == null
+        ? Nms.PACKET_WORLD_BORDER_SIZE_CONSTRUCTOR
+        : Nms.PACKET_WORLD_BORDER_LERP_CONSTRUCTOR;
+      case SET_CENTER -> Nms.PACKET_WORLD_BORDER_CENTER_CONSTRUCTOR;
+      case SET_SIZE -> Nms.PACKET_WORLD_BORDER_SIZE_CONSTRUCTOR;
+      case SET_WARNING_BLOCKS -> Nms.PACKET_WORLD_BORDER_WARNING_DISTANCE_CONSTRUCTOR;
+      case SET_WARNING_TIME -> Nms.PACKET_WORLD_BORDER_WARNING_DELAY_CONSTRUCTOR;
     };
+    try {
+      return (Object) constructor.invokeExact(worldBorder);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  /**
+   * Wraps packets in a bundle, which the client applies within a single frame.
+   *
+   * @param packets at most {@link PacketConstants#BUNDLE_MAX_PACKETS} packets
+   * @return the bundle packet
+   * @throws NoSuchMethodException if the server has no usable bundle packet
+   */
+  public static @NotNull Object createBundlePacket(final @NotNull List<Object> packets) throws ReflectiveOperationException {
+    ensureInitialized();
+    if (Nms.PACKET_BUNDLE_CONSTRUCTOR == null)
+      throw new NoSuchMethodException("Unable to create ClientboundBundlePacket");
+
+    try {
+      return (Object) Nms.PACKET_BUNDLE_CONSTRUCTOR.invokeExact((Iterable<?>) packets);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  public static @NotNull Iterable<Object> getBundlePackets(final @NotNull Object bundle) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      return (Iterable<Object>) (Iterable<?>) Nms.PACKET_BUNDLE_SUB_PACKETS_METHOD.invokeExact(bundle);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  public static boolean isBundleSupported() {
+    ensureInitialized();
+    return Nms.PACKET_BUNDLE_CONSTRUCTOR != null;
   }
 
   public static void sendPacket(final @NotNull Player player, final @NotNull Object packet) throws ReflectiveOperationException {
     ensureInitialized();
-    final var nmsPlayer = getHandleMethod.invoke(player);
-    final var connection = playerConnectionField.get(nmsPlayer);
-    sendPacketMethod.invoke(connection, packet);
+    try {
+      final var nmsPlayer = (Object) Nms.GET_HANDLE_METHOD.invokeExact((Object) player);
+      final var connection = (Object) Nms.PLAYER_CONNECTION_FIELD.invokeExact(nmsPlayer);
+      Nms.SEND_PACKET_METHOD.invokeExact(connection, packet);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  /**
+   * Returns the player's network connection, to hand it several packets with
+   * {@link #writePacket(Object, Object)} and flush them once with {@link #flushConnection(Object)}.
+   */
+  public static @NotNull Object getConnection(final @NotNull Player player) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      final var nmsPlayer = (Object) Nms.GET_HANDLE_METHOD.invokeExact((Object) player);
+      final var connection = (Object) Nms.PLAYER_CONNECTION_FIELD.invokeExact(nmsPlayer);
+      return (Object) Nms.NETWORK_MANAGER_FIELD.invokeExact(connection);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  /**
+   * Sends a packet through the connection without flushing it. The connection keeps its own
+   * ordering and queueing; the packet leaves on the next {@link #flushConnection(Object)}.
+   */
+  public static void writePacket(final @NotNull Object connection, final @NotNull Object packet) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      if (Nms.CONNECTION_SEND_METHOD != null)
+        Nms.CONNECTION_SEND_METHOD.invokeExact(connection, packet, (Object) null, false);
+      else
+        ((Channel) Nms.CHANNEL_FIELD.invokeExact(connection)).write(packet);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  /**
+   * Flushes the packets written to the connection since the last flush.
+   */
+  public static void flushConnection(final @NotNull Object connection) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      ((Channel) Nms.CHANNEL_FIELD.invokeExact(connection)).flush();
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  public static boolean isConnectionOpen(final @NotNull Object connection) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      final var channel = (Channel) Nms.CHANNEL_FIELD.invokeExact(connection);
+      return channel != null && channel.isOpen();
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Channel getChannel(final @NotNull Player player) throws ReflectiveOperationException {
     ensureInitialized();
-    final var nmsPlayer = getHandleMethod.invoke(player);
-    final var connection = playerConnectionField.get(nmsPlayer);
-    final var networkManager = networkManagerField.get(connection);
-    return (Channel) channelField.get(networkManager);
+    try {
+      final var nmsPlayer = (Object) Nms.GET_HANDLE_METHOD.invokeExact((Object) player);
+      final var connection = (Object) Nms.PLAYER_CONNECTION_FIELD.invokeExact(nmsPlayer);
+      final var networkManager = (Object) Nms.NETWORK_MANAGER_FIELD.invokeExact(connection);
+      return (Channel) Nms.CHANNEL_FIELD.invokeExact(networkManager);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   // ###############################################################
@@ -774,33 +721,57 @@ public class PacketReflection {
 
   public static int getMetadataEntityId(final @NotNull Object packet) throws ReflectiveOperationException {
     ensureInitialized();
-    return packetMetadataEntityIdField.getInt(packet);
+    try {
+      return (int) Nms.PACKET_METADATA_ENTITY_ID_FIELD.invokeExact(packet);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   @SuppressWarnings("unchecked")
   public static @NotNull List<Object> getMetadataItems(final @NotNull Object packet) throws ReflectiveOperationException {
     ensureInitialized();
-    return (List<Object>) packetMetadataItemsField.get(packet);
+    try {
+      return (List<Object>) (List<?>) Nms.PACKET_METADATA_ITEMS_FIELD.invokeExact(packet);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static int getDataValueId(final @NotNull Object dataValue) throws ReflectiveOperationException {
     ensureInitialized();
-    return (int) dataValueIdMethod.invoke(dataValue);
+    try {
+      return (int) Nms.DATA_VALUE_ID_METHOD.invokeExact(dataValue);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object getDataValueSerializer(final @NotNull Object dataValue) throws ReflectiveOperationException {
     ensureInitialized();
-    return dataValueSerializerMethod.invoke(dataValue);
+    try {
+      return (Object) Nms.DATA_VALUE_SERIALIZER_METHOD.invokeExact(dataValue);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static byte getDataValueValue(final @NotNull Object dataValue) throws ReflectiveOperationException {
     ensureInitialized();
-    return (byte) dataValueValueMethod.invoke(dataValue);
+    try {
+      return (byte) Nms.DATA_VALUE_VALUE_METHOD.invokeExact(dataValue);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   public static @NotNull Object createAccessorFromSerializer(final @NotNull Object serializer, final int id) throws ReflectiveOperationException {
     ensureInitialized();
-    return serializerCreateAccessorMethod.invoke(serializer, id);
+    try {
+      return (Object) Nms.SERIALIZER_CREATE_ACCESSOR_METHOD.invokeExact(serializer, id);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
   }
 
   // ###############################################################
@@ -809,23 +780,96 @@ public class PacketReflection {
 
   public static @NotNull Object getWatcherObjectFlags() {
     ensureInitialized();
-    return watcherObjectFlags;
+    return Nms.WATCHER_OBJECT_FLAGS;
+  }
+
+  /**
+   * @return the data value id of the shared flags, to compare against {@link #getDataValueId(Object)}
+   */
+  public static int getWatcherObjectFlagsId() {
+    ensureInitialized();
+    return Nms.WATCHER_OBJECT_FLAGS_ID;
   }
 
   public static @NotNull Class<?> getPacketMetadataClass() {
     ensureInitialized();
-    return packetMetadataClass;
+    return Nms.PACKET_METADATA_CLASS;
   }
 
   public static @NotNull Class<?> getPacketPlayerInfoUpdateClass() {
     ensureInitialized();
-    return packetPlayerInfoUpdateClass;
+    return Nms.PACKET_PLAYER_INFO_UPDATE_CLASS;
+  }
+
+  public static @NotNull Class<?> getPacketBundleClass() {
+    ensureInitialized();
+    return Nms.PACKET_BUNDLE_CLASS;
   }
 
   // ###############################################################
   // -------------------------- HELPERS ----------------------------
   // ###############################################################
 
+  private static @NotNull Object newAddEntityPacket(
+    final int entityId,
+    final @NotNull UUID uuid,
+    final @NotNull Location location,
+    final @NotNull Object nmsEntityType
+  ) throws ReflectiveOperationException {
+    try {
+      return (Object) Nms.PACKET_ADD_ENTITY_CONSTRUCTOR.invokeExact(
+        entityId,
+        uuid,
+        location.getX(), location.getY(), location.getZ(),
+        location.getPitch(), location.getYaw(),
+        nmsEntityType,
+        0,
+        Nms.VEC3_ZERO,
+        0d
+      );
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
+  /**
+   * Keeps the contract of the reflective calls this class used to make: checked failures
+   * surface as {@link ReflectiveOperationException}, with the target's own exception wrapped
+   * in an {@link InvocationTargetException}.
+   */
+  private static @NotNull ReflectiveOperationException wrap(final @NotNull Throwable throwable) {
+    if (throwable instanceof Error error) throw error;
+    if (throwable instanceof ReflectiveOperationException reflective) return reflective;
+    return new InvocationTargetException(throwable);
+  }
+
+  private static @NotNull MethodHandle unreflect(
+    final @NotNull Method method,
+    final @NotNull Class<?> returnType,
+    final @NotNull Class<?>... parameterTypes
+  ) throws IllegalAccessException {
+    return LOOKUP.unreflect(method).asType(MethodType.methodType(returnType, parameterTypes));
+  }
+
+  private static MethodHandle unreflectOptional(
+    final Method method,
+    final @NotNull Class<?> returnType,
+    final @NotNull Class<?>... parameterTypes
+  ) throws IllegalAccessException {
+    return method == null ? null : unreflect(method, returnType, parameterTypes);
+  }
+
+  private static @NotNull MethodHandle unreflectGetter(final @NotNull Field field, final @NotNull Class<?> type) throws IllegalAccessException {
+    return LOOKUP.unreflectGetter(field).asType(MethodType.methodType(type, Object.class));
+  }
+
+  private static @NotNull MethodHandle unreflectConstructor(
+    final @NotNull Constructor<?> constructor,
+    final @NotNull Class<?>... parameterTypes
+  ) throws IllegalAccessException {
+    return LOOKUP.unreflectConstructor(constructor).asType(MethodType.methodType(Object.class, parameterTypes));
+  }
+
   private static @NotNull Field getAccessibleField(final @NotNull Class<?> clazz, final @NotNull String name) throws NoSuchFieldException {
     final var field = clazz.getDeclaredField(name);
     field.setAccessible(true);
@@ -911,14 +955,26 @@ public class PacketReflection {
     };
   }
 
+  private static @NotNull Object createDisplayDataValue(final @NotNull Object accessor, final @NotNull Object value) throws ReflectiveOperationException {
+    ensureInitialized();
+    try {
+      return (Object) Nms.DATA_VALUE_CREATE_OBJECT_METHOD.invokeExact(accessor, value);
+    } catch (Throwable t) {
+      throw wrap(t);
+    }
+  }
+
   private static @NotNull Object getNmsEntityType(final @NotNull EntityType type) throws ReflectiveOperationException {
     return switch(type) {
-      case SHULKER -> shulkerEntityType;
-      case ARMOR_STAND -> armorStandEntityType;
-      case ZOMBIE -> zombieEntityType;
-      case VILLAGER -> villagerEntityType;
-      case PLAYER -> playerEntityType;
-      case ITEM -> itemEntityType;
+      case SHULKER -> Nms.SHULKER_ENTITY_TYPE;
+      case ARMOR_STAND -> Nms.ARMOR_STAND_ENTITY_TYPE;
+      case ZOMBIE -> Nms.ZOMBIE_ENTITY_TYPE;
+      case VILLAGER -> Nms.VILLAGER_ENTITY_TYPE;
+      case PLAYER -> Nms.PLAYER_ENTITY_TYPE;
+      case ITEM -> Nms.ITEM_ENTITY_TYPE;
+      case TEXT_DISPLAY -> Nms.TEXT_DISPLAY_ENTITY_TYPE;
+      case ITEM_DISPLAY -> Nms.ITEM_DISPLAY_ENTITY_TYPE;
+      case BLOCK_DISPLAY -> Nms.BLOCK_DISPLAY_ENTITY_TYPE;
       default -> throw new IllegalArgumentException("Unknown NMS entity type: " + type);
     };
   }
@@ -927,4 +983,381 @@ public class PacketReflection {
     if (!initialized)
       throw new IllegalStateException("PacketReflection not initialized. Call initialize() first.");
   }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /**
+   * Every resolved member, loaded with this class the first time {@link #initialize()} runs.
+   * Being {@code static final}, the handles are constants to the JIT, which inlines their targets.
+   */
+  private static final class Nms {
+
+    // ###############################################################
+    // ----------------------- CRAFTBUKKIT ---------------------------
+    // ###############################################################
+
+    static final String CRAFT_PACKAGE = Bukkit.getServer().getClass().getPackage().getName();
+    static final Class<?> CRAFT_ENTITY_CLASS = type(CRAFT_PACKAGE + "." + PacketConstants.CRAFT_ENTITY);
+    static final Class<?> CRAFT_WORLD_CLASS = type(CRAFT_PACKAGE + ".CraftWorld");
+    static final Class<?> CRAFT_MAGIC_NUMBERS_CLASS = type(CRAFT_PACKAGE + ".util.CraftMagicNumbers");
+
+    // ###############################################################
+    // ---------------------- ENTITY & DATA --------------------------
+    // ###############################################################
+
+    static final Class<?> NMS_ENTITY_CLASS = type(PacketConstants.NMS_ENTITY);
+    static final Class<?> SYNCHED_DATA_CLASS = type(PacketConstants.NMS_SYNCHED_DATA);
+    static final Class<?> DATA_ACCESSOR_CLASS = type(PacketConstants.NMS_DATA_ACCESSOR);
+    static final Class<?> DATA_VALUE_CLASS = type(PacketConstants.NMS_DATA_VALUE);
+    static final Class<?> DATA_SERIALIZER_CLASS = type(PacketConstants.NMS_DATA_SERIALIZER);
+
+    static final MethodHandle GET_HANDLE_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(CRAFT_ENTITY_CLASS, "getHandle"), Object.class, Object.class));
+    static final MethodHandle GET_ENTITY_DATA_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(NMS_ENTITY_CLASS, "getEntityData"), Object.class, Object.class));
+    static final MethodHandle WATCHER_GET_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(SYNCHED_DATA_CLASS, "get", DATA_ACCESSOR_CLASS), byte.class, Object.class, Object.class));
+    static final Object WATCHER_OBJECT_FLAGS = resolve(() -> getAccessibleField(NMS_ENTITY_CLASS, "DATA_SHARED_FLAGS_ID").get(null));
+    static final int WATCHER_OBJECT_FLAGS_ID = resolve(() -> (int) getAccessibleMethod(DATA_ACCESSOR_CLASS, "id").invoke(WATCHER_OBJECT_FLAGS));
+
+    static final MethodHandle DATA_VALUE_CREATE_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(DATA_VALUE_CLASS, "create", DATA_ACCESSOR_CLASS, Object.class), Object.class, Object.class, byte.class));
+    static final MethodHandle DATA_VALUE_CREATE_OBJECT_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(DATA_VALUE_CLASS, "create", DATA_ACCESSOR_CLASS, Object.class), Object.class, Object.class, Object.class));
+    static final MethodHandle DATA_VALUE_ID_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(DATA_VALUE_CLASS, "id"), int.class, Object.class));
+    static final MethodHandle DATA_VALUE_SERIALIZER_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(DATA_VALUE_CLASS, "serializer"), Object.class, Object.class));
+    static final MethodHandle DATA_VALUE_VALUE_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(DATA_VALUE_CLASS, "value"), byte.class, Object.class));
+    static final MethodHandle SERIALIZER_CREATE_ACCESSOR_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(DATA_SERIALIZER_CLASS, "createAccessor", int.class), Object.class, Object.class, int.class));
+
+    // ###############################################################
+    // ------------------------- PACKETS -----------------------------
+    // ###############################################################
+
+    static final Class<?> PACKET_CLASS = type(PacketConstants.NMS_PACKET);
+    static final Class<?> PACKET_BUNDLE_CLASS = type(PacketConstants.NMS_PACKET_BUNDLE);
+
+    static final Class<?> PACKET_METADATA_CLASS = type(PacketConstants.NMS_PACKET_METADATA);
+    static final Class<?> PACKET_TEAM_CLASS = type(PacketConstants.NMS_PACKET_TEAM);
+    static final Class<?> PACKET_TEAM_PARAMS_CLASS = type(PacketConstants.NMS_PACKET_TEAM_PARAMS);
+    static final Class<?> PACKET_ADD_ENTITY_CLASS = type(PacketConstants.NMS_PACKET_ADD_ENTITY);
+    static final Class<?> PACKET_REMOVE_ENTITIES_CLASS = type(PacketConstants.NMS_PACKET_REMOVE_ENTITIES);
+    static final Class<?> PACKET_BLOCK_UPDATE_CLASS = type(PacketConstants.NMS_PACKET_BLOCK_UPDATE);
+    static final Class<?> PACKET_PLAYER_INFO_UPDATE_CLASS = type(PacketConstants.NMS_PACKET_PLAYER_INFO_UPDATE);
+    static final Class<?> PACKET_PLAYER_INFO_REMOVE_CLASS = type(PacketConstants.NMS_PACKET_PLAYER_INFO_REMOVE);
+    static final Class<?> PACKET_PLAYER_INFO_UPDATE_ACTION_CLASS = type(PacketConstants.NMS_PACKET_PLAYER_INFO_UPDATE + "$Action");
+
+    static final MethodHandle PACKET_METADATA_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_METADATA_CLASS, int.class, List.class), int.class, List.class));
+    static final MethodHandle PACKET_METADATA_ENTITY_ID_FIELD = resolve(() ->
+      unreflectGetter(getAccessibleField(PACKET_METADATA_CLASS, "id"), int.class));
+    static final MethodHandle PACKET_METADATA_ITEMS_FIELD = resolve(() ->
+      unreflectGetter(getAccessibleField(PACKET_METADATA_CLASS, "packedItems"), List.class));
+
+    static final MethodHandle PACKET_REMOVE_ENTITIES_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_REMOVE_ENTITIES_CLASS, int[].class), int[].class));
+
+    /** Null when this server has no usable bundle packet. */
+    static final @Nullable MethodHandle PACKET_BUNDLE_CONSTRUCTOR = resolve(() -> {
+      final var constructor = getOptionalAccessibleConstructor(PACKET_BUNDLE_CLASS, Iterable.class);
+      return constructor == null ? null : unreflectConstructor(constructor, Iterable.class);
+    });
+    static final MethodHandle PACKET_BUNDLE_SUB_PACKETS_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(PACKET_BUNDLE_CLASS, "subPackets"), Iterable.class, Object.class));
+
+    static final MethodHandle PACKET_PLAYER_INFO_REMOVE_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_PLAYER_INFO_REMOVE_CLASS, List.class), List.class));
+    static final @Nullable MethodHandle PACKET_PLAYER_INFO_UPDATE_CONSTRUCTOR = resolve(() -> {
+      final var constructor = getOptionalAccessibleConstructor(PACKET_PLAYER_INFO_UPDATE_CLASS, EnumSet.class, Collection.class);
+      return constructor == null ? null : unreflectConstructor(constructor, EnumSet.class, Collection.class);
+    });
+    static final @Nullable MethodHandle PACKET_PLAYER_INFO_CREATE_INITIALIZING_METHOD = resolve(() ->
+      unreflectOptional(getOptionalAccessibleMethod(PACKET_PLAYER_INFO_UPDATE_CLASS, new String[]{"createPlayerInitializing"}, Collection.class),
+        Object.class, Collection.class));
+
+    // ###############################################################
+    // ------------------------ NETWORKING ---------------------------
+    // ###############################################################
+
+    static final Class<?> SERVER_PLAYER_CLASS = type(PacketConstants.NMS_SERVER_PLAYER);
+    static final Class<?> SERVER_PACKET_LISTENER_CLASS = type(PacketConstants.NMS_SERVER_PACKET_LISTENER);
+    static final Class<?> CONNECTION_CLASS = type(PacketConstants.NMS_CONNECTION);
+
+    static final MethodHandle PLAYER_CONNECTION_FIELD = resolve(() ->
+      unreflectGetter(getAccessibleField(SERVER_PLAYER_CLASS, "connection"), Object.class));
+    static final MethodHandle SEND_PACKET_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(SERVER_PACKET_LISTENER_CLASS, "send", PACKET_CLASS), void.class, Object.class, Object.class));
+    /** {@code Connection.send(packet, listener, flush)}, null if missing: packets are then written to the channel. */
+    static final @Nullable MethodHandle CONNECTION_SEND_METHOD = resolve(Nms::findConnectionSend);
+    static final MethodHandle NETWORK_MANAGER_FIELD = resolve(() ->
+      unreflectGetter(getAccessibleField(SERVER_PACKET_LISTENER_CLASS, "connection"), Object.class));
+    static final MethodHandle CHANNEL_FIELD = resolve(() ->
+      unreflectGetter(getAccessibleField(CONNECTION_CLASS, "channel"), Channel.class));
+
+    // ###############################################################
+    // --------------------------- TEAM ------------------------------
+    // ###############################################################
+
+    static final Class<?> PLAYER_TEAM_CLASS = type(PacketConstants.NMS_PLAYER_TEAM);
+    static final Class<?> SCOREBOARD_CLASS = type(PacketConstants.NMS_SCOREBOARD);
+    static final Class<?> COLLISION_RULE_CLASS = type(PacketConstants.NMS_COLLISION_RULE);
+    static final Class<?> VISIBILITY_CLASS = type(PacketConstants.NMS_VISIBILITY);
+    static final Class<?> CHAT_FORMATTING_CLASS = type(PacketConstants.NMS_CHAT_FORMATTING);
+    static final Class<?> COMPONENT_CLASS = type("net.minecraft.network.chat.Component");
+
+    static final MethodHandle PACKET_TEAM_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_TEAM_CLASS, String.class, int.class, Optional.class, Collection.class),
+        String.class, int.class, Optional.class, Collection.class));
+    static final MethodHandle PACKET_TEAM_PARAMS_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_TEAM_PARAMS_CLASS, PLAYER_TEAM_CLASS), Object.class));
+    static final MethodHandle PLAYER_TEAM_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PLAYER_TEAM_CLASS, SCOREBOARD_CLASS, String.class), Object.class, String.class));
+    static final Object SCOREBOARD_DUMMY = resolve(() -> getAccessibleConstructor(SCOREBOARD_CLASS).newInstance());
+
+    static final MethodHandle SET_TEAM_COLOR_METHOD = teamSetter("setColor", CHAT_FORMATTING_CLASS);
+    static final MethodHandle SET_COLLISION_RULE_METHOD = teamSetter("setCollisionRule", COLLISION_RULE_CLASS);
+    static final MethodHandle SET_NAME_TAG_VISIBILITY_METHOD = teamSetter("setNameTagVisibility", VISIBILITY_CLASS);
+    static final MethodHandle SET_ALLOW_FRIENDLY_FIRE_METHOD = teamSetter("setAllowFriendlyFire", boolean.class);
+    static final MethodHandle SET_SEE_FRIENDLY_INVISIBLES_METHOD = teamSetter("setSeeFriendlyInvisibles", boolean.class);
+    static final MethodHandle SET_TEAM_PREFIX_METHOD = teamSetter("setPlayerPrefix", COMPONENT_CLASS);
+    static final MethodHandle SET_TEAM_SUFFIX_METHOD = teamSetter("setPlayerSuffix", COMPONENT_CLASS);
+
+    static final MethodHandle GET_COLOR_CONSTANT_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(CHAT_FORMATTING_CLASS, "getByCode", char.class), Object.class, char.class));
+    static final MethodHandle COMPONENT_EMPTY_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(COMPONENT_CLASS, "empty"), Object.class));
+    static final MethodHandle COMPONENT_LITERAL_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(COMPONENT_CLASS, "literal", String.class), Object.class, String.class));
+
+    // ###############################################################
+    // ---------------------- ENTITY SPAWNING ------------------------
+    // ###############################################################
+
+    static final Class<?> ENTITY_TYPE_CLASS = type(PacketConstants.NMS_ENTITY_TYPE);
+    static final Class<?> VEC3_CLASS = type(PacketConstants.NMS_VEC3);
+
+    static final Object SHULKER_ENTITY_TYPE = entityType("SHULKER");
+    static final Object ARMOR_STAND_ENTITY_TYPE = entityType("ARMOR_STAND");
+    static final Object ZOMBIE_ENTITY_TYPE = entityType("ZOMBIE");
+    static final Object VILLAGER_ENTITY_TYPE = entityType("VILLAGER");
+    static final Object PLAYER_ENTITY_TYPE = entityType("PLAYER");
+    static final Object ITEM_ENTITY_TYPE = entityType("ITEM");
+
+    static final MethodHandle VEC3_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(VEC3_CLASS, double.class, double.class, double.class),
+        double.class, double.class, double.class));
+    static final Object VEC3_ZERO = resolve(() -> (Object) VEC3_CONSTRUCTOR.invokeExact(0d, 0d, 0d));
+
+    static final MethodHandle PACKET_ADD_ENTITY_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_ADD_ENTITY_CLASS,
+          int.class, UUID.class, double.class, double.class, double.class,
+          float.class, float.class, ENTITY_TYPE_CLASS, int.class, VEC3_CLASS, double.class),
+        int.class, UUID.class, double.class, double.class, double.class,
+        float.class, float.class, Object.class, int.class, Object.class, double.class));
+
+    /** Absolute entity moves, null when this server lacks the position sync packet: fake entities are then respawned. */
+    static final @Nullable MethodHandle POSITION_MOVE_ROTATION_CONSTRUCTOR = resolveOptional(() ->
+      unreflectConstructor(getAccessibleConstructor(type(PacketConstants.NMS_POSITION_MOVE_ROTATION),
+          VEC3_CLASS, VEC3_CLASS, float.class, float.class),
+        Object.class, Object.class, float.class, float.class));
+    static final @Nullable MethodHandle PACKET_ENTITY_POSITION_SYNC_CONSTRUCTOR = POSITION_MOVE_ROTATION_CONSTRUCTOR == null ? null : resolveOptional(() ->
+      unreflectConstructor(getAccessibleConstructor(type(PacketConstants.NMS_PACKET_ENTITY_POSITION_SYNC),
+          int.class, type(PacketConstants.NMS_POSITION_MOVE_ROTATION), boolean.class),
+        int.class, Object.class, boolean.class));
+
+    // ###############################################################
+    // ---------------------- DISPLAY ENTITIES -----------------------
+    // ###############################################################
+
+    static final Object TEXT_DISPLAY_ENTITY_TYPE = entityType("TEXT_DISPLAY");
+    static final Object ITEM_DISPLAY_ENTITY_TYPE = entityType("ITEM_DISPLAY");
+    static final Object BLOCK_DISPLAY_ENTITY_TYPE = entityType("BLOCK_DISPLAY");
+
+    static final Class<?> DISPLAY_CLASS = type(PacketConstants.NMS_DISPLAY);
+    static final Class<?> TEXT_DISPLAY_CLASS = type(PacketConstants.NMS_TEXT_DISPLAY);
+
+    static final Object DISPLAY_BILLBOARD_ACCESSOR = constant(DISPLAY_CLASS, "DATA_BILLBOARD_RENDER_CONSTRAINTS_ID");
+    static final Object DISPLAY_TELEPORT_DURATION_ACCESSOR = constant(DISPLAY_CLASS, "DATA_POS_ROT_INTERPOLATION_DURATION_ID");
+    static final Object DISPLAY_INTERPOLATION_DELAY_ACCESSOR = constant(DISPLAY_CLASS, "DATA_TRANSFORMATION_INTERPOLATION_START_DELTA_TICKS_ID");
+    static final Object DISPLAY_INTERPOLATION_DURATION_ACCESSOR = constant(DISPLAY_CLASS, "DATA_TRANSFORMATION_INTERPOLATION_DURATION_ID");
+    static final Object DISPLAY_SCALE_ACCESSOR = constant(DISPLAY_CLASS, "DATA_SCALE_ID");
+    static final Object DISPLAY_LEFT_ROTATION_ACCESSOR = constant(DISPLAY_CLASS, "DATA_LEFT_ROTATION_ID");
+    static final Object TEXT_DISPLAY_TEXT_ACCESSOR = constant(TEXT_DISPLAY_CLASS, "DATA_TEXT_ID");
+    static final Object TEXT_DISPLAY_STYLE_FLAGS_ACCESSOR = constant(TEXT_DISPLAY_CLASS, "DATA_STYLE_FLAGS_ID");
+    static final Object TEXT_DISPLAY_BACKGROUND_ACCESSOR = constant(TEXT_DISPLAY_CLASS, "DATA_BACKGROUND_COLOR_ID");
+    static final Object ITEM_DISPLAY_ITEM_ACCESSOR = constant(type(PacketConstants.NMS_ITEM_DISPLAY), "DATA_ITEM_STACK_ID");
+    static final Object BLOCK_DISPLAY_STATE_ACCESSOR = constant(type(PacketConstants.NMS_BLOCK_DISPLAY), "DATA_BLOCK_STATE_ID");
+
+    static final MethodHandle ADVENTURE_AS_VANILLA_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(type(PacketConstants.PAPER_ADVENTURE), "asVanilla", Component.class), Object.class, Object.class));
+    static final MethodHandle CRAFT_ITEM_STACK_AS_NMS_COPY_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(type(CRAFT_PACKAGE + "." + PacketConstants.CRAFT_ITEM_STACK), "asNMSCopy", ItemStack.class),
+        Object.class, Object.class));
+
+    // ###############################################################
+    // -------------------------- BLOCKS -----------------------------
+    // ###############################################################
+
+    static final Class<?> BLOCK_POS_CLASS = type(PacketConstants.NMS_BLOCK_POS);
+    static final Class<?> BLOCK_CLASS = type(PacketConstants.NMS_BLOCK);
+    static final Class<?> BLOCK_STATE_CLASS = type(PacketConstants.NMS_BLOCK_STATE);
+    static final Class<?> CRAFT_BLOCK_DATA_CLASS = type(CRAFT_PACKAGE + "." + PacketConstants.CRAFT_BLOCK_DATA);
+
+    static final MethodHandle BLOCK_POS_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(BLOCK_POS_CLASS, int.class, int.class, int.class), int.class, int.class, int.class));
+    static final MethodHandle PACKET_BLOCK_UPDATE_CONSTRUCTOR = resolve(() ->
+      unreflectConstructor(getAccessibleConstructor(PACKET_BLOCK_UPDATE_CLASS, BLOCK_POS_CLASS, BLOCK_STATE_CLASS), Object.class, Object.class));
+    static final MethodHandle CRAFT_MAGIC_NUMBERS_GET_BLOCK_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(CRAFT_MAGIC_NUMBERS_CLASS, "getBlock", Material.class), Object.class, Material.class));
+    static final MethodHandle BLOCK_DEFAULT_BLOCK_STATE_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(BLOCK_CLASS, "defaultBlockState"), Object.class, Object.class));
+    static final MethodHandle CRAFT_BLOCK_DATA_GET_STATE_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(CRAFT_BLOCK_DATA_CLASS, "getState"), Object.class, Object.class));
+
+    /** Section-wide block changes, null when this server lacks CraftBukkit's array constructor: blocks are then sent one by one. */
+    static final @Nullable MethodHandle SECTION_POS_OF_METHOD = resolveOptional(() ->
+      unreflect(getAccessibleMethod(type(PacketConstants.NMS_SECTION_POS), "of", int.class, int.class, int.class),
+        Object.class, int.class, int.class, int.class));
+    static final @Nullable MethodHandle SHORT_ARRAY_SET_CONSTRUCTOR = resolveOptional(() ->
+      unreflectConstructor(getAccessibleConstructor(type(PacketConstants.FASTUTIL_SHORT_ARRAY_SET), short[].class), short[].class));
+    static final @Nullable MethodHandle PACKET_SECTION_BLOCKS_UPDATE_CONSTRUCTOR = SECTION_POS_OF_METHOD == null || SHORT_ARRAY_SET_CONSTRUCTOR == null
+      ? null
+      : resolveOptional(() -> {
+        final var constructor = getOptionalAccessibleConstructor(type(PacketConstants.NMS_PACKET_SECTION_BLOCKS_UPDATE),
+          type(PacketConstants.NMS_SECTION_POS), type(PacketConstants.FASTUTIL_SHORT_SET), BLOCK_STATE_CLASS.arrayType());
+        return constructor == null ? null : unreflectConstructor(constructor, Object.class, Object.class, Object[].class);
+      });
+
+    // ###############################################################
+    // ----------------------- WORLD BORDER --------------------------
+    // ###############################################################
+
+    static final Class<?> WORLD_BORDER_CLASS = type(PacketConstants.NMS_WORLD_BORDER);
+
+    static final MethodHandle WORLD_BORDER_CONSTRUCTOR = resolve(() -> unreflectConstructor(getAccessibleConstructor(WORLD_BORDER_CLASS)));
+    static final MethodHandle PACKET_WORLD_BORDER_CONSTRUCTOR = worldBorderPacket(PacketConstants.NMS_PACKET_WORLD_BORDER);
+    static final MethodHandle PACKET_WORLD_BORDER_CENTER_CONSTRUCTOR = worldBorderPacket(PacketConstants.NMS_PACKET_WORLD_BORDER_CENTER);
+    static final MethodHandle PACKET_WORLD_BORDER_SIZE_CONSTRUCTOR = worldBorderPacket(PacketConstants.NMS_PACKET_WORLD_BORDER_SIZE);
+    /** Null when missing, size changes are then sent without lerp. */
+    static final @Nullable MethodHandle PACKET_WORLD_BORDER_LERP_CONSTRUCTOR = resolve(() -> {
+      final var constructor = getOptionalAccessibleConstructor(type(PacketConstants.NMS_PACKET_WORLD_BORDER_LERP_SIZE), WORLD_BORDER_CLASS);
+      return constructor == null ? null : unreflectConstructor(constructor, Object.class);
+    });
+    static final MethodHandle PACKET_WORLD_BORDER_WARNING_DELAY_CONSTRUCTOR = worldBorderPacket(PacketConstants.NMS_PACKET_WORLD_BORDER_WARNING_DELAY);
+    static final MethodHandle PACKET_WORLD_BORDER_WARNING_DISTANCE_CONSTRUCTOR = worldBorderPacket(PacketConstants.NMS_PACKET_WORLD_BORDER_WARNING_DISTANCE);
+
+    static final MethodHandle CRAFT_WORLD_GET_HANDLE_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(CRAFT_WORLD_CLASS, "getHandle"), Object.class, Object.class));
+    static final MethodHandle LEVEL_GET_WORLD_BORDER_METHOD = resolve(() ->
+      unreflect(getAccessibleMethod(getAccessibleMethod(CRAFT_WORLD_CLASS, "getHandle").getReturnType(), "getWorldBorder"), Object.class, Object.class));
+
+    static final MethodHandle WORLD_BORDER_SET_CENTER_METHOD = worldBorderMethod("setCenter", void.class, double.class, double.class);
+    static final MethodHandle WORLD_BORDER_GET_CENTER_X_METHOD = worldBorderMethod("getCenterX", double.class);
+    static final MethodHandle WORLD_BORDER_GET_CENTER_Z_METHOD = worldBorderMethod("getCenterZ", double.class);
+    static final MethodHandle WORLD_BORDER_GET_MIN_X_METHOD = worldBorderMethod("getMinX", double.class);
+    static final MethodHandle WORLD_BORDER_GET_MIN_Z_METHOD = worldBorderMethod("getMinZ", double.class);
+    static final MethodHandle WORLD_BORDER_GET_MAX_X_METHOD = worldBorderMethod("getMaxX", double.class);
+    static final MethodHandle WORLD_BORDER_GET_MAX_Z_METHOD = worldBorderMethod("getMaxZ", double.class);
+    static final MethodHandle WORLD_BORDER_SET_SIZE_METHOD = worldBorderMethod("setSize", void.class, double.class);
+    static final MethodHandle WORLD_BORDER_GET_SIZE_METHOD = worldBorderMethod("getSize", double.class);
+    static final MethodHandle WORLD_BORDER_SET_SAFE_ZONE_METHOD = worldBorderMethod("setSafeZone", void.class, double.class);
+    static final MethodHandle WORLD_BORDER_GET_SAFE_ZONE_METHOD = worldBorderMethod("getSafeZone", double.class);
+    static final MethodHandle WORLD_BORDER_SET_WARNING_TIME_METHOD = worldBorderMethod("setWarningTime", void.class, int.class);
+    static final MethodHandle WORLD_BORDER_GET_WARNING_TIME_METHOD = worldBorderMethod("getWarningTime", int.class);
+    static final MethodHandle WORLD_BORDER_SET_WARNING_BLOCKS_METHOD = worldBorderMethod("setWarningBlocks", void.class, int.class);
+    static final MethodHandle WORLD_BORDER_GET_WARNING_BLOCKS_METHOD = worldBorderMethod("getWarningBlocks", int.class);
+    static final @Nullable MethodHandle WORLD_BORDER_LERP_SIZE_BETWEEN_METHOD = resolve(() ->
+      unreflectOptional(getOptionalAccessibleMethod(WORLD_BORDER_CLASS,
+          new String[]{"lerpSizeBetween", "transitionSizeBetween"},
+          double.class, double.class, long.class),
+        void.class, Object.class, double.class, double.class, long.class));
+
+    private Nms() {
+    }
+
+    /** Does nothing, calling it is what loads the class and resolves the members. */
+    static void load() {
+    }
+
+    // ###############################################################
+    // ----------------------- PRIVATE METHODS -----------------------
+    // ###############################################################
+
+    private static @NotNull Class<?> type(final @NotNull String name) {
+      return resolve(() -> Class.forName(name));
+    }
+
+    private static @NotNull Object entityType(final @NotNull String name) {
+      return constant(ENTITY_TYPE_CLASS, name);
+    }
+
+    private static @NotNull Object constant(final @NotNull Class<?> owner, final @NotNull String name) {
+      return resolve(() -> getAccessibleField(owner, name).get(null));
+    }
+
+    private static @NotNull MethodHandle teamSetter(final @NotNull String name, final @NotNull Class<?> parameterType) {
+      final Class<?> erased = parameterType.isPrimitive() ? parameterType : Object.class;
+      return resolve(() -> unreflect(getAccessibleMethod(PLAYER_TEAM_CLASS, name, parameterType), void.class, Object.class, erased));
+    }
+
+    private static @NotNull MethodHandle worldBorderPacket(final @NotNull String packetClass) {
+      return resolve(() -> unreflectConstructor(getAccessibleConstructor(type(packetClass), WORLD_BORDER_CLASS), Object.class));
+    }
+
+    /** Parameters are primitives, the handle takes the border as its first argument. */
+    private static @NotNull MethodHandle worldBorderMethod(final @NotNull String name, final @NotNull Class<?> returnType,
+                                                           final @NotNull Class<?>... parameterTypes) {
+      final var erased = new Class<?>[parameterTypes.length + 1];
+      erased[0] = Object.class;
+      System.arraycopy(parameterTypes, 0, erased, 1, parameterTypes.length);
+      return resolve(() -> unreflect(getAccessibleMethod(WORLD_BORDER_CLASS, name, parameterTypes), returnType, erased));
+    }
+
+    /** The send listener type changed across versions, the overload is matched on its other parameters. */
+    private static @Nullable MethodHandle findConnectionSend() throws IllegalAccessException {
+      for (final var method : CONNECTION_CLASS.getMethods()) {
+        final var parameters = method.getParameterTypes();
+        if (method.getName().equals("send") && parameters.length == 3
+          && parameters[0] == PACKET_CLASS && !parameters[1].isPrimitive() && parameters[2] == boolean.class)
+          return unreflect(method, void.class, Object.class, Object.class, Object.class, boolean.class);
+      }
+      return null;
+    }
+
+    private static <T> T resolve(final @NotNull Resolver<T> resolver) {
+      try {
+        return resolver.resolve();
+      } catch (Throwable t) {
+        if (t instanceof Error error) throw error;
+        throw new IllegalStateException(t);
+      }
+    }
+
+    /** Resolves members this server may lack, null when it does. */
+    private static <T> @Nullable T resolveOptional(final @NotNull Resolver<T> resolver) {
+      try {
+        return resolver.resolve();
+      } catch (IllegalStateException e) {
+        if (e.getCause() instanceof ClassNotFoundException) return null;
+        throw e;
+      } catch (NoSuchMethodException | NoSuchFieldException | ClassNotFoundException e) {
+        return null;
+      } catch (Throwable t) {
+        if (t instanceof Error error) throw error;
+        throw new IllegalStateException(t);
+      }
+    }
+
+    @FunctionalInterface
+    private interface Resolver<T> {
+      T resolve() throws Throwable;
+    }
+
+  }
+
 }
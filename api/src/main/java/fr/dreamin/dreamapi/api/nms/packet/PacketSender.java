@@ -1,34 +1,199 @@
 package fr.dreamin.dreamapi.api.nms.packet;
 
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import fr.dreamin.dreamapi.api.DreamAPI;
 import lombok.experimental.UtilityClass;
+import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.IllegalPluginAccessException;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
+/**
+ * Hands packets to the player's network connection without flushing, then flushes its
+ * channel once per batch.
+ * <p>
+ * {@link #send} writes immediately with a single flush per call. The {@code queue} methods
+ * collect packets per viewer during the tick instead; every batch is written with one flush
+ * when the server tick ends. Sending to a viewer first writes whatever is still queued for
+ * them, so packets always leave in the order they were given.
+ */
 @UtilityClass
 public final class PacketSender {
 
+  /** Batches waiting for the next flush, by viewer. Main thread only. */
+  private static final Map<UUID, Batch> PENDING = new LinkedHashMap<>();
+
+  /** Whether the tick end listener is registered; it stays registered until the plugin is disabled. */
+  private static boolean listening = false;
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
   /**
    * Send one or multiple packets to a player
    * Null packets are automatically filtered out
    */
   public static void send(final @NotNull Player player, final @NotNull Object... packets) {
-    Arrays.stream(packets)
-      .forEach(packet -> {
-        try {
-          PacketReflection.sendPacket(player, packet);
-        } catch (ReflectiveOperationException e) {
-          throw new RuntimeException("Failed to send packet to " + player.getName(), e);
-        }
-      });
+    final var pending = Bukkit.isPrimaryThread() ? PENDING.remove(player.getUniqueId()) : null;
+    final var batch = pending != null ? pending : new Batch(player);
+    batch.addAll(packets);
+    write(batch);
   }
 
   /**
    * Send packet to multiple players
    */
   public static void sendToAll(final @NotNull Object packet, final @NotNull Player... players) {
-    Arrays.stream(players)
-      .forEach(player -> send(player, packet));
+    for (final var player : players)
+      send(player, packet);
+  }
+
+  /**
+   * Queues packets for the end of the tick, where they are written with the rest of the
+   * player's batch and a single flush. Off the main thread this falls back to {@link #send}.
+   */
+  public static void queue(final @NotNull Player player, final @NotNull Object... packets) {
+    queue(player, false, packets);
+  }
+
+  /**
+   * Same as {@link #queue(Player, Object...)}, but the player's whole batch is wrapped in
+   * bundle packets so the client applies it within a single frame.
+   */
+  public static void queueBundled(final @NotNull Player player, final @NotNull Object... packets) {
+    queue(player, true, packets);
+  }
+
+  /**
+   * Queues a packet for multiple players
+   */
+  public static void queueToAll(final @NotNull Object packet, final @NotNull Player... players) {
+    for (final var player : players)
+      queue(player, false, packet);
+  }
+
+  /**
+   * Writes every queued batch now.
+   */
+  public static void flush() {
+    if (PENDING.isEmpty())
+      return;
+
+    final var batches = new ArrayList<>(PENDING.values());
+    PENDING.clear();
+
+    for (final var batch : batches) {
+      try {
+        write(batch);
+      } catch (RuntimeException e) {
+        DreamAPI.getAPI().getLogger().warning(e.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Writes the batch queued for one player now.
+   */
+  public static void flush(final @NotNull Player player) {
+    final var batch = PENDING.remove(player.getUniqueId());
+    if (batch != null)
+      write(batch);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private static void queue(final @NotNull Player player, final boolean bundle, final @NotNull Object... packets) {
+    if (!Bukkit.isPrimaryThread()) {
+      send(player, packets);
+      return;
+    }
+
+    final var batch = PENDING.computeIfAbsent(player.getUniqueId(), k -> new Batch(player));
+    batch.addAll(packets);
+    batch.bundle |= bundle;
+    scheduleFlush();
+  }
+
+  private static void scheduleFlush() {
+    if (listening) return;
+
+    try {
+      Bukkit.getPluginManager().registerEvents(new FlushListener(), DreamAPI.getAPI().plugin());
+      listening = true;
+    } catch (IllegalPluginAccessException e) {
+      // Plugin disabling: nothing will run later, write now.
+      flush();
+    }
+  }
+
+  private static void write(final @NotNull Batch batch) {
+    final var packets = batch.packets;
+    if (packets.isEmpty() || !batch.player.isOnline())
+      return;
+
+    try {
+      final var connection = PacketReflection.getConnection(batch.player);
+      if (!PacketReflection.isConnectionOpen(connection))
+        return;
+
+      if (batch.bundle && packets.size() > 1 && PacketReflection.isBundleSupported()) {
+        for (var from = 0; from < packets.size(); from += PacketConstants.BUNDLE_MAX_PACKETS) {
+          final var to = Math.min(packets.size(), from + PacketConstants.BUNDLE_MAX_PACKETS);
+          PacketReflection.writePacket(connection, PacketReflection.createBundlePacket(packets.subList(from, to)));
+        }
+      } else {
+        for (final var packet : packets)
+          PacketReflection.writePacket(connection, packet);
+      }
+      PacketReflection.flushConnection(connection);
+    } catch (ReflectiveOperationException e) {
+      throw new RuntimeException("Failed to send packet to " + batch.player.getName(), e);
+    }
   }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /** Writes the batches queued during the tick once it ends. */
+  private static final class FlushListener implements Listener {
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    private void onServerTickEnd(final @NotNull ServerTickEndEvent event) {
+      flush();
+    }
+
+  }
+
+  private static final class Batch {
+
+    private final Player player;
+    private final List<Object> packets = new ArrayList<>();
+    private boolean bundle;
+
+    private Batch(final @NotNull Player player) {
+      this.player = player;
+    }
+
+    private void addAll(final @NotNull Object... packets) {
+      for (final var packet : packets) {
+        if (packet != null)
+          this.packets.add(packet);
+      }
+    }
+
+  }
+
 }
@@ -11,4 +11,7 @@ public interface FakeEntity {
   @NotNull EntityType getType();
 
   @NotNull Location getInitialLocation();
+
+  /** Current position, as last moved through the visual service. */
+  @NotNull Location getLocation();
 }
\ No newline at end of file
@@ -1,8 +1,15 @@
 package fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model;
 
 import net.kyori.adventure.text.Component;
+import org.bukkit.Color;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Display;
+import org.bukkit.entity.TextDisplay;
 import org.bukkit.inventory.ItemStack;
+import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
 
 public interface FakeEntityMetadata {
 
@@ -21,4 +28,17 @@ public interface FakeEntityMetadata {
   void setMainHand(final @Nullable ItemStack item);
   void setOffHand(final @Nullable ItemStack item);
 
+  // Display entities
+  void setBillboard(final @NotNull Display.Billboard billboard);
+  void setTeleportDuration(final int ticks);
+  void setScale(final @NotNull Vector3f scale);
+  void setLeftRotation(final @NotNull Quaternionf rotation);
+  /** Makes the client interpolate the scale and rotation changes sent along. */
+  void setInterpolation(final int delayTicks, final int durationTicks);
+  void setText(final @NotNull Component text);
+  void setBackgroundColor(final @NotNull Color color);
+  void setTextStyle(final boolean shadowed, final boolean seeThrough, final @NotNull TextDisplay.TextAlignment alignment);
+  void setItem(final @NotNull ItemStack item);
+  void setBlock(final @NotNull BlockData block);
+
 }
@@ -4,10 +4,12 @@ import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntity;
 import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.Collection;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
@@ -25,6 +27,31 @@ public interface VisualService {
     @NotNull Player... viewers
   ) throws ReflectiveOperationException;
 
+  /**
+   * Remove a fake entity for every viewer.
+   */
+  void removeFakeEntity(
+    @NotNull FakeEntity entity
+  );
+
+  /**
+   * Allow more viewers to see a fake entity, with the metadata it was last updated with for
+   * all its viewers.
+   */
+  void showFakeEntity(
+    @NotNull FakeEntity entity,
+    @NotNull Player... viewers
+  );
+
+  /**
+   * Move a fake entity for everyone allowed to see it. Viewers get it spawned or removed as it
+   * enters or leaves their view distance.
+   */
+  void moveFakeEntity(
+    @NotNull FakeEntity entity,
+    @NotNull Location location
+  );
+
   void updateFakeEntity(
     @NotNull FakeEntity entity,
     @NotNull Consumer<FakeEntityMetadata> metadataMutator,
@@ -40,6 +67,15 @@ public interface VisualService {
     @NotNull Player... viewers
   ) throws ReflectiveOperationException;
 
+  /**
+   * Show many fake blocks to viewers, with one multi-block-change packet per chunk section.
+   * Fake blocks form a per-viewer overlay, sent again whenever the viewer receives their chunk.
+   */
+  void showFakeBlocks(
+    @NotNull Map<Location, BlockData> blocks,
+    @NotNull Player... viewers
+  ) throws ReflectiveOperationException;
+
   /**
    * Restore the real block at this location for viewers.
    */
@@ -48,6 +84,14 @@ public interface VisualService {
     @NotNull Player... viewers
   ) throws ReflectiveOperationException;
 
+  /**
+   * Restore the real blocks at these locations for viewers, one packet per chunk section.
+   */
+  void hideFakeBlocks(
+    @NotNull Collection<Location> locations,
+    @NotNull Player... viewers
+  ) throws ReflectiveOperationException;
+
   void setFrozenTime(
     @NotNull Player player,
     long time
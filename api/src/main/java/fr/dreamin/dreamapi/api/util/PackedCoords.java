@@ -0,0 +1,73 @@
+package fr.dreamin.dreamapi.api.util;
+
+/**
+ * Packs block and chunk coordinates into a single {@code long} so they can be used
+ * as primitive map keys without allocating {@link org.bukkit.Location} objects.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class PackedCoords {
+
+  private PackedCoords() {}
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Packs a chunk column position.
+   *
+   * @param chunkX chunk X coordinate
+   * @param chunkZ chunk Z coordinate
+   * @return the packed chunk key
+   */
+  public static long chunkKey(final int chunkX, final int chunkZ) {
+    return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+  }
+
+  /**
+   * Packs the chunk column containing the given block position.
+   *
+   * @param blockX block X coordinate
+   * @param blockZ block Z coordinate
+   * @return the packed chunk key
+   */
+  public static long chunkKeyOfBlock(final int blockX, final int blockZ) {
+    return chunkKey(blockX >> 4, blockZ >> 4);
+  }
+
+  /**
+   * Packs a block position: 26 bits of X, 26 bits of Z and 12 bits of Y, which covers the
+   * whole world border and every supported build height.
+   *
+   * @param x block X coordinate
+   * @param y block Y coordinate
+   * @param z block Z coordinate
+   * @return the packed block key
+   */
+  public static long blockKey(final int x, final int y, final int z) {
+    return ((long) (x & 0x3FFFFFF) << 38) | ((long) (z & 0x3FFFFFF) << 12) | (y & 0xFFF);
+  }
+
+  public static int blockX(final long blockKey) {
+    return (int) (blockKey >> 38);
+  }
+
+  public static int blockY(final long blockKey) {
+    return (int) (blockKey << 52 >> 52);
+  }
+
+  public static int blockZ(final long blockKey) {
+    return (int) (blockKey << 26 >> 38);
+  }
+
+  public static int chunkX(final long chunkKey) {
+    return (int) (chunkKey >> 32);
+  }
+
+  public static int chunkZ(final long chunkKey) {
+    return (int) chunkKey;
+  }
+
+}
@@ -0,0 +1,167 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Open-addressing hash map from primitive {@code int} keys to primitive {@code byte} values,
+ * with lock-free reads.
+ * <p>
+ * Each entry is a single {@code long} slot holding key, state and value, published with
+ * release/acquire semantics, so readers on other threads always see a whole entry. Writers
+ * are serialized; removed entries become tombstones until the next rehash, which builds a
+ * new table and swaps it in. Reads never allocate.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class ConcurrentIntByteMap {
+
+  /** Returned by {@link #get(int)} for absent keys. */
+  public static final int MISSING = -1;
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private static final VarHandle SLOTS = MethodHandles.arrayElementVarHandle(long[].class);
+
+  private static final long EMPTY = 0L;
+  private static final int STATE_PRESENT = 1;
+  private static final int STATE_REMOVED = 2;
+
+  private volatile long[] slots;
+  private volatile int size;
+  private int tombstones;
+
+  public ConcurrentIntByteMap() {
+    this(16);
+  }
+
+  public ConcurrentIntByteMap(final int expectedSize) {
+    this.slots = new long[tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR))];
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * @return the value as an unsigned byte ({@code 0..255}), or {@link #MISSING}
+   */
+  public int get(final int key) {
+    final var table = this.slots;
+    final var mask = table.length - 1;
+    var index = mix(key) & mask;
+    while (true) {
+      final var slot = (long) SLOTS.getAcquire(table, index);
+      if (slot == EMPTY) return MISSING;
+      if (keyOf(slot) == key)
+        return stateOf(slot) == STATE_PRESENT ? (int) (slot & 0xFF) : MISSING;
+      index = (index + 1) & mask;
+    }
+  }
+
+  public boolean containsKey(final int key) {
+    return get(key) != MISSING;
+  }
+
+  public synchronized void put(final int key, final byte value) {
+    final var table = this.slots;
+    final var mask = table.length - 1;
+    var index = mix(key) & mask;
+    while (true) {
+      final var slot = (long) SLOTS.getAcquire(table, index);
+      if (slot == EMPTY) break;
+      if (keyOf(slot) == key) {
+        if (stateOf(slot) == STATE_REMOVED) {
+          this.tombstones--;
+          this.size++;
+        }
+        SLOTS.setRelease(table, index, pack(key, STATE_PRESENT, value));
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+
+    SLOTS.setRelease(table, index, pack(key, STATE_PRESENT, value));
+    this.size++;
+    if (this.size + this.tombstones > table.length * LOAD_FACTOR)
+      rehash(this.size * 2 > table.length * LOAD_FACTOR ? table.length << 1 : table.length);
+  }
+
+  public synchronized void remove(final int key) {
+    final var table = this.slots;
+    final var mask = table.length - 1;
+    var index = mix(key) & mask;
+    while (true) {
+      final var slot = (long) SLOTS.getAcquire(table, index);
+      if (slot == EMPTY) return;
+      if (keyOf(slot) == key) {
+        if (stateOf(slot) == STATE_PRESENT) {
+          SLOTS.setRelease(table, index, pack(key, STATE_REMOVED, (byte) 0));
+          this.size--;
+          this.tombstones++;
+        }
+        return;
+      }
+      index = (index + 1) & mask;
+    }
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public synchronized void clear() {
+    this.slots = new long[this.slots.length];
+    this.size = 0;
+    this.tombstones = 0;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /** Copies live entries into a fresh table; readers keep using the old one until the swap. */
+  private void rehash(final int capacity) {
+    final var oldTable = this.slots;
+    final var table = new long[capacity];
+    final var mask = capacity - 1;
+
+    for (final var slot : oldTable) {
+      if (stateOf(slot) != STATE_PRESENT) continue;
+      var index = mix(keyOf(slot)) & mask;
+      while (table[index] != EMPTY)
+        index = (index + 1) & mask;
+      table[index] = slot;
+    }
+
+    this.tombstones = 0;
+    this.slots = table;
+  }
+
+  private static long pack(final int key, final int state, final byte value) {
+    return ((long) key << 32) | ((long) state << 8) | (value & 0xFF);
+  }
+
+  private static int keyOf(final long slot) {
+    return (int) (slot >>> 32);
+  }
+
+  private static int stateOf(final long slot) {
+    return (int) (slot >>> 8) & 0xFF;
+  }
+
+  private static int mix(final int key) {
+    final var h = key * 0x9E3779B9;
+    return h ^ (h >>> 16);
+  }
+
+  private static int tableSizeFor(final int capacity) {
+    return Math.max(4, Integer.highestOneBit(capacity - 1) << 1);
+  }
+
+}
@@ -0,0 +1,90 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive {@code int} values. Not thread-safe.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class IntList {
+
+  private int[] values;
+  private int size;
+
+  public IntList() {
+    this(4);
+  }
+
+  public IntList(final int capacity) {
+    this.values = new int[Math.max(capacity, 1)];
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public void add(final int value) {
+    if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, this.size << 1);
+    this.values[this.size++] = value;
+  }
+
+  public int get(final int index) {
+    if (index >= this.size) throw new IndexOutOfBoundsException(index);
+    return this.values[index];
+  }
+
+  /**
+   * Removes the first occurrence of a value, swapping the last element into its slot.
+   * Order is therefore not preserved.
+   *
+   * @param value the value to remove
+   * @return true if the value was present
+   */
+  public boolean removeValue(final int value) {
+    for (var i = 0; i < this.size; i++) {
+      if (this.values[i] != value) continue;
+      this.values[i] = this.values[--this.size];
+      return true;
+    }
+    return false;
+  }
+
+  public int removeLast() {
+    if (this.size == 0) throw new IndexOutOfBoundsException(0);
+    return this.values[--this.size];
+  }
+
+  public boolean contains(final int value) {
+    for (var i = 0; i < this.size; i++) {
+      if (this.values[i] == value) return true;
+    }
+    return false;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public void clear() {
+    this.size = 0;
+  }
+
+  /** @return an independent list holding the same values, with room for one more */
+  public IntList copy() {
+    final var copy = new IntList(this.size + 1);
+    System.arraycopy(this.values, 0, copy.values, 0, this.size);
+    copy.size = this.size;
+    return copy;
+  }
+
+  public int[] toArray() {
+    return Arrays.copyOf(this.values, this.size);
+  }
+
+}
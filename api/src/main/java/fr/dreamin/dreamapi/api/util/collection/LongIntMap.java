@@ -0,0 +1,163 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to primitive {@code int} values.
+ * <p>
+ * Absent keys read as the {@code missingValue} given at construction, so lookups neither
+ * box nor allocate. Not thread-safe.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class LongIntMap {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private final int missingValue;
+
+  private long[] keys;
+  private int[] values;
+  private boolean[] used;
+  private int mask;
+  private int size;
+
+  public LongIntMap() {
+    this(16, -1);
+  }
+
+  public LongIntMap(final int expectedSize, final int missingValue) {
+    final var capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR));
+    this.missingValue = missingValue;
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    this.used = new boolean[capacity];
+    this.mask = capacity - 1;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public int get(final long key) {
+    var slot = mix(key) & this.mask;
+    while (this.used[slot]) {
+      if (this.keys[slot] == key) return this.values[slot];
+      slot = (slot + 1) & this.mask;
+    }
+    return this.missingValue;
+  }
+
+  public boolean containsKey(final long key) {
+    var slot = mix(key) & this.mask;
+    while (this.used[slot]) {
+      if (this.keys[slot] == key) return true;
+      slot = (slot + 1) & this.mask;
+    }
+    return false;
+  }
+
+  /**
+   * @return the previous value, or the missing value if the key was absent
+   */
+  public int put(final long key, final int value) {
+    var slot = mix(key) & this.mask;
+    while (this.used[slot]) {
+      if (this.keys[slot] == key) {
+        final var previous = this.values[slot];
+        this.values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+
+    this.keys[slot] = key;
+    this.values[slot] = value;
+    this.used[slot] = true;
+    if (++this.size > this.keys.length * LOAD_FACTOR) resize(this.keys.length << 1);
+    return this.missingValue;
+  }
+
+  /**
+   * @return the removed value, or the missing value if the key was absent
+   */
+  public int remove(final long key) {
+    var slot = mix(key) & this.mask;
+    while (this.used[slot]) {
+      if (this.keys[slot] == key) {
+        final var previous = this.values[slot];
+        shiftBack(slot);
+        this.size--;
+        return previous;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return this.missingValue;
+  }
+
+  public int getMissingValue() {
+    return this.missingValue;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(this.used, false);
+    this.size = 0;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /** Backward-shift deletion, see {@link LongObjectMap}. */
+  private void shiftBack(int free) {
+    var slot = free;
+    while (true) {
+      slot = (slot + 1) & this.mask;
+      if (!this.used[slot]) break;
+
+      final var home = mix(this.keys[slot]) & this.mask;
+      final var movable = free <= slot ? (home <= free || home > slot) : (home <= free && home > slot);
+      if (!movable) continue;
+
+      this.keys[free] = this.keys[slot];
+      this.values[free] = this.values[slot];
+      free = slot;
+    }
+    this.used[free] = false;
+  }
+
+  private void resize(final int capacity) {
+    final var oldKeys = this.keys;
+    final var oldValues = this.values;
+    final var oldUsed = this.used;
+
+    this.keys = new long[capacity];
+    this.values = new int[capacity];
+    this.used = new boolean[capacity];
+    this.mask = capacity - 1;
+    this.size = 0;
+
+    for (var i = 0; i < oldUsed.length; i++) {
+      if (oldUsed[i]) put(oldKeys[i], oldValues[i]);
+    }
+  }
+
+  private static int mix(final long key) {
+    final var h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static int tableSizeFor(final int capacity) {
+    return Math.max(4, Integer.highestOneBit(capacity - 1) << 1);
+  }
+
+}
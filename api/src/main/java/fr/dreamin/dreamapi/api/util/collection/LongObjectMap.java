@@ -0,0 +1,183 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to objects.
+ * <p>
+ * Lookups never box the key, which makes it suitable for hot paths keyed by packed
+ * coordinates. {@code null} values are not supported. Not thread-safe.
+ *
+ * @param <V> value type
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class LongObjectMap<V> {
+
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private long[] keys;
+  private Object[] values;
+  private int mask;
+  private int size;
+
+  public LongObjectMap() {
+    this(16);
+  }
+
+  public LongObjectMap(final int expectedSize) {
+    final var capacity = tableSizeFor((int) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR));
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    this.mask = capacity - 1;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V get(final long key) {
+    var slot = mix(key) & this.mask;
+    while (this.values[slot] != null) {
+      if (this.keys[slot] == key) return (V) this.values[slot];
+      slot = (slot + 1) & this.mask;
+    }
+    return null;
+  }
+
+  public boolean containsKey(final long key) {
+    return get(key) != null;
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V put(final long key, final @NotNull V value) {
+    var slot = mix(key) & this.mask;
+    while (this.values[slot] != null) {
+      if (this.keys[slot] == key) {
+        final var previous = (V) this.values[slot];
+        this.values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+
+    this.keys[slot] = key;
+    this.values[slot] = value;
+    if (++this.size > this.keys.length * LOAD_FACTOR) resize(this.keys.length << 1);
+    return null;
+  }
+
+  public @NotNull V computeIfAbsent(final long key, final @NotNull LongFunction<? extends V> factory) {
+    final var existing = get(key);
+    if (existing != null) return existing;
+
+    final V created = factory.apply(key);
+    put(key, created);
+    return created;
+  }
+
+  @SuppressWarnings("unchecked")
+  public @Nullable V remove(final long key) {
+    var slot = mix(key) & this.mask;
+    while (this.values[slot] != null) {
+      if (this.keys[slot] == key) {
+        final var previous = (V) this.values[slot];
+        shiftBack(slot);
+        this.size--;
+        return previous;
+      }
+      slot = (slot + 1) & this.mask;
+    }
+    return null;
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public void clear() {
+    Arrays.fill(this.values, null);
+    this.size = 0;
+  }
+
+  /**
+   * Iterates over every entry. The map must not be modified during iteration.
+   *
+   * @param consumer receives each key/value pair
+   */
+  @SuppressWarnings("unchecked")
+  public void forEach(final @NotNull EntryConsumer<? super V> consumer) {
+    for (var i = 0; i < this.values.length; i++) {
+      if (this.values[i] != null) consumer.accept(this.keys[i], (V) this.values[i]);
+    }
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /**
+   * Backward-shift deletion: moves following entries of the probe chain into the freed
+   * slot so that lookups never need tombstones.
+   */
+  private void shiftBack(int free) {
+    var slot = free;
+    while (true) {
+      slot = (slot + 1) & this.mask;
+      if (this.values[slot] == null) break;
+
+      final var home = mix(this.keys[slot]) & this.mask;
+      final var movable = free <= slot ? (home <= free || home > slot) : (home <= free && home > slot);
+      if (!movable) continue;
+
+      this.keys[free] = this.keys[slot];
+      this.values[free] = this.values[slot];
+      free = slot;
+    }
+    this.values[free] = null;
+  }
+
+  @SuppressWarnings("unchecked")
+  private void resize(final int capacity) {
+    final var oldKeys = this.keys;
+    final var oldValues = this.values;
+
+    this.keys = new long[capacity];
+    this.values = new Object[capacity];
+    this.mask = capacity - 1;
+    this.size = 0;
+
+    for (var i = 0; i < oldValues.length; i++) {
+      if (oldValues[i] != null) put(oldKeys[i], (V) oldValues[i]);
+    }
+  }
+
+  private static int mix(final long key) {
+    final var h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+  private static int tableSizeFor(final int capacity) {
+    return Math.max(4, Integer.highestOneBit(capacity - 1) << 1);
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  @FunctionalInterface
+  public interface EntryConsumer<V> {
+    void accept(long key, V value);
+  }
+
+}
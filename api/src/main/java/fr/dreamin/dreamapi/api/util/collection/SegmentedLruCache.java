@@ -0,0 +1,171 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Size- and idle-bounded cache with segmented LRU eviction.
+ * <p>
+ * New entries land in a probation segment; a second hit promotes them to a protected segment
+ * holding 80% of the capacity. One-off keys therefore cycle through probation without pushing
+ * out the entries that are actually reused. Entries not read for the idle timeout are dropped
+ * as well; an entry demoted back to probation counts as read, it gets a full timeout there. Hits, misses and evictions are counted. Thread-safe.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class SegmentedLruCache<K, V> {
+
+  private static final float PROTECTED_RATIO = 0.8f;
+
+  private final int protectedCapacity;
+  private final int probationCapacity;
+  private final long idleNanos;
+
+  private final LinkedHashMap<K, Entry<V>> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final LinkedHashMap<K, Entry<V>> protectedSegment = new LinkedHashMap<>(16, 0.75f, true);
+
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+
+  /**
+   * @param maximumSize most entries kept, at least 2
+   * @param idleTimeout how long an entry survives without being read
+   * @param unit unit of {@code idleTimeout}
+   */
+  public SegmentedLruCache(final int maximumSize, final long idleTimeout, final @NotNull TimeUnit unit) {
+    if (maximumSize < 2)
+      throw new IllegalArgumentException("Maximum size must be >= 2");
+
+    this.protectedCapacity = Math.max(1, (int) (maximumSize * PROTECTED_RATIO));
+    this.probationCapacity = maximumSize - this.protectedCapacity;
+    this.idleNanos = unit.toNanos(idleTimeout);
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Returns the cached value, loading and caching it on a miss.
+   */
+  public synchronized @NotNull V get(final @NotNull K key, final @NotNull Function<? super K, ? extends V> loader) {
+    final var now = System.nanoTime();
+    expire(now);
+
+    var entry = this.protectedSegment.get(key);
+    if (entry != null) {
+      entry.accessedAt = now;
+      this.hits.increment();
+      return entry.value;
+    }
+
+    entry = this.probation.remove(key);
+    if (entry != null) {
+      entry.accessedAt = now;
+      this.hits.increment();
+      promote(key, entry, now);
+      return entry.value;
+    }
+
+    this.misses.increment();
+    final var value = loader.apply(key);
+    this.probation.put(key, new Entry<>(value, now));
+    trimProbation();
+    return value;
+  }
+
+  public synchronized void invalidate(final @NotNull K key) {
+    if (this.protectedSegment.remove(key) == null)
+      this.probation.remove(key);
+  }
+
+  public synchronized void clear() {
+    this.probation.clear();
+    this.protectedSegment.clear();
+  }
+
+  public synchronized int size() {
+    return this.probation.size() + this.protectedSegment.size();
+  }
+
+  public long getHits() {
+    return this.hits.sum();
+  }
+
+  public long getMisses() {
+    return this.misses.sum();
+  }
+
+  /** Entries dropped for size or idleness, not those invalidated or cleared. */
+  public long getEvictions() {
+    return this.evictions.sum();
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void promote(final @NotNull K key, final @NotNull Entry<V> entry, final long now) {
+    this.protectedSegment.put(key, entry);
+    if (this.protectedSegment.size() <= this.protectedCapacity)
+      return;
+
+    // Demote the least recently used protected entry; it gets one more chance in probation.
+    // It lands at the newest end, so it must look as recent for expire() to stop early.
+    final var eldest = this.protectedSegment.entrySet().iterator().next();
+    this.protectedSegment.remove(eldest.getKey());
+    eldest.getValue().accessedAt = now;
+    this.probation.put(eldest.getKey(), eldest.getValue());
+    trimProbation();
+  }
+
+  private void trimProbation() {
+    final var iterator = this.probation.values().iterator();
+    while (this.probation.size() > this.probationCapacity && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+      this.evictions.increment();
+    }
+  }
+
+  /** Both segments are in access order, so idle entries are found from the eldest end. */
+  private void expire(final long now) {
+    expire(this.probation, now);
+    expire(this.protectedSegment, now);
+  }
+
+  private void expire(final @NotNull LinkedHashMap<K, Entry<V>> segment, final long now) {
+    final var iterator = segment.values().iterator();
+    while (iterator.hasNext()) {
+      if (now - iterator.next().accessedAt < this.idleNanos) break;
+      iterator.remove();
+      this.evictions.increment();
+    }
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class Entry<V> {
+
+    private final V value;
+    private long accessedAt;
+
+    private Entry(final V value, final long accessedAt) {
+      this.value = value;
+      this.accessedAt = accessedAt;
+    }
+
+  }
+
+}
@@ -0,0 +1,80 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Small set of primitive {@code int} values kept in a sorted array.
+ * <p>
+ * Membership tests are a binary search and iteration is a plain indexed loop, so sets
+ * holding a handful of ids cost a few bytes and never allocate once sized. Not thread-safe.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class SortedIntSet {
+
+  private static final int[] EMPTY = new int[0];
+
+  private int[] values = EMPTY;
+  private int size;
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public boolean contains(final int value) {
+    return Arrays.binarySearch(this.values, 0, this.size, value) >= 0;
+  }
+
+  public boolean add(final int value) {
+    final var position = Arrays.binarySearch(this.values, 0, this.size, value);
+    if (position >= 0) return false;
+
+    final var insertAt = -position - 1;
+    if (this.size == this.values.length) this.values = Arrays.copyOf(this.values, Math.max(4, this.size << 1));
+
+    System.arraycopy(this.values, insertAt, this.values, insertAt + 1, this.size - insertAt);
+    this.values[insertAt] = value;
+    this.size++;
+    return true;
+  }
+
+  public boolean remove(final int value) {
+    final var position = Arrays.binarySearch(this.values, 0, this.size, value);
+    if (position < 0) return false;
+
+    removeAt(position);
+    return true;
+  }
+
+  /**
+   * Removes the value at the given position. Values after it shift down by one, so
+   * callers removing while iterating should iterate backwards.
+   *
+   * @param index position of the value
+   */
+  public void removeAt(final int index) {
+    if (index >= this.size) throw new IndexOutOfBoundsException(index);
+
+    System.arraycopy(this.values, index + 1, this.values, index, this.size - index - 1);
+    this.size--;
+  }
+
+  public int get(final int index) {
+    if (index >= this.size) throw new IndexOutOfBoundsException(index);
+    return this.values[index];
+  }
+
+  public int size() {
+    return this.size;
+  }
+
+  public boolean isEmpty() {
+    return this.size == 0;
+  }
+
+  public void clear() {
+    this.size = 0;
+  }
+
+}
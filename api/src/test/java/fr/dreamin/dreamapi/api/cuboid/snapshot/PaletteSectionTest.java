@@ -0,0 +1,114 @@
+package fr.dreamin.dreamapi.api.cuboid.snapshot;
+
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.block.data.BlockData;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PaletteSectionTest {
+
+  @Test
+  void shouldStoreNoIndicesForSingleStateSections() {
+    final var stone = blockData("stone");
+    final var section = PaletteSection.capture(chunk((x, y, z) -> stone), 0, 0, 0, 16, 16, 16);
+
+    assertEquals(1, section.getPaletteSize());
+    assertEquals(48L + 8L, section.estimatedBytes());
+    for (var i = 0; i < section.getVolume(); i++)
+      assertSame(stone, section.get(i));
+  }
+
+  @Test
+  void shouldRoundTripTwoStates() {
+    final var stone = blockData("stone");
+    final var air = blockData("air");
+    final var section = PaletteSection.capture(chunk((x, y, z) -> (x + y + z) % 2 == 0 ? stone : air), 0, 0, 0, 16, 16, 16);
+
+    assertEquals(2, section.getPaletteSize());
+    for (var dy = 0; dy < 16; dy++) {
+      for (var dz = 0; dz < 16; dz++) {
+        for (var dx = 0; dx < 16; dx++)
+          assertSame((dx + dy + dz) % 2 == 0 ? stone : air, section.get(section.index(dx, dy, dz)));
+      }
+    }
+  }
+
+  @Test
+  void shouldRoundTripPalettesWiderThanAByte() {
+    // 300 states take 9 bits: 7 entries per long, with unused high bits
+    final var states = new BlockData[300];
+    for (var i = 0; i < states.length; i++)
+      states[i] = blockData("state-" + i);
+
+    final var section = PaletteSection.capture(chunk((x, y, z) -> states[((y << 8) | (z << 4) | x) % states.length]), 0, 0, 0, 16, 16, 16);
+
+    assertEquals(300, section.getPaletteSize());
+    for (var dy = 0; dy < 16; dy++) {
+      for (var dz = 0; dz < 16; dz++) {
+        for (var dx = 0; dx < 16; dx++)
+          assertSame(states[((dy << 8) | (dz << 4) | dx) % states.length], section.get(section.index(dx, dy, dz)));
+      }
+    }
+  }
+
+  @Test
+  void shouldReadClippedSectionsFromChunkLocalCoordinates() {
+    final var states = new BlockData[16];
+    for (var i = 0; i < states.length; i++)
+      states[i] = blockData("x-" + i);
+
+    // Blocks 37..41 on X are 5..9 inside their chunk
+    final var section = PaletteSection.capture(chunk((x, y, z) -> states[x]), 37, 64, -3, 5, 2, 3);
+
+    assertEquals(5 * 2 * 3, section.getVolume());
+    assertEquals(37, section.getOriginX());
+    assertEquals(64, section.getOriginY());
+    assertEquals(-3, section.getOriginZ());
+    for (var dx = 0; dx < 5; dx++)
+      assertSame(states[5 + dx], section.get(section.index(dx, 1, 2)));
+  }
+
+  @Test
+  void shouldIndexXFirstThenZThenY() {
+    final var stone = blockData("stone");
+    final var section = PaletteSection.capture(chunk((x, y, z) -> stone), 0, 0, 0, 4, 3, 2);
+
+    assertEquals(0, section.index(0, 0, 0));
+    assertEquals(1, section.index(1, 0, 0));
+    assertEquals(4, section.index(0, 0, 1));
+    assertEquals(8, section.index(0, 1, 0));
+    assertEquals(4 * 3 * 2 - 1, section.index(3, 2, 1));
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /** Block data compared by identity, as the palette does with the server's interned states. */
+  private static BlockData blockData(final String name) {
+    return (BlockData) Proxy.newProxyInstance(BlockData.class.getClassLoader(), new Class<?>[]{BlockData.class}, (proxy, method, args) -> switch (method.getName()) {
+      case "equals" -> proxy == args[0];
+      case "hashCode" -> System.identityHashCode(proxy);
+      case "toString", "getAsString" -> name;
+      default -> throw new UnsupportedOperationException(method.getName());
+    });
+  }
+
+  private static ChunkSnapshot chunk(final Blocks blocks) {
+    return (ChunkSnapshot) Proxy.newProxyInstance(ChunkSnapshot.class.getClassLoader(), new Class<?>[]{ChunkSnapshot.class}, (proxy, method, args) -> {
+      if (method.getName().equals("getBlockData") && args.length == 3)
+        return blocks.at((int) args[0], (int) args[1], (int) args[2]);
+      throw new UnsupportedOperationException(method.getName());
+    });
+  }
+
+  @FunctionalInterface
+  private interface Blocks {
+    BlockData at(int x, int y, int z);
+  }
+
+}
@@ -0,0 +1,165 @@
+package fr.dreamin.dreamapi.api.navigate.model;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the two open set layouts on a synthetic 2D grid: the packed {@link PathNodes}
+ * store with its indexed heap, as used by {@link AStartPathFinder}, against boxed nodes in
+ * a {@link PriorityQueue} with lazy deletion. Both searches are written here and must find
+ * the same cost; {@link AStartPathFinder} itself is not run, its walkability checks need
+ * a server.
+ * <p>
+ * A plain timing loop, not a JMH harness: the printed times only compare the two layouts
+ * on the same JVM. Run with {@code ./gradlew :api:benchmark}; excluded from {@code test}.
+ */
+@Tag("benchmark")
+class GridSearchBenchmark {
+
+  private static final int SIZE = 256;
+  private static final double WALL_RATIO = 0.25;
+  private static final int WARMUP_RUNS = 30;
+  private static final int MEASURED_RUNS = 100;
+
+  private static final int[] DX = {1, -1, 0, 0, 1, 1, -1, -1};
+  private static final int[] DZ = {0, 0, 1, -1, 1, -1, 1, -1};
+  private static final double[] COST = {1, 1, 1, 1, Math.sqrt(2), Math.sqrt(2), Math.sqrt(2), Math.sqrt(2)};
+
+  private final boolean[] blocked = grid(new Random(1234));
+
+  @Test
+  void comparePackedAndBoxedSearches() {
+    final long start = key(0, 0);
+    final long goal = key(SIZE - 1, SIZE - 1);
+
+    final var packedCost = packed(start, goal);
+    final var boxedCost = boxed(start, goal);
+    assertTrue(packedCost > 0, "The grid must have a path");
+    assertEquals(boxedCost, packedCost, 1.0e-9);
+
+    for (var i = 0; i < WARMUP_RUNS; i++) {
+      packed(start, goal);
+      boxed(start, goal);
+    }
+
+    final var packedNanos = time(() -> packed(start, goal));
+    final var boxedNanos = time(() -> boxed(start, goal));
+
+    System.out.printf("A* on a %dx%d grid, %.0f%% walls: packed %.3f ms, boxed %.3f ms per search (x%.2f)%n",
+      SIZE, SIZE, WALL_RATIO * 100, packedNanos / 1.0e6, boxedNanos / 1.0e6, boxedNanos / packedNanos);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private double packed(final long start, final long goal) {
+    final var nodes = new PathNodes(256);
+    nodes.push(nodes.add(start, PathNodes.NO_NODE, 0, heuristic(start, goal)));
+
+    while (!nodes.isOpenEmpty()) {
+      final var current = nodes.poll();
+      final var currentKey = nodes.key(current);
+      if (currentKey == goal)
+        return nodes.g(current);
+
+      final var x = (int) (currentKey / SIZE);
+      final var z = (int) (currentKey % SIZE);
+      for (var i = 0; i < DX.length; i++) {
+        final var nx = x + DX[i];
+        final var nz = z + DZ[i];
+        if (!isFree(nx, nz)) continue;
+
+        final var neighbour = key(nx, nz);
+        final var g = nodes.g(current) + COST[i];
+        final var id = nodes.find(neighbour);
+        if (id == PathNodes.NO_NODE)
+          nodes.push(nodes.add(neighbour, current, g, g + heuristic(neighbour, goal)));
+        else if (!nodes.isClosed(id) && g < nodes.g(id))
+          nodes.relax(id, current, g, g + heuristic(neighbour, goal));
+      }
+    }
+    return -1;
+  }
+
+  private double boxed(final long start, final long goal) {
+    final var open = new PriorityQueue<BoxedNode>((a, b) -> Double.compare(a.f, b.f));
+    final Map<Long, Double> best = new HashMap<>();
+    final Set<Long> closed = new HashSet<>();
+    open.add(new BoxedNode(start, null, 0, heuristic(start, goal)));
+    best.put(start, 0D);
+
+    while (!open.isEmpty()) {
+      final var current = open.poll();
+      if (!closed.add(current.key)) continue;
+      if (current.key == goal)
+        return current.g;
+
+      final var x = (int) (current.key / SIZE);
+      final var z = (int) (current.key % SIZE);
+      for (var i = 0; i < DX.length; i++) {
+        final var nx = x + DX[i];
+        final var nz = z + DZ[i];
+        if (!isFree(nx, nz)) continue;
+
+        final var neighbour = key(nx, nz);
+        final var g = current.g + COST[i];
+        final var previous = best.get(neighbour);
+        if (closed.contains(neighbour) || previous != null && g >= previous) continue;
+
+        best.put(neighbour, g);
+        open.add(new BoxedNode(neighbour, current, g, g + heuristic(neighbour, goal)));
+      }
+    }
+    return -1;
+  }
+
+  private boolean isFree(final int x, final int z) {
+    return x >= 0 && z >= 0 && x < SIZE && z < SIZE && !this.blocked[x * SIZE + z];
+  }
+
+  private static double time(final Runnable search) {
+    final var start = System.nanoTime();
+    for (var i = 0; i < MEASURED_RUNS; i++)
+      search.run();
+    return (System.nanoTime() - start) / (double) MEASURED_RUNS;
+  }
+
+  /** Octile distance, consistent with the eight moves. */
+  private static double heuristic(final long from, final long to) {
+    final var dx = Math.abs(from / SIZE - to / SIZE);
+    final var dz = Math.abs(from % SIZE - to % SIZE);
+    return Math.max(dx, dz) + (Math.sqrt(2) - 1) * Math.min(dx, dz);
+  }
+
+  private static long key(final int x, final int z) {
+    return (long) x * SIZE + z;
+  }
+
+  private static boolean[] grid(final Random random) {
+    final var blocked = new boolean[SIZE * SIZE];
+    for (var i = 0; i < blocked.length; i++)
+      blocked[i] = random.nextDouble() < WALL_RATIO;
+
+    blocked[0] = false;
+    blocked[blocked.length - 1] = false;
+    return blocked;
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private record BoxedNode(long key, BoxedNode parent, double g, double f) {}
+
+}
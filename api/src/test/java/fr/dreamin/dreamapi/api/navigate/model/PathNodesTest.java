@@ -0,0 +1,99 @@
+package fr.dreamin.dreamapi.api.navigate.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PathNodesTest {
+
+  @Test
+  void shouldMapKeysToIdsAcrossGrowth() {
+    final var nodes = new PathNodes(16);
+    for (var i = 0; i < 1000; i++)
+      assertEquals(i, nodes.add(i * 7L, i - 1, i, i));
+
+    assertEquals(1000, nodes.size());
+    assertEquals(PathNodes.NO_NODE, nodes.find(3L));
+    for (var i = 0; i < 1000; i++) {
+      final var id = nodes.find(i * 7L);
+      assertEquals(i, id);
+      assertEquals(i * 7L, nodes.key(id));
+      assertEquals(i - 1, nodes.parent(id));
+      assertEquals(i, nodes.g(id));
+    }
+  }
+
+  @Test
+  void shouldPollInIncreasingCostOrder() {
+    final var nodes = new PathNodes(16);
+    final var random = new Random(42);
+    for (var i = 0; i < 500; i++) {
+      final var f = random.nextInt(100);
+      nodes.push(nodes.add(i, PathNodes.NO_NODE, f, f));
+    }
+
+    var previous = Double.NEGATIVE_INFINITY;
+    var polled = 0;
+    while (!nodes.isOpenEmpty()) {
+      final var id = nodes.poll();
+      final var f = cost(nodes, id);
+      assertTrue(f >= previous);
+      assertTrue(nodes.isClosed(id));
+      previous = f;
+      polled++;
+    }
+    assertEquals(500, polled);
+  }
+
+  @Test
+  void shouldDecreaseKeyWithoutDuplicates() {
+    final var nodes = new PathNodes(16);
+    final var a = nodes.add(1L, PathNodes.NO_NODE, 10, 10);
+    final var b = nodes.add(2L, PathNodes.NO_NODE, 20, 20);
+    final var c = nodes.add(3L, PathNodes.NO_NODE, 30, 30);
+    nodes.push(a);
+    nodes.push(b);
+    nodes.push(c);
+
+    nodes.relax(c, a, 5, 5);
+
+    assertEquals(c, nodes.poll());
+    assertEquals(a, nodes.parent(c));
+    assertEquals(a, nodes.poll());
+    assertEquals(b, nodes.poll());
+    assertTrue(nodes.isOpenEmpty());
+  }
+
+  @Test
+  void shouldQueueNodesRelaxedBeforeBeingPushed() {
+    final var nodes = new PathNodes(16);
+    final var a = nodes.add(1L, PathNodes.NO_NODE, 0, 0);
+
+    assertTrue(nodes.isOpenEmpty());
+    nodes.relax(a, PathNodes.NO_NODE, 1, 1);
+    assertFalse(nodes.isOpenEmpty());
+    assertEquals(a, nodes.poll());
+  }
+
+  @Test
+  void shouldNotReopenClosedNodes() {
+    final var nodes = new PathNodes(16);
+    final var a = nodes.add(1L, PathNodes.NO_NODE, 0, 0);
+    nodes.push(a);
+    nodes.poll();
+
+    nodes.relax(a, PathNodes.NO_NODE, 0, 0);
+    assertTrue(nodes.isClosed(a));
+    assertTrue(nodes.isOpenEmpty());
+  }
+
+  /** {@code f} is not exposed, the tests push nodes with {@code g == f}. */
+  private static double cost(final PathNodes nodes, final int id) {
+    return nodes.g(id);
+  }
+
+}
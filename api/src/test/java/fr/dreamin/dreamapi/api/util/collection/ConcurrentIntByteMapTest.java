@@ -0,0 +1,127 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrentIntByteMapTest {
+
+  @Test
+  void shouldReadValuesAsUnsignedBytes() {
+    final var map = new ConcurrentIntByteMap();
+    map.put(0, (byte) 0);
+    map.put(-7, (byte) -1);
+
+    assertEquals(0, map.get(0));
+    assertEquals(255, map.get(-7));
+    assertEquals(ConcurrentIntByteMap.MISSING, map.get(1));
+    assertTrue(map.containsKey(0));
+    assertFalse(map.containsKey(1));
+  }
+
+  @Test
+  void shouldReuseTombstoneOfSameKey() {
+    final var map = new ConcurrentIntByteMap();
+    map.put(5, (byte) 1);
+    map.remove(5);
+
+    assertEquals(ConcurrentIntByteMap.MISSING, map.get(5));
+    assertTrue(map.isEmpty());
+
+    map.put(5, (byte) 2);
+    assertEquals(2, map.get(5));
+    assertEquals(1, map.size());
+  }
+
+  @Test
+  void shouldProbePastTombstonesOfCollidingKeys() {
+    final var map = new ConcurrentIntByteMap(32);
+    final var keys = collidingKeys(63, 4);
+    for (var i = 0; i < keys.length; i++)
+      map.put(keys[i], (byte) i);
+
+    map.remove(keys[0]);
+    map.remove(keys[2]);
+
+    assertEquals(ConcurrentIntByteMap.MISSING, map.get(keys[0]));
+    assertEquals(1, map.get(keys[1]));
+    assertEquals(ConcurrentIntByteMap.MISSING, map.get(keys[2]));
+    assertEquals(3, map.get(keys[3]));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void shouldRehashAwayTombstonesUnderChurn() {
+    // Without a rehash the tombstones would fill the table and lookups of absent keys never end
+    final var map = new ConcurrentIntByteMap(4);
+    for (var i = 0; i < 100_000; i++) {
+      map.put(i, (byte) i);
+      map.remove(i);
+    }
+
+    assertTrue(map.isEmpty());
+    assertEquals(ConcurrentIntByteMap.MISSING, map.get(-1));
+  }
+
+  @Test
+  void shouldKeepEveryEntryAcrossResizes() {
+    final var map = new ConcurrentIntByteMap(2);
+    for (var i = 0; i < 10_000; i++)
+      map.put(i * 3, (byte) i);
+
+    assertEquals(10_000, map.size());
+    for (var i = 0; i < 10_000; i++)
+      assertEquals(i & 0xFF, map.get(i * 3));
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertEquals(ConcurrentIntByteMap.MISSING, map.get(3));
+  }
+
+  @Test
+  void shouldOnlyExposeWholeEntriesToReaders() throws InterruptedException {
+    final var map = new ConcurrentIntByteMap();
+    final var done = new AtomicBoolean();
+    final var failure = new AtomicReference<String>();
+
+    final var reader = new Thread(() -> {
+      while (!done.get()) {
+        for (var key = 0; key < 2048; key++) {
+          final var value = map.get(key);
+          if (value != ConcurrentIntByteMap.MISSING && value != (key & 0x7F))
+            failure.compareAndSet(null, "key " + key + " read " + value);
+        }
+      }
+    });
+    reader.start();
+
+    for (var round = 0; round < 50; round++) {
+      for (var key = 0; key < 2048; key++)
+        map.put(key, (byte) (key & 0x7F));
+      for (var key = 0; key < 2048; key += 2)
+        map.remove(key);
+    }
+
+    done.set(true);
+    reader.join();
+    assertNull(failure.get());
+  }
+
+  /** Keys whose home slot is {@code slot} in a table of 64 slots. */
+  private static int[] collidingKeys(final int slot, final int count) {
+    final var keys = new int[count];
+    var found = 0;
+    for (var key = 0; found < count; key++) {
+      final var h = key * 0x9E3779B9;
+      if (((h ^ (h >>> 16)) & 63) == slot) keys[found++] = key;
+    }
+    return keys;
+  }
+
+}
@@ -0,0 +1,63 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IntListTest {
+
+  @Test
+  void shouldGrowPastInitialCapacity() {
+    final var list = new IntList(1);
+    for (var i = 0; i < 1000; i++)
+      list.add(i);
+
+    assertEquals(1000, list.size());
+    for (var i = 0; i < 1000; i++)
+      assertEquals(i, list.get(i));
+  }
+
+  @Test
+  void shouldSwapLastValueIntoRemovedSlot() {
+    final var list = new IntList();
+    for (var i = 0; i < 5; i++)
+      list.add(i * 10);
+
+    assertTrue(list.removeValue(10));
+    assertFalse(list.removeValue(10));
+    assertArrayEquals(new int[]{0, 40, 20, 30}, list.toArray());
+    assertEquals(30, list.removeLast());
+    assertFalse(list.contains(30));
+    assertEquals(3, list.size());
+  }
+
+  @Test
+  void shouldCopyIndependently() {
+    final var list = new IntList();
+    list.add(1);
+    list.add(2);
+
+    final var copy = list.copy();
+    copy.add(3);
+    list.removeValue(1);
+
+    assertArrayEquals(new int[]{2}, list.toArray());
+    assertArrayEquals(new int[]{1, 2, 3}, copy.toArray());
+  }
+
+  @Test
+  void shouldRejectIndicesPastSize() {
+    final var list = new IntList();
+    list.add(1);
+    list.clear();
+
+    assertTrue(list.isEmpty());
+    assertThrows(IndexOutOfBoundsException.class, () -> list.get(0));
+    assertThrows(IndexOutOfBoundsException.class, list::removeLast);
+  }
+
+}
@@ -0,0 +1,95 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongIntMapTest {
+
+  private static final int MISSING = Integer.MIN_VALUE;
+
+  @Test
+  void shouldReadAbsentKeysAsMissingValue() {
+    final var map = new LongIntMap(4, MISSING);
+
+    assertEquals(MISSING, map.get(3L));
+    assertEquals(MISSING, map.remove(3L));
+    assertEquals(MISSING, map.getMissingValue());
+    assertFalse(map.containsKey(3L));
+  }
+
+  @Test
+  void shouldStoreZeroAndNegativeValues() {
+    final var map = new LongIntMap(4, MISSING);
+
+    assertEquals(MISSING, map.put(0L, 0));
+    assertEquals(MISSING, map.put(-1L, -1));
+    assertEquals(0, map.get(0L));
+    assertEquals(-1, map.get(-1L));
+    assertEquals(0, map.put(0L, 5));
+    assertTrue(map.containsKey(0L));
+  }
+
+  @Test
+  void shouldFindCollidingKeysAfterRemovals() {
+    final var map = new LongIntMap(32, MISSING);
+    final var keys = LongObjectMapTest.collidingKeys(63, 4);
+    for (var i = 0; i < keys.length; i++)
+      map.put(keys[i], i);
+
+    assertEquals(0, map.remove(keys[0]));
+    assertEquals(MISSING, map.get(keys[0]));
+    for (var i = 1; i < keys.length; i++)
+      assertEquals(i, map.get(keys[i]));
+
+    assertEquals(2, map.remove(keys[2]));
+    assertEquals(1, map.get(keys[1]));
+    assertEquals(3, map.get(keys[3]));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void shouldKeepEveryEntryAcrossResizes() {
+    final var map = new LongIntMap(2, MISSING);
+    for (var i = 0; i < 10_000; i++)
+      map.put(i * 17L, i);
+
+    assertEquals(10_000, map.size());
+    for (var i = 0; i < 10_000; i++)
+      assertEquals(i, map.get(i * 17L));
+  }
+
+  @Test
+  void shouldMatchHashMapUnderChurn() {
+    final var map = new LongIntMap();
+    final Map<Long, Integer> expected = new HashMap<>();
+    var seed = 11L;
+
+    for (var i = 0; i < 50_000; i++) {
+      seed = seed * 6364136223846793005L + 1442695040888963407L;
+      final var key = (seed >>> 40) & 0x3FF;
+      final var value = (int) (seed >>> 33) & 0xFFFF;
+      final var previous = (seed & 3) == 0 ? expected.remove(key) : expected.put(key, value);
+      assertEquals(previous == null ? -1 : previous, (seed & 3) == 0 ? map.remove(key) : map.put(key, value));
+    }
+
+    assertEquals(expected.size(), map.size());
+    expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+  }
+
+  @Test
+  void shouldClear() {
+    final var map = new LongIntMap();
+    map.put(1L, 1);
+    map.clear();
+
+    assertTrue(map.isEmpty());
+    assertEquals(-1, map.get(1L));
+  }
+
+}
@@ -0,0 +1,124 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongObjectMapTest {
+
+  /** Capacity of a map created for 32 entries, see {@code LongObjectMap#tableSizeFor}. */
+  private static final int CAPACITY = 64;
+
+  @Test
+  void shouldPutReplaceAndRemove() {
+    final var map = new LongObjectMap<String>();
+
+    assertNull(map.put(42L, "a"));
+    assertEquals("a", map.put(42L, "b"));
+    assertEquals("b", map.get(42L));
+    assertEquals(1, map.size());
+
+    assertEquals("b", map.remove(42L));
+    assertNull(map.get(42L));
+    assertNull(map.remove(42L));
+    assertTrue(map.isEmpty());
+  }
+
+  @Test
+  void shouldFindCollidingKeysAfterRemovals() {
+    final var map = new LongObjectMap<String>(CAPACITY / 2);
+    final var keys = collidingKeys(CAPACITY - 1, 4);
+    for (final var key : keys)
+      map.put(key, Long.toString(key));
+
+    // The chain starts on the last slot and wraps to the first ones
+    map.remove(keys[0]);
+    assertNull(map.get(keys[0]));
+    for (var i = 1; i < keys.length; i++)
+      assertEquals(Long.toString(keys[i]), map.get(keys[i]));
+
+    map.remove(keys[2]);
+    assertEquals(Long.toString(keys[1]), map.get(keys[1]));
+    assertEquals(Long.toString(keys[3]), map.get(keys[3]));
+    assertEquals(2, map.size());
+  }
+
+  @Test
+  void shouldKeepEveryEntryAcrossResizes() {
+    final var map = new LongObjectMap<Long>(2);
+    for (var i = 0L; i < 10_000L; i++)
+      map.put(i * 31L - 5_000L, i);
+
+    assertEquals(10_000, map.size());
+    for (var i = 0L; i < 10_000L; i++)
+      assertEquals(i, map.get(i * 31L - 5_000L));
+  }
+
+  @Test
+  void shouldMatchHashMapUnderChurn() {
+    final var map = new LongObjectMap<Long>();
+    final Map<Long, Long> expected = new HashMap<>();
+    var seed = 7L;
+
+    for (var i = 0; i < 50_000; i++) {
+      seed = seed * 6364136223846793005L + 1442695040888963407L;
+      final var key = (seed >>> 40) & 0x3FF;
+      if ((seed & 3) == 0) assertEquals(expected.remove(key), map.remove(key));
+      else assertEquals(expected.put(key, seed), map.put(key, seed));
+    }
+
+    assertEquals(expected.size(), map.size());
+    expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+  }
+
+  @Test
+  void shouldComputeOnlyAbsentValues() {
+    final var map = new LongObjectMap<Object>();
+    final var first = map.computeIfAbsent(1L, key -> new Object());
+
+    assertSame(first, map.computeIfAbsent(1L, key -> new Object()));
+    assertTrue(map.containsKey(1L));
+    assertFalse(map.containsKey(2L));
+  }
+
+  @Test
+  void shouldVisitEveryEntryAndClear() {
+    final var map = new LongObjectMap<Long>();
+    for (var i = 0L; i < 100L; i++)
+      map.put(i, i);
+
+    final var visited = new long[1];
+    map.forEach((key, value) -> {
+      assertEquals(key, value);
+      visited[0]++;
+    });
+    assertEquals(100L, visited[0]);
+
+    map.clear();
+    assertTrue(map.isEmpty());
+    assertNull(map.get(5L));
+  }
+
+  /** Keys whose home slot is {@code slot} in a table of {@link #CAPACITY} slots. */
+  static long[] collidingKeys(final int slot, final int count) {
+    final var keys = new long[count];
+    var found = 0;
+    for (var key = 0L; found < count; key++) {
+      if ((mix(key) & (CAPACITY - 1)) == slot) keys[found++] = key;
+    }
+    return keys;
+  }
+
+  private static int mix(final long key) {
+    final var h = key * 0x9E3779B97F4A7C15L;
+    return (int) (h ^ (h >>> 32));
+  }
+
+}
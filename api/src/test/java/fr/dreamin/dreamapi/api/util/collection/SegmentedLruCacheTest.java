@@ -0,0 +1,117 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SegmentedLruCacheTest {
+
+  private final List<String> loads = new ArrayList<>();
+
+  @Test
+  void shouldCountHitsAndMisses() {
+    final var cache = new SegmentedLruCache<String, String>(10, 1, TimeUnit.HOURS);
+
+    assertEquals("A", cache.get("a", this::load));
+    assertEquals("A", cache.get("a", this::load));
+    assertEquals("A", cache.get("a", this::load));
+
+    assertEquals(List.of("a"), this.loads);
+    assertEquals(1, cache.getMisses());
+    assertEquals(2, cache.getHits());
+  }
+
+  @Test
+  void shouldEvictLeastRecentlyUsedProbationEntryFirst() {
+    // 8 protected slots, 2 probation slots
+    final var cache = new SegmentedLruCache<String, String>(10, 1, TimeUnit.HOURS);
+    cache.get("a", this::load);
+    cache.get("b", this::load);
+    cache.get("c", this::load);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, cache.getEvictions());
+
+    cache.get("c", this::load);
+    cache.get("b", this::load);
+    cache.get("a", this::load);
+    assertEquals(List.of("a", "b", "c", "a"), this.loads);
+  }
+
+  @Test
+  void shouldKeepReusedEntriesThroughScans() {
+    final var cache = new SegmentedLruCache<String, String>(10, 1, TimeUnit.HOURS);
+    cache.get("hot", this::load);
+    cache.get("hot", this::load);
+
+    for (var i = 0; i < 20; i++)
+      cache.get("scan-" + i, this::load);
+
+    cache.get("hot", this::load);
+    assertEquals(21, this.loads.size());
+    assertEquals(18, cache.getEvictions());
+  }
+
+  @Test
+  void shouldDemoteEldestProtectedEntryOnOverflow() {
+    // 4 protected slots, 1 probation slot
+    final var cache = new SegmentedLruCache<String, String>(5, 1, TimeUnit.HOURS);
+    for (final var key : List.of("a", "b", "c", "d", "e")) {
+      cache.get(key, this::load);
+      cache.get(key, this::load);
+    }
+
+    // "a" went back to probation, a new key pushes it out
+    cache.get("x", this::load);
+    cache.get("a", this::load);
+    cache.get("e", this::load);
+
+    assertEquals(List.of("a", "b", "c", "d", "e", "x", "a"), this.loads);
+  }
+
+  @Test
+  void shouldDropIdleEntries() throws InterruptedException {
+    final var cache = new SegmentedLruCache<String, String>(10, 20, TimeUnit.MILLISECONDS);
+    cache.get("a", this::load);
+    cache.get("b", this::load);
+    cache.get("b", this::load);
+
+    Thread.sleep(50);
+    cache.get("c", this::load);
+
+    assertEquals(1, cache.size());
+    assertEquals(2, cache.getEvictions());
+  }
+
+  @Test
+  void shouldForgetInvalidatedEntries() {
+    final var cache = new SegmentedLruCache<String, String>(10, 1, TimeUnit.HOURS);
+    cache.get("a", this::load);
+    cache.get("a", this::load);
+    cache.get("b", this::load);
+
+    cache.invalidate("a");
+    cache.invalidate("b");
+    assertEquals(0, cache.size());
+    assertEquals(0, cache.getEvictions());
+
+    cache.get("a", this::load);
+    assertEquals(List.of("a", "b", "a"), this.loads);
+  }
+
+  @Test
+  void shouldRejectCapacitiesBelowTwo() {
+    assertThrows(IllegalArgumentException.class, () -> new SegmentedLruCache<String, String>(1, 1, TimeUnit.SECONDS));
+  }
+
+  private String load(final String key) {
+    this.loads.add(key);
+    return key.toUpperCase();
+  }
+
+}
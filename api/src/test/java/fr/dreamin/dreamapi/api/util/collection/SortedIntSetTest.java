@@ -0,0 +1,78 @@
+package fr.dreamin.dreamapi.api.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedIntSetTest {
+
+  @Test
+  void shouldKeepValuesSortedAndUnique() {
+    final var set = new SortedIntSet();
+    for (final var value : new int[]{9, -3, 5, 0, 5, 12, -3, 7})
+      set.add(value);
+
+    assertEquals(6, set.size());
+    final int[] expected = {-3, 0, 5, 7, 9, 12};
+    for (var i = 0; i < expected.length; i++)
+      assertEquals(expected[i], set.get(i));
+  }
+
+  @Test
+  void shouldReportWhetherAddAndRemoveChangedTheSet() {
+    final var set = new SortedIntSet();
+
+    assertTrue(set.add(4));
+    assertFalse(set.add(4));
+    assertTrue(set.contains(4));
+    assertTrue(set.remove(4));
+    assertFalse(set.remove(4));
+    assertFalse(set.contains(4));
+    assertTrue(set.isEmpty());
+  }
+
+  @Test
+  void shouldGrowPastInitialCapacity() {
+    final var set = new SortedIntSet();
+    for (var i = 99; i >= 0; i--)
+      set.add(i * 2);
+
+    assertEquals(100, set.size());
+    for (var i = 0; i < 100; i++) {
+      assertEquals(i * 2, set.get(i));
+      assertFalse(set.contains(i * 2 + 1));
+    }
+  }
+
+  @Test
+  void shouldShiftValuesDownOnRemoveAt() {
+    final var set = new SortedIntSet();
+    for (var i = 0; i < 5; i++)
+      set.add(i);
+
+    // Backwards, as callers removing while iterating do
+    for (var i = set.size() - 1; i >= 0; i--) {
+      if (set.get(i) % 2 == 1) set.removeAt(i);
+    }
+
+    assertEquals(3, set.size());
+    assertEquals(0, set.get(0));
+    assertEquals(2, set.get(1));
+    assertEquals(4, set.get(2));
+  }
+
+  @Test
+  void shouldRejectIndicesPastSize() {
+    final var set = new SortedIntSet();
+    set.add(1);
+    set.add(2);
+    set.clear();
+
+    assertThrows(IndexOutOfBoundsException.class, () -> set.get(0));
+    assertThrows(IndexOutOfBoundsException.class, () -> set.removeAt(0));
+  }
+
+}
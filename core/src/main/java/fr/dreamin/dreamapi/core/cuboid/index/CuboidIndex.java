@@ -0,0 +1,297 @@
+package fr.dreamin.dreamapi.core.cuboid.index;
+
+import fr.dreamin.dreamapi.api.cuboid.Cuboid;
+import fr.dreamin.dreamapi.api.cuboid.CuboidFilter;
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import fr.dreamin.dreamapi.api.util.collection.IntList;
+import fr.dreamin.dreamapi.api.util.collection.LongObjectMap;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Per-world spatial index of cuboids, bucketed by chunk column.
+ * <p>
+ * Every indexed cuboid gets a dense int id (freed ids are reused), and buckets store those
+ * ids so move listeners can diff memberships without touching objects. A move event only
+ * needs to test the cuboids whose footprint overlaps the chunk of the destination instead
+ * of every registered cuboid. Cuboids covering more than {@link #MAX_BUCKETED_CHUNKS}
+ * chunk columns are kept in a per-world fallback list so a huge region does not flood
+ * thousands of buckets.
+ * <p>
+ * Buckets are copied on write: a list handed out is never modified afterwards, so callers
+ * can iterate it while enter/leave listeners register, move or remove cuboids.
+ * <p>
+ * Not thread-safe, meant to be used from the main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class CuboidIndex {
+
+  public static final int MAX_BUCKETED_CHUNKS = 1024;
+
+  private static final IntList EMPTY = new IntList(1);
+
+  private final @NotNull Map<UUID, WorldIndex> worlds = new HashMap<>();
+  private final @NotNull Map<Cuboid, Integer> ids = new IdentityHashMap<>();
+  private final @NotNull IntList freeIds = new IntList();
+
+  private Cuboid[] cuboids = new Cuboid[64];
+  private Footprint[] footprints = new Footprint[64];
+  private CuboidFilter[] filters = new CuboidFilter[64];
+  private int nextId;
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Indexes a cuboid and assigns it a dense id.
+   * Cuboids without both corners in the same world get an id but are never returned as candidates.
+   *
+   * @param cuboid the cuboid to index
+   * @return the id of the cuboid, or its existing id if it was already indexed
+   */
+  public int add(final @NotNull Cuboid cuboid) {
+    final var existing = this.ids.get(cuboid);
+    if (existing != null) return existing;
+
+    final int id;
+    if (this.freeIds.isEmpty()) {
+      id = this.nextId++;
+      if (id == this.cuboids.length) {
+        this.cuboids = Arrays.copyOf(this.cuboids, id << 1);
+        this.footprints = Arrays.copyOf(this.footprints, id << 1);
+        this.filters = Arrays.copyOf(this.filters, id << 1);
+      }
+    }
+    else id = this.freeIds.removeLast();
+
+    this.ids.put(cuboid, id);
+    this.cuboids[id] = cuboid;
+    this.filters[id] = new CuboidFilter();
+    link(id);
+    return id;
+  }
+
+  /**
+   * Re-computes the footprint of an already indexed cuboid. Does nothing if the cuboid is not indexed.
+   *
+   * @param cuboid the cuboid whose corners changed
+   */
+  public void update(final @NotNull Cuboid cuboid) {
+    final var id = this.ids.get(cuboid);
+    if (id == null) return;
+
+    unlink(id);
+    link(id);
+  }
+
+  /**
+   * Removes a cuboid from the index and frees its id.
+   *
+   * @param cuboid the cuboid to remove
+   * @return the freed id, or {@code -1} if the cuboid was not indexed
+   */
+  public int remove(final @NotNull Cuboid cuboid) {
+    final var id = this.ids.remove(cuboid);
+    if (id == null) return -1;
+
+    unlink(id);
+    this.cuboids[id] = null;
+    this.filters[id] = null;
+    this.freeIds.add(id);
+    return id;
+  }
+
+  public void clear() {
+    this.worlds.clear();
+    this.ids.clear();
+    this.freeIds.clear();
+    Arrays.fill(this.cuboids, null);
+    Arrays.fill(this.footprints, null);
+    Arrays.fill(this.filters, null);
+    this.nextId = 0;
+  }
+
+  public boolean contains(final @NotNull Cuboid cuboid) {
+    return this.ids.containsKey(cuboid);
+  }
+
+  public @Nullable Cuboid get(final int id) {
+    return id < 0 || id >= this.cuboids.length ? null : this.cuboids[id];
+  }
+
+  public int idOf(final @NotNull Cuboid cuboid) {
+    final var id = this.ids.get(cuboid);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * Returns the subscription filter of an indexed cuboid.
+   *
+   * @param id the id of an indexed cuboid
+   * @return the filter, or {@code null} if the id is not in use
+   */
+  public @Nullable CuboidFilter filter(final int id) {
+    return id < 0 || id >= this.filters.length ? null : this.filters[id];
+  }
+
+  public void setFilter(final int id, final @NotNull CuboidFilter filter) {
+    if (get(id) != null) this.filters[id] = filter;
+  }
+
+  /**
+   * Returns the ids of the cuboids whose footprint overlaps the chunk column of the given block.
+   * The returned list is a snapshot and must not be modified.
+   *
+   * @param world the world of the block
+   * @param blockX block X coordinate
+   * @param blockZ block Z coordinate
+   * @return the candidate ids, possibly empty
+   */
+  public @NotNull IntList bucketAt(final @NotNull World world, final int blockX, final int blockZ) {
+    final var index = this.worlds.get(world.getUID());
+    if (index == null) return EMPTY;
+
+    final var bucket = index.buckets.get(PackedCoords.chunkKeyOfBlock(blockX, blockZ));
+    return bucket == null ? EMPTY : bucket;
+  }
+
+  /**
+   * Returns the ids of the cuboids of a world too large to be bucketed; they must always be tested.
+   * The returned list is a snapshot and must not be modified.
+   *
+   * @param world the world
+   * @return the unbucketed ids, possibly empty
+   */
+  public @NotNull IntList unbucketed(final @NotNull World world) {
+    final var index = this.worlds.get(world.getUID());
+    return index == null ? EMPTY : index.unbucketed;
+  }
+
+  /**
+   * World-aware variant of {@link Cuboid#isLocationIn(Location)} using the indexed footprint.
+   *
+   * @param id the id of an indexed cuboid
+   * @param location the location to test
+   * @return true if the location is in the same world and inside the cuboid
+   */
+  public boolean isIn(final int id, final @NotNull Location location) {
+    final var footprint = id < 0 || id >= this.footprints.length ? null : this.footprints[id];
+    return footprint != null
+      && location.getWorld() != null
+      && footprint.worldId().equals(location.getWorld().getUID())
+      && this.cuboids[id].isLocationIn(location);
+  }
+
+  /**
+   * Checks whether an indexed cuboid lies in the given world.
+   *
+   * @param id the id of an indexed cuboid
+   * @param worldId the world UID
+   * @return true if the cuboid footprint is in that world
+   */
+  public boolean isInWorld(final int id, final @NotNull UUID worldId) {
+    final var footprint = id < 0 || id >= this.footprints.length ? null : this.footprints[id];
+    return footprint != null && footprint.worldId().equals(worldId);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void link(final int id) {
+    final var footprint = Footprint.of(this.cuboids[id]);
+    this.footprints[id] = footprint;
+    if (footprint == null) return;
+
+    final var world = this.worlds.computeIfAbsent(footprint.worldId(), uid -> new WorldIndex());
+    if (footprint.chunkCount() > MAX_BUCKETED_CHUNKS) {
+      final var unbucketed = world.unbucketed.copy();
+      unbucketed.add(id);
+      world.unbucketed = unbucketed;
+      return;
+    }
+
+    for (var cx = footprint.minChunkX(); cx <= footprint.maxChunkX(); cx++) {
+      for (var cz = footprint.minChunkZ(); cz <= footprint.maxChunkZ(); cz++) {
+        final var key = PackedCoords.chunkKey(cx, cz);
+        final var bucket = world.buckets.get(key);
+        final var updated = bucket == null ? new IntList(2) : bucket.copy();
+        updated.add(id);
+        world.buckets.put(key, updated);
+      }
+    }
+  }
+
+  private void unlink(final int id) {
+    final var footprint = this.footprints[id];
+    this.footprints[id] = null;
+    if (footprint == null) return;
+
+    final var world = this.worlds.get(footprint.worldId());
+    if (world == null) return;
+
+    if (footprint.chunkCount() > MAX_BUCKETED_CHUNKS) {
+      final var unbucketed = world.unbucketed.copy();
+      if (unbucketed.removeValue(id)) world.unbucketed = unbucketed;
+    }
+    else {
+      for (var cx = footprint.minChunkX(); cx <= footprint.maxChunkX(); cx++) {
+        for (var cz = footprint.minChunkZ(); cz <= footprint.maxChunkZ(); cz++) {
+          final var key = PackedCoords.chunkKey(cx, cz);
+          final var bucket = world.buckets.get(key);
+          if (bucket == null) continue;
+
+          final var updated = bucket.copy();
+          updated.removeValue(id);
+          if (updated.isEmpty()) world.buckets.remove(key);
+          else world.buckets.put(key, updated);
+        }
+      }
+    }
+
+    if (world.isEmpty()) this.worlds.remove(footprint.worldId());
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class WorldIndex {
+    private final LongObjectMap<IntList> buckets = new LongObjectMap<>();
+    private IntList unbucketed = new IntList();
+
+    private boolean isEmpty() {
+      return this.buckets.isEmpty() && this.unbucketed.isEmpty();
+    }
+  }
+
+  private record Footprint(@NotNull UUID worldId, int minChunkX, int minChunkZ, int maxChunkX, int maxChunkZ) {
+
+    private static @Nullable Footprint of(final @NotNull Cuboid cuboid) {
+      final var locA = cuboid.getLocA();
+      final var locB = cuboid.getLocB();
+      if (locA == null || locB == null || locA.getWorld() == null || !locA.getWorld().equals(locB.getWorld())) return null;
+
+      // Cuboid#isLocationIn extends the max corner by one block
+      final var minX = (int) Math.floor(Math.min(locA.getX(), locB.getX()));
+      final var maxX = (int) Math.floor(Math.max(locA.getX(), locB.getX()) + 1);
+      final var minZ = (int) Math.floor(Math.min(locA.getZ(), locB.getZ()));
+      final var maxZ = (int) Math.floor(Math.max(locA.getZ(), locB.getZ()) + 1);
+
+      return new Footprint(locA.getWorld().getUID(), minX >> 4, minZ >> 4, maxX >> 4, maxZ >> 4);
+    }
+
+    private long chunkCount() {
+      return (long) (this.maxChunkX - this.minChunkX + 1) * (this.maxChunkZ - this.minChunkZ + 1);
+    }
+
+  }
+
+}
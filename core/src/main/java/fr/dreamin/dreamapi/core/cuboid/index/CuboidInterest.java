@@ -0,0 +1,66 @@
+package fr.dreamin.dreamapi.core.cuboid.index;
+
+import fr.dreamin.dreamapi.api.cuboid.CuboidFilter;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Mannequin;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Arrays;
+
+/**
+ * Union of the {@link CuboidFilter}s of every registered cuboid, kept as reference counts so
+ * move listeners can drop entities no cuboid cares about with a couple of array reads.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class CuboidInterest {
+
+  private static final EntityType[] TYPES = EntityType.values();
+
+  private final int[] typeCounts = new int[TYPES.length];
+  private int players;
+  private int mannequins;
+  private int allEntities;
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public void add(final @NotNull CuboidFilter filter) {
+    apply(filter, 1);
+  }
+
+  public void remove(final @NotNull CuboidFilter filter) {
+    apply(filter, -1);
+  }
+
+  public void clear() {
+    this.players = 0;
+    this.mannequins = 0;
+    this.allEntities = 0;
+    Arrays.fill(this.typeCounts, 0);
+  }
+
+  public boolean accepts(final @NotNull Entity entity) {
+    if (entity instanceof Player) return this.players > 0;
+    if (entity instanceof Mannequin) return this.mannequins > 0;
+    return this.allEntities > 0 || this.typeCounts[entity.getType().ordinal()] > 0;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void apply(final @NotNull CuboidFilter filter, final int delta) {
+    if (filter.isPlayers()) this.players += delta;
+    if (filter.isMannequins()) this.mannequins += delta;
+    if (!filter.isEntities()) return;
+
+    if (filter.getEntityTypes().isEmpty()) this.allEntities += delta;
+    else for (final var type : filter.getEntityTypes()) this.typeCounts[type.ordinal()] += delta;
+  }
+
+}
@@ -0,0 +1,120 @@
+package fr.dreamin.dreamapi.core.cuboid.index;
+
+import fr.dreamin.dreamapi.api.util.collection.SortedIntSet;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * Tracks which cuboids each entity is currently in, as a sorted set of dense cuboid ids
+ * (see {@link CuboidIndex}). Entities are only tracked while they are in at least one
+ * cuboid, so the store stays proportional to the entities actually inside regions.
+ * <p>
+ * Not thread-safe, meant to be used from the main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class CuboidMembership {
+
+  private final @NotNull Map<UUID, SortedIntSet> members = new HashMap<>();
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public @Nullable SortedIntSet get(final @NotNull UUID entityId) {
+    return this.members.get(entityId);
+  }
+
+  public @NotNull SortedIntSet getOrCreate(final @NotNull UUID entityId) {
+    return this.members.computeIfAbsent(entityId, id -> new SortedIntSet());
+  }
+
+  /**
+   * Drops the entry of an entity if it is no longer in any cuboid.
+   *
+   * @param entityId the entity UUID
+   * @param set the set previously returned for that entity
+   */
+  public void compact(final @NotNull UUID entityId, final @NotNull SortedIntSet set) {
+    if (set.isEmpty()) this.members.remove(entityId, set);
+  }
+
+  public void purge(final @NotNull UUID entityId) {
+    this.members.remove(entityId);
+  }
+
+  /**
+   * Removes the cuboid ids matching a filter from one entity, e.g. the cuboids of a world it left.
+   *
+   * @param entityId the entity UUID
+   * @param filter ids to remove
+   */
+  public void purge(final @NotNull UUID entityId, final @NotNull IntPredicate filter) {
+    final var set = this.members.get(entityId);
+    if (set == null) return;
+
+    for (var i = set.size() - 1; i >= 0; i--) {
+      if (filter.test(set.get(i))) set.removeAt(i);
+    }
+    compact(entityId, set);
+  }
+
+  /**
+   * Lists the entities currently tracked in a cuboid.
+   *
+   * @param cuboidId the cuboid id
+   * @return a copy of their UUIDs, possibly empty
+   */
+  public @NotNull List<UUID> membersOf(final int cuboidId) {
+    final var rs = new ArrayList<UUID>();
+    for (final var entry : this.members.entrySet()) {
+      if (entry.getValue().contains(cuboidId)) rs.add(entry.getKey());
+    }
+    return rs;
+  }
+
+  /**
+   * Removes a cuboid id from one entity.
+   *
+   * @param entityId the entity UUID
+   * @param cuboidId the cuboid id
+   * @return true if the entity was tracked in that cuboid
+   */
+  public boolean remove(final @NotNull UUID entityId, final int cuboidId) {
+    final var set = this.members.get(entityId);
+    if (set == null || !set.remove(cuboidId)) return false;
+
+    compact(entityId, set);
+    return true;
+  }
+
+  /**
+   * Removes a cuboid id from every entity, required before the id is reused.
+   *
+   * @param cuboidId the freed cuboid id
+   */
+  public void removeCuboid(final int cuboidId) {
+    final var iterator = this.members.values().iterator();
+    while (iterator.hasNext()) {
+      final var set = iterator.next();
+      if (set.remove(cuboidId) && set.isEmpty()) iterator.remove();
+    }
+  }
+
+  public int size() {
+    return this.members.size();
+  }
+
+  public void clear() {
+    this.members.clear();
+  }
+
+}
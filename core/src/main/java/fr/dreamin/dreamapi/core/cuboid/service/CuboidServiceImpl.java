@@ -6,9 +6,18 @@ import fr.dreamin.dreamapi.api.services.DreamAutoService;
 import fr.dreamin.dreamapi.api.services.DreamService;
 import fr.dreamin.dreamapi.api.annotations.Inject;
 import fr.dreamin.dreamapi.api.cuboid.Cuboid;
+import fr.dreamin.dreamapi.api.cuboid.CuboidFilter;
+import fr.dreamin.dreamapi.api.cuboid.operation.BlockOperationEngine;
+import fr.dreamin.dreamapi.api.util.collection.IntList;
+import fr.dreamin.dreamapi.api.util.collection.SortedIntSet;
 import fr.dreamin.dreamapi.core.cuboid.event.*;
+import fr.dreamin.dreamapi.core.cuboid.index.CuboidIndex;
+import fr.dreamin.dreamapi.core.cuboid.index.CuboidInterest;
+import fr.dreamin.dreamapi.core.cuboid.index.CuboidMembership;
+import com.destroystokyo.paper.event.entity.EntityRemoveFromWorldEvent;
 import io.papermc.paper.event.entity.EntityMoveEvent;
 import lombok.RequiredArgsConstructor;
+import org.bukkit.Bukkit;
 import org.bukkit.Location;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Mannequin;
@@ -18,9 +27,12 @@ import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityTeleportEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 import org.bukkit.event.player.PlayerTeleportEvent;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
 
@@ -35,10 +47,30 @@ import java.util.*;
 @DreamAutoService(value = CuboidService.class)
 public final class CuboidServiceImpl implements CuboidService, DreamService, Listener {
 
+  /**
+   * Stand-in for batched moves and filter changes: there is no move event left to cancel.
+   */
+  private static final Cancellable UNCANCELLABLE = new Cancellable() {
+    @Override
+    public boolean isCancelled() {
+      return false;
+    }
+
+    @Override
+    public void setCancelled(boolean cancel) {}
+  };
+
   private final @NotNull Plugin plugin;
 
   private final @NotNull Set<Cuboid> cuboids = new HashSet<>();
-  private final @NotNull Map<UUID, Set<Cuboid>> playerCuboids = new HashMap<>();
+  private final @NotNull CuboidIndex index = new CuboidIndex();
+  private final @NotNull CuboidMembership membership = new CuboidMembership();
+  private final @NotNull CuboidInterest interest = new CuboidInterest();
+  private final @NotNull Map<UUID, PendingMove> pendingMoves = new LinkedHashMap<>();
+
+  private int entitySamplingInterval = 0;
+  private BukkitTask samplingTask;
+  private BlockOperationEngine blockOperationEngine;
 
   private boolean autoRegister = true;
 
@@ -48,6 +80,8 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
 
   @Override
   public void onClose() {
+    setEntitySampling(0);
+    if (this.blockOperationEngine != null) this.blockOperationEngine.stop();
     clear();
   }
 
@@ -57,12 +91,81 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
 
   @Override
   public void register(@NotNull Cuboid cuboid) {
-    this.cuboids.add(cuboid);
+    if (!this.cuboids.add(cuboid)) return;
+
+    final var id = this.index.add(cuboid);
+    this.interest.add(this.index.filter(id));
   }
 
   @Override
   public void unregister(@NotNull Cuboid cuboid) {
-    this.cuboids.remove(cuboid);
+    if (!this.cuboids.remove(cuboid)) return;
+
+    final var filter = this.index.filter(this.index.idOf(cuboid));
+    if (filter != null) this.interest.remove(filter);
+
+    final var id = this.index.remove(cuboid);
+    if (id >= 0) this.membership.removeCuboid(id);
+  }
+
+  @Override
+  public void update(@NotNull Cuboid cuboid) {
+    this.index.update(cuboid);
+  }
+
+  @Override
+  public void setFilter(@NotNull Cuboid cuboid, @NotNull CuboidFilter filter) {
+    final var id = this.index.idOf(cuboid);
+    if (id < 0) throw new IllegalArgumentException("Cuboid is not registered");
+
+    final var previous = this.index.filter(id);
+    if (previous != null) this.interest.remove(previous);
+
+    this.index.setFilter(id, filter);
+    this.interest.add(filter);
+
+    // Members still accepted stay in, the others leave now
+    for (final var entityId : this.membership.membersOf(id)) {
+      final var entity = Bukkit.getEntity(entityId);
+      if (entity != null && filter.accepts(entity)) continue;
+
+      this.membership.remove(entityId, id);
+      if (entity != null) {
+        final var location = entity.getLocation();
+        leave(entity, cuboid, location, location, UNCANCELLABLE);
+      }
+    }
+  }
+
+  @Override
+  public @NotNull CuboidFilter getFilter(@NotNull Cuboid cuboid) {
+    final var filter = this.index.filter(this.index.idOf(cuboid));
+    return filter == null ? CuboidFilter.all() : filter;
+  }
+
+  @Override
+  public void setEntitySampling(int intervalTicks) {
+    this.entitySamplingInterval = Math.max(0, intervalTicks);
+
+    if (this.samplingTask != null) {
+      this.samplingTask.cancel();
+      this.samplingTask = null;
+      flushPendingMoves();
+    }
+
+    if (this.entitySamplingInterval > 1)
+      this.samplingTask = Bukkit.getScheduler().runTaskTimer(this.plugin, this::flushPendingMoves, this.entitySamplingInterval, this.entitySamplingInterval);
+  }
+
+  @Override
+  public int getEntitySampling() {
+    return this.entitySamplingInterval;
+  }
+
+  @Override
+  public @NotNull BlockOperationEngine getBlockOperationEngine() {
+    if (this.blockOperationEngine == null) this.blockOperationEngine = new BlockOperationEngine(this.plugin);
+    return this.blockOperationEngine;
   }
 
   @Override
@@ -78,7 +181,10 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
   @Override
   public void clear() {
     this.cuboids.clear();
-    this.playerCuboids.clear();
+    this.index.clear();
+    this.membership.clear();
+    this.interest.clear();
+    this.pendingMoves.clear();
   }
 
   @Override
@@ -88,7 +194,15 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
 
   @Override
   public @NotNull Set<Cuboid> getCuboidsOf(@NotNull UUID uuid) {
-    return playerCuboids.getOrDefault(uuid, Set.of());
+    final var ids = this.membership.get(uuid);
+    if (ids == null) return Set.of();
+
+    final var rs = new LinkedHashSet<Cuboid>(ids.size() * 2);
+    for (var i = 0; i < ids.size(); i++) {
+      final var cuboid = this.index.get(ids.get(i));
+      if (cuboid != null) rs.add(cuboid);
+    }
+    return Collections.unmodifiableSet(rs);
   }
 
   // ###############################################################
@@ -97,104 +211,150 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
 
   @EventHandler
   private void onPlayerMove(final @NotNull PlayerMoveEvent event) {
-    var player = event.getPlayer();
-    var from = event.getFrom();
-    var to = event.getTo();
-
-    if ((from.getBlockX() == to.getBlockX() &&
-        from.getBlockY() == to.getBlockY() &&
-        from.getBlockZ() == to.getBlockZ()))
-      return;
-
-    var currentCuboids = playerCuboids.computeIfAbsent(player.getUniqueId(), id -> new HashSet<>());
-
-    for (Cuboid cuboid : cuboids) {
-      boolean wasIn = currentCuboids.contains(cuboid);
-      boolean isIn = cuboid.isLocationIn(to);
-
-      if (!wasIn && isIn)
-        enter(player, cuboid, from, to, event, currentCuboids);
-      else if (wasIn && !isIn)
-        leave(player, cuboid, from, to, event, currentCuboids);
-    }
+    if (!this.interest.accepts(event.getPlayer())) return;
+    handleMove(event.getPlayer(), event.getFrom(), event.getTo(), event);
   }
 
   @EventHandler
   private void onPlayerTeleport(final @NotNull PlayerTeleportEvent event) {
-    var player = event.getPlayer();
-    var from = event.getFrom();
-    var to = event.getTo();
+    if (!this.interest.accepts(event.getPlayer())) return;
+    handleMove(event.getPlayer(), event.getFrom(), event.getTo(), event);
+  }
 
-    if ((from.getBlockX() == to.getBlockX() &&
-      from.getBlockY() == to.getBlockY() &&
-      from.getBlockZ() == to.getBlockZ()))
+  @EventHandler
+  private void onEntityMove(final @NotNull EntityMoveEvent event) {
+    final var entity = event.getEntity();
+    if (!this.interest.accepts(entity)) return;
+
+    if (this.samplingTask == null) {
+      handleMove(entity, event.getFrom(), event.getTo(), event);
       return;
+    }
 
-    var currentCuboids = playerCuboids.computeIfAbsent(player.getUniqueId(), id -> new HashSet<>());
+    if (event.hasChangedBlock() && !this.pendingMoves.containsKey(entity.getUniqueId()))
+      this.pendingMoves.put(entity.getUniqueId(), new PendingMove(entity, event.getFrom()));
+  }
 
-    for (Cuboid cuboid : cuboids) {
-      boolean wasIn = currentCuboids.contains(cuboid);
-      boolean isIn = cuboid.isLocationIn(to);
+  @EventHandler
+  private void onEntityTeleport(final @NotNull EntityTeleportEvent event) {
+    final var to = event.getTo();
+    if (to == null || !this.interest.accepts(event.getEntity())) return;
 
-      if (!wasIn && isIn)
-        enter(player, cuboid, from, to, event, currentCuboids);
-      else if (wasIn && !isIn)
-        leave(player, cuboid, from, to, event, currentCuboids);
-    }
+    handleMove(event.getEntity(), event.getFrom(), to, event);
   }
 
   @EventHandler
-  private void onEntityMove(final @NotNull EntityMoveEvent event) {
-    var entity = event.getEntity();
-    var from = event.getFrom();
-    var to = event.getTo();
+  private void onPlayerQuit(final @NotNull PlayerQuitEvent event) {
+    this.membership.purge(event.getPlayer().getUniqueId());
+  }
 
-    if ((from.getBlockX() == to.getBlockX() &&
+  @EventHandler
+  private void onEntityRemoveFromWorld(final @NotNull EntityRemoveFromWorldEvent event) {
+    // Only drop the cuboids of the world being left: on a world change the teleport has already
+    // computed the memberships of the destination world.
+    final var worldId = event.getWorld().getUID();
+    this.membership.purge(event.getEntity().getUniqueId(), id -> this.index.isInWorld(id, worldId));
+    this.pendingMoves.remove(event.getEntity().getUniqueId());
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /**
+   * Diffs the cuboids of an entity against its destination. Only cuboids the entity is
+   * currently in (possible leaves) and cuboids indexed in the destination chunk (possible
+   * enters) are tested, using ids only so the diff itself does not allocate.
+   *
+   * @param entity the moving entity
+   * @param from the origin location
+   * @param to the destination location
+   * @param event the move or teleport event, cancelled if an enter/leave event is cancelled
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  private void handleMove(
+    final @NotNull Entity entity,
+    final @NotNull Location from,
+    final @NotNull Location to,
+    final @NotNull Cancellable event
+  ) {
+    if (from.getBlockX() == to.getBlockX() &&
       from.getBlockY() == to.getBlockY() &&
-      from.getBlockZ() == to.getBlockZ()))
+      from.getBlockZ() == to.getBlockZ() &&
+      from.getWorld() == to.getWorld())
       return;
 
-    var currentCuboids = playerCuboids.computeIfAbsent(entity.getUniqueId(), id -> new HashSet<>());
+    final var world = to.getWorld();
+    if (world == null) return;
 
-    for (Cuboid cuboid : cuboids) {
-      boolean wasIn = currentCuboids.contains(cuboid);
-      boolean isIn = cuboid.isLocationIn(to);
+    final var entityId = entity.getUniqueId();
+    final var bucket = this.index.bucketAt(world, to.getBlockX(), to.getBlockZ());
+    final var unbucketed = this.index.unbucketed(world);
+    var currentCuboids = this.membership.get(entityId);
 
-      if (!wasIn && isIn)
-        enter(entity, cuboid, from, to, event, currentCuboids);
-      else if (wasIn && !isIn)
-        leave(entity, cuboid, from, to, event, currentCuboids);
+    if (currentCuboids != null) {
+      // Backwards so removals do not shift the ids still to visit
+      for (var i = currentCuboids.size() - 1; i >= 0; i--) {
+        final var id = currentCuboids.get(i);
+        if (this.index.isIn(id, to)) continue;
+
+        final var cuboid = this.index.get(id);
+        if (cuboid == null || !leave(entity, cuboid, from, to, event)) currentCuboids.removeAt(i);
+      }
     }
-  }
 
-  @EventHandler
-  private void onEntityTeleport(final @NotNull EntityTeleportEvent event) {
-    var entity = event.getEntity();
-    var from = event.getFrom();
-    var to = event.getTo();
-    if (to == null) return;
+    currentCuboids = enterAll(entity, entityId, bucket, from, to, event, currentCuboids);
+    currentCuboids = enterAll(entity, entityId, unbucketed, from, to, event, currentCuboids);
 
-    if ((from.getBlockX() == to.getBlockX() &&
-      from.getBlockY() == to.getBlockY() &&
-      from.getBlockZ() == to.getBlockZ()))
-      return;
+    if (currentCuboids != null) this.membership.compact(entityId, currentCuboids);
+  }
+
+  /**
+   * Processes the entity moves batched since the last sampling tick. The destination is the
+   * current location of each entity; enter/leave cancellations cannot cancel a past move.
+   *
+   * @author Dreamin
+   * @since 0.5.0
+   */
+  private void flushPendingMoves() {
+    if (this.pendingMoves.isEmpty()) return;
 
-    var currentCuboids = playerCuboids.computeIfAbsent(entity.getUniqueId(), id -> new HashSet<>());
+    final var batch = List.copyOf(this.pendingMoves.values());
+    this.pendingMoves.clear();
 
-    for (Cuboid cuboid : cuboids) {
-      boolean wasIn = currentCuboids.contains(cuboid);
-      boolean isIn = cuboid.isLocationIn(to);
+    for (final var pending : batch) {
+      final var entity = pending.entity();
+      if (!entity.isValid()) continue;
 
-      if (!wasIn && isIn)
-        enter(entity, cuboid, from, to, event, currentCuboids);
-      else if (wasIn && !isIn)
-        leave(entity, cuboid, from, to, event, currentCuboids);
+      handleMove(entity, pending.from(), entity.getLocation(), UNCANCELLABLE);
     }
   }
 
-  // ###############################################################
-  // ----------------------- PRIVATE METHODS -----------------------
-  // ###############################################################
+  private @Nullable SortedIntSet enterAll(
+    final @NotNull Entity entity,
+    final @NotNull UUID entityId,
+    final @NotNull IntList candidates,
+    final @NotNull Location from,
+    final @NotNull Location to,
+    final @NotNull Cancellable event,
+    @Nullable SortedIntSet currentCuboids
+  ) {
+    for (var i = 0; i < candidates.size(); i++) {
+      final var id = candidates.get(i);
+      if (currentCuboids != null && currentCuboids.contains(id)) continue;
+
+      final var cuboid = this.index.get(id);
+      final var filter = this.index.filter(id);
+      if (cuboid == null || filter == null || !filter.accepts(entity)) continue;
+      if (!cuboid.isLocationIn(to) || enter(entity, cuboid, from, to, event)) continue;
+
+      if (currentCuboids == null) currentCuboids = this.membership.getOrCreate(entityId);
+      currentCuboids.add(id);
+    }
+    return currentCuboids;
+  }
 
   /**
    * Handles the entity entering a cuboid.
@@ -202,24 +362,23 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
    * @param entity
    * @param cuboid
    * @param event
-   * @param currentCuboids
+   * @return true if the enter event was cancelled
    *
    * @author Dreamin
    * @since 1.0.0
    */
-  private void enter(
+  private boolean enter(
     final @NotNull Entity entity,
     final @NotNull Cuboid cuboid,
     final @NotNull Location from,
     final @NotNull Location to,
-    final @NotNull Cancellable event,
-    final @NotNull Set<Cuboid> currentCuboids
+    final @NotNull Cancellable event
   ) {
     var enterEvent = getCuboidEnterEvent(entity, cuboid, from, to);
-    if (DreamAPI.getAPI().callEvent(enterEvent).isCancelled())
-      event.setCancelled(true);
-    else
-      currentCuboids.add(cuboid);
+    if (!DreamAPI.getAPI().callEvent(enterEvent).isCancelled()) return false;
+
+    event.setCancelled(true);
+    return true;
   }
 
   /**
@@ -228,24 +387,23 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
    * @param entity
    * @param cuboid
    * @param event
-   * @param currentCuboids
+   * @return true if the leave event was cancelled
    *
    * @author Dreamin
    * @since 1.0.0
    */
-  private void leave(
+  private boolean leave(
     final @NotNull Entity entity,
     final @NotNull Cuboid cuboid,
     final @NotNull Location from,
     final @NotNull Location to,
-    final @NotNull Cancellable event,
-    final @NotNull Set<Cuboid> currentCuboids
+    final @NotNull Cancellable event
   ) {
     var leaveEvent = getCuboidLeaveEvent(entity, cuboid, from, to);
-    if (DreamAPI.getAPI().callEvent(leaveEvent).isCancelled())
-      event.setCancelled(true);
-    else
-      currentCuboids.remove(cuboid);
+    if (!DreamAPI.getAPI().callEvent(leaveEvent).isCancelled()) return false;
+
+    event.setCancelled(true);
+    return true;
   }
 
   private CuboidEntityEnterEvent getCuboidEnterEvent(
@@ -276,4 +434,10 @@ public final class CuboidServiceImpl implements CuboidService, DreamService, Lis
       return new CuboidEntityLeaveEvent(entity, cuboid, from, to);
   }
 
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private record PendingMove(@NotNull Entity entity, @NotNull Location from) {}
+
 }
@@ -0,0 +1,249 @@
+package fr.dreamin.dreamapi.core.glowing.service;
+
+import fr.dreamin.dreamapi.core.time.TickTask;
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+import java.util.function.Predicate;
+
+/**
+ * Evaluates the conditional glows of all viewers in one shared pass.
+ * <p>
+ * Check ticks are aligned on multiples of each interval, so viewers sharing an interval are
+ * evaluated together. On a check, the entities of each loaded chunk within a due viewer's view
+ * distance are gathered once per world, each predicate is tested once per entity and the
+ * result is reused by every viewer holding the same predicate. Each viewer then gets a diff
+ * against what the service actually shows them: newly matching entities start glowing,
+ * entities no longer matching or out of range stop. Entities un-glowed or recoloured by
+ * another call since the last pass are no longer considered this glow's own.
+ * <p>
+ * The task only runs while a conditional glow exists. Main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class ConditionalGlowEvaluator {
+
+  private static final int[] NO_ENTITIES = new int[]{0, 0};
+
+  private final @NotNull Applier applier;
+  private final Map<UUID, ConditionalGlow> byViewer = new HashMap<>();
+
+  private @Nullable TickTask<?> task;
+  private long currentTick;
+
+  ConditionalGlowEvaluator(final @NotNull Applier applier) {
+    this.applier = applier;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /** Starts a conditional glow for a viewer, replacing theirs if any. */
+  void start(final @NotNull Player viewer, final @NotNull Predicate<Entity> condition, final @NotNull ChatColor color, final long checkInterval) {
+    final var interval = Math.max(1L, checkInterval);
+    final var glow = new ConditionalGlow(viewer, condition, color, interval);
+    glow.nextCheck = (this.currentTick / interval + 1) * interval;
+
+    this.byViewer.put(viewer.getUniqueId(), glow);
+    ensureRunning();
+  }
+
+  /**
+   * Stops the conditional glow of a viewer. Entities it made glow keep glowing.
+   *
+   * @return whether the viewer had one
+   */
+  boolean stop(final @NotNull UUID viewerId) {
+    final var removed = this.byViewer.remove(viewerId) != null;
+    if (this.byViewer.isEmpty())
+      stopTask();
+    return removed;
+  }
+
+  void shutdown() {
+    this.byViewer.clear();
+    stopTask();
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void ensureRunning() {
+    if (this.task != null) return;
+
+    this.task = new TickTask() {
+      @Override
+      public void onTick() {
+        tick();
+      }
+    }.every(1L).start();
+  }
+
+  private void stopTask() {
+    if (this.task == null) return;
+    this.task.stop();
+    this.task = null;
+  }
+
+  private void tick() {
+    this.currentTick++;
+
+    Map<World, List<ConditionalGlow>> due = null;
+    for (final var glow : this.byViewer.values()) {
+      if (glow.nextCheck > this.currentTick) continue;
+      glow.nextCheck += glow.interval;
+
+      if (!glow.viewer.isOnline()) continue;
+      if (due == null) due = new HashMap<>();
+      due.computeIfAbsent(glow.viewer.getWorld(), k -> new ArrayList<>()).add(glow);
+    }
+
+    if (due == null) return;
+
+    for (final var entry : due.entrySet())
+      evaluate(new WorldSnapshot(entry.getKey()), entry.getValue());
+  }
+
+  private void evaluate(final @NotNull WorldSnapshot snapshot, final @NotNull List<ConditionalGlow> glows) {
+    final Map<Predicate<Entity>, Results> results = new IdentityHashMap<>();
+    final var serverViewDistance = Bukkit.getViewDistance();
+
+    for (final var glow : glows) {
+      final var viewer = glow.viewer;
+      final var radius = Math.min(viewer.getViewDistance(), serverViewDistance);
+      final var location = viewer.getLocation();
+      final var centerX = location.getBlockX() >> 4;
+      final var centerZ = location.getBlockZ() >> 4;
+      final var conditionResults = results.computeIfAbsent(glow.condition, k -> new Results());
+
+      final Set<Entity> matching = new HashSet<>();
+      for (var chunkX = centerX - radius; chunkX <= centerX + radius; chunkX++) {
+        for (var chunkZ = centerZ - radius; chunkZ <= centerZ + radius; chunkZ++) {
+          final var range = snapshot.chunk(chunkX, chunkZ);
+          for (var index = range[0]; index < range[1]; index++) {
+            final var entity = snapshot.entities.get(index);
+            if (conditionResults.test(index, entity, glow.condition))
+              matching.add(entity);
+          }
+        }
+      }
+
+      applyDiff(glow, matching);
+    }
+  }
+
+  private void applyDiff(final @NotNull ConditionalGlow glow, final @NotNull Set<Entity> matching) {
+    final List<Entity> stale = new ArrayList<>();
+    final var iterator = glow.glowing.iterator();
+    while (iterator.hasNext()) {
+      final var entity = iterator.next();
+      // Dead, un-glowed or recoloured by another call: not ours anymore, still re-glowed if matching.
+      if (this.applier.colorOf(entity, glow.viewer) != glow.color) {
+        iterator.remove();
+        continue;
+      }
+
+      if (!matching.remove(entity))
+        stale.add(entity);
+    }
+
+    if (!stale.isEmpty())
+      this.applier.unglow(stale, glow.viewer).forEach(glow.glowing::remove);
+
+    // Only the entities not glowing yet are left.
+    if (!matching.isEmpty())
+      glow.glowing.addAll(this.applier.glow(matching, glow.color, glow.viewer));
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /**
+   * Applies the diffs of a pass.
+   */
+  interface Applier {
+
+    /** @return the entities that actually started glowing */
+    @NotNull Collection<Entity> glow(@NotNull Collection<Entity> entities, @NotNull ChatColor color, @NotNull Player viewer);
+
+    /** @return the entities that actually stopped glowing */
+    @NotNull Collection<Entity> unglow(@NotNull Collection<Entity> entities, @NotNull Player viewer);
+
+    /** @return the color the entity currently glows in for the viewer, or null if it does not */
+    @Nullable ChatColor colorOf(@NotNull Entity entity, @NotNull Player viewer);
+
+  }
+
+  private static final class ConditionalGlow {
+
+    private final Player viewer;
+    private final Predicate<Entity> condition;
+    private final ChatColor color;
+    private final long interval;
+    /** Entities this conditional glow made glow. */
+    private final Set<Entity> glowing = new HashSet<>();
+    private long nextCheck;
+
+    private ConditionalGlow(final @NotNull Player viewer, final @NotNull Predicate<Entity> condition, final @NotNull ChatColor color, final long interval) {
+      this.viewer = viewer;
+      this.condition = condition;
+      this.color = color;
+      this.interval = interval;
+    }
+
+  }
+
+  /** Entities of the chunks visited in one pass over a world, gathered once per chunk. */
+  private static final class WorldSnapshot {
+
+    private final World world;
+    private final List<Entity> entities = new ArrayList<>();
+    /** Chunk key to the {@code [from, to)} range of its entities. */
+    private final Map<Long, int[]> chunks = new HashMap<>();
+
+    private WorldSnapshot(final @NotNull World world) {
+      this.world = world;
+    }
+
+    private int[] chunk(final int chunkX, final int chunkZ) {
+      return this.chunks.computeIfAbsent(((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL), key -> {
+        if (!this.world.isChunkLoaded(chunkX, chunkZ))
+          return NO_ENTITIES;
+
+        final var from = this.entities.size();
+        Collections.addAll(this.entities, this.world.getChunkAt(chunkX, chunkZ).getEntities());
+        return new int[]{from, this.entities.size()};
+      });
+    }
+
+  }
+
+  /** Outcome of one predicate per snapshot entity index. */
+  private static final class Results {
+
+    private final BitSet evaluated = new BitSet();
+    private final BitSet matched = new BitSet();
+
+    private boolean test(final int index, final @NotNull Entity entity, final @NotNull Predicate<Entity> condition) {
+      if (this.evaluated.get(index))
+        return this.matched.get(index);
+
+      this.evaluated.set(index);
+      final var result = condition.test(entity);
+      if (result) this.matched.set(index);
+      return result;
+    }
+
+  }
+
+}
@@ -0,0 +1,351 @@
+package fr.dreamin.dreamapi.core.glowing.service;
+
+import fr.dreamin.dreamapi.api.glowing.animation.GlowAnimation;
+import fr.dreamin.dreamapi.core.time.TickTask;
+import org.bukkit.ChatColor;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Drives every animated and timed glow of the glowing service from a single task.
+ * <p>
+ * Animations started on the same tick with equal {@link GlowAnimation}s share a group, kept in
+ * flat arrays: the colour is computed once per group and step, and handed with all the group's
+ * (target, viewer) pairs to one {@link Renderer} call so team packets can be batched. Groups are
+ * bucketed by start tick modulo {@link #STEP_TICKS}, each tick only visits one bucket.
+ * <p>
+ * Expiries live in a hashed timing wheel: one slot per tick modulo {@link #WHEEL_SIZE}, entries
+ * further away simply stay in their slot until their deadline comes round.
+ * <p>
+ * The task only runs while something is animated or scheduled. Main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class GlowAnimationEngine {
+
+  /** Server ticks between two animation steps. */
+  static final int STEP_TICKS = 5;
+
+  static final int WHEEL_SIZE = 512;
+  private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+
+  @SuppressWarnings("unchecked")
+  private final List<Group>[] buckets = new List[STEP_TICKS];
+  /** Groups still open to new pairs, i.e. starting on the next tick. */
+  private final Map<GroupKey, Group> openGroups = new HashMap<>();
+  private final Map<Object, Group> groupsByKey = new HashMap<>();
+  private int groupCount;
+
+  @SuppressWarnings("unchecked")
+  private final List<Timeout>[] wheel = new List[WHEEL_SIZE];
+  private final Map<Object, Timeout> timeouts = new HashMap<>();
+
+  /** False when {@link #tick()} is called by hand instead of by a task. */
+  private final boolean scheduled;
+  private boolean running;
+  private @Nullable TickTask<?> task;
+  private long currentTick;
+
+  GlowAnimationEngine() {
+    this(true);
+  }
+
+  GlowAnimationEngine(final boolean scheduled) {
+    this.scheduled = scheduled;
+    for (var i = 0; i < STEP_TICKS; i++)
+      this.buckets[i] = new ArrayList<>();
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * Animates a target for a viewer from the next tick on, replacing any animation under the same key.
+   *
+   * @param key identifies the (target, viewer) pair
+   */
+  void animate(final @NotNull Object key, final @NotNull Object target, final @NotNull Player viewer, final @NotNull GlowAnimation animation, final @NotNull Renderer renderer) {
+    stopAnimation(key);
+
+    final var startTick = this.currentTick + 1;
+    final var group = this.openGroups.computeIfAbsent(new GroupKey(animation, renderer, startTick), groupKey -> {
+      final var created = new Group(animation, renderer, startTick);
+      this.buckets[(int) (startTick % STEP_TICKS)].add(created);
+      this.groupCount++;
+      return created;
+    });
+
+    group.add(key, target, viewer);
+    this.groupsByKey.put(key, group);
+    ensureRunning();
+  }
+
+  /** Stops the animation under a key. The glow is left with its last colour. */
+  void stopAnimation(final @NotNull Object key) {
+    final var group = this.groupsByKey.remove(key);
+    if (group != null)
+      group.remove(key);
+  }
+
+  /** Runs an action in {@code delayTicks} ticks, replacing any expiry under the same key. */
+  void expireAfter(final @NotNull Object key, final long delayTicks, final @NotNull Runnable action) {
+    cancelExpiry(key);
+
+    final var timeout = new Timeout(key, this.currentTick + Math.max(1L, delayTicks), action);
+    final var slot = (int) (timeout.deadline & WHEEL_MASK);
+    if (this.wheel[slot] == null)
+      this.wheel[slot] = new ArrayList<>();
+
+    this.wheel[slot].add(timeout);
+    this.timeouts.put(key, timeout);
+    ensureRunning();
+  }
+
+  void cancelExpiry(final @NotNull Object key) {
+    // Left in its slot, skipped and dropped when the wheel gets there.
+    this.timeouts.remove(key);
+  }
+
+  /** Stops both the animation and the expiry under a key. */
+  void cancel(final @NotNull Object key) {
+    stopAnimation(key);
+    cancelExpiry(key);
+  }
+
+  int getAnimatedCount() {
+    return this.groupsByKey.size();
+  }
+
+  int getScheduledCount() {
+    return this.timeouts.size();
+  }
+
+  boolean isRunning() {
+    return this.running;
+  }
+
+  void shutdown() {
+    this.running = false;
+    if (this.task != null) {
+      this.task.stop();
+      this.task = null;
+    }
+
+    for (final var bucket : this.buckets)
+      bucket.clear();
+    Arrays.fill(this.wheel, null);
+    this.openGroups.clear();
+    this.groupsByKey.clear();
+    this.timeouts.clear();
+    this.groupCount = 0;
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void ensureRunning() {
+    if (this.running) return;
+
+    this.running = true;
+    if (!this.scheduled) return;
+
+    this.task = new TickTask() {
+      @Override
+      public void onTick() {
+        tick();
+      }
+    }.every(1L).start();
+  }
+
+  /** Advances one tick; called by the task, or by hand when the engine is not scheduled. */
+  void tick() {
+    this.currentTick++;
+    this.openGroups.clear();
+
+    stepAnimations();
+    advanceWheel();
+
+    if (this.groupCount == 0 && this.timeouts.isEmpty()) {
+      // Only cancelled timeouts can be left in the wheel.
+      Arrays.fill(this.wheel, null);
+      this.running = false;
+      if (this.task != null) this.task.stop();
+      this.task = null;
+    }
+  }
+
+  private void stepAnimations() {
+    final var bucket = this.buckets[(int) (this.currentTick % STEP_TICKS)];
+
+    for (var i = bucket.size() - 1; i >= 0; i--) {
+      final var group = bucket.get(i);
+      if (step(group)) continue;
+
+      for (var j = 0; j < group.size; j++)
+        this.groupsByKey.remove(group.keys[j], group);
+
+      // Swap-remove, the bucket is walked backwards.
+      final var last = bucket.size() - 1;
+      bucket.set(i, bucket.get(last));
+      bucket.remove(last);
+      this.groupCount--;
+    }
+  }
+
+  /**
+   * Renders one step of a group.
+   *
+   * @return false once the group is empty or its animation complete
+   */
+  private boolean step(final @NotNull Group group) {
+    for (var i = group.size - 1; i >= 0; i--) {
+      if (group.renderer.isValid(group.targets[i], group.viewers[i])) continue;
+      this.groupsByKey.remove(group.keys[i], group);
+      group.removeAt(i);
+    }
+
+    if (group.size == 0) return false;
+
+    final var step = (this.currentTick - group.startTick) / STEP_TICKS;
+    final var color = group.animation.getColorAtTick(step);
+
+    if (color != group.lastColor) {
+      group.lastColor = color;
+      // Copies, as event listeners may stop glows of this group while it renders.
+      group.renderer.render(color, Arrays.copyOf(group.targets, group.size), Arrays.copyOf(group.viewers, group.size));
+    }
+
+    return group.size > 0 && !group.animation.isComplete(step);
+  }
+
+  private void advanceWheel() {
+    final var slot = (int) (this.currentTick & WHEEL_MASK);
+    final var timeouts = this.wheel[slot];
+    if (timeouts == null) return;
+
+    List<Timeout> due = null;
+    final var iterator = timeouts.iterator();
+    while (iterator.hasNext()) {
+      final var timeout = iterator.next();
+      if (this.timeouts.get(timeout.key) != timeout) {
+        iterator.remove();
+        continue;
+      }
+
+      if (timeout.deadline > this.currentTick) continue;
+
+      iterator.remove();
+      if (due == null) due = new ArrayList<>();
+      due.add(timeout);
+    }
+
+    if (timeouts.isEmpty())
+      this.wheel[slot] = null;
+
+    if (due == null) return;
+
+    // Run after the scan: actions may schedule or cancel other expiries.
+    for (final var timeout : due) {
+      if (this.timeouts.remove(timeout.key, timeout))
+        timeout.action.run();
+    }
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /**
+   * Applies animation colours to (target, viewer) pairs.
+   */
+  interface Renderer {
+
+    /** Pairs reported invalid are dropped before the step is rendered. */
+    boolean isValid(@NotNull Object target, @NotNull Player viewer);
+
+    /** Applies a colour to all pairs, {@code targets[i]} being seen by {@code viewers[i]}. */
+    void render(@NotNull ChatColor color, @NotNull Object[] targets, @NotNull Player[] viewers);
+
+  }
+
+  private record GroupKey(GlowAnimation animation, Renderer renderer, long startTick) {}
+
+  private static final class Group {
+
+    private final GlowAnimation animation;
+    private final Renderer renderer;
+    private final long startTick;
+
+    private Object[] keys = new Object[8];
+    private Object[] targets = new Object[8];
+    private Player[] viewers = new Player[8];
+    private int size;
+    /** Slot of each key, so a stop does not scan the group. */
+    private final Map<Object, Integer> indices = new HashMap<>();
+    private @Nullable ChatColor lastColor;
+
+    private Group(final @NotNull GlowAnimation animation, final @NotNull Renderer renderer, final long startTick) {
+      this.animation = animation;
+      this.renderer = renderer;
+      this.startTick = startTick;
+    }
+
+    private void add(final @NotNull Object key, final @NotNull Object target, final @NotNull Player viewer) {
+      if (this.size == this.keys.length) {
+        final var capacity = this.size << 1;
+        this.keys = Arrays.copyOf(this.keys, capacity);
+        this.targets = Arrays.copyOf(this.targets, capacity);
+        this.viewers = Arrays.copyOf(this.viewers, capacity);
+      }
+
+      this.keys[this.size] = key;
+      this.targets[this.size] = target;
+      this.viewers[this.size] = viewer;
+      this.indices.put(key, this.size);
+      this.size++;
+    }
+
+    private void remove(final @NotNull Object key) {
+      final var index = this.indices.get(key);
+      if (index != null)
+        removeAt(index);
+    }
+
+    /** Swap-remove: the last entry takes the freed slot. */
+    private void removeAt(final int index) {
+      this.indices.remove(this.keys[index]);
+      final var last = --this.size;
+      if (index != last) {
+        this.keys[index] = this.keys[last];
+        this.targets[index] = this.targets[last];
+        this.viewers[index] = this.viewers[last];
+        this.indices.put(this.keys[index], index);
+      }
+      this.keys[last] = null;
+      this.targets[last] = null;
+      this.viewers[last] = null;
+    }
+
+  }
+
+  private static final class Timeout {
+
+    private final Object key;
+    private final long deadline;
+    private final Runnable action;
+
+    private Timeout(final @NotNull Object key, final long deadline, final @NotNull Runnable action) {
+      this.key = key;
+      this.deadline = deadline;
+      this.action = action;
+    }
+
+  }
+
+}
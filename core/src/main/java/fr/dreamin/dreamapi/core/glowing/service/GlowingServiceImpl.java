@@ -14,7 +14,8 @@ import fr.dreamin.dreamapi.api.glowing.event.set.GlowingBlockSetEvent;
 import fr.dreamin.dreamapi.api.glowing.event.set.GlowingEntitySetEvent;
 import fr.dreamin.dreamapi.api.glowing.event.unset.GlowingBlockUnSetEvent;
 import fr.dreamin.dreamapi.api.glowing.event.unset.GlowingEntityUnSetEvent;
-import fr.dreamin.dreamapi.core.time.TickTask;
+import io.papermc.paper.event.packet.PlayerChunkLoadEvent;
+import io.papermc.paper.event.packet.PlayerChunkUnloadEvent;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.Location;
@@ -60,24 +61,13 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
   /** Reverse index: blockKey -> viewers who see it glowing. */
   private final Map<BlockKey, Set<UUID>> viewersByBlock = new ConcurrentHashMap<>();;
 
-  /**
-   * Scheduled auto-unset for ENTITY per (viewer, entityId).
-   * key = viewerId + "|" + entityId
-   */
-  private final Map<String, TickTask<?>> entityTimers = new ConcurrentHashMap<>();
-  /**
-   * Scheduled auto-unset for BLOCK per (viewer, blockKey).
-   * key = viewerId + "|" + blockKey
-   */
-  private final Map<String, TickTask<?>> blockTimers = new ConcurrentHashMap<>();
-
-  // Animations
-  private final Map<String, GlowAnimation> entityAnimations = new ConcurrentHashMap<>();
-  private final Map<String, GlowAnimation> blockAnimations = new ConcurrentHashMap<>();
-  private final Map<String, TickTask<?>> animationTasks = new ConcurrentHashMap<>();
+  /** Animations and auto-unsets, keyed by {@link EntityTarget} / {@link BlockTarget}. */
+  private final GlowAnimationEngine animationEngine = new GlowAnimationEngine();
+  private final GlowAnimationEngine.Renderer entityRenderer = new EntityGlowRenderer();
+  private final GlowAnimationEngine.Renderer blockRenderer = new BlockGlowRenderer();
 
   // Conditional glowing
-  private final Map<UUID, ConditionalGlow> conditionalGlows = new ConcurrentHashMap<>();
+  private final ConditionalGlowEvaluator conditionalGlows = new ConditionalGlowEvaluator(new ConditionalGlowApplier());
 
   // Statistics
   private final AtomicLong totalOperations = new AtomicLong(0);
@@ -111,6 +101,12 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
   // -------------------------- METHODS ----------------------------
   // ###############################################################
 
+  @Override
+  public void onClose() {
+    this.animationEngine.shutdown();
+    this.conditionalGlows.shutdown();
+  }
+
   @Override
   public @NotNull GlowingEntityManager getEntityManager() {
     return this.entityManager;
@@ -151,9 +147,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
         this.viewersByEntity.computeIfAbsent(entity.getUniqueId(), k -> ConcurrentHashMap.newKeySet())
           .add(viewer.getUniqueId());
 
-        final var key = entityTimerKey(viewer.getUniqueId(), entity.getUniqueId());
-        cancelIfPresent(this.entityTimers, key);
-        this.entityTimers.put(key, runLater(durationTicks, () -> stopEntity(entity, viewer)));
+        this.animationEngine.expireAfter(EntityTarget.of(viewer, entity), durationTicks, () -> stopEntity(entity, viewer));
         this.totalOperations.incrementAndGet();
       }
     }
@@ -174,9 +168,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
         if (hideEntityFromViewer(entity, viewer)) {
           if (viewerState != null) viewerState.entities.remove(entity);
           original.remove(viewerId);
-          cancelIfPresent(this.entityTimers, entityTimerKey(viewerId, entity.getUniqueId()));
-          cancelIfPresent(this.animationTasks, entityAnimationKey(viewerId, entity.getUniqueId()));
-          this.entityAnimations.remove(entityAnimationKey(viewerId, entity.getUniqueId()));
+          this.animationEngine.cancel(new EntityTarget(viewerId, entity.getUniqueId()));
           this.totalOperations.incrementAndGet();
         }
       }
@@ -195,9 +187,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
           if (rev.isEmpty()) this.viewersByEntity.remove(entity.getUniqueId());
         }
 
-        cancelIfPresent(this.entityTimers, entityTimerKey(viewer.getUniqueId(), entity.getUniqueId()));
-        cancelIfPresent(this.animationTasks, entityAnimationKey(viewer.getUniqueId(), entity.getUniqueId()));
-        this.entityAnimations.remove(entityAnimationKey(viewer.getUniqueId(), entity.getUniqueId()));
+        this.animationEngine.cancel(EntityTarget.of(viewer, entity));
         this.totalOperations.incrementAndGet();
       }
     }
@@ -239,9 +229,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
         this.viewersByBlock.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet())
           .add(viewer.getUniqueId());
 
-        final var tkey = blockTimerKey(viewer.getUniqueId(), key);
-        cancelIfPresent(this.blockTimers, tkey);
-        this.blockTimers.put(tkey, runLater(durationTicks, () -> stopBlock(block, viewer)));
+        this.animationEngine.expireAfter(new BlockTarget(viewer.getUniqueId(), key), durationTicks, () -> stopBlock(block, viewer));
         this.totalOperations.incrementAndGet();
       }
     }
@@ -266,9 +254,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
         if (hideBlockFromViewer(block, viewer)) {
           if (viewerState != null) viewerState.blocks.remove(block);
           original.remove(viewerId);
-          cancelIfPresent(this.blockTimers, blockTimerKey(viewerId, key));
-          cancelIfPresent(this.animationTasks, blockAnimationKey(viewerId, key));
-          this.blockAnimations.remove(blockAnimationKey(viewerId, key));
+          this.animationEngine.cancel(new BlockTarget(viewerId, key));
           this.totalOperations.incrementAndGet();
         }
       }
@@ -288,9 +274,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
           if (rev.isEmpty()) this.viewersByBlock.remove(key);
         }
 
-        cancelIfPresent(this.blockTimers, blockTimerKey(viewer.getUniqueId(), key));
-        cancelIfPresent(this.animationTasks, blockAnimationKey(viewer.getUniqueId(), key));
-        this.blockAnimations.remove(blockAnimationKey(viewer.getUniqueId(), key));
+        this.animationEngine.cancel(new BlockTarget(viewer.getUniqueId(), key));
         this.totalOperations.incrementAndGet();
       }
     }
@@ -305,13 +289,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     for (final var viewer : viewers) {
       if (!isViewerValid(viewer)) continue;
 
-      final var animKey = entityAnimationKey(viewer.getUniqueId(), entity.getUniqueId());
-      this.entityAnimations.put(animKey, animation);
-
-      // Start animation task
-      cancelIfPresent(this.animationTasks, animKey);
-      final var task = startEntityAnimationTask(entity, animation, viewer);
-      this.animationTasks.put(animKey, task);
+      this.animationEngine.animate(EntityTarget.of(viewer, entity), entity, viewer, animation, this.entityRenderer);
       this.totalOperations.incrementAndGet();
     }
   }
@@ -321,56 +299,33 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     for (final var viewer : viewers) {
       if (!isViewerValid(viewer)) continue;
 
-      final var animKey = entityAnimationKey(viewer.getUniqueId(), entity.getUniqueId());
-      this.entityAnimations.put(animKey, animation);
-
-      // Start animation task
-      cancelIfPresent(this.animationTasks, animKey);
-      final var task = startEntityAnimationTask(entity, animation, viewer);
-      this.animationTasks.put(animKey, task);
-
-      // Schedule stop
-      final var timerKey = entityTimerKey(viewer.getUniqueId(), entity.getUniqueId());
-      cancelIfPresent(this.entityTimers, timerKey);
-      this.entityTimers.put(timerKey, runLater(durationTicks, () -> stopEntity(entity, viewer)));
+      final var key = EntityTarget.of(viewer, entity);
+      this.animationEngine.animate(key, entity, viewer, animation, this.entityRenderer);
+      this.animationEngine.expireAfter(key, durationTicks, () -> stopEntity(entity, viewer));
       this.totalOperations.incrementAndGet();
     }
   }
 
   @Override
   public void glowBlockAnimated(final @NotNull Block block, final @NotNull GlowAnimation animation, final @NotNull Player... viewers) {
+    final var blockKey = BlockKey.of(block);
     for (final var viewer : viewers) {
       if (!isViewerValid(viewer)) continue;
 
-      final var animKey = blockAnimationKey(viewer.getUniqueId(), BlockKey.of(block));
-      this.blockAnimations.put(animKey, animation);
-
-      // Start animation task
-      cancelIfPresent(this.animationTasks, animKey);
-      final var task = startBlockAnimationTask(block, animation, viewer);
-      this.animationTasks.put(animKey, task);
+      this.animationEngine.animate(new BlockTarget(viewer.getUniqueId(), blockKey), block, viewer, animation, this.blockRenderer);
       this.totalOperations.incrementAndGet();
     }
   }
 
   @Override
   public void glowBlockAnimated(final @NotNull Block block, final @NotNull GlowAnimation animation, final long durationTicks, final @NotNull Player... viewers) {
+    final var blockKey = BlockKey.of(block);
     for (final var viewer : viewers) {
       if (!isViewerValid(viewer)) continue;
 
-      final var animKey = blockAnimationKey(viewer.getUniqueId(), BlockKey.of(block));
-      this.blockAnimations.put(animKey, animation);
-
-      // Start animation task
-      cancelIfPresent(this.animationTasks, animKey);
-      final var task = startBlockAnimationTask(block, animation, viewer);
-      this.animationTasks.put(animKey, task);
-
-      // Schedule stop
-      final var key = BlockKey.of(block);
-      final var timerKey = blockTimerKey(viewer.getUniqueId(), key);
-      cancelIfPresent(this.blockTimers, timerKey);
-      this.blockTimers.put(timerKey, runLater(durationTicks, () -> stopBlock(block, viewer)));
+      final var key = new BlockTarget(viewer.getUniqueId(), blockKey);
+      this.animationEngine.animate(key, block, viewer, animation, this.blockRenderer);
+      this.animationEngine.expireAfter(key, durationTicks, () -> stopBlock(block, viewer));
       this.totalOperations.incrementAndGet();
     }
   }
@@ -383,34 +338,14 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
   public void glowEntitiesMatching(final @NotNull Predicate<Entity> condition, final @NotNull ChatColor color, final long checkInterval, final @NotNull Player viewer) {
     if (!isViewerValid(viewer)) return;
 
-    // Stop existing conditional glow
-    stopConditionalGlowing(viewer);
-
-    // Start new conditional glow
-    final var task = new TickTask() {
-      @Override
-      public void onTick() {
-        viewer.getWorld().getEntities().stream()
-          .filter(condition)
-          .forEach(entity -> {
-            if (!getGlowingEntities(viewer).contains(entity)) {
-              glowEntity(entity, color, viewer);
-            }
-          });
-      }
-    }.every(checkInterval).start();
-
-    this.conditionalGlows.put(viewer.getUniqueId(), new ConditionalGlow(condition, color, checkInterval, task));
+    this.conditionalGlows.start(viewer, condition, color, checkInterval);
     this.totalOperations.incrementAndGet();
   }
 
   @Override
   public void stopConditionalGlowing(final @NotNull Player viewer) {
-    final var conditional = this.conditionalGlows.remove(viewer.getUniqueId());
-    if (conditional != null) {
-      conditional.task().stop();
+    if (this.conditionalGlows.stop(viewer.getUniqueId()))
       this.totalOperations.incrementAndGet();
-    }
   }
 
   // ###############################################################
@@ -521,8 +456,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
           if (rev.isEmpty()) this.viewersByEntity.remove(entity.getUniqueId());
         }
 
-        cancelIfPresent(this.entityTimers, entityTimerKey(viewerUniqueId, entity.getUniqueId()));
-        cancelIfPresent(this.animationTasks, entityAnimationKey(viewerUniqueId, entity.getUniqueId()));
+        this.animationEngine.cancel(new EntityTarget(viewerUniqueId, entity.getUniqueId()));
       }
     }
 
@@ -536,8 +470,7 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
           if (rev.isEmpty()) this.viewersByBlock.remove(bk);
         }
 
-        cancelIfPresent(this.blockTimers, blockTimerKey(viewerUniqueId, bk));
-        cancelIfPresent(this.animationTasks, blockAnimationKey(viewerUniqueId, bk));
+        this.animationEngine.cancel(new BlockTarget(viewerUniqueId, bk));
       }
     }
 
@@ -608,53 +541,99 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
   }
 
   // ###############################################################
-  // ------------------------ ANIMATION TASKS ----------------------
+  // ------------------------- RENDERERS ---------------------------
   // ###############################################################
 
-  private TickTask<?> startEntityAnimationTask(final @NotNull Entity entity, final @NotNull GlowAnimation animation, final @NotNull Player viewer) {
-    return new TickTask() {
-      private long tick = 0;
+  /**
+   * Recolours animated entities: set events are still fired per entity, then each viewer gets
+   * its entities moved with one team packet per colour.
+   */
+  private final class EntityGlowRenderer implements GlowAnimationEngine.Renderer {
 
-      @Override
-      public void onTick() {
-        if (!isEntityValid(entity) || !isViewerValid(viewer)) {
-          stop();
-          return;
-        }
+    @Override
+    public boolean isValid(final @NotNull Object target, final @NotNull Player viewer) {
+      return isEntityValid((Entity) target) && isViewerValid(viewer);
+    }
 
-        final var color = animation.getColorAtTick(tick);
-        showEntityToViewer(entity, color, viewer);
+    @Override
+    public void render(final @NotNull ChatColor color, final @NotNull Object[] targets, final @NotNull Player[] viewers) {
+      final Map<Player, List<Entity>> batches = new LinkedHashMap<>();
+      for (var i = 0; i < targets.length; i++)
+        batches.computeIfAbsent(viewers[i], k -> new ArrayList<>()).add((Entity) targets[i]);
 
-        if (animation.isComplete(tick)) {
-          stop();
-        }
+      for (final var entry : batches.entrySet())
+        showEntitiesToViewer(entry.getValue(), color, entry.getKey());
+    }
 
-        tick++;
-      }
-    }.every(5L).start(); // Update every 5 ticks (4 times per second)
   }
 
-  private TickTask<?> startBlockAnimationTask(final @NotNull Block block, final @NotNull GlowAnimation animation, final @NotNull Player viewer) {
-    return new TickTask() {
-      private long tick = 0;
+  /**
+   * Applies the diffs of conditional glows, keeping the viewer state and reverse index in sync.
+   * Entities already glowing for the viewer, e.g. through another call, are left untouched.
+   */
+  private final class ConditionalGlowApplier implements ConditionalGlowEvaluator.Applier {
 
-      @Override
-      public void onTick() {
-        if (!isBlockValid(block) || !isViewerValid(viewer)) {
-          stop();
-          return;
-        }
+    @Override
+    public @NotNull Collection<Entity> glow(final @NotNull Collection<Entity> entities, final @NotNull ChatColor color, final @NotNull Player viewer) {
+      final var viewerState = byViewer.computeIfAbsent(viewer.getUniqueId(), id -> new ViewerState());
+      final var fresh = entities.stream()
+        .filter(entity -> !viewerState.entities.containsKey(entity))
+        .toList();
+      if (fresh.isEmpty()) return fresh;
+
+      final var glowed = showEntitiesToViewer(fresh, color, viewer);
+      for (final var entity : glowed) {
+        viewerState.entities.put(entity, color);
+        viewersByEntity.computeIfAbsent(entity.getUniqueId(), k -> ConcurrentHashMap.newKeySet())
+          .add(viewer.getUniqueId());
+      }
 
-        final var color = animation.getColorAtTick(tick);
-        showBlockToViewer(block, color, viewer);
+      totalOperations.addAndGet(glowed.size());
+      return glowed;
+    }
+
+    @Override
+    public @NotNull Collection<Entity> unglow(final @NotNull Collection<Entity> entities, final @NotNull Player viewer) {
+      final var hidden = hideEntitiesFromViewer(entities, viewer);
+      final var viewerState = byViewer.get(viewer.getUniqueId());
+
+      for (final var entity : hidden) {
+        if (viewerState != null) viewerState.entities.remove(entity);
 
-        if (animation.isComplete(tick)) {
-          stop();
+        final var rev = viewersByEntity.get(entity.getUniqueId());
+        if (rev != null) {
+          rev.remove(viewer.getUniqueId());
+          if (rev.isEmpty()) viewersByEntity.remove(entity.getUniqueId());
         }
 
-        tick++;
+        animationEngine.cancel(EntityTarget.of(viewer, entity));
       }
-    }.every(5L).start();
+
+      totalOperations.addAndGet(hidden.size());
+      return hidden;
+    }
+
+    @Override
+    public @Nullable ChatColor colorOf(final @NotNull Entity entity, final @NotNull Player viewer) {
+      final var viewerState = byViewer.get(viewer.getUniqueId());
+      return viewerState == null ? null : viewerState.entities.get(entity);
+    }
+
+  }
+
+  private final class BlockGlowRenderer implements GlowAnimationEngine.Renderer {
+
+    @Override
+    public boolean isValid(final @NotNull Object target, final @NotNull Player viewer) {
+      return isBlockValid((Block) target) && isViewerValid(viewer);
+    }
+
+    @Override
+    public void render(final @NotNull ChatColor color, final @NotNull Object[] targets, final @NotNull Player[] viewers) {
+      for (var i = 0; i < targets.length; i++)
+        showBlockToViewer((Block) targets[i], color, viewers[i]);
+    }
+
   }
 
   // ###############################################################
@@ -689,6 +668,58 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     }
   }
 
+  /**
+   * Fires the set event of each entity, then applies the accepted ones with one team packet per
+   * resulting colour.
+   *
+   * @return the entities now glowing
+   */
+  private @NotNull List<Entity> showEntitiesToViewer(final @NotNull Collection<Entity> entities, final @NotNull ChatColor color, final @NotNull Player viewer) {
+    final Map<ChatColor, List<Entity>> byColor = new EnumMap<>(ChatColor.class);
+    for (final var entity : entities) {
+      final var event = new GlowingEntitySetEvent(viewer, color, entity);
+      DreamAPI.getAPI().callEvent(event);
+      if (event.isCancelled()) continue;
+
+      byColor.computeIfAbsent(event.getColor(), k -> new ArrayList<>()).add(entity);
+    }
+
+    final List<Entity> shown = new ArrayList<>();
+    for (final var entry : byColor.entrySet()) {
+      try {
+        this.entityManager.setGlowing(entry.getValue(), viewer, entry.getKey(), DEFAULT_OPTIONS);
+        shown.addAll(entry.getValue());
+      } catch (ReflectiveOperationException e) {
+        DreamAPI.getAPI().getLogger().warning("Failed to set entity glowing: " + e.getMessage());
+      }
+    }
+    return shown;
+  }
+
+  /**
+   * Fires the unset event of each entity, then removes the accepted ones in one batch.
+   *
+   * @return the entities no longer glowing
+   */
+  private @NotNull List<Entity> hideEntitiesFromViewer(final @NotNull Collection<Entity> entities, final @NotNull Player viewer) {
+    final List<Entity> hidden = new ArrayList<>();
+    for (final var entity : entities) {
+      final var event = new GlowingEntityUnSetEvent(viewer, entity);
+      DreamAPI.getAPI().callEvent(event);
+      if (!event.isCancelled()) hidden.add(entity);
+    }
+
+    if (hidden.isEmpty()) return hidden;
+
+    try {
+      this.entityManager.unsetGlowing(hidden, viewer);
+      return hidden;
+    } catch (ReflectiveOperationException e) {
+      DreamAPI.getAPI().getLogger().warning("Failed to unset entity glowing: " + e.getMessage());
+      return List.of();
+    }
+  }
+
   private boolean showBlockToViewer(final @NotNull Block block, final @NotNull ChatColor color, final @NotNull Player viewer) {
     final var event = new GlowingBlockSetEvent(viewer, color, block);
     DreamAPI.getAPI().callEvent(event);
@@ -733,37 +764,6 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     return b != null && b.getType() != Material.AIR;
   }
 
-  private String entityTimerKey(final UUID viewerId, final UUID entityId) {
-    return viewerId + "|" + entityId;
-  }
-
-  private String blockTimerKey(final UUID viewerId, final BlockKey key) {
-    return viewerId + "|" + key.toString();
-  }
-
-  private String entityAnimationKey(final UUID viewerId, final UUID entityId) {
-    return "anim_" + viewerId + "|" + entityId;
-  }
-
-  private String blockAnimationKey(final UUID viewerId, final BlockKey key) {
-    return "anim_" + viewerId + "|" + key.toString();
-  }
-
-  private void cancelIfPresent(final Map<String, TickTask<?>> map, final String key) {
-    final var task = map.remove(key);
-    if (task != null)
-      task.stop();
-  }
-
-  private TickTask<?> runLater(final long ticks, final Runnable action) {
-    return new TickTask() {
-      @Override public void onEnd() { action.run(); }
-    }.limit(1)
-      .delay(ticks)
-      .autoStop(true)
-      .start();
-  }
-
   // ###############################################################
   // --------------------------- CLASS -----------------------------
   // ###############################################################
@@ -782,7 +782,15 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     }
   }
 
-  private record ConditionalGlow(Predicate<Entity> condition, ChatColor color, long checkInterval, TickTask<?> task) {}
+  /** Animation / expiry key of an entity glowing for a viewer. */
+  private record EntityTarget(UUID viewer, UUID entity) {
+    static EntityTarget of(final Player viewer, final Entity entity) {
+      return new EntityTarget(viewer.getUniqueId(), entity.getUniqueId());
+    }
+  }
+
+  /** Animation / expiry key of a block glowing for a viewer. */
+  private record BlockTarget(UUID viewer, BlockKey block) {}
 
   // ###############################################################
   // ---------------------- LISTENER METHODS -----------------------
@@ -805,6 +813,18 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     stopBlock(event.getBlock());
   }
 
+  @EventHandler(priority = EventPriority.MONITOR)
+  private void onViewerChunkLoad(final @NotNull PlayerChunkLoadEvent event) {
+    final var chunk = event.getChunk();
+    this.blockManager.onChunkLoad(event.getPlayer(), chunk.getX(), chunk.getZ(), chunk.getWorld());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  private void onViewerChunkUnload(final @NotNull PlayerChunkUnloadEvent event) {
+    final var chunk = event.getChunk();
+    this.blockManager.onChunkUnload(event.getPlayer(), chunk.getX(), chunk.getZ(), chunk.getWorld());
+  }
+
   // ###############################################################
   // ------------------------- STATS IMPL --------------------------
   // ###############################################################
@@ -872,5 +892,25 @@ public final class GlowingServiceImpl implements GlowingService, DreamService, L
     public long getTotalOperations() {
       return totalOperations.get();
     }
+
+    @Override
+    public long getTeamPacketCacheHits() {
+      return entityManager.getTeamCache().getPacketHits();
+    }
+
+    @Override
+    public long getTeamPacketCacheMisses() {
+      return entityManager.getTeamCache().getPacketMisses();
+    }
+
+    @Override
+    public long getTeamPacketCacheEvictions() {
+      return entityManager.getTeamCache().getPacketEvictions();
+    }
+
+    @Override
+    public int getTeamPacketCacheSize() {
+      return entityManager.getTeamCache().getCachedPacketCount();
+    }
   }
 }
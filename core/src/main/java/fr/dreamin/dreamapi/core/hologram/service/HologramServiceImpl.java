@@ -1,12 +1,10 @@
 package fr.dreamin.dreamapi.core.hologram.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import fr.dreamin.dreamapi.api.config.Configurations;
 import fr.dreamin.dreamapi.api.hologram.animation.AnimationEngine;
-import fr.dreamin.dreamapi.api.hologram.event.HologramSaveEvent;
 import fr.dreamin.dreamapi.api.hologram.model.DreamHologram;
 import fr.dreamin.dreamapi.api.hologram.model.Hologram;
 import fr.dreamin.dreamapi.api.hologram.service.HologramService;
+import fr.dreamin.dreamapi.api.hologram.service.HologramStorageFormat;
 import fr.dreamin.dreamapi.api.services.DreamAutoService;
 import fr.dreamin.dreamapi.api.services.DreamService;
 import org.bukkit.Location;
@@ -16,11 +14,10 @@ import org.jetbrains.annotations.NotNull;
 import java.io.File;
 import java.io.IOException;
 import java.util.Collection;
-import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.logging.Level;
 
 @DreamAutoService(HologramService.class)
 public final class HologramServiceImpl implements HologramService, DreamService {
@@ -29,6 +26,7 @@ public final class HologramServiceImpl implements HologramService, DreamService
   private final @NotNull File dataFolder;
   private final Map<String, Hologram> holograms = new ConcurrentHashMap<>();
   private final AnimationEngine engine;
+  private final HologramStore store;
 
   // ###############################################################
   // ----------------------- PUBLIC METHODS ------------------------
@@ -40,6 +38,7 @@ public final class HologramServiceImpl implements HologramService, DreamService
     this.dataFolder.mkdirs();
     this.engine = new AnimationEngine(this.plugin, this.holograms::values);
     this.engine.start();
+    this.store = new HologramStore(this.plugin, this.dataFolder);
   }
 
   // ###############################################################
@@ -49,6 +48,7 @@ public final class HologramServiceImpl implements HologramService, DreamService
   @Override
   public void onClose() {
     shutdown();
+    this.store.shutdown();
   }
 
   // ##############################################################
@@ -126,24 +126,42 @@ public final class HologramServiceImpl implements HologramService, DreamService
 
   @Override
   public void save(@NotNull Hologram hologram, @NotNull File file) throws IOException {
-    if (!new HologramSaveEvent(hologram.getId(), hologram, file).callEvent())
-      return;
-    Configurations.MAPPER.writerWithDefaultPrettyPrinter().writeValue(file, hologram);
+    this.store.save(hologram, file);
   }
 
   @Override
   public void save(@NotNull String id) throws IOException {
-    save(id, new File(this.dataFolder, id + ".json"));
+    save(id, this.store.defaultFile(id));
   }
 
   @Override
   public void save(@NotNull Hologram hologram) throws IOException {
-    save(hologram, new File(this.dataFolder, hologram.getId() + ".json"));
+    save(hologram, this.store.defaultFile(hologram.getId()));
+  }
+
+  @Override
+  public void saveLater(@NotNull Hologram hologram) {
+    this.store.saveLater(hologram);
+  }
+
+  @Override
+  public @NotNull CompletableFuture<Void> flush() {
+    return this.store.flush();
+  }
+
+  @Override
+  public @NotNull HologramStorageFormat getStorageFormat() {
+    return this.store.getFormat();
+  }
+
+  @Override
+  public void setStorageFormat(@NotNull HologramStorageFormat format) {
+    this.store.setFormat(format);
   }
 
   @Override
   public @NotNull Hologram load(@NotNull File file) throws IOException {
-    final var hologram = Configurations.MAPPER.readValue(file, Hologram.class);
+    final var hologram = this.store.read(file);
     this.holograms.put(hologram.getId(), hologram);
     return hologram;
   }
@@ -151,23 +169,19 @@ public final class HologramServiceImpl implements HologramService, DreamService
   @Override
   public void loadAll() {
     final var files = this.dataFolder.listFiles(
-      (dir, name) -> name.endsWith(".json")
+      (dir, name) -> HologramStorageFormat.fromFileName(name) != null
     );
 
     if (files == null) return;
-    for (final var f : files) {
-      try {
-        load(f);
-      } catch (IOException e) {
-        this.plugin.getLogger().log(Level.SEVERE, "Failed to load hologram: " + f.getName(), e);
-      }
-    }
+    for (final var hologram : this.store.readAll(files))
+      this.holograms.put(hologram.getId(), hologram);
 
   }
 
   @Override
   public void shutdown() {
     this.engine.stop();
+    this.store.flush();
     this.holograms.values().forEach(Hologram::despawn);
   }
 
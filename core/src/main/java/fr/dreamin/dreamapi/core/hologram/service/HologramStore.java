@@ -0,0 +1,312 @@
+package fr.dreamin.dreamapi.core.hologram.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import fr.dreamin.dreamapi.api.config.Configurations;
+import fr.dreamin.dreamapi.api.hologram.event.HologramSaveEvent;
+import fr.dreamin.dreamapi.api.hologram.model.Hologram;
+import fr.dreamin.dreamapi.api.hologram.service.HologramStorageFormat;
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+
+/**
+ * Reads and writes hologram files.
+ * <p>
+ * Holograms saved later are kept by id until the next flush, one second after the first of
+ * them, so repeated saves of a hologram end in a single write; the hologram itself is kept, so
+ * one deleted or replaced in the meantime is still written as it was. A flush serializes them
+ * on the main thread, where holograms are modified, and hands the bytes to a single writer
+ * thread, which also performs the immediate saves. Every write goes to a temporary file first,
+ * then atomically replaces the target, so a crash never leaves a half-written hologram behind.
+ * <p>
+ * {@link #readAll(File[])} parses files on a pool sized to the available processors and keeps
+ * one hologram per id, read from the most recently written of its files.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class HologramStore {
+
+  private static final long FLUSH_DELAY_TICKS = 20L;
+  private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+  private final @NotNull Plugin plugin;
+  private final @NotNull File dataFolder;
+
+  /** Single thread: writes of a file must not overlap nor be reordered. */
+  private final ExecutorService writer = Executors.newSingleThreadExecutor(new StoreThreadFactory("DreamAPI-HologramWriter-"));
+
+  private final Map<String, Hologram> pending = new LinkedHashMap<>();
+  private @Nullable BukkitTask flushTask;
+  private @NotNull HologramStorageFormat format = HologramStorageFormat.JSON;
+
+  private @Nullable ObjectMapper smileMapper;
+  private @Nullable ObjectMapper smileSource;
+
+  HologramStore(final @NotNull Plugin plugin, final @NotNull File dataFolder) {
+    this.plugin = plugin;
+    this.dataFolder = dataFolder;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  @NotNull HologramStorageFormat getFormat() {
+    return this.format;
+  }
+
+  void setFormat(final @NotNull HologramStorageFormat format) {
+    this.format = format;
+  }
+
+  @NotNull File defaultFile(final @NotNull String id) {
+    return new File(this.dataFolder, id + this.format.getExtension());
+  }
+
+  /**
+   * Writes a hologram now: serialized on the calling thread, written by the writer after the
+   * writes already queued, and waited for.
+   */
+  void save(final @NotNull Hologram hologram, final @NotNull File file) throws IOException {
+    if (!new HologramSaveEvent(hologram.getId(), hologram, file).callEvent())
+      return;
+
+    final var bytes = serialize(hologram, formatOf(file));
+    // After shutdown, nothing is left queued
+    if (this.writer.isShutdown()) {
+      write(file.toPath(), bytes);
+      deleteSiblings(file);
+      return;
+    }
+
+    try {
+      this.writer.submit(() -> {
+        write(file.toPath(), bytes);
+        deleteSiblings(file);
+        return null;
+      }).get();
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException io) throw io;
+      throw new IOException("Failed to save hologram: " + hologram.getId(), e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while saving hologram: " + hologram.getId(), e);
+    }
+  }
+
+  void saveLater(final @NotNull Hologram hologram) {
+    this.pending.put(hologram.getId(), hologram);
+    if (this.flushTask == null)
+      this.flushTask = Bukkit.getScheduler().runTaskLater(this.plugin, this::flush, FLUSH_DELAY_TICKS);
+  }
+
+  /** Serializes every pending hologram and queues its write. Main thread only. */
+  @NotNull CompletableFuture<Void> flush() {
+    if (this.flushTask != null) {
+      this.flushTask.cancel();
+      this.flushTask = null;
+    }
+
+    final Map<File, byte[]> writes = new LinkedHashMap<>();
+    for (final var entry : this.pending.entrySet()) {
+      final var id = entry.getKey();
+      final var hologram = entry.getValue();
+
+      final var file = defaultFile(id);
+      if (!new HologramSaveEvent(id, hologram, file).callEvent()) continue;
+
+      try {
+        writes.put(file, serialize(hologram, this.format));
+      } catch (IOException e) {
+        this.plugin.getLogger().log(Level.SEVERE, "Failed to save hologram: " + id, e);
+      }
+    }
+    this.pending.clear();
+
+    if (writes.isEmpty())
+      return CompletableFuture.completedFuture(null);
+
+    return CompletableFuture.runAsync(() -> {
+      for (final var entry : writes.entrySet()) {
+        try {
+          write(entry.getKey().toPath(), entry.getValue());
+          deleteSiblings(entry.getKey());
+        } catch (IOException e) {
+          this.plugin.getLogger().log(Level.SEVERE, "Failed to save hologram: " + entry.getKey().getName(), e);
+        }
+      }
+    }, this.writer);
+  }
+
+  @NotNull Hologram read(final @NotNull File file) throws IOException {
+    return mapper(formatOf(file)).readValue(file, Hologram.class);
+  }
+
+  /**
+   * Parses files in parallel. Files that fail are logged and skipped. When several files hold
+   * the same id, e.g. both formats left by a crash before the old one was deleted, the most
+   * recently modified wins, then the file in the current format.
+   *
+   * @return the holograms read, one per id, in the order of {@code files}
+   */
+  @NotNull List<Hologram> readAll(final @NotNull File[] files) {
+    if (files.length == 0) return List.of();
+
+    // Resolved once here, not concurrently by the readers.
+    final var json = mapper(HologramStorageFormat.JSON);
+    final var smile = mapper(HologramStorageFormat.SMILE);
+
+    final var threads = Math.max(1, Math.min(files.length, Runtime.getRuntime().availableProcessors()));
+    final var pool = Executors.newFixedThreadPool(threads, new StoreThreadFactory("DreamAPI-HologramLoader-"));
+
+    try {
+      final List<Future<Hologram>> futures = new ArrayList<>(files.length);
+      for (final var file : files) {
+        final var mapper = formatOf(file) == HologramStorageFormat.SMILE ? smile : json;
+        futures.add(pool.submit(() -> mapper.readValue(file, Hologram.class)));
+      }
+
+      final Map<String, Loaded> holograms = new LinkedHashMap<>(files.length * 2);
+      for (var i = 0; i < files.length; i++) {
+        try {
+          final var loaded = new Loaded(futures.get(i).get(), files[i]);
+          holograms.merge(loaded.hologram.getId(), loaded, this::newest);
+        } catch (ExecutionException e) {
+          this.plugin.getLogger().log(Level.SEVERE, "Failed to load hologram: " + files[i].getName(), e.getCause());
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          break;
+        }
+      }
+
+      final List<Hologram> result = new ArrayList<>(holograms.size());
+      holograms.values().forEach(loaded -> result.add(loaded.hologram));
+      return result;
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /** Flushes what is pending and waits for every queued write. */
+  void shutdown() {
+    flush();
+    this.writer.shutdown();
+
+    try {
+      if (!this.writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        this.plugin.getLogger().warning("Hologram writes still running after " + SHUTDOWN_TIMEOUT_SECONDS + "s, giving up");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @NotNull byte[] serialize(final @NotNull Hologram hologram, final @NotNull HologramStorageFormat format) throws IOException {
+    if (format == HologramStorageFormat.JSON)
+      return Configurations.MAPPER.writerWithDefaultPrettyPrinter().writeValueAsBytes(hologram);
+    return mapper(format).writeValueAsBytes(hologram);
+  }
+
+  /** The Smile mapper is a copy of {@link Configurations#MAPPER}, redone when it was replaced. */
+  private synchronized @NotNull ObjectMapper mapper(final @NotNull HologramStorageFormat format) {
+    final var source = Configurations.MAPPER;
+    if (format == HologramStorageFormat.JSON)
+      return source;
+
+    if (this.smileMapper == null || this.smileSource != source) {
+      this.smileMapper = source.copyWith(new SmileFactory());
+      this.smileSource = source;
+    }
+    return this.smileMapper;
+  }
+
+  private @NotNull Loaded newest(final @NotNull Loaded current, final @NotNull Loaded other) {
+    final var currentModified = current.file.lastModified();
+    final var otherModified = other.file.lastModified();
+    final Loaded keep;
+    if (currentModified != otherModified)
+      keep = otherModified > currentModified ? other : current;
+    else
+      keep = formatOf(other.file) == this.format && formatOf(current.file) != this.format ? other : current;
+
+    this.plugin.getLogger().warning("Hologram " + current.hologram.getId() + " found in several files, loaded from " + keep.file.getName());
+    return keep;
+  }
+
+  /** A newly written file replaces the files of the same hologram in other formats. */
+  private void deleteSiblings(final @NotNull File file) throws IOException {
+    final var name = file.getName();
+    final var format = formatOf(file);
+    final var base = name.substring(0, name.length() - format.getExtension().length());
+
+    for (final var other : HologramStorageFormat.values()) {
+      if (other != format)
+        Files.deleteIfExists(file.toPath().resolveSibling(base + other.getExtension()));
+    }
+  }
+
+  private static @NotNull HologramStorageFormat formatOf(final @NotNull File file) {
+    final var format = HologramStorageFormat.fromFileName(file.getName());
+    return format != null ? format : HologramStorageFormat.JSON;
+  }
+
+  private static void write(final @NotNull Path target, final @NotNull byte[] bytes) throws IOException {
+    final var directory = target.toAbsolutePath().getParent();
+    Files.createDirectories(directory);
+
+    final var temp = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+    try {
+      Files.write(temp, bytes);
+      try {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } finally {
+      Files.deleteIfExists(temp);
+    }
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private record Loaded(@NotNull Hologram hologram, @NotNull File file) {}
+
+  private static final class StoreThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private StoreThreadFactory(final @NotNull String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(final @NotNull Runnable runnable) {
+      final var thread = new Thread(runnable, this.prefix + this.counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+
+  }
+
+}
@@ -0,0 +1,251 @@
+package fr.dreamin.dreamapi.core.navigate.cache;
+
+import fr.dreamin.dreamapi.api.navigate.model.AStartPathFinder;
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import fr.dreamin.dreamapi.api.util.collection.LongIntMap;
+import fr.dreamin.dreamapi.api.util.collection.LongObjectMap;
+import org.bukkit.Material;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Shared cache of computed paths, keyed by the region the search started in, the goal
+ * block and the pathfinder options.
+ * <p>
+ * Every entry remembers the chunks its path crosses and is dropped as soon as a block
+ * changes in one of them. Searches still running when a block changes near them are not
+ * cached. Main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class PathCache {
+
+  /** Start positions are grouped in 8x8x8 regions. */
+  private static final int REGION_SHIFT = 3;
+
+  private static final int MAX_ENTRIES = 512;
+  private static final long TTL_MILLIS = 60_000L;
+
+  /** Chunks around the start and goal box in which a change invalidates a running search. */
+  private static final int PENDING_MARGIN_CHUNKS = 2;
+
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(final Map.Entry<Key, Entry> eldest) {
+      if (size() <= MAX_ENTRIES) return false;
+      unlink(eldest.getKey(), eldest.getValue());
+      return true;
+    }
+  };
+
+  private final Map<UUID, LongObjectMap<List<Key>>> byChunk = new HashMap<>();
+  private final List<Ticket> pending = new ArrayList<>();
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  /**
+   * @return the cached path, or null on a miss or if the entry expired
+   */
+  public long @Nullable [] get(final @NotNull Key key) {
+    final var entry = this.entries.get(key);
+    if (entry == null)
+      return null;
+
+    if (System.currentTimeMillis() - entry.createdAt() > TTL_MILLIS) {
+      this.entries.remove(key);
+      unlink(key, entry);
+      return null;
+    }
+    return entry.path();
+  }
+
+  /**
+   * Registers a search about to run, so block changes near it while it runs are noticed.
+   *
+   * @param world the world searched
+   * @param start the packed start block
+   * @param goal the packed goal block
+   * @return the ticket to hand to {@link #complete(Ticket, Key, long[])} or {@link #release(Ticket)}
+   */
+  public @NotNull Ticket begin(final @NotNull UUID world, final long start, final long goal) {
+    final var startX = PackedCoords.blockX(start) >> 4;
+    final var startZ = PackedCoords.blockZ(start) >> 4;
+    final var goalX = PackedCoords.blockX(goal) >> 4;
+    final var goalZ = PackedCoords.blockZ(goal) >> 4;
+
+    final var ticket = new Ticket(world,
+      Math.min(startX, goalX) - PENDING_MARGIN_CHUNKS, Math.min(startZ, goalZ) - PENDING_MARGIN_CHUNKS,
+      Math.max(startX, goalX) + PENDING_MARGIN_CHUNKS, Math.max(startZ, goalZ) + PENDING_MARGIN_CHUNKS);
+    this.pending.add(ticket);
+    return ticket;
+  }
+
+  /**
+   * Ends a search and caches its path, unless it is empty or blocks changed near it meanwhile.
+   */
+  public void complete(final @NotNull Ticket ticket, final @NotNull Key key, final long @NotNull [] path) {
+    this.pending.remove(ticket);
+    if (ticket.dirty || path.length == 0)
+      return;
+
+    final var previous = this.entries.remove(key);
+    if (previous != null)
+      unlink(key, previous);
+
+    final var entry = new Entry(path, chunksOf(path), System.currentTimeMillis());
+    this.entries.put(key, entry);
+
+    final var chunks = this.byChunk.computeIfAbsent(key.world(), k -> new LongObjectMap<>());
+    for (final var chunk : entry.chunks())
+      chunks.computeIfAbsent(chunk, k -> new ArrayList<>()).add(key);
+  }
+
+  /** Ends a search without caching anything. */
+  public void release(final @NotNull Ticket ticket) {
+    this.pending.remove(ticket);
+  }
+
+  /**
+   * Drops every path crossing the chunk of a changed block. Blocks on a chunk edge also
+   * invalidate the neighbouring chunk, whose nodes read across the border.
+   *
+   * @param world the world of the block
+   * @param x block X
+   * @param z block Z
+   */
+  public void invalidateBlock(final @NotNull UUID world, final int x, final int z) {
+    final var chunkX = x >> 4;
+    final var chunkZ = z >> 4;
+    final var edgeX = (x & 15) == 0 ? -1 : (x & 15) == 15 ? 1 : 0;
+    final var edgeZ = (z & 15) == 0 ? -1 : (z & 15) == 15 ? 1 : 0;
+
+    invalidateChunk(world, chunkX, chunkZ);
+    if (edgeX != 0)
+      invalidateChunk(world, chunkX + edgeX, chunkZ);
+    if (edgeZ != 0)
+      invalidateChunk(world, chunkX, chunkZ + edgeZ);
+    if (edgeX != 0 && edgeZ != 0)
+      invalidateChunk(world, chunkX + edgeX, chunkZ + edgeZ);
+  }
+
+  public void invalidateChunk(final @NotNull UUID world, final int chunkX, final int chunkZ) {
+    for (final var ticket : this.pending) {
+      if (ticket.world.equals(world) && chunkX >= ticket.minChunkX && chunkX <= ticket.maxChunkX
+        && chunkZ >= ticket.minChunkZ && chunkZ <= ticket.maxChunkZ)
+        ticket.dirty = true;
+    }
+
+    final var chunks = this.byChunk.get(world);
+    if (chunks == null)
+      return;
+
+    final var keys = chunks.get(PackedCoords.chunkKey(chunkX, chunkZ));
+    if (keys == null)
+      return;
+
+    for (final var key : List.copyOf(keys)) {
+      final var entry = this.entries.remove(key);
+      if (entry != null)
+        unlink(key, entry);
+    }
+  }
+
+  public void invalidateWorld(final @NotNull UUID world) {
+    for (final var ticket : this.pending) {
+      if (ticket.world.equals(world))
+        ticket.dirty = true;
+    }
+    this.entries.keySet().removeIf(key -> key.world().equals(world));
+    this.byChunk.remove(world);
+  }
+
+  public int size() {
+    return this.entries.size();
+  }
+
+  public void clear() {
+    this.entries.clear();
+    this.byChunk.clear();
+    this.pending.forEach(ticket -> ticket.dirty = true);
+    this.pending.clear();
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void unlink(final @NotNull Key key, final @NotNull Entry entry) {
+    final var chunks = this.byChunk.get(key.world());
+    if (chunks == null)
+      return;
+
+    for (final var chunk : entry.chunks()) {
+      final var keys = chunks.get(chunk);
+      if (keys == null) continue;
+      keys.remove(key);
+      if (keys.isEmpty())
+        chunks.remove(chunk);
+    }
+    if (chunks.isEmpty())
+      this.byChunk.remove(key.world());
+  }
+
+  private static long[] chunksOf(final long[] path) {
+    final var seen = new LongIntMap(16, -1);
+    final var chunks = new long[path.length];
+    var count = 0;
+    for (final var key : path) {
+      final var chunk = PackedCoords.chunkKeyOfBlock(PackedCoords.blockX(key), PackedCoords.blockZ(key));
+      if (seen.put(chunk, count) == -1)
+        chunks[count++] = chunk;
+    }
+    return Arrays.copyOf(chunks, count);
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  /**
+   * Cache key. Starts are reduced to their region so that nearby searches towards the same
+   * goal share an entry; the cached path is then joined with {@link AStartPathFinder#reconnect}.
+   */
+  public record Key(@NotNull UUID world, long startRegion, long goal, boolean safeMode,
+                    @NotNull Set<Material> allowedMaterials, @NotNull Set<Material> ignoredMaterials) {
+
+    public static @NotNull Key of(final @NotNull AStartPathFinder finder, final @NotNull UUID world, final long start, final long goal) {
+      final var region = PackedCoords.blockKey(
+        PackedCoords.blockX(start) >> REGION_SHIFT,
+        PackedCoords.blockY(start) >> REGION_SHIFT,
+        PackedCoords.blockZ(start) >> REGION_SHIFT);
+      return new Key(world, region, goal, finder.isSafeMode(),
+        finder.getAllowedMaterials() == null ? Set.of() : Set.copyOf(finder.getAllowedMaterials()),
+        finder.getIgnoredMaterials() == null ? Set.of() : Set.copyOf(finder.getIgnoredMaterials()));
+    }
+
+  }
+
+  public static final class Ticket {
+
+    private final UUID world;
+    private final int minChunkX, minChunkZ, maxChunkX, maxChunkZ;
+    private boolean dirty;
+
+    private Ticket(final UUID world, final int minChunkX, final int minChunkZ, final int maxChunkX, final int maxChunkZ) {
+      this.world = world;
+      this.minChunkX = minChunkX;
+      this.minChunkZ = minChunkZ;
+      this.maxChunkX = maxChunkX;
+      this.maxChunkZ = maxChunkZ;
+    }
+
+  }
+
+  private record Entry(long[] path, long[] chunks, long createdAt) {}
+
+}
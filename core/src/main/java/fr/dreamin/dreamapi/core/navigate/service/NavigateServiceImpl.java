@@ -1,37 +1,93 @@
 package fr.dreamin.dreamapi.core.navigate.service;
 
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
 import fr.dreamin.dreamapi.api.DreamAPI;
 import fr.dreamin.dreamapi.api.navigate.event.entity.EntityMovementStartEvent;
 import fr.dreamin.dreamapi.api.navigate.event.player.PathFindingStartEvent;
 import fr.dreamin.dreamapi.api.navigate.model.AStartPathFinder;
 import fr.dreamin.dreamapi.api.navigate.model.EntityMovementTask;
 import fr.dreamin.dreamapi.api.navigate.model.PathFindingTask;
+import fr.dreamin.dreamapi.api.navigate.model.PortalGraph;
 import fr.dreamin.dreamapi.api.navigate.service.NavigateService;
+import fr.dreamin.dreamapi.api.navigate.world.ChunkSnapshotCache;
+import fr.dreamin.dreamapi.api.navigate.world.PathWorldView;
+import fr.dreamin.dreamapi.api.navigate.world.SnapshotWorldView;
 import fr.dreamin.dreamapi.api.services.DreamAutoService;
 import fr.dreamin.dreamapi.api.services.DreamService;
+import fr.dreamin.dreamapi.api.util.PackedCoords;
+import fr.dreamin.dreamapi.core.navigate.cache.PathCache;
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.Particle;
+import org.bukkit.World;
+import org.bukkit.block.Block;
 import org.bukkit.entity.Entity;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.*;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import org.bukkit.scheduler.BukkitTask;
 
 @DreamAutoService(NavigateService.class)
-public final class NavigateServiceImpl implements DreamService, NavigateService {
+public final class NavigateServiceImpl implements DreamService, NavigateService, Listener {
 
   private static final Particle.DustOptions DEFAULT_DUST = new Particle.DustOptions(Color.fromRGB(220, 20, 60), 1);
 
+  private static final long[] NO_PATH = new long[0];
+
+  /** Expansion budget of the short search joining an existing path. */
+  private static final int RECONNECT_ITERATIONS = 2000;
+
+  /** Beyond this distance searches go through the portal graph of the world and options. */
+  private static final double HIERARCHICAL_DISTANCE = 128.0;
+  private static final int COARSE_ITERATIONS = 20000;
+  /** Expansion budget shared by all the segments of a refined route, the same as one full search. */
+  private static final int REFINE_ITERATIONS = 100000;
+  /** Option sets with a portal graph per world; searches with further options are never hierarchical. */
+  private static final int MAX_GRAPHS_PER_WORLD = 4;
+
+  private static final long GRAPH_CYCLE_TICKS = 10L;
+  private static final int GRAPH_BUILDS_PER_CYCLE = 8;
+  private static final int MAX_GRAPH_QUEUE = 4096;
+
   private final Map<UUID, Set<PathFindingTask>> playerNavigations = new HashMap<>();
   private final Map<UUID, EntityMovementTask> entityMovements = new HashMap<>();
 
+  private final PathCache pathCache = new PathCache();
+  /** Chunk snapshots by world, reused by the searches and replans made there. Main thread only. */
+  private final Map<UUID, ChunkSnapshotCache> snapshots = new HashMap<>();
+
+  private final ExecutorService pathExecutor = Executors.newFixedThreadPool(
+    Math.max(1, Runtime.getRuntime().availableProcessors() / 2), new PathThreadFactory("DreamAPI-PathFinder-"));
+
+  /** Portal graphs by world and pathfinder options, only built once a long-distance search asked for them. */
+  private final Map<UUID, Map<GraphOptions, PortalGraph>> portalGraphs = new HashMap<>();
+  private final Map<UUID, LinkedHashSet<Long>> graphQueue = new HashMap<>();
+  /** Chunks of a world with graphs whose blocks changed this tick, queued once the tick ends. */
+  private final Map<UUID, Set<Long>> changedChunks = new HashMap<>();
+  private final AtomicInteger graphBuildsInFlight = new AtomicInteger();
+  /** Single thread: graph rebuilds must not overlap. */
+  private final ExecutorService graphExecutor = Executors.newSingleThreadExecutor(new PathThreadFactory("DreamAPI-PortalGraph-"));
+  private @Nullable BukkitTask graphTask;
+
   // ###############################################################
   // ----------------------- LIFECYCLE METHODS ---------------------
   // ###############################################################
@@ -43,6 +99,139 @@ public final class NavigateServiceImpl implements DreamService, NavigateService
       if (!task.isCancelled()) task.cancel();
     });
     this.entityMovements.clear();
+    // Interrupts searches waiting on a lazy chunk fetch, they then see the chunk as missing
+    this.pathExecutor.shutdownNow();
+    this.pathCache.clear();
+    this.snapshots.clear();
+
+    if (this.graphTask != null) {
+      this.graphTask.cancel();
+      this.graphTask = null;
+    }
+    this.graphExecutor.shutdownNow();
+    this.portalGraphs.clear();
+    this.graphQueue.clear();
+    this.changedChunks.clear();
+  }
+
+  // ###############################################################
+  // ---------------------- CACHE INVALIDATION ---------------------
+  // ###############################################################
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockPlace(final @NotNull BlockPlaceEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockBreak(final @NotNull BlockBreakEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockExplode(final @NotNull BlockExplodeEvent event) {
+    event.blockList().forEach(this::invalidate);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onEntityExplode(final @NotNull EntityExplodeEvent event) {
+    event.blockList().forEach(this::invalidate);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onPistonExtend(final @NotNull BlockPistonExtendEvent event) {
+    invalidate(event.getBlock().getRelative(event.getDirection()));
+    event.getBlocks().forEach(block -> invalidate(block.getRelative(event.getDirection())));
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onPistonRetract(final @NotNull BlockPistonRetractEvent event) {
+    invalidate(event.getBlock().getRelative(event.getDirection().getOppositeFace()));
+    event.getBlocks().forEach(this::invalidate);
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockBurn(final @NotNull BlockBurnEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockFade(final @NotNull BlockFadeEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockForm(final @NotNull BlockFormEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onLeavesDecay(final @NotNull LeavesDecayEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onEntityChangeBlock(final @NotNull EntityChangeBlockEvent event) {
+    invalidate(event.getBlock());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+  private void onBlockFromTo(final @NotNull BlockFromToEvent event) {
+    invalidate(event.getToBlock());
+  }
+
+  @EventHandler
+  private void onWorldUnload(final @NotNull WorldUnloadEvent event) {
+    this.pathCache.invalidateWorld(event.getWorld().getUID());
+    this.snapshots.remove(event.getWorld().getUID());
+    this.portalGraphs.remove(event.getWorld().getUID());
+    this.graphQueue.remove(event.getWorld().getUID());
+    this.changedChunks.remove(event.getWorld().getUID());
+  }
+
+  @EventHandler
+  private void onChunkLoad(final @NotNull ChunkLoadEvent event) {
+    final var uid = event.getWorld().getUID();
+    if (this.portalGraphs.containsKey(uid))
+      queueGraphChunk(uid, PackedCoords.chunkKey(event.getChunk().getX(), event.getChunk().getZ()));
+  }
+
+  @EventHandler
+  private void onChunkUnload(final @NotNull ChunkUnloadEvent event) {
+    final var chunkX = event.getChunk().getX();
+    final var chunkZ = event.getChunk().getZ();
+    final var snapshots = this.snapshots.get(event.getWorld().getUID());
+    if (snapshots != null)
+      snapshots.invalidate(chunkX, chunkZ);
+
+    final var graphs = this.portalGraphs.get(event.getWorld().getUID());
+    if (graphs == null)
+      return;
+
+    final var chunkKey = PackedCoords.chunkKey(chunkX, chunkZ);
+    final var queue = this.graphQueue.get(event.getWorld().getUID());
+    if (queue != null)
+      queue.remove(chunkKey);
+    final var changed = this.changedChunks.get(event.getWorld().getUID());
+    if (changed != null)
+      changed.remove(chunkKey);
+
+    // On the graph thread, after the rebuilds already submitted for this chunk
+    final var targets = List.copyOf(graphs.values());
+    try {
+      this.graphExecutor.execute(() -> targets.forEach(graph -> graph.removeChunk(chunkX, chunkZ)));
+    } catch (RejectedExecutionException ignored) {
+    }
+  }
+
+  /** Queues the chunks changed during the tick once, however many of their blocks changed. */
+  @EventHandler
+  private void onServerTickEnd(final @NotNull ServerTickEndEvent event) {
+    if (this.changedChunks.isEmpty())
+      return;
+
+    this.changedChunks.forEach((world, chunks) -> chunks.forEach(chunkKey -> queueGraphChunk(world, chunkKey)));
+    this.changedChunks.clear();
   }
 
   // ###############################################################
@@ -67,16 +256,105 @@ public final class NavigateServiceImpl implements DreamService, NavigateService
                                            final boolean safeMode, final @NotNull Set<Material> allowedMaterials,
                                            final @NotNull Set<Material> ignoredMaterials,
                                            final @NotNull Consumer<List<Location>> callback) {
-    // Capture block locations on main thread before going async (Bukkit API is not thread-safe)
-    final var startBlock = start.getBlock().getLocation();
-    final var endBlock = end.getBlock().getLocation();
-    final var finder = new AStartPathFinder(safeMode, allowedMaterials, ignoredMaterials);
-
-    return Bukkit.getScheduler().runTaskAsynchronously(DreamAPI.getAPI().plugin(), () -> {
-      final var path = finder.findPath(startBlock, endBlock);
-      // Deliver result on the main thread
-      Bukkit.getScheduler().runTask(DreamAPI.getAPI().plugin(), () -> callback.accept(path));
-    });
+    // Searched on the path pool like findPath; the returned task only hands the result over
+    final var task = new ResultTask(DreamAPI.getAPI().plugin());
+    findPath(new AStartPathFinder(safeMode, allowedMaterials, ignoredMaterials), start, end).whenComplete((path, throwable) ->
+      runOnMain(() -> {
+        if (!task.isCancelled())
+          callback.accept(throwable != null ? Collections.emptyList() : path);
+      }));
+    return task;
+  }
+
+  @Override
+  public @NotNull CompletableFuture<List<Location>> findPath(final @NotNull AStartPathFinder finder, final @NotNull Location start, final @NotNull Location end) {
+    return plan(finder, start, end, null, 0);
+  }
+
+  @Override
+  public @NotNull CompletableFuture<List<Location>> replan(final @NotNull AStartPathFinder finder, final @NotNull Location start,
+                                                          final @NotNull Location end, final @NotNull List<Location> previousPath,
+                                                          final int fromIndex) {
+    if (previousPath.isEmpty() || !start.getWorld().equals(previousPath.get(0).getWorld()))
+      return plan(finder, start, end, null, 0);
+    return plan(finder, start, end, AStartPathFinder.toKeys(previousPath), fromIndex);
+  }
+
+  /**
+   * Joins the previous path if there is one, then a cached path towards the same goal, and
+   * only falls back to a full search when neither can be joined. Only full searches are cached.
+   * Long searches are instead routed over the portal graph built with the same options, and
+   * the whole route is refined into blocks.
+   */
+  private @NotNull CompletableFuture<List<Location>> plan(final @NotNull AStartPathFinder finder, final @NotNull Location start,
+                                                         final @NotNull Location end, final long @Nullable [] previous,
+                                                         final int fromIndex) {
+    final var future = new CompletableFuture<List<Location>>();
+    if (!start.getWorld().equals(end.getWorld())) {
+      future.complete(Collections.emptyList());
+      return future;
+    }
+
+    final var world = start.getWorld();
+    final var startKey = PackedCoords.blockKey(start.getBlockX(), start.getBlockY(), start.getBlockZ());
+    final var endKey = PackedCoords.blockKey(end.getBlockX(), end.getBlockY(), end.getBlockZ());
+    final var key = PathCache.Key.of(finder, world.getUID(), startKey, endKey);
+
+    // Long routes go through the portal graph matching the finder's options
+    final var far = start.distanceSquared(end) > HIERARCHICAL_DISTANCE * HIERARCHICAL_DISTANCE;
+    final var options = far ? GraphOptions.of(finder) : null;
+    final var graphs = this.portalGraphs.get(world.getUID());
+    final var graph = options != null && graphs != null ? graphs.get(options) : null;
+    if (options != null && graph == null)
+      enableHierarchy(world, options);
+
+    final var cached = graph == null ? this.pathCache.get(key) : null;
+
+    if (graph == null && previous == null && cached != null && cached[0] == startKey) {
+      future.complete(AStartPathFinder.toLocations(world, cached));
+      return future;
+    }
+
+    final var startBlock = toBlockLocation(start);
+    final var endBlock = toBlockLocation(end);
+    final var view = SnapshotWorldView.capture(startBlock, endBlock,
+      this.snapshots.computeIfAbsent(world.getUID(), k -> new ChunkSnapshotCache()));
+    final var ticket = this.pathCache.begin(world.getUID(), startKey, endKey);
+
+    try {
+      this.pathExecutor.execute(() -> {
+        try {
+          var path = NO_PATH;
+          if (graph != null)
+            path = refine(finder, view, graph.findRoute(startKey, endKey, COARSE_ITERATIONS));
+          else if (previous != null)
+            path = finder.reconnect(view, startKey, previous, fromIndex, RECONNECT_ITERATIONS);
+          if (path.length == 0 && cached != null)
+            path = finder.reconnect(view, startKey, cached, 0, RECONNECT_ITERATIONS);
+          final var full = path.length == 0;
+          if (full)
+            path = finder.findPathKeys(view, startKey, endKey);
+
+          final var result = path;
+          runOnMain(() -> {
+            if (full)
+              this.pathCache.complete(ticket, key, result);
+            else
+              this.pathCache.release(ticket);
+            future.complete(AStartPathFinder.toLocations(world, result));
+          });
+        } catch (Throwable throwable) {
+          runOnMain(() -> {
+            this.pathCache.release(ticket);
+            future.completeExceptionally(throwable);
+          });
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      this.pathCache.release(ticket);
+      future.complete(Collections.emptyList());
+    }
+    return future;
   }
 
   // ###############################################################
@@ -316,4 +594,186 @@ public final class NavigateServiceImpl implements DreamService, NavigateService
     return Optional.ofNullable(this.entityMovements.get(entity.getUniqueId()));
   }
 
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private void invalidate(final @NotNull Block block) {
+    final var uid = block.getWorld().getUID();
+    this.pathCache.invalidateBlock(uid, block.getX(), block.getZ());
+    final var snapshots = this.snapshots.get(uid);
+    if (snapshots != null)
+      snapshots.invalidate(block.getX() >> 4, block.getZ() >> 4);
+    // A rebuild rescans the borders shared with the neighbours, the chunk alone is enough
+    if (this.portalGraphs.containsKey(uid))
+      this.changedChunks.computeIfAbsent(uid, k -> new HashSet<>()).add(PackedCoords.chunkKeyOfBlock(block.getX(), block.getZ()));
+  }
+
+  /**
+   * Refines a coarse route into a block path, segment by segment. All segments draw on one
+   * expansion budget, once it runs out the route is given up for a full search.
+   */
+  private static long[] refine(final @NotNull AStartPathFinder finder, final @NotNull PathWorldView view, final long[] route) {
+    if (route.length < 2)
+      return NO_PATH;
+
+    final var budget = new AStartPathFinder.Budget(REFINE_ITERATIONS);
+    var path = new long[256];
+    var length = 0;
+    for (var i = 0; i + 1 < route.length; i++) {
+      final var segment = finder.findPathKeys(view, route[i], route[i + 1], budget);
+      if (segment.length == 0)
+        return NO_PATH;
+
+      // Each segment starts on the node the previous one ended on
+      final var from = length == 0 ? 0 : 1;
+      if (length + segment.length - from > path.length)
+        path = Arrays.copyOf(path, Math.max(path.length * 2, length + segment.length));
+      System.arraycopy(segment, from, path, length, segment.length - from);
+      length += segment.length - from;
+    }
+    return Arrays.copyOf(path, length);
+  }
+
+  private void enableHierarchy(final @NotNull World world, final @NotNull GraphOptions options) {
+    final var uid = world.getUID();
+    final var graphs = this.portalGraphs.computeIfAbsent(uid, k -> new HashMap<>());
+    if (graphs.size() >= MAX_GRAPHS_PER_WORLD)
+      return;
+
+    // Chunks already built for other options are rebuilt too, the queue is shared by the world
+    graphs.put(options, new PortalGraph(new AStartPathFinder(options.safeMode(), options.allowedMaterials(), options.ignoredMaterials())));
+    for (final var chunk : world.getLoadedChunks())
+      queueGraphChunk(uid, PackedCoords.chunkKey(chunk.getX(), chunk.getZ()));
+
+    if (this.graphTask == null)
+      this.graphTask = Bukkit.getScheduler().runTaskTimer(DreamAPI.getAPI().plugin(), this::processGraphQueue, GRAPH_CYCLE_TICKS, GRAPH_CYCLE_TICKS);
+  }
+
+  private void queueGraphChunk(final @NotNull UUID world, final long chunkKey) {
+    final var queue = this.graphQueue.computeIfAbsent(world, k -> new LinkedHashSet<>());
+    queue.add(chunkKey);
+    if (queue.size() > MAX_GRAPH_QUEUE)
+      queue.remove(queue.iterator().next());
+  }
+
+  /**
+   * Snapshots a few queued chunks with their neighbours and rebuilds them off the main thread,
+   * in every graph of their world.
+   */
+  private void processGraphQueue() {
+    for (final var entry : this.graphQueue.entrySet()) {
+      final var world = Bukkit.getWorld(entry.getKey());
+      final var graphs = this.portalGraphs.get(entry.getKey());
+      if (world == null || graphs == null || graphs.isEmpty())
+        continue;
+
+      final var targets = List.copyOf(graphs.values());
+
+      final var iterator = entry.getValue().iterator();
+      while (iterator.hasNext() && this.graphBuildsInFlight.get() < GRAPH_BUILDS_PER_CYCLE) {
+        final long chunkKey = iterator.next();
+        iterator.remove();
+
+        final var chunkX = PackedCoords.chunkX(chunkKey);
+        final var chunkZ = PackedCoords.chunkZ(chunkKey);
+        if (!world.isChunkLoaded(chunkX, chunkZ))
+          continue;
+
+        final var view = SnapshotWorldView.captureChunks(world, chunkX, chunkZ, 1);
+        this.graphBuildsInFlight.incrementAndGet();
+        try {
+          this.graphExecutor.execute(() -> {
+            try {
+              targets.forEach(graph -> graph.rebuildChunk(view, chunkX, chunkZ));
+            } finally {
+              this.graphBuildsInFlight.decrementAndGet();
+            }
+          });
+        } catch (RejectedExecutionException e) {
+          this.graphBuildsInFlight.decrementAndGet();
+          return;
+        }
+      }
+    }
+  }
+
+  private static @NotNull Location toBlockLocation(final @NotNull Location location) {
+    return new Location(location.getWorld(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+  }
+
+  private static void runOnMain(final @NotNull Runnable runnable) {
+    try {
+      Bukkit.getScheduler().runTask(DreamAPI.getAPI().plugin(), runnable);
+    } catch (IllegalPluginAccessException e) {
+      runnable.run();
+    }
+  }
+
+  /** Handle of a {@link #findPathAsync} result; cancelling it before the result is in drops the callback. */
+  private static final class ResultTask implements BukkitTask {
+
+    private final @NotNull Plugin owner;
+    private volatile boolean cancelled;
+
+    private ResultTask(final @NotNull Plugin owner) {
+      this.owner = owner;
+    }
+
+    @Override
+    public int getTaskId() {
+      return -1;
+    }
+
+    @Override
+    public @NotNull Plugin getOwner() {
+      return this.owner;
+    }
+
+    @Override
+    public boolean isSync() {
+      return true;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      return this.cancelled;
+    }
+
+    @Override
+    public void cancel() {
+      this.cancelled = true;
+    }
+
+  }
+
+  /** Walkability options a portal graph is built with. */
+  private record GraphOptions(boolean safeMode, @NotNull Set<Material> allowedMaterials, @NotNull Set<Material> ignoredMaterials) {
+
+    private static @NotNull GraphOptions of(final @NotNull AStartPathFinder finder) {
+      return new GraphOptions(finder.isSafeMode(),
+        finder.getAllowedMaterials() == null ? Set.of() : Set.copyOf(finder.getAllowedMaterials()),
+        finder.getIgnoredMaterials() == null ? Set.of() : Set.copyOf(finder.getIgnoredMaterials()));
+    }
+
+  }
+
+  private static final class PathThreadFactory implements ThreadFactory {
+
+    private final String prefix;
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private PathThreadFactory(final @NotNull String prefix) {
+      this.prefix = prefix;
+    }
+
+    @Override
+    public Thread newThread(final @NotNull Runnable runnable) {
+      final var thread = new Thread(runnable, this.prefix + this.counter.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+
+  }
+
 }
@@ -1,15 +1,14 @@
 package fr.dreamin.dreamapi.core.nms.tablist.service;
 
 import fr.dreamin.dreamapi.api.annotations.Inject;
+import fr.dreamin.dreamapi.api.nms.packet.PacketInterceptor;
+import fr.dreamin.dreamapi.api.nms.packet.PacketPipeline;
 import fr.dreamin.dreamapi.api.nms.packet.PacketReflection;
 import fr.dreamin.dreamapi.api.nms.packet.PacketSender;
 import fr.dreamin.dreamapi.api.nms.tablist.model.TabListMode;
 import fr.dreamin.dreamapi.api.nms.tablist.service.TabListService;
 import fr.dreamin.dreamapi.api.services.DreamAutoService;
 import fr.dreamin.dreamapi.api.services.DreamService;
-import io.netty.channel.ChannelDuplexHandler;
-import io.netty.channel.ChannelHandlerContext;
-import io.netty.channel.ChannelPromise;
 import net.kyori.adventure.text.Component;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -218,23 +217,16 @@ public final class TabListServiceImpl implements TabListService, DreamService, L
   }
 
   private void installInterceptor(final @NotNull Player player, final @NotNull ViewerState state) throws ReflectiveOperationException {
-    if (state.interceptorName != null) {
+    if (state.registration != null) {
       return;
     }
 
-    final var channel = PacketReflection.getChannel(player);
-    final var interceptorName = "dreamapi-tablist-" + player.getUniqueId();
-
-    if (channel.pipeline().get(interceptorName) == null) {
-      channel.pipeline().addBefore("packet_handler", interceptorName,
-        new TabListUpdateInterceptor(player.getUniqueId(), () -> resolveEffectiveMode(state) != TabListMode.VISIBLE));
-    }
-
-    state.interceptorName = interceptorName;
+    state.registration = PacketPipeline.intercept(player, PacketReflection.getPacketPlayerInfoUpdateClass(),
+      new TabListUpdateInterceptor(player.getUniqueId(), () -> resolveEffectiveMode(state) != TabListMode.VISIBLE));
   }
 
   private void cleanupStateIfUnused(final @NotNull UUID viewerUuid, final @NotNull ViewerState state) {
-    if (state.customMode != null || state.interceptorName != null) {
+    if (state.customMode != null || state.registration != null) {
       return;
     }
 
@@ -249,26 +241,17 @@ public final class TabListServiceImpl implements TabListService, DreamService, L
 
   private void removeInterceptor(final @NotNull UUID viewerUuid) {
     final var state = this.viewers.get(viewerUuid);
-    if (state == null || state.interceptorName == null) {
+    if (state == null) {
       return;
     }
 
-    final var viewer = Bukkit.getPlayer(viewerUuid);
-    if (viewer == null || !viewer.isOnline()) {
-      state.interceptorName = null;
+    final var registration = state.registration;
+    if (registration == null) {
       return;
     }
 
-    try {
-      final var channel = PacketReflection.getChannel(viewer);
-      if (channel.pipeline().get(state.interceptorName) != null) {
-        channel.pipeline().remove(state.interceptorName);
-      }
-      state.interceptorName = null;
-    } catch (ReflectiveOperationException ignored) {
-      // Channel may already be closed during quit/shutdown.
-      state.interceptorName = null;
-    }
+    state.registration = null;
+    registration.unregister();
   }
 
   private void scheduleTabCleanupForViewer(final @NotNull UUID viewerUuid, final long delayTicks) {
@@ -332,7 +315,7 @@ public final class TabListServiceImpl implements TabListService, DreamService, L
   // ----------------------- STATIC METHODS ------------------------
   // ###############################################################
 
-  private final class TabListUpdateInterceptor extends ChannelDuplexHandler {
+  private final class TabListUpdateInterceptor implements PacketInterceptor {
 
     private final @NotNull UUID viewerUuid;
     private final @NotNull VisibilitySupplier visibilitySupplier;
@@ -346,22 +329,18 @@ public final class TabListServiceImpl implements TabListService, DreamService, L
     }
 
     @Override
-    public void write(final @NotNull ChannelHandlerContext ctx, final @NotNull Object msg, final @NotNull ChannelPromise promise) throws Exception {
-      if (this.visibilitySupplier.isHiddenModeEnabled()
-        && PacketReflection.getPacketPlayerInfoUpdateClass().isInstance(msg)) {
+    public @NotNull Object onWrite(final @NotNull Object packet) {
+      if (this.visibilitySupplier.isHiddenModeEnabled()) {
         // Keep packet flow for skin/game profile consistency, then re-hide tab entries.
-        super.write(ctx, msg, promise);
         scheduleTabCleanupForViewer(this.viewerUuid, tabCleanupDelayTicks);
-        return;
       }
-
-      super.write(ctx, msg, promise);
+      return packet;
     }
   }
 
   private static final class ViewerState {
     private volatile @Nullable TabListMode customMode;
-    private volatile @Nullable String interceptorName;
+    private volatile @Nullable PacketPipeline.Registration registration;
     private volatile @Nullable BukkitTask cleanupTask;
   }
 
@@ -0,0 +1,516 @@
+package fr.dreamin.dreamapi.core.nms.visual.service;
+
+import fr.dreamin.dreamapi.api.nms.packet.PacketReflection;
+import fr.dreamin.dreamapi.api.nms.packet.PacketSender;
+import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntity;
+import fr.dreamin.dreamapi.core.time.TickTask;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * Owns the fake entities of the visual service and decides which viewer actually has them.
+ * <p>
+ * Each fake entity has an audience, the viewers allowed to see it. A viewer only has it
+ * spawned while both are in the same world and the entity's chunk is within the viewer's view
+ * distance. Once per tick, viewers that changed chunk and entities that moved are re-checked,
+ * and every viewer gets its spawns, moves, metadata and a single remove packet in one go.
+ * <p>
+ * Metadata is kept per entity, with per-viewer overrides when only part of the tracked audience
+ * was updated, so a viewer coming back in range, or added later, gets the entity as last
+ * updated for them.
+ * <p>
+ * The task only runs while fake entities exist. Main thread only.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+final class FakeEntityTracker {
+
+  private final Map<Integer, TrackedEntity> entities = new HashMap<>();
+  /** Viewer id to the entities it is allowed to see, in range or not. */
+  private final Map<UUID, Set<TrackedEntity>> audiences = new HashMap<>();
+  /** Viewers entities are sent to: online, and not waiting for a reapply after joining. */
+  private final Map<UUID, ViewerTrack> tracks = new HashMap<>();
+  private final Set<TrackedEntity> moved = new LinkedHashSet<>();
+
+  private @Nullable TickTask<?> task;
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  @NotNull FakeEntity spawn(final int entityId, final @NotNull EntityType type, final @NotNull Location location, final @NotNull Player... viewers) {
+    final var entity = new TrackedEntity(entityId, type, location);
+    this.entities.put(entityId, entity);
+
+    for (final var viewer : viewers) {
+      entity.audience.add(viewer.getUniqueId());
+      this.audiences.computeIfAbsent(viewer.getUniqueId(), k -> new HashSet<>()).add(entity);
+      track(viewer);
+    }
+
+    // Range checked against its audience on the next tick.
+    entity.chunkChanged = true;
+    this.moved.add(entity);
+    ensureRunning();
+    return entity;
+  }
+
+  void remove(final @NotNull FakeEntity handle, final @NotNull Player... viewers) {
+    final var entity = this.entities.get(handle.getEntityId());
+    if (entity == null) return;
+
+    for (final var viewer : viewers)
+      removeFromAudience(entity, viewer.getUniqueId());
+  }
+
+  /** Removes an entity for its whole audience. */
+  void removeAll(final @NotNull FakeEntity handle) {
+    final var entity = this.entities.get(handle.getEntityId());
+    if (entity == null) return;
+
+    for (final var viewerId : List.copyOf(entity.audience))
+      removeFromAudience(entity, viewerId);
+  }
+
+  /** Adds viewers to the audience of an entity; those in range get it on the next tick. */
+  void show(final @NotNull FakeEntity handle, final @NotNull Player... viewers) {
+    final var entity = this.entities.get(handle.getEntityId());
+    if (entity == null) return;
+
+    for (final var viewer : viewers) {
+      if (!entity.audience.add(viewer.getUniqueId())) continue;
+      this.audiences.computeIfAbsent(viewer.getUniqueId(), k -> new HashSet<>()).add(entity);
+      track(viewer).dirty = true;
+    }
+  }
+
+  void move(final @NotNull FakeEntity handle, final @NotNull Location location) {
+    final var entity = this.entities.get(handle.getEntityId());
+    if (entity == null) return;
+
+    entity.moveTo(location);
+    this.moved.add(entity);
+  }
+
+  /**
+   * Stores metadata values for viewers and queues them for those having the entity spawned.
+   *
+   * @param values data values, a later value replacing an earlier one with the same id
+   */
+  void update(final @NotNull FakeEntity handle, final @NotNull List<Object> values, final @NotNull Player... viewers) throws ReflectiveOperationException {
+    final var entity = this.entities.get(handle.getEntityId());
+    if (entity == null || values.isEmpty()) return;
+
+    final Map<Integer, Object> delta = new LinkedHashMap<>();
+    for (final var value : values)
+      delta.put(PacketReflection.getDataValueId(value), value);
+
+    final Set<UUID> targets = new HashSet<>(viewers.length);
+    for (final var viewer : viewers) {
+      if (entity.audience.contains(viewer.getUniqueId()))
+        targets.add(viewer.getUniqueId());
+    }
+
+    // Viewers that left stay in the audience for a reapply: an update reaching every tracked
+    // viewer is the entity's state, and they get it back with it.
+    var shared = true;
+    for (final var viewerId : entity.audience) {
+      if (!targets.contains(viewerId) && this.tracks.containsKey(viewerId)) {
+        shared = false;
+        break;
+      }
+    }
+
+    for (final var viewerId : targets) {
+      if (!shared)
+        entity.viewerMetadata.computeIfAbsent(viewerId, k -> new LinkedHashMap<>()).putAll(delta);
+
+      final var viewerTrack = this.tracks.get(viewerId);
+      if (viewerTrack != null && entity.visibleTo.contains(viewerId))
+        viewerTrack.pendingMetadata.computeIfAbsent(entity, k -> new LinkedHashMap<>()).putAll(delta);
+    }
+
+    if (shared) {
+      entity.metadata.putAll(delta);
+      // Overrides of these ids are now stale.
+      for (final var overrides : entity.viewerMetadata.values())
+        overrides.keySet().removeAll(delta.keySet());
+    }
+  }
+
+  /**
+   * Starts sending entities to a viewer from scratch, e.g. after joining or changing world,
+   * when the client has none of them anymore.
+   */
+  void reset(final @NotNull Player viewer) {
+    forgetVisible(viewer.getUniqueId());
+    track(viewer).dirty = true;
+  }
+
+  /** Stops sending entities to a viewer that left; its audience is kept for a reapply. */
+  void untrack(final @NotNull UUID viewerId) {
+    forgetVisible(viewerId);
+    this.tracks.remove(viewerId);
+  }
+
+  /** Despawns everything a viewer has right away and drops it from every audience. */
+  void clear(final @NotNull Player viewer) throws ReflectiveOperationException {
+    final var viewerId = viewer.getUniqueId();
+    final var audience = this.audiences.remove(viewerId);
+    this.tracks.remove(viewerId);
+    if (audience == null) return;
+
+    final var visible = new int[audience.size()];
+    var visibleCount = 0;
+
+    for (final var entity : audience) {
+      if (entity.visibleTo.remove(viewerId))
+        visible[visibleCount++] = entity.entityId;
+
+      entity.audience.remove(viewerId);
+      entity.viewerMetadata.remove(viewerId);
+      if (entity.audience.isEmpty())
+        this.entities.remove(entity.entityId);
+    }
+
+    if (visibleCount > 0)
+      PacketSender.send(viewer, PacketReflection.createRemoveEntitiesPacket(Arrays.copyOf(visible, visibleCount)));
+  }
+
+  @NotNull Set<FakeEntity> getEntities(final @NotNull UUID viewerId) {
+    final var audience = this.audiences.get(viewerId);
+    return audience == null ? Collections.emptySet() : Collections.unmodifiableSet(audience);
+  }
+
+  void shutdown() {
+    if (this.task != null) {
+      this.task.stop();
+      this.task = null;
+    }
+
+    this.entities.clear();
+    this.audiences.clear();
+    this.tracks.clear();
+    this.moved.clear();
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private @NotNull ViewerTrack track(final @NotNull Player viewer) {
+    return this.tracks.computeIfAbsent(viewer.getUniqueId(), k -> new ViewerTrack());
+  }
+
+  private void forgetVisible(final @NotNull UUID viewerId) {
+    final var audience = this.audiences.get(viewerId);
+    if (audience != null) {
+      for (final var entity : audience)
+        entity.visibleTo.remove(viewerId);
+    }
+
+    final var viewerTrack = this.tracks.get(viewerId);
+    if (viewerTrack != null)
+      viewerTrack.clearPending();
+  }
+
+  private void removeFromAudience(final @NotNull TrackedEntity entity, final @NotNull UUID viewerId) {
+    if (!entity.audience.remove(viewerId)) return;
+    entity.viewerMetadata.remove(viewerId);
+
+    final var audience = this.audiences.get(viewerId);
+    if (audience != null && audience.remove(entity) && audience.isEmpty())
+      this.audiences.remove(viewerId);
+
+    final var viewerTrack = this.tracks.get(viewerId);
+    if (viewerTrack != null) {
+      viewerTrack.pendingMetadata.remove(entity);
+      if (entity.visibleTo.remove(viewerId))
+        viewerTrack.destroy(entity.entityId);
+    }
+
+    if (entity.audience.isEmpty()) {
+      this.entities.remove(entity.entityId);
+      this.moved.remove(entity);
+    }
+  }
+
+  private void ensureRunning() {
+    if (this.task != null) return;
+
+    this.task = new TickTask() {
+      @Override
+      public void onTick() {
+        tick();
+      }
+    }.every(1L).start();
+  }
+
+  private void tick() {
+    final var serverViewDistance = Bukkit.getViewDistance();
+
+    final var iterator = this.tracks.entrySet().iterator();
+    while (iterator.hasNext()) {
+      final var entry = iterator.next();
+      final var viewer = Bukkit.getPlayer(entry.getKey());
+      if (viewer == null) {
+        forgetVisible(entry.getKey());
+        iterator.remove();
+        continue;
+      }
+
+      final var viewerTrack = entry.getValue();
+      viewerTrack.viewer = viewer;
+      viewerTrack.locate(viewer, Math.min(viewer.getViewDistance(), serverViewDistance));
+    }
+
+    try {
+      processMoves();
+      processViewers();
+      flush();
+    } catch (ReflectiveOperationException e) {
+      e.printStackTrace();
+    }
+
+    if (this.entities.isEmpty()) {
+      this.moved.clear();
+      if (this.task != null) this.task.stop();
+      this.task = null;
+    }
+  }
+
+  /** Moves visible entities, and spawns or despawns those whose chunk changed. */
+  private void processMoves() throws ReflectiveOperationException {
+    if (this.moved.isEmpty()) return;
+
+    final var positionSync = PacketReflection.isEntityPositionSyncSupported();
+
+    for (final var entity : this.moved) {
+      Object movePacket = null;
+
+      for (final var viewerId : entity.audience) {
+        final var viewerTrack = this.tracks.get(viewerId);
+        if (viewerTrack == null || viewerTrack.viewer == null) continue;
+
+        final var visible = entity.visibleTo.contains(viewerId);
+        final var inRange = !entity.chunkChanged || viewerTrack.inRange(entity);
+
+        if (visible && inRange) {
+          if (positionSync) {
+            if (movePacket == null)
+              movePacket = PacketReflection.createEntityPositionSyncPacket(entity.entityId, entity.location);
+            viewerTrack.packets.add(movePacket);
+          } else {
+            viewerTrack.destroy(entity.entityId);
+            spawnFor(entity, viewerId, viewerTrack);
+          }
+        } else if (visible) {
+          entity.visibleTo.remove(viewerId);
+          viewerTrack.pendingMetadata.remove(entity);
+          viewerTrack.destroy(entity.entityId);
+        } else if (inRange && entity.chunkChanged) {
+          entity.visibleTo.add(viewerId);
+          spawnFor(entity, viewerId, viewerTrack);
+        }
+      }
+
+      entity.chunkChanged = false;
+    }
+
+    this.moved.clear();
+  }
+
+  /** Re-checks every entity of the viewers that changed chunk, world or view distance. */
+  private void processViewers() throws ReflectiveOperationException {
+    for (final var entry : this.tracks.entrySet()) {
+      final var viewerTrack = entry.getValue();
+      if (!viewerTrack.dirty) continue;
+      viewerTrack.dirty = false;
+
+      final var audience = this.audiences.get(entry.getKey());
+      if (audience == null) continue;
+
+      final var viewerId = entry.getKey();
+      for (final var entity : audience) {
+        final var visible = entity.visibleTo.contains(viewerId);
+        final var inRange = viewerTrack.inRange(entity);
+
+        if (inRange && !visible) {
+          entity.visibleTo.add(viewerId);
+          spawnFor(entity, viewerId, viewerTrack);
+        } else if (!inRange && visible) {
+          entity.visibleTo.remove(viewerId);
+          viewerTrack.pendingMetadata.remove(entity);
+          viewerTrack.destroy(entity.entityId);
+        }
+      }
+    }
+  }
+
+  private void spawnFor(final @NotNull TrackedEntity entity, final @NotNull UUID viewerId, final @NotNull ViewerTrack viewerTrack) throws ReflectiveOperationException {
+    viewerTrack.packets.add(PacketReflection.createSpawnEntityPacket(entity.entityId, entity.uuid, entity.type, entity.location));
+
+    // The spawn carries the whole metadata, pending values included.
+    viewerTrack.pendingMetadata.remove(entity);
+    final var values = entity.metadataFor(viewerId);
+    if (!values.isEmpty())
+      viewerTrack.packets.add(PacketReflection.createMetadataPacket(entity.entityId, values));
+  }
+
+  private void flush() throws ReflectiveOperationException {
+    for (final var viewerTrack : this.tracks.values()) {
+      if (viewerTrack.viewer == null) continue;
+
+      for (final var entry : viewerTrack.pendingMetadata.entrySet())
+        viewerTrack.packets.add(PacketReflection.createMetadataPacket(entry.getKey().entityId, new ArrayList<>(entry.getValue().values())));
+      viewerTrack.pendingMetadata.clear();
+
+      if (viewerTrack.removedCount == 0 && viewerTrack.packets.isEmpty()) continue;
+
+      final var packets = new ArrayList<>(viewerTrack.packets.size() + 1);
+      // Removals first: an entity respawned this tick reuses its id.
+      if (viewerTrack.removedCount > 0)
+        packets.add(PacketReflection.createRemoveEntitiesPacket(Arrays.copyOf(viewerTrack.removed, viewerTrack.removedCount)));
+      packets.addAll(viewerTrack.packets);
+
+      PacketSender.queue(viewerTrack.viewer, packets.toArray());
+      viewerTrack.clearPending();
+    }
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  private static final class TrackedEntity implements FakeEntity {
+
+    private final int entityId;
+    private final UUID uuid = UUID.randomUUID();
+    private final EntityType type;
+    private final Location initialLocation;
+
+    private Location location;
+    private UUID world;
+    private int chunkX;
+    private int chunkZ;
+    /** Set when the entity changed chunk since the last tick, so range checks are due. */
+    private boolean chunkChanged;
+
+    private final Set<UUID> audience = new HashSet<>();
+    private final Set<UUID> visibleTo = new HashSet<>();
+    /** Data value id to the value shared by the whole audience. */
+    private final Map<Integer, Object> metadata = new LinkedHashMap<>();
+    private final Map<UUID, Map<Integer, Object>> viewerMetadata = new HashMap<>();
+
+    private TrackedEntity(final int entityId, final @NotNull EntityType type, final @NotNull Location location) {
+      this.entityId = entityId;
+      this.type = type;
+      this.initialLocation = location.clone();
+      moveTo(location);
+    }
+
+    private void moveTo(final @NotNull Location location) {
+      final var world = location.getWorld().getUID();
+      final var chunkX = location.getBlockX() >> 4;
+      final var chunkZ = location.getBlockZ() >> 4;
+
+      if (!world.equals(this.world) || chunkX != this.chunkX || chunkZ != this.chunkZ)
+        this.chunkChanged = true;
+
+      this.location = location.clone();
+      this.world = world;
+      this.chunkX = chunkX;
+      this.chunkZ = chunkZ;
+    }
+
+    private @NotNull List<Object> metadataFor(final @NotNull UUID viewerId) {
+      final var overrides = this.viewerMetadata.get(viewerId);
+      if (overrides == null || overrides.isEmpty())
+        return new ArrayList<>(this.metadata.values());
+
+      final Map<Integer, Object> merged = new LinkedHashMap<>(this.metadata);
+      merged.putAll(overrides);
+      return new ArrayList<>(merged.values());
+    }
+
+    @Override
+    public int getEntityId() {
+      return this.entityId;
+    }
+
+    @Override
+    public @NotNull EntityType getType() {
+      return this.type;
+    }
+
+    @Override
+    public @NotNull Location getInitialLocation() {
+      return this.initialLocation.clone();
+    }
+
+    @Override
+    public @NotNull Location getLocation() {
+      return this.location.clone();
+    }
+
+  }
+
+  private static final class ViewerTrack {
+
+    private @Nullable Player viewer;
+    private @Nullable UUID world;
+    private int chunkX;
+    private int chunkZ;
+    private int radius = -1;
+    /** Set when the viewer changed chunk, world or view distance, so all its entities are re-checked. */
+    private boolean dirty = true;
+
+    private final List<Object> packets = new ArrayList<>();
+    private final Map<TrackedEntity, Map<Integer, Object>> pendingMetadata = new LinkedHashMap<>();
+    private int[] removed = new int[8];
+    private int removedCount;
+
+    private void locate(final @NotNull Player viewer, final int radius) {
+      final var location = viewer.getLocation();
+      final var world = viewer.getWorld().getUID();
+      final var chunkX = location.getBlockX() >> 4;
+      final var chunkZ = location.getBlockZ() >> 4;
+
+      if (world.equals(this.world) && chunkX == this.chunkX && chunkZ == this.chunkZ && radius == this.radius)
+        return;
+
+      this.world = world;
+      this.chunkX = chunkX;
+      this.chunkZ = chunkZ;
+      this.radius = radius;
+      this.dirty = true;
+    }
+
+    private boolean inRange(final @NotNull TrackedEntity entity) {
+      return entity.world.equals(this.world)
+        && Math.abs(entity.chunkX - this.chunkX) <= this.radius
+        && Math.abs(entity.chunkZ - this.chunkZ) <= this.radius;
+    }
+
+    private void destroy(final int entityId) {
+      if (this.removedCount == this.removed.length)
+        this.removed = Arrays.copyOf(this.removed, this.removedCount << 1);
+      this.removed[this.removedCount++] = entityId;
+    }
+
+    private void clearPending() {
+      this.packets.clear();
+      this.pendingMetadata.clear();
+      this.removedCount = 0;
+    }
+
+  }
+
+}
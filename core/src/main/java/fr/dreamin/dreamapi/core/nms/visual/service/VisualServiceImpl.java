@@ -4,23 +4,38 @@ import fr.dreamin.dreamapi.api.annotations.Inject;
 import fr.dreamin.dreamapi.api.nms.visual.event.ReapplyVisualForPlayerOnJoinEvent;
 import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntity;
 import fr.dreamin.dreamapi.api.nms.visual.fakeEntity.model.FakeEntityMetadata;
+import fr.dreamin.dreamapi.api.nms.packet.PacketConstants;
 import fr.dreamin.dreamapi.api.nms.packet.PacketReflection;
 import fr.dreamin.dreamapi.api.nms.packet.PacketSender;
 import fr.dreamin.dreamapi.api.nms.visual.service.VisualService;
 import fr.dreamin.dreamapi.api.services.DreamAutoService;
 import fr.dreamin.dreamapi.api.services.DreamService;
+import io.papermc.paper.event.packet.PlayerChunkLoadEvent;
 import lombok.RequiredArgsConstructor;
 import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.ChunkSnapshot;
+import org.bukkit.Color;
 import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.entity.Display;
 import org.bukkit.entity.EntityType;
 import org.bukkit.entity.Player;
+import org.bukkit.entity.TextDisplay;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
 import org.bukkit.inventory.ItemStack;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Quaternionf;
+import org.joml.Vector3f;
 import org.jspecify.annotations.NonNull;
 
 import java.util.*;
@@ -30,15 +45,13 @@ import java.util.function.Consumer;
 
 @Inject
 @DreamAutoService(VisualService.class)
-public final class VisualServiceImpl implements VisualService, DreamService {
+public final class VisualServiceImpl implements VisualService, DreamService, Listener {
 
   private final AtomicInteger entityIdCounter = new AtomicInteger(2_000_000);
-  private final @NotNull Map<Integer, FakeEntityImpl> fakeEntities = new ConcurrentHashMap<>();
+  private final FakeEntityTracker entityTracker = new FakeEntityTracker();
 
   private final Map<UUID, ViewerState> byViewer = new ConcurrentHashMap<>();
 
-  private final Map<Integer, Set<UUID>> viewersByEntity = new ConcurrentHashMap<>();
-
   // Reverse index: blockKey -> viewers who see it
   private final Map<BlockKey, Set<UUID>> viewersByBlock = new ConcurrentHashMap<>();
   // ###############################################################
@@ -54,47 +67,33 @@ public final class VisualServiceImpl implements VisualService, DreamService {
   // ##############################################################
 
   @Override
-  public @NotNull FakeEntity spawnFakeEntity(@NotNull EntityType type, @NotNull Location location, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
-    final var entityId = this.entityIdCounter.incrementAndGet();
-    final var handle = new FakeEntityImpl(entityId, type, location.clone());
-
-    final var spawnPacket = PacketReflection.createSpawnEntityPacket(entityId, UUID.randomUUID(), type, location);
-    PacketSender.sendToAll(spawnPacket, viewers);
-
-    this.fakeEntities.put(entityId, handle);
-
-    for (final var viewer : viewers) {
-      final var viewerState = this.byViewer.computeIfAbsent(viewer.getUniqueId(), k -> new ViewerState());
-      viewerState.entities.add(handle);
-
-      this.viewersByEntity.computeIfAbsent(entityId, k -> ConcurrentHashMap.newKeySet())
-        .add(viewer.getUniqueId());
-    }
+  public void onClose() {
+    this.entityTracker.shutdown();
+  }
 
-    return handle;
+  @Override
+  public @NotNull FakeEntity spawnFakeEntity(@NotNull EntityType type, @NotNull Location location, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
+    return this.entityTracker.spawn(this.entityIdCounter.incrementAndGet(), type, location, viewers);
   }
 
   @Override
   public void removeFakeEntity(@NotNull FakeEntity entity, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
-    final var destroy = PacketReflection.createRemoveEntitiesPacket(entity.getEntityId());
-    PacketSender.sendToAll(destroy, viewers);
+    this.entityTracker.remove(entity, viewers);
+  }
 
-    for (final var viewer : viewers) {
-      final var viewerState = this.byViewer.get(viewer.getUniqueId());
-      if (viewerState != null)
-        viewerState.entities.remove(entity);
+  @Override
+  public void removeFakeEntity(@NotNull FakeEntity entity) {
+    this.entityTracker.removeAll(entity);
+  }
 
-      // Remove from reverse index
-      final var rev = this.viewersByEntity.get(entity.getEntityId());
-      if (rev != null) {
-        rev.remove(viewer.getUniqueId());
-        if (rev.isEmpty())
-          this.viewersByEntity.remove(entity.getEntityId());
-      }
-    }
+  @Override
+  public void showFakeEntity(@NotNull FakeEntity entity, @NonNull @NotNull Player... viewers) {
+    this.entityTracker.show(entity, viewers);
+  }
 
-    if (!this.viewersByEntity.containsKey(entity.getEntityId()))
-      this.fakeEntities.remove(entity.getEntityId());
+  @Override
+  public void moveFakeEntity(@NotNull FakeEntity entity, @NotNull Location location) {
+    this.entityTracker.move(entity, location);
   }
 
   @Override
@@ -102,45 +101,63 @@ public final class VisualServiceImpl implements VisualService, DreamService {
     final var metadata = new FakeEntityMetadataImpl(entity.getEntityId());
     mutator.accept(metadata);
 
-    final var metadataPacket = PacketReflection.createMetadataPacket(entity.getEntityId(), metadata.toNmsList());
-    PacketSender.sendToAll(metadataPacket, viewers);
+    this.entityTracker.update(entity, metadata.toNmsList(), viewers);
   }
 
   @Override
   public void showFakeBlock(@NotNull Location location, @NotNull Material type, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
-    final var blockPacket = PacketReflection.createBlockChangePacket(location, type);
-    PacketSender.sendToAll(blockPacket, viewers);
+    showFakeBlocks(Map.of(location, type.createBlockData()), viewers);
+  }
+
+  @Override
+  public void showFakeBlocks(@NotNull Map<Location, BlockData> blocks, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
+    if (blocks.isEmpty()) return;
+
+    final Map<BlockKey, BlockData> changes = new HashMap<>(blocks.size());
+    for (final var entry : blocks.entrySet())
+      changes.put(BlockKey.of(entry.getKey()), entry.getValue());
 
-    final var blockKey = BlockKey.of(location);
+    sendBlockChanges(changes, viewers);
 
     for (final var viewer : viewers) {
       final var viewerState = this.byViewer.computeIfAbsent(viewer.getUniqueId(), k -> new ViewerState());
-      viewerState.blocks.put(blockKey, type);
 
-      this.viewersByBlock.computeIfAbsent(blockKey, k -> ConcurrentHashMap.newKeySet())
-        .add(viewer.getUniqueId());
+      for (final var entry : changes.entrySet()) {
+        viewerState.putBlock(entry.getKey(), entry.getValue());
+        this.viewersByBlock.computeIfAbsent(entry.getKey(), k -> ConcurrentHashMap.newKeySet())
+          .add(viewer.getUniqueId());
+      }
     }
-
   }
 
   @Override
   public void hideFakeBlock(@NotNull Location location, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
-    showFakeBlock(location, location.getBlock().getType(), viewers);
+    hideFakeBlocks(List.of(location), viewers);
+  }
 
-    final var blockKey = BlockKey.of(location);
+  @Override
+  public void hideFakeBlocks(@NotNull Collection<Location> locations, @NonNull @NotNull Player... viewers) throws ReflectiveOperationException {
+    final Set<BlockKey> blockKeys = new HashSet<>(locations.size());
+    for (final var location : locations)
+      blockKeys.add(BlockKey.of(location));
+
+    sendBlockChanges(readRealBlocks(blockKeys), viewers);
 
     for (final var viewer : viewers) {
       final var viewerState = this.byViewer.get(viewer.getUniqueId());
-      if (viewerState != null)
-        viewerState.blocks.remove(blockKey);
-      final var rev = this.viewersByBlock.get(blockKey);
-      if (rev != null) {
-        rev.remove(viewer.getUniqueId());
-        if (rev.isEmpty())
-          this.viewersByBlock.remove(blockKey);
+
+      for (final var blockKey : blockKeys) {
+        if (viewerState != null)
+          viewerState.removeBlock(blockKey);
+
+        final var rev = this.viewersByBlock.get(blockKey);
+        if (rev != null) {
+          rev.remove(viewer.getUniqueId());
+          if (rev.isEmpty())
+            this.viewersByBlock.remove(blockKey);
+        }
       }
     }
-
   }
 
   @Override
@@ -155,40 +172,16 @@ public final class VisualServiceImpl implements VisualService, DreamService {
 
   @Override
   public void clearForViewer(final @NotNull Player viewer) throws ReflectiveOperationException {
+    this.entityTracker.clear(viewer);
+
     final var viewerState = this.byViewer.remove(viewer.getUniqueId());
     if (viewerState == null) return;
 
-    final var entityIds = viewerState.entities.stream()
-      .mapToInt(FakeEntity::getEntityId)
-      .toArray();
-
-    if (entityIds.length > 0) {
-      final var destroyPacket = PacketReflection.createRemoveEntitiesPacket(entityIds);
-      PacketSender.send(viewer, destroyPacket);
-
-      for (final var entityId : entityIds) {
-        final var rev = this.viewersByEntity.get(entityId);
-        if (rev != null) {
-          rev.remove(viewer.getUniqueId());
-          if (rev.isEmpty()) {
-            this.viewersByEntity.remove(entityId);
-            this.fakeEntities.remove(entityId);
-          }
-        }
-      }
-    }
-
     // Restore all fake blocks
-    for (final var entry : viewerState.blocks.entrySet()) {
-      final var blockKey = entry.getKey();
-      final var location = blockKey.toLocation();
-      if (location != null) {
-        final var realType = location.getBlock().getType();
-        final var restorePacket = PacketReflection.createBlockChangePacket(location, realType);
-        PacketSender.send(viewer, restorePacket);
-      }
+    sendBlockChanges(readRealBlocks(viewerState.blocks.keySet()), viewer);
 
-      // Clean reverse index
+    // Clean reverse index
+    for (final var blockKey : viewerState.blocks.keySet()) {
       final var rev = this.viewersByBlock.get(blockKey);
       if (rev != null) {
         rev.remove(viewer.getUniqueId());
@@ -201,38 +194,19 @@ public final class VisualServiceImpl implements VisualService, DreamService {
 
   @Override
   public void reapplyForViewer(final @NotNull Player viewer) throws ReflectiveOperationException {
+    // Respawn fake entities in range on the next tick
+    this.entityTracker.reset(viewer);
+
     final var viewerState = this.byViewer.get(viewer.getUniqueId());
     if (viewerState == null) return;
 
-    // Respawn all fake entities
-    for (final var entity : viewerState.entities) {
-      final var handle = this.fakeEntities.get(entity.getEntityId());
-      if (handle != null) {
-        final var spawnPacket = PacketReflection.createSpawnEntityPacket(
-          handle.entityId(),
-          UUID.randomUUID(),
-          handle.type(),
-          handle.location()
-        );
-        PacketSender.send(viewer, spawnPacket);
-      }
-    }
-
     // Re-show all fake blocks
-    for (final var entry : viewerState.blocks.entrySet()) {
-      final var location = entry.getKey().toLocation();
-      if (location != null) {
-        final var blockPacket = PacketReflection.createBlockChangePacket(location, entry.getValue());
-        PacketSender.send(viewer, blockPacket);
-      }
-    }
+    sendBlockChanges(viewerState.blocks, viewer);
   }
 
   @Override
   public @NotNull Set<FakeEntity> getFakeEntities(final @NotNull Player viewer) {
-    final var viewerState = this.byViewer.get(viewer.getUniqueId());
-    if (viewerState == null) return Collections.emptySet();
-    return Collections.unmodifiableSet(viewerState.entities);
+    return this.entityTracker.getEntities(viewer.getUniqueId());
   }
 
   @Override
@@ -244,7 +218,7 @@ public final class VisualServiceImpl implements VisualService, DreamService {
     for (final var entry : viewerState.blocks.entrySet()) {
       final var location = entry.getKey().toLocation();
       if (location != null) {
-        result.put(location, entry.getValue());
+        result.put(location, entry.getValue().getMaterial());
       }
     }
     return Collections.unmodifiableMap(result);
@@ -266,13 +240,164 @@ public final class VisualServiceImpl implements VisualService, DreamService {
     }
   }
 
+  @EventHandler(priority = EventPriority.MONITOR)
+  private void onPlayerQuit(final @NotNull PlayerQuitEvent event) {
+    this.entityTracker.untrack(event.getPlayer().getUniqueId());
+  }
+
+  /** The client drops every entity when it changes world or respawns. */
+  @EventHandler(priority = EventPriority.MONITOR)
+  private void onPlayerChangedWorld(final @NotNull PlayerChangedWorldEvent event) {
+    this.entityTracker.reset(event.getPlayer());
+  }
+
+  @EventHandler(priority = EventPriority.MONITOR)
+  private void onPlayerRespawn(final @NotNull PlayerRespawnEvent event) {
+    this.entityTracker.reset(event.getPlayer());
+  }
+
+  /** The client just received a chunk, overwriting the fake blocks the viewer had in it. */
+  @EventHandler(priority = EventPriority.MONITOR)
+  private void onPlayerChunkLoad(final @NotNull PlayerChunkLoadEvent event) {
+    final var viewerState = this.byViewer.get(event.getPlayer().getUniqueId());
+    if (viewerState == null) return;
+
+    final var chunk = event.getChunk();
+    final var blocks = viewerState.getChunk(chunk.getWorld().getUID(), chunk.getChunkKey());
+    if (blocks == null || blocks.isEmpty()) return;
+
+    try {
+      final var packets = createBlockChangePackets(chunk.getWorld().getUID(), blocks);
+      PacketSender.queue(event.getPlayer(), packets.toArray());
+    } catch (ReflectiveOperationException e) {
+      e.printStackTrace();
+    }
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /**
+   * Queues block changes for viewers; each viewer only gets those of its current world, built
+   * once per world.
+   */
+  private void sendBlockChanges(final @NotNull Map<BlockKey, BlockData> changes, final @NotNull Player... viewers) throws ReflectiveOperationException {
+    if (changes.isEmpty()) return;
+
+    final Map<UUID, List<Object>> packetsByWorld = new HashMap<>();
+    for (final var viewer : viewers) {
+      final var world = viewer.getWorld().getUID();
+
+      var packets = packetsByWorld.get(world);
+      if (packets == null) {
+        packets = createBlockChangePackets(world, changes);
+        packetsByWorld.put(world, packets);
+      }
+
+      if (!packets.isEmpty())
+        PacketSender.queue(viewer, packets.toArray());
+    }
+  }
+
+  /**
+   * Groups the changes of a world by chunk section: one multi-block-change packet per section,
+   * a plain block update when a section has a single change.
+   */
+  private @NotNull List<Object> createBlockChangePackets(final @NotNull UUID world, final @NotNull Map<BlockKey, BlockData> changes) throws ReflectiveOperationException {
+    final Map<SectionKey, List<Map.Entry<BlockKey, BlockData>>> sections = new HashMap<>();
+    for (final var entry : changes.entrySet()) {
+      if (entry.getKey().world().equals(world))
+        sections.computeIfAbsent(SectionKey.of(entry.getKey()), k -> new ArrayList<>()).add(entry);
+    }
+
+    final var sectionPackets = PacketReflection.isSectionBlocksUpdateSupported();
+    final List<Object> packets = new ArrayList<>(sections.size());
+
+    for (final var section : sections.entrySet()) {
+      final var entries = section.getValue();
+
+      if (entries.size() == 1 || !sectionPackets) {
+        for (final var entry : entries) {
+          final var blockKey = entry.getKey();
+          packets.add(PacketReflection.createBlockChangePacket(blockKey.x(), blockKey.y(), blockKey.z(), entry.getValue()));
+        }
+        continue;
+      }
+
+      final var positions = new short[entries.size()];
+      final var blocks = new BlockData[entries.size()];
+      for (var i = 0; i < positions.length; i++) {
+        final var blockKey = entries.get(i).getKey();
+        positions[i] = (short) ((blockKey.x() & 15) << 8 | (blockKey.z() & 15) << 4 | (blockKey.y() & 15));
+        blocks[i] = entries.get(i).getValue();
+      }
+
+      final var sectionKey = section.getKey();
+      packets.add(PacketReflection.createSectionBlocksUpdatePacket(sectionKey.x(), sectionKey.y(), sectionKey.z(), positions, blocks));
+    }
+
+    return packets;
+  }
+
+  /**
+   * Reads the real blocks from one snapshot per chunk. Blocks of unloaded chunks are skipped:
+   * the client gets them with the chunk.
+   */
+  private @NotNull Map<BlockKey, BlockData> readRealBlocks(final @NotNull Collection<BlockKey> blockKeys) {
+    final Map<BlockKey, BlockData> blocks = new HashMap<>(blockKeys.size());
+    final Map<ChunkKey, ChunkSnapshot> snapshots = new HashMap<>();
+
+    for (final var blockKey : blockKeys) {
+      final var world = Bukkit.getWorld(blockKey.world());
+      if (world == null) continue;
+
+      final var chunkX = blockKey.x() >> 4;
+      final var chunkZ = blockKey.z() >> 4;
+      if (!world.isChunkLoaded(chunkX, chunkZ)) continue;
+
+      final var snapshot = snapshots.computeIfAbsent(new ChunkKey(blockKey.world(), chunkX, chunkZ),
+        k -> world.getChunkAt(chunkX, chunkZ).getChunkSnapshot(false, false, false));
+      blocks.put(blockKey, snapshot.getBlockData(blockKey.x() & 15, blockKey.y(), blockKey.z() & 15));
+    }
+
+    return blocks;
+  }
+
   // ###############################################################
   // ------------------------- INNER CLASSES -----------------------
   // ###############################################################
 
   private static final class ViewerState {
-    final Set<FakeEntity> entities = ConcurrentHashMap.newKeySet();
-    final Map<BlockKey, Material> blocks = new ConcurrentHashMap<>();
+    final Map<BlockKey, BlockData> blocks = new ConcurrentHashMap<>();
+    /** World id to packed chunk key to the fake blocks of that chunk. */
+    final Map<UUID, Map<Long, Map<BlockKey, BlockData>>> chunks = new ConcurrentHashMap<>();
+
+    void putBlock(final @NotNull BlockKey blockKey, final @NotNull BlockData data) {
+      this.blocks.put(blockKey, data);
+      this.chunks.computeIfAbsent(blockKey.world(), k -> new ConcurrentHashMap<>())
+        .computeIfAbsent(blockKey.chunkKey(), k -> new ConcurrentHashMap<>())
+        .put(blockKey, data);
+    }
+
+    void removeBlock(final @NotNull BlockKey blockKey) {
+      if (this.blocks.remove(blockKey) == null) return;
+
+      final var worldChunks = this.chunks.get(blockKey.world());
+      if (worldChunks == null) return;
+
+      final var chunk = worldChunks.get(blockKey.chunkKey());
+      if (chunk != null && chunk.remove(blockKey) != null && chunk.isEmpty()) {
+        worldChunks.remove(blockKey.chunkKey());
+        if (worldChunks.isEmpty())
+          this.chunks.remove(blockKey.world());
+      }
+    }
+
+    @Nullable Map<BlockKey, BlockData> getChunk(final @NotNull UUID world, final long chunkKey) {
+      final var worldChunks = this.chunks.get(world);
+      return worldChunks == null ? null : worldChunks.get(chunkKey);
+    }
   }
 
   private record BlockKey(UUID world, int x, int y, int z) {
@@ -285,6 +410,10 @@ public final class VisualServiceImpl implements VisualService, DreamService {
       );
     }
 
+    long chunkKey() {
+      return Chunk.getChunkKey(this.x >> 4, this.z >> 4);
+    }
+
     @Nullable Location toLocation() {
       final var world = org.bukkit.Bukkit.getWorld(this.world);
       if (world == null) return null;
@@ -297,31 +426,32 @@ public final class VisualServiceImpl implements VisualService, DreamService {
     }
   }
 
-  private record FakeEntityImpl(int entityId, @NotNull EntityType type, @NotNull Location location) implements FakeEntity {
-
-    @Override
-    public int getEntityId() {
-      return this.entityId;
-    }
-
-    @Override
-    public @NotNull EntityType getType() {
-      return this.type;
-    }
-
-    @Override
-    public @NotNull Location getInitialLocation() {
-      return this.location;
+  private record SectionKey(int x, int y, int z) {
+    static SectionKey of(final @NotNull BlockKey blockKey) {
+      return new SectionKey(blockKey.x() >> 4, blockKey.y() >> 4, blockKey.z() >> 4);
     }
-
   }
 
+  private record ChunkKey(UUID world, int x, int z) {}
+
   @RequiredArgsConstructor
   private static final class FakeEntityMetadataImpl implements FakeEntityMetadata {
 
     private final int entityId;
     private final List<Object> dataValues = new ArrayList<>();
 
+    private @Nullable Display.Billboard billboard;
+    private @Nullable Integer teleportDuration;
+    private @Nullable Vector3f scale;
+    private @Nullable Quaternionf leftRotation;
+    private @Nullable Integer interpolationDelay;
+    private @Nullable Integer interpolationDuration;
+    private @Nullable Component text;
+    private @Nullable Integer backgroundColor;
+    private @Nullable Byte textStyle;
+    private @Nullable ItemStack item;
+    private @Nullable BlockData block;
+
     @Override
     public void setCustomName(@Nullable Component name) {
     }
@@ -370,8 +500,87 @@ public final class VisualServiceImpl implements VisualService, DreamService {
     public void setOffHand(@Nullable ItemStack item) {
     }
 
-    public @NotNull List<Object> toNmsList() {
-      return this.dataValues;
+    @Override
+    public void setBillboard(@NotNull Display.Billboard billboard) {
+      this.billboard = billboard;
+    }
+
+    @Override
+    public void setTeleportDuration(int ticks) {
+      this.teleportDuration = ticks;
+    }
+
+    @Override
+    public void setScale(@NotNull Vector3f scale) {
+      this.scale = new Vector3f(scale);
+    }
+
+    @Override
+    public void setLeftRotation(@NotNull Quaternionf rotation) {
+      this.leftRotation = new Quaternionf(rotation);
+    }
+
+    @Override
+    public void setInterpolation(int delayTicks, int durationTicks) {
+      this.interpolationDelay = delayTicks;
+      this.interpolationDuration = durationTicks;
+    }
+
+    @Override
+    public void setText(@NotNull Component text) {
+      this.text = text;
+    }
+
+    @Override
+    public void setBackgroundColor(@NotNull Color color) {
+      this.backgroundColor = color.asARGB();
+    }
+
+    @Override
+    public void setTextStyle(boolean shadowed, boolean seeThrough, @NotNull TextDisplay.TextAlignment alignment) {
+      var flags = 0;
+      if (shadowed) flags |= PacketConstants.TEXT_DISPLAY_SHADOW_FLAG;
+      if (seeThrough) flags |= PacketConstants.TEXT_DISPLAY_SEE_THROUGH_FLAG;
+      if (alignment == TextDisplay.TextAlignment.LEFT) flags |= PacketConstants.TEXT_DISPLAY_ALIGN_LEFT_FLAG;
+      else if (alignment == TextDisplay.TextAlignment.RIGHT) flags |= PacketConstants.TEXT_DISPLAY_ALIGN_RIGHT_FLAG;
+      this.textStyle = (byte) flags;
+    }
+
+    @Override
+    public void setItem(@NotNull ItemStack item) {
+      this.item = item;
+    }
+
+    @Override
+    public void setBlock(@NotNull BlockData block) {
+      this.block = block;
+    }
+
+    public @NotNull List<Object> toNmsList() throws ReflectiveOperationException {
+      final List<Object> values = new ArrayList<>(this.dataValues);
+      if (this.billboard != null)
+        values.add(PacketReflection.createDisplayBillboardDataValue((byte) this.billboard.ordinal()));
+      if (this.teleportDuration != null)
+        values.add(PacketReflection.createDisplayTeleportDurationDataValue(this.teleportDuration));
+      if (this.interpolationDelay != null)
+        values.add(PacketReflection.createDisplayInterpolationDelayDataValue(this.interpolationDelay));
+      if (this.interpolationDuration != null)
+        values.add(PacketReflection.createDisplayInterpolationDurationDataValue(this.interpolationDuration));
+      if (this.scale != null)
+        values.add(PacketReflection.createDisplayScaleDataValue(this.scale));
+      if (this.leftRotation != null)
+        values.add(PacketReflection.createDisplayLeftRotationDataValue(this.leftRotation));
+      if (this.text != null)
+        values.add(PacketReflection.createTextDisplayTextDataValue(this.text));
+      if (this.textStyle != null)
+        values.add(PacketReflection.createTextDisplayStyleDataValue(this.textStyle));
+      if (this.backgroundColor != null)
+        values.add(PacketReflection.createTextDisplayBackgroundDataValue(this.backgroundColor));
+      if (this.item != null)
+        values.add(PacketReflection.createItemDisplayItemDataValue(this.item));
+      if (this.block != null)
+        values.add(PacketReflection.createBlockDisplayStateDataValue(this.block));
+      return values;
     }
 
   }
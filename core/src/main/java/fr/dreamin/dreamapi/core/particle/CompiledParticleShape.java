@@ -0,0 +1,63 @@
+package fr.dreamin.dreamapi.core.particle;
+
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+
+/**
+ * CompiledParticleShape - Base of the built-in shapes: points are generated once, on first use,
+ * then every render and sample reads the same {@link ParticlePoints}.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+abstract class CompiledParticleShape implements ParticleShape {
+
+  private @Nullable ParticlePoints points;
+
+  // ###############################################################
+  // -------------------------- METHODS ----------------------------
+  // ###############################################################
+
+  @Override
+  public void render(final @NotNull Particle particle, final @NotNull Location base) {
+    points().spawn(particle, base, ParticleShape.ParticleOptions.defaultOptions());
+  }
+
+  @Override
+  public void render(final @NotNull Location base, final @Nullable ParticleShape.ParticleOptions options) {
+    points().spawn(Particle.DUST, base, options != null ? options : ParticleShape.ParticleOptions.defaultOptions());
+  }
+
+  @Override
+  public @NotNull List<Vector> sample() {
+    return points().toVectors();
+  }
+
+  @Override
+  public @NotNull ParticlePoints points() {
+    if (this.points == null) {
+      final var builder = ParticlePoints.builder(expectedSize());
+      compile(builder);
+      this.points = builder.build();
+    }
+    return this.points;
+  }
+
+  // ###############################################################
+  // ----------------------- PROTECTED METHODS ---------------------
+  // ###############################################################
+
+  /** Adds the shape's points, relative to its base. */
+  protected abstract void compile(final @NotNull ParticlePoints.Builder points);
+
+  /** Capacity hint for {@link #compile(ParticlePoints.Builder)}. */
+  protected int expectedSize() {
+    return 16;
+  }
+
+}
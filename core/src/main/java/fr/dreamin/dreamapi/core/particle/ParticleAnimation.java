@@ -8,7 +8,6 @@ import lombok.experimental.Accessors;
 import org.bukkit.Location;
 import org.bukkit.Particle;
 import org.bukkit.entity.Player;
-import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Collection;
@@ -36,6 +35,9 @@ public final class ParticleAnimation extends TickTask<ParticleAnimation> {
   private final InterpolationType interpolationType;
 
   private final ParticleShape.ParticleOptions options;
+  /** Shape points and dust data, resolved once rather than per tick and point; points only for compiled shapes. */
+  private final ParticlePoints points;
+  private final Particle.DustOptions dust;
 
   private List<Location> frames;
   private int index = 0;
@@ -52,6 +54,8 @@ public final class ParticleAnimation extends TickTask<ParticleAnimation> {
     this.progressiveDraw = builder.progressiveDraw;
     this.interpolationType = builder.interpolationType;
     this.options = builder.options;
+    this.points = this.progressiveDraw && this.shape instanceof CompiledParticleShape ? this.shape.points() : null;
+    this.dust = ParticlePoints.dustOf(this.particle, this.options);
 
     // L'interpolationType est appliqué au path uniquement si le path n'est pas ParticlePath.none()
     // Le path est déjà configuré avec son propre easing.
@@ -90,9 +94,8 @@ public final class ParticleAnimation extends TickTask<ParticleAnimation> {
       Location base = frames.get(index);
 
       if (progressiveDraw) {
-        List<Vector> shapePoints = shape.sample();
-        int pointsToDraw = shapePoints.size();
-
+        // Other shapes may change their sample between ticks, so they are sampled again.
+        final var points = this.points != null ? this.points : shape.points();
         int currentCycleIndex = index;
         if (reverse && loop && (current() / duration) % 2 != 0)
           currentCycleIndex = frames.size() - 1 - index;
@@ -101,46 +104,12 @@ public final class ParticleAnimation extends TickTask<ParticleAnimation> {
 
         if (progress > 1.0) progress = 1.0;
 
-        pointsToDraw = (int) Math.ceil((double) shapePoints.size() * progress);
+        int pointsToDraw = (int) Math.ceil((double) points.size() * progress);
 
         if (currentCycleIndex == frames.size() - 1)
-          pointsToDraw = shapePoints.size();
-
-        for (int i = 0; i < pointsToDraw; i++) {
-          Vector offset = shapePoints.get(i);
-          Location particleLocation = base.clone().add(offset);
-
-          if (particle == Particle.DUST && options.color() != null) {
-            Particle.DustOptions dustOptions = new Particle.DustOptions(
-              org.bukkit.Color.fromRGB(
-                options.color().getRed(),
-                options.color().getGreen(),
-                options.color().getBlue()
-              ),
-              options.size()
-            );
-            base.getWorld().spawnParticle(
-              particle,
-              particleLocation,
-              options.count(),
-              options.offset().getX(),
-              options.offset().getY(),
-              options.offset().getZ(),
-              0,
-              dustOptions
-            );
-          } else {
-            base.getWorld().spawnParticle(
-              particle,
-              particleLocation,
-              options.count(),
-              options.offset().getX(),
-              options.offset().getY(),
-              options.offset().getZ(),
-              0
-            );
-          }
-        }
+          pointsToDraw = points.size();
+
+        points.spawn(particle, base, options, dust, pointsToDraw);
 
       } else {
         if (particle == Particle.DUST && options.color() != null)
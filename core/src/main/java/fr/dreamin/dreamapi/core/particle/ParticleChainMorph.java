@@ -40,6 +40,8 @@ public final class ParticleChainMorph extends TickTask<ParticleChainMorph> {
   private Vector currentRotationAngle;
   private final InterpolationType interpolationType;
   private final ParticleShape.ParticleOptions options;
+  /** Resolved once rather than per tick and point. */
+  private final Particle.DustOptions dust;
   private final List<Integer> morphDurations;
 
 
@@ -60,6 +62,7 @@ public final class ParticleChainMorph extends TickTask<ParticleChainMorph> {
     this.progressiveDraw = builder.progressiveDraw;
     this.interpolationType = builder.interpolationType;
     this.options = builder.options;
+    this.dust = ParticlePoints.dustOf(this.particle, this.options);
     this.morphDurations = builder.morphDurations;
 
     this.turn = builder.turn;
@@ -224,40 +227,22 @@ public final class ParticleChainMorph extends TickTask<ParticleChainMorph> {
         }
       }
 
+      final var world = baseLocation.getWorld();
+      final var offset = options.offset();
       for (int i = 0; i < pointsToDraw; i++) {
-        Vector offset = currentFrame.get(i);
-        Location particleLocation = baseLocation.clone().add(offset);
-
-        if (particle == Particle.DUST && options.color() != null) {
-          Particle.DustOptions dustOptions = new Particle.DustOptions(
-            org.bukkit.Color.fromRGB(
-              options.color().getRed(),
-              options.color().getGreen(),
-              options.color().getBlue()
-            ),
-            options.size()
-          );
-          baseLocation.getWorld().spawnParticle(
-            particle,
-            particleLocation,
-            options.count(),
-            options.offset().getX(),
-            options.offset().getY(),
-            options.offset().getZ(),
-            0,
-            dustOptions
-          );
-        } else {
-          baseLocation.getWorld().spawnParticle(
-            particle,
-            particleLocation,
-            options.count(),
-            options.offset().getX(),
-            options.offset().getY(),
-            options.offset().getZ(),
-            0
-          );
-        }
+        final var point = currentFrame.get(i);
+        world.spawnParticle(
+          particle,
+          baseLocation.getX() + point.getX(),
+          baseLocation.getY() + point.getY(),
+          baseLocation.getZ() + point.getZ(),
+          options.count(),
+          offset.getX(),
+          offset.getY(),
+          offset.getZ(),
+          0,
+          dust
+        );
       }
 
       index++;
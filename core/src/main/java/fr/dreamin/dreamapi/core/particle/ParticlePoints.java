@@ -0,0 +1,176 @@
+package fr.dreamin.dreamapi.core.particle;
+
+import org.bukkit.Color;
+import org.bukkit.Location;
+import org.bukkit.Particle;
+import org.bukkit.util.Vector;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix3dc;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * ParticlePoints - Immutable points of a shape, relative to its base, in flat coordinate buffers.
+ * <p>
+ * Spawning walks the buffers and hands raw coordinates to the world: no {@link Location},
+ * {@link Vector} or particle data is allocated per point.
+ *
+ * @author Dreamin
+ * @since 0.5.0
+ */
+public final class ParticlePoints {
+
+  /** Data of DUST particles spawned without colour. */
+  private static final Particle.DustOptions DEFAULT_DUST = new Particle.DustOptions(Color.WHITE, 1.5f);
+
+  private final double[] xs;
+  private final double[] ys;
+  private final double[] zs;
+
+  private ParticlePoints(final double[] xs, final double[] ys, final double[] zs) {
+    this.xs = xs;
+    this.ys = ys;
+    this.zs = zs;
+  }
+
+  // ###############################################################
+  // ----------------------- PUBLIC METHODS ------------------------
+  // ###############################################################
+
+  public static @NotNull ParticlePoints of(final @NotNull List<Vector> points) {
+    final var builder = builder(points.size());
+    for (final var point : points)
+      builder.add(point.getX(), point.getY(), point.getZ());
+    return builder.build();
+  }
+
+  public static @NotNull Builder builder(final int expectedSize) {
+    return new Builder(expectedSize);
+  }
+
+  public int size() {
+    return this.xs.length;
+  }
+
+  public double x(final int index) {
+    return this.xs[index];
+  }
+
+  public double y(final int index) {
+    return this.ys[index];
+  }
+
+  public double z(final int index) {
+    return this.zs[index];
+  }
+
+  /**
+   * Applies a rotation and/or scale to every point.
+   *
+   * @return new points, these are left untouched
+   */
+  public @NotNull ParticlePoints transform(final @NotNull Matrix3dc matrix) {
+    final var size = size();
+    final var xs = new double[size];
+    final var ys = new double[size];
+    final var zs = new double[size];
+
+    for (var i = 0; i < size; i++) {
+      final var x = this.xs[i];
+      final var y = this.ys[i];
+      final var z = this.zs[i];
+      xs[i] = matrix.m00() * x + matrix.m10() * y + matrix.m20() * z;
+      ys[i] = matrix.m01() * x + matrix.m11() * y + matrix.m21() * z;
+      zs[i] = matrix.m02() * x + matrix.m12() * y + matrix.m22() * z;
+    }
+
+    return new ParticlePoints(xs, ys, zs);
+  }
+
+  /** @return a fresh list of fresh vectors, for callers needing {@link ParticleShape#sample()} */
+  public @NotNull List<Vector> toVectors() {
+    final List<Vector> vectors = new ArrayList<>(size());
+    for (var i = 0; i < size(); i++)
+      vectors.add(new Vector(this.xs[i], this.ys[i], this.zs[i]));
+    return vectors;
+  }
+
+  /** Spawns every point around a base. */
+  public void spawn(final @NotNull Particle particle, final @NotNull Location base, final @NotNull ParticleShape.ParticleOptions options) {
+    spawn(particle, base, options, dustOf(particle, options), size());
+  }
+
+  /**
+   * Spawns the first points around a base.
+   *
+   * @param dust data of DUST particles, see {@link #dustOf(Particle, ParticleShape.ParticleOptions)}
+   * @param count number of points to spawn, clamped to {@link #size()}
+   */
+  public void spawn(final @NotNull Particle particle, final @NotNull Location base, final @NotNull ParticleShape.ParticleOptions options, final @Nullable Particle.DustOptions dust, final int count) {
+    final var world = base.getWorld();
+    final var baseX = base.getX();
+    final var baseY = base.getY();
+    final var baseZ = base.getZ();
+    final var limit = Math.min(count, size());
+    final var data = dust == null && particle == Particle.DUST ? DEFAULT_DUST : dust;
+
+    final var offset = options.offset();
+    final var offsetX = offset.getX();
+    final var offsetY = offset.getY();
+    final var offsetZ = offset.getZ();
+
+    for (var i = 0; i < limit; i++)
+      world.spawnParticle(particle, baseX + this.xs[i], baseY + this.ys[i], baseZ + this.zs[i], options.count(), offsetX, offsetY, offsetZ, 0, data);
+  }
+
+  /**
+   * @return the data DUST particles need with these options, {@code null} for other particles or without colour
+   */
+  public static @Nullable Particle.DustOptions dustOf(final @NotNull Particle particle, final @NotNull ParticleShape.ParticleOptions options) {
+    if (particle != Particle.DUST || options.color() == null) return null;
+    return new Particle.DustOptions(options.color(), options.size());
+  }
+
+  // ###############################################################
+  // --------------------------- BUILDER ---------------------------
+  // ###############################################################
+
+  public static final class Builder {
+
+    private double[] xs;
+    private double[] ys;
+    private double[] zs;
+    private int size;
+
+    private Builder(final int expectedSize) {
+      final var capacity = Math.max(1, expectedSize);
+      this.xs = new double[capacity];
+      this.ys = new double[capacity];
+      this.zs = new double[capacity];
+    }
+
+    public @NotNull Builder add(final double x, final double y, final double z) {
+      if (this.size == this.xs.length) {
+        final var capacity = this.size << 1;
+        this.xs = Arrays.copyOf(this.xs, capacity);
+        this.ys = Arrays.copyOf(this.ys, capacity);
+        this.zs = Arrays.copyOf(this.zs, capacity);
+      }
+
+      this.xs[this.size] = x;
+      this.ys[this.size] = y;
+      this.zs[this.size] = z;
+      this.size++;
+      return this;
+    }
+
+    public @NotNull ParticlePoints build() {
+      return new ParticlePoints(Arrays.copyOf(this.xs, this.size), Arrays.copyOf(this.ys, this.size), Arrays.copyOf(this.zs, this.size));
+    }
+
+  }
+
+}
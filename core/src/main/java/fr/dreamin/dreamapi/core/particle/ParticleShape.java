@@ -7,6 +7,7 @@ import org.bukkit.entity.Player;
 import org.bukkit.util.Vector;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.joml.Matrix3dc;
 
 import java.util.List;
 
@@ -68,6 +69,29 @@ public interface ParticleShape {
     return List.of(new Vector(0, 0, 0));
   }
 
+  /**
+   * Returns the shape's points as flat coordinate buffers, for allocation-free rendering.
+   * <p>
+   * Built-in shapes compile them once and always return the same instance; by default they are
+   * compiled from {@link #sample()} on each call. {@link ParticleAnimation} keeps the points of
+   * built-in shapes for its whole run and compiles those of other shapes again every tick.
+   *
+   * @return The points relative to the origin (0, 0, 0).
+   */
+  default @NotNull ParticlePoints points() {
+    return ParticlePoints.of(sample());
+  }
+
+  /**
+   * Returns a shape made of this one's points rotated and/or scaled by a matrix.
+   *
+   * @param matrix The rotation/scale to apply, around the origin.
+   * @return A new shape, compiled once.
+   */
+  default @NotNull ParticleShape transformed(final @NotNull Matrix3dc matrix) {
+    return ParticleShapes.of(points().transform(matrix));
+  }
+
   /**
    * Configuration for custom particle rendering (color, size, offset, etc.)
    */
@@ -37,6 +37,8 @@ public final class ParticleShapeMorph extends TickTask<ParticleShapeMorph> {
   private final boolean progressiveDraw;
   private final InterpolationType interpolationType;
   private final ParticleShape.ParticleOptions options;
+  /** Resolved once rather than per tick and point. */
+  private final Particle.DustOptions dust;
 
   private List<List<Vector>> morphFrames;
   private List<Location> pathFrames;
@@ -55,6 +57,7 @@ public final class ParticleShapeMorph extends TickTask<ParticleShapeMorph> {
     this.progressiveDraw = builder.progressiveDraw;
     this.interpolationType = builder.interpolationType;
     this.options = builder.options;
+    this.dust = ParticlePoints.dustOf(this.particle, this.options);
     this.morphFrames = generateMorphFrames();
     // Le path est déjà configuré avec son propre easing.
     this.pathFrames = path.generateFrames(duration);
@@ -168,40 +171,22 @@ public final class ParticleShapeMorph extends TickTask<ParticleShapeMorph> {
 
       }
 
+      final var world = baseLocation.getWorld();
+      final var offset = options.offset();
       for (int i = 0; i < pointsToDraw; i++) {
-        Vector offset = currentFrame.get(i);
-        Location particleLocation = baseLocation.clone().add(offset);
-
-        if (particle == Particle.DUST && options.color() != null) {
-          Particle.DustOptions dustOptions = new Particle.DustOptions(
-            org.bukkit.Color.fromRGB(
-              options.color().getRed(),
-              options.color().getGreen(),
-              options.color().getBlue()
-            ),
-            options.size()
-          );
-          baseLocation.getWorld().spawnParticle(
-            particle,
-            particleLocation,
-            options.count(),
-            options.offset().getX(),
-            options.offset().getY(),
-            options.offset().getZ(),
-            0,
-            dustOptions
-          );
-        } else {
-          baseLocation.getWorld().spawnParticle(
-            particle,
-            particleLocation,
-            options.count(),
-            options.offset().getX(),
-            options.offset().getY(),
-            options.offset().getZ(),
-            0
-          );
-        }
+        final var point = currentFrame.get(i);
+        world.spawnParticle(
+          particle,
+          baseLocation.getX() + point.getX(),
+          baseLocation.getY() + point.getY(),
+          baseLocation.getZ() + point.getZ(),
+          options.count(),
+          offset.getX(),
+          offset.getY(),
+          offset.getZ(),
+          0,
+          dust
+        );
       }
 
       index++;
@@ -0,0 +1,130 @@
+package fr.dreamin.dreamapi.core.glowing.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlowAnimationEngineTest {
+
+  private static final int WHEEL_SIZE = GlowAnimationEngine.WHEEL_SIZE;
+
+  private final GlowAnimationEngine engine = new GlowAnimationEngine(false);
+  private final List<String> fired = new ArrayList<>();
+  private long tick;
+
+  @Test
+  void shouldExpireOnDeadlineTick() {
+    this.engine.expireAfter("a", 3, record("a"));
+
+    advanceTo(2);
+    assertEquals(List.of(), this.fired);
+    advanceTo(3);
+    assertEquals(List.of("a@3"), this.fired);
+  }
+
+  @Test
+  void shouldWaitFullRoundsBeforeExpiring() {
+    // Same slot as a 5-tick delay, but one round later
+    this.engine.expireAfter("far", WHEEL_SIZE + 5L, record("far"));
+    this.engine.expireAfter("near", 5, record("near"));
+
+    advanceTo(5);
+    assertEquals(List.of("near@5"), this.fired);
+    advanceTo(WHEEL_SIZE + 4L);
+    assertEquals(List.of("near@5"), this.fired);
+    advanceTo(WHEEL_SIZE + 5L);
+    assertEquals(List.of("near@5", "far@" + (WHEEL_SIZE + 5)), this.fired);
+  }
+
+  @Test
+  void shouldExpireAcrossSeveralWraps() {
+    // Keeps the engine ticking, it stops when nothing is scheduled
+    this.engine.expireAfter("keep", 10L * WHEEL_SIZE, () -> {});
+    advanceTo(WHEEL_SIZE - 2L);
+    this.engine.expireAfter("wrap", 3L * WHEEL_SIZE + 4, record("wrap"));
+
+    advanceTo(4L * WHEEL_SIZE + 1);
+    assertEquals(List.of(), this.fired);
+    advanceTo(4L * WHEEL_SIZE + 2);
+    assertEquals(List.of("wrap@" + (4L * WHEEL_SIZE + 2)), this.fired);
+  }
+
+  @Test
+  void shouldOnlyRunLatestExpiryOfAKey() {
+    this.engine.expireAfter("a", 2, record("first"));
+    this.engine.expireAfter("a", 4, record("second"));
+
+    advanceTo(4);
+    assertEquals(List.of("second@4"), this.fired);
+    assertEquals(0, this.engine.getScheduledCount());
+  }
+
+  @Test
+  void shouldSkipCancelledExpiriesAndStop() {
+    this.engine.expireAfter("a", 2, record("a"));
+    this.engine.cancelExpiry("a");
+    assertTrue(this.engine.isRunning());
+
+    advanceTo(2);
+    assertEquals(List.of(), this.fired);
+    assertFalse(this.engine.isRunning());
+  }
+
+  @Test
+  void shouldRunExpiriesScheduledByAnActionOnALaterRound() {
+    // Lands in the slot being processed, it must wait for the next round
+    this.engine.expireAfter("a", 1, () -> {
+      record("a").run();
+      this.engine.expireAfter("b", WHEEL_SIZE, record("b"));
+    });
+
+    advanceTo(1);
+    assertEquals(List.of("a@1"), this.fired);
+    advanceTo(WHEEL_SIZE);
+    assertEquals(List.of("a@1"), this.fired);
+    advanceTo(WHEEL_SIZE + 1L);
+    assertEquals(List.of("a@1", "b@" + (WHEEL_SIZE + 1)), this.fired);
+  }
+
+  @Test
+  void shouldExpireZeroDelaysOnNextTick() {
+    this.engine.expireAfter("a", 0, record("a"));
+
+    advanceTo(1);
+    assertEquals(List.of("a@1"), this.fired);
+  }
+
+  @Test
+  void shouldRestartAfterIdling() {
+    this.engine.expireAfter("a", 1, record("a"));
+    advanceTo(1);
+    assertFalse(this.engine.isRunning());
+
+    this.engine.expireAfter("b", 2, record("b"));
+    assertTrue(this.engine.isRunning());
+    advanceTo(3);
+    assertEquals(List.of("a@1", "b@3"), this.fired);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  /** Ticks the engine like its task would, i.e. only while it is running. */
+  private void advanceTo(final long target) {
+    while (this.tick < target) {
+      this.tick++;
+      if (this.engine.isRunning()) this.engine.tick();
+    }
+  }
+
+  private Runnable record(final String name) {
+    return () -> this.fired.add(name + "@" + this.tick);
+  }
+
+}
@@ -0,0 +1,122 @@
+package fr.dreamin.dreamapi.core.hologram.service;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import fr.dreamin.dreamapi.api.config.Configurations;
+import fr.dreamin.dreamapi.api.hologram.model.DreamHologram;
+import fr.dreamin.dreamapi.api.hologram.model.Hologram;
+import fr.dreamin.dreamapi.api.hologram.model.config.HologramConfig;
+import fr.dreamin.dreamapi.api.hologram.model.line.HologramLine;
+import fr.dreamin.dreamapi.api.hologram.model.line.impl.TextHologramLine;
+import fr.dreamin.dreamapi.api.hologram.service.HologramStorageFormat;
+import fr.dreamin.dreamapi.core.hologram.jackson.HologramJacksonModule;
+import org.bukkit.plugin.Plugin;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Times {@link HologramStore#readAll(File[])}, the startup load, over 10k holograms saved as
+ * JSON and as Smile. The files are written up front with the mappers the store uses.
+ * <p>
+ * A plain timing loop: the printed times only compare the two formats on the same JVM and
+ * disk. Run with {@code ./gradlew :core:benchmark}; excluded from {@code test}.
+ */
+@Tag("benchmark")
+class HologramStoreBenchmark {
+
+  private static final int HOLOGRAMS = 10_000;
+  private static final int LINES = 3;
+  private static final int WARMUP_RUNS = 3;
+  private static final int MEASURED_RUNS = 5;
+
+  @TempDir
+  Path folder;
+
+  @Test
+  void compareJsonAndSmileLoads() throws IOException {
+    Configurations.addModule(new HologramJacksonModule());
+    final var store = new HologramStore(plugin(), this.folder.toFile());
+
+    final var json = write(this.folder.resolve("json"), HologramStorageFormat.JSON,
+      Configurations.MAPPER.writerWithDefaultPrettyPrinter()::writeValueAsBytes);
+    final var smileMapper = Configurations.MAPPER.copyWith(new SmileFactory());
+    final var smile = write(this.folder.resolve("smile"), HologramStorageFormat.SMILE, smileMapper::writeValueAsBytes);
+
+    assertEquals(HOLOGRAMS, store.readAll(json).size());
+    assertEquals(HOLOGRAMS, store.readAll(smile).size());
+
+    for (var i = 0; i < WARMUP_RUNS; i++) {
+      store.readAll(json);
+      store.readAll(smile);
+    }
+
+    final var jsonNanos = time(() -> store.readAll(json));
+    final var smileNanos = time(() -> store.readAll(smile));
+
+    System.out.printf("Loading %d holograms: JSON %.1f ms (%d KiB), Smile %.1f ms (%d KiB) (x%.2f)%n",
+      HOLOGRAMS, jsonNanos / 1.0e6, size(json) / 1024, smileNanos / 1.0e6, size(smile) / 1024, jsonNanos / smileNanos);
+  }
+
+  // ###############################################################
+  // ----------------------- PRIVATE METHODS -----------------------
+  // ###############################################################
+
+  private static File[] write(final Path directory, final HologramStorageFormat format, final Serializer serializer) throws IOException {
+    Files.createDirectories(directory);
+
+    final var files = new File[HOLOGRAMS];
+    for (var i = 0; i < HOLOGRAMS; i++) {
+      final var id = "hologram-" + i;
+      final List<HologramLine> lines = new ArrayList<>(LINES);
+      for (var l = 0; l < LINES; l++)
+        lines.add(new TextHologramLine("line-" + l, null, null, "<gold>" + id + "</gold> <gray>line " + l));
+
+      final Hologram hologram = new DreamHologram(id, HologramConfig.builder().build(), null, lines);
+      files[i] = directory.resolve(id + format.getExtension()).toFile();
+      Files.write(files[i].toPath(), serializer.serialize(hologram));
+    }
+    return files;
+  }
+
+  private static double time(final Runnable load) {
+    final var start = System.nanoTime();
+    for (var i = 0; i < MEASURED_RUNS; i++)
+      load.run();
+    return (System.nanoTime() - start) / (double) MEASURED_RUNS;
+  }
+
+  private static long size(final File[] files) {
+    var size = 0L;
+    for (final var file : files)
+      size += file.length();
+    return size;
+  }
+
+  /** Only {@link Plugin#getLogger()} is used by the store while reading. */
+  private static Plugin plugin() {
+    final var logger = Logger.getLogger(HologramStoreBenchmark.class.getName());
+    return (Plugin) Proxy.newProxyInstance(Plugin.class.getClassLoader(), new Class<?>[]{Plugin.class},
+      (proxy, method, args) -> method.getName().equals("getLogger") ? logger : null);
+  }
+
+  // ###############################################################
+  // -------------------------- CLASSES ----------------------------
+  // ###############################################################
+
+  @FunctionalInterface
+  private interface Serializer {
+    byte[] serialize(Object value) throws IOException;
+  }
+
+}